@@ -0,0 +1,56 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, so that runs can be compared between commits.
+ * Build the runnable jar with
+ * <code>mvn -Pbenchmarks -pl mybatis-generator-benchmarks -am -DskipTests package</code> in the core
+ * directory, then run
+ * <code>java -jar mybatis-generator-benchmarks/target/benchmarks.jar</code>.
+ *
+ * <p>Any JMH command line option may be given. Unless overridden, every benchmark in this package is run
+ * and the results are written to <code>mybatis-generator-benchmarks.json</code>. For example, to run the
+ * merge benchmark with 100 tables only: <code>java -jar benchmarks.jar MergeBenchmark -p tables=100</code>
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*"); //$NON-NLS-1$
+        }
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            builder.result("mybatis-generator-benchmarks.json"); //$NON-NLS-1$
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the type handling done by the code generators: types are created from the specifications that the
+ * generators use most often, and their names are requested the way the DOM and the import calculation request them.
+ * Run with "-prof gc" to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FullyQualifiedJavaTypeBenchmark {
+
+    private static final String[] SPECIFICATIONS = {
+        "java.lang.String", //$NON-NLS-1$
+        "java.lang.Integer", //$NON-NLS-1$
+        "java.util.Date", //$NON-NLS-1$
+        "java.math.BigDecimal", //$NON-NLS-1$
+        "int", //$NON-NLS-1$
+        "byte[]", //$NON-NLS-1$
+        "org.apache.ibatis.annotations.Param", //$NON-NLS-1$
+        "com.example.model.Table0001", //$NON-NLS-1$
+        "com.example.model.Table0001Example.Criteria", //$NON-NLS-1$
+        "java.util.List<com.example.model.Table0001>" //$NON-NLS-1$
+    };
+
+    private FullyQualifiedJavaType[] types;
+
+    @Setup
+    public void setUp() {
+        types = new FullyQualifiedJavaType[SPECIFICATIONS.length];
+        for (int i = 0; i < SPECIFICATIONS.length; i++) {
+            types[i] = new FullyQualifiedJavaType(SPECIFICATIONS[i]);
+        }
+    }
+
+    @Benchmark
+    public void create(Blackhole blackhole) {
+        for (String specification : SPECIFICATIONS) {
+            blackhole.consume(new FullyQualifiedJavaType(specification));
+        }
+    }
+
+    @Benchmark
+    public void names(Blackhole blackhole) {
+        for (FullyQualifiedJavaType type : types) {
+            blackhole.consume(type.getShortName());
+            blackhole.consume(type.getFullyQualifiedName());
+            blackhole.consume(type.getImportList());
+            blackhole.consume(type.hashCode());
+        }
+    }
+}
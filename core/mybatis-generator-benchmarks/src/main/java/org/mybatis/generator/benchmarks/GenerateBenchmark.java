@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete run of the generator: introspection, generation, rendering, merging and writing.
+ * The in memory variant stops before anything is written so that disk speed does not hide the rest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenerateBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int tables;
+
+    @Param({ "MyBatis3", "MyBatis3Simple", "MyBatis3DynamicSql", "Ibatis2Java5" })
+    public String targetRuntime;
+
+    private Configuration configuration;
+
+    private File targetDirectory;
+
+    @Setup
+    public void setUp() throws Exception {
+        String connectionURL = SyntheticSchema.createDatabase(tables);
+        targetDirectory = SyntheticSchema.createTempDirectory();
+        configuration = SyntheticSchema.createConfiguration(connectionURL, tables,
+                targetRuntime, targetDirectory.getAbsolutePath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        SyntheticSchema.delete(targetDirectory);
+    }
+
+    @Benchmark
+    public MyBatisGenerator generateInMemory() throws Exception {
+        return generate(false);
+    }
+
+    @Benchmark
+    public MyBatisGenerator generateAndWrite() throws Exception {
+        return generate(true);
+    }
+
+    private MyBatisGenerator generate(boolean writeFiles) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(configuration,
+                new DefaultShellCallback(true), warnings);
+        myBatisGenerator.generate(null, null, null, writeFiles);
+        return myBatisGenerator;
+    }
+}
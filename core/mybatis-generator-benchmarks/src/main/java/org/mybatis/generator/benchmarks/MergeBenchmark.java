@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures merging alone: the mapper XML files are generated and written once, then every file is merged
+ * with its existing copy repeatedly. The dynamic SQL runtime is not included because it generates no XML.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MergeBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int tables;
+
+    @Param({ "MyBatis3", "MyBatis3Simple", "Ibatis2Java5" })
+    public String targetRuntime;
+
+    private List<String> contents;
+
+    private List<File> existingFiles;
+
+    private File targetDirectory;
+
+    @Setup
+    public void setUp() throws Exception {
+        String connectionURL = SyntheticSchema.createDatabase(tables);
+        targetDirectory = SyntheticSchema.createTempDirectory();
+        DefaultShellCallback callback = new DefaultShellCallback(true);
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(
+                SyntheticSchema.createConfiguration(connectionURL, tables, targetRuntime,
+                        targetDirectory.getAbsolutePath()),
+                callback, new ArrayList<String>());
+        myBatisGenerator.generate(null, null, null, true);
+
+        contents = new ArrayList<String>();
+        existingFiles = new ArrayList<File>();
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            File directory = callback.getDirectory(gxf.getTargetProject(), gxf.getTargetPackage());
+            contents.add(gxf.getFormattedContent());
+            existingFiles.add(new File(directory, gxf.getFileName()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SyntheticSchema.delete(targetDirectory);
+    }
+
+    @Benchmark
+    public void merge(Blackhole blackhole) throws ShellException {
+        for (int i = 0; i < contents.size(); i++) {
+            blackhole.consume(XmlFileMergerJaxp.getMergedSource(contents.get(i),
+                    existingFiles.get(i)));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.exception.XMLParserException;
+
+/**
+ * Builds the synthetic schemas used by the benchmarks. Each schema lives in its own in-memory HSQLDB
+ * database and contains the requested number of identical tables, so that the cost of generation grows
+ * only with the number of tables.
+ */
+public class SyntheticSchema {
+
+    public static final String DRIVER_CLASS = "org.hsqldb.jdbc.JDBCDriver"; //$NON-NLS-1$
+
+    private static final Set<String> createdDatabases = new HashSet<String>();
+
+    private SyntheticSchema() {
+    }
+
+    /**
+     * Creates the database for a table count, unless it was already created by this JVM.
+     *
+     * @param tableCount
+     *            the number of tables
+     * @return the JDBC URL of the database
+     * @throws ClassNotFoundException
+     *             if the HSQLDB driver is not on the classpath
+     * @throws SQLException
+     *             if the database cannot be created
+     */
+    public static synchronized String createDatabase(int tableCount)
+            throws ClassNotFoundException, SQLException {
+        String connectionURL = "jdbc:hsqldb:mem:benchmark" + tableCount; //$NON-NLS-1$
+        if (createdDatabases.contains(connectionURL)) {
+            return connectionURL;
+        }
+
+        Class.forName(DRIVER_CLASS);
+        Connection connection = DriverManager.getConnection(connectionURL, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                for (int i = 0; i < tableCount; i++) {
+                    statement.execute(getTableDefinition(getTableName(i)));
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+
+        createdDatabases.add(connectionURL);
+        return connectionURL;
+    }
+
+    public static String getTableName(int index) {
+        return String.format("TABLE_%04d", index); //$NON-NLS-1$
+    }
+
+    private static String getTableDefinition(String tableName) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create table "); //$NON-NLS-1$
+        sb.append(tableName);
+        sb.append(" (ID integer not null,"); //$NON-NLS-1$
+        sb.append(" NAME varchar(50) not null,"); //$NON-NLS-1$
+        sb.append(" DESCRIPTION varchar(500),"); //$NON-NLS-1$
+        sb.append(" AMOUNT decimal(12, 2),"); //$NON-NLS-1$
+        sb.append(" QUANTITY bigint,"); //$NON-NLS-1$
+        sb.append(" CREATED_AT timestamp,"); //$NON-NLS-1$
+        sb.append(" ACTIVE boolean,"); //$NON-NLS-1$
+        sb.append(" NOTES clob,"); //$NON-NLS-1$
+        sb.append(" primary key (ID))"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    /**
+     * Creates a configuration with a single context that generates every table of a synthetic schema.
+     * XML files are mergeable, so that a repeated run merges them like a regular regeneration does.
+     *
+     * @param connectionURL
+     *            the URL returned from createDatabase
+     * @param tableCount
+     *            the number of tables
+     * @param targetRuntime
+     *            the target runtime of the context
+     * @param targetProject
+     *            the directory the generated files are written to
+     * @return the configuration
+     * @throws IOException
+     *             if the configuration cannot be read
+     * @throws XMLParserException
+     *             if the configuration is invalid
+     */
+    public static Configuration createConfiguration(String connectionURL, int tableCount,
+            String targetRuntime, String targetProject) throws IOException, XMLParserException {
+        boolean dynamicSql = "MyBatis3DynamicSql".equals(targetRuntime); //$NON-NLS-1$
+        boolean ibatis2 = targetRuntime.startsWith("Ibatis2"); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+        sb.append("<!DOCTYPE generatorConfiguration PUBLIC"); //$NON-NLS-1$
+        sb.append(" \"-//mybatis.org//DTD MyBatis Generator Configuration 1.0//EN\""); //$NON-NLS-1$
+        sb.append(" \"http://mybatis.org/dtd/mybatis-generator-config_1_0.dtd\">\n"); //$NON-NLS-1$
+        sb.append("<generatorConfiguration>\n"); //$NON-NLS-1$
+        sb.append("<context id=\"benchmark\" defaultModelType=\"conditional\" targetRuntime=\""); //$NON-NLS-1$
+        sb.append(targetRuntime);
+        sb.append("\">\n"); //$NON-NLS-1$
+        sb.append("<property name=\"mergeable\" value=\"true\"/>\n"); //$NON-NLS-1$
+        sb.append("<commentGenerator><property name=\"suppressDate\" value=\"true\"/></commentGenerator>\n"); //$NON-NLS-1$
+        sb.append("<jdbcConnection driverClass=\""); //$NON-NLS-1$
+        sb.append(DRIVER_CLASS);
+        sb.append("\" connectionURL=\""); //$NON-NLS-1$
+        sb.append(connectionURL);
+        sb.append("\" userId=\"sa\"/>\n"); //$NON-NLS-1$
+        appendGenerator(sb, "javaModelGenerator", null, "benchmark.model", targetProject); //$NON-NLS-1$ //$NON-NLS-2$
+        if (!dynamicSql) {
+            appendGenerator(sb, "sqlMapGenerator", null, "benchmark.mapper", targetProject); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (dynamicSql) {
+            appendGenerator(sb, "javaClientGenerator", "ANNOTATEDMAPPER", //$NON-NLS-1$ //$NON-NLS-2$
+                    "benchmark.mapper", targetProject); //$NON-NLS-1$
+        } else if (!ibatis2) {
+            appendGenerator(sb, "javaClientGenerator", "XMLMAPPER", //$NON-NLS-1$ //$NON-NLS-2$
+                    "benchmark.mapper", targetProject); //$NON-NLS-1$
+        }
+        for (int i = 0; i < tableCount; i++) {
+            sb.append("<table tableName=\""); //$NON-NLS-1$
+            sb.append(getTableName(i));
+            sb.append("\"/>\n"); //$NON-NLS-1$
+        }
+        sb.append("</context>\n"); //$NON-NLS-1$
+        sb.append("</generatorConfiguration>\n"); //$NON-NLS-1$
+
+        List<String> warnings = new ArrayList<String>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        return cp.parseConfiguration(new StringReader(sb.toString()));
+    }
+
+    private static void appendGenerator(StringBuilder sb, String elementName, String type,
+            String targetPackage, String targetProject) {
+        sb.append('<');
+        sb.append(elementName);
+        if (type != null) {
+            sb.append(" type=\""); //$NON-NLS-1$
+            sb.append(type);
+            sb.append('"');
+        }
+        sb.append(" targetPackage=\""); //$NON-NLS-1$
+        sb.append(targetPackage);
+        sb.append("\" targetProject=\""); //$NON-NLS-1$
+        sb.append(targetProject);
+        sb.append("\"/>\n"); //$NON-NLS-1$
+    }
+
+    public static File createTempDirectory() throws IOException {
+        File directory = File.createTempFile("mbg-benchmark", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Cannot create " + directory); //$NON-NLS-1$
+        }
+        return directory;
+    }
+
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.ReusableConnectionFactory;
+
+/**
+ * Keeps parsed configurations for the generator daemon. A configuration is parsed again when its file, or a
+ * properties file it reads, changes. The contexts of a cached configuration keep their database connections open
+ * between runs.
+ */
+class ConfigurationCache {
+
+    private ConcurrentMap<File, CachedConfiguration> configurations =
+            new ConcurrentHashMap<File, CachedConfiguration>();
+
+    /**
+     * Returns the configuration in a file, parsing it only if the file, or a properties file it reads, has changed
+     * since it was last parsed.
+     *
+     * @param configurationFile
+     *            the configuration file
+     * @param warnings
+     *            receives the warnings of the parser, even if the configuration was cached
+     * @return the configuration
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws XMLParserException
+     *             if the file is not a valid configuration
+     */
+    Configuration getConfiguration(File configurationFile, List<String> warnings)
+            throws IOException, XMLParserException {
+        File file = configurationFile.getCanonicalFile();
+
+        CachedConfiguration cachedConfiguration = configurations.get(file);
+        if (cachedConfiguration == null || !cachedConfiguration.isCurrent()) {
+            List<String> parserWarnings = new ArrayList<String>();
+            Configuration configuration = new ConfigurationParser(parserWarnings).parseConfiguration(file);
+            List<ReusableConnectionFactory> connectionFactories = new ArrayList<ReusableConnectionFactory>();
+            for (Context context : configuration.getContexts()) {
+                ReusableConnectionFactory connectionFactory =
+                        new ReusableConnectionFactory(context.getConnectionFactory());
+                context.setConnectionFactory(connectionFactory);
+                connectionFactories.add(connectionFactory);
+            }
+
+            List<File> inputFiles = new ArrayList<File>();
+            inputFiles.add(file);
+            for (URL url : configuration.getPropertiesUrls()) {
+                File inputFile = getFile(url);
+                if (inputFile == null) {
+                    // a properties file that is not a local file cannot be checked, so it is always read again
+                    inputFiles = null;
+                    break;
+                }
+                inputFiles.add(inputFile);
+            }
+
+            cachedConfiguration = new CachedConfiguration(configuration, inputFiles,
+                    parserWarnings, connectionFactories);
+            CachedConfiguration previous = configurations.put(file, cachedConfiguration);
+            if (previous != null) {
+                // jobs that still use the previous configuration close their connections when they finish
+                previous.close();
+            }
+        }
+
+        warnings.addAll(cachedConfiguration.warnings);
+        return cachedConfiguration.configuration;
+    }
+
+    /**
+     * Closes the idle connections of every cached configuration.
+     */
+    void close() {
+        for (CachedConfiguration cachedConfiguration : configurations.values()) {
+            cachedConfiguration.close();
+        }
+        configurations.clear();
+    }
+
+    /**
+     * Returns the local file a URL refers to - either the file itself or the JAR that contains it.
+     *
+     * @return the file, or null if the URL does not refer to a local file
+     */
+    private static File getFile(URL url) {
+        try {
+            URL fileUrl = url;
+            if ("jar".equals(url.getProtocol())) { //$NON-NLS-1$
+                String path = url.getPath();
+                int index = path.indexOf("!/"); //$NON-NLS-1$
+                if (index == -1) {
+                    return null;
+                }
+                fileUrl = new URL(path.substring(0, index));
+            }
+
+            if ("file".equals(fileUrl.getProtocol())) { //$NON-NLS-1$
+                return new File(fileUrl.toURI());
+            }
+        } catch (Exception e) {
+            // fall through
+        }
+
+        return null;
+    }
+
+    private static class CachedConfiguration {
+        private Configuration configuration;
+        /** The configuration file and the properties files, or null if they cannot all be checked. */
+        private List<File> inputFiles;
+        private List<Long> timestamps;
+        private List<String> warnings;
+        private List<ReusableConnectionFactory> connectionFactories;
+
+        CachedConfiguration(Configuration configuration, List<File> inputFiles, List<String> warnings,
+                List<ReusableConnectionFactory> connectionFactories) {
+            this.configuration = configuration;
+            this.inputFiles = inputFiles;
+            this.warnings = warnings;
+            this.connectionFactories = connectionFactories;
+            if (inputFiles != null) {
+                timestamps = getTimestamps(inputFiles);
+            }
+        }
+
+        boolean isCurrent() {
+            return inputFiles != null && timestamps.equals(getTimestamps(inputFiles));
+        }
+
+        private static List<Long> getTimestamps(List<File> files) {
+            List<Long> answer = new ArrayList<Long>();
+            for (File file : files) {
+                answer.add(file.lastModified());
+            }
+            return answer;
+        }
+
+        void close() {
+            for (ReusableConnectionFactory connectionFactory : connectionFactories) {
+                connectionFactory.close();
+            }
+        }
+    }
+}
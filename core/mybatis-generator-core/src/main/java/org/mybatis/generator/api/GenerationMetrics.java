@@ -0,0 +1,510 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mybatis.generator.internal.GeneratorSession;
+
+/**
+ * Records the wall time and the allocated bytes of each phase of a generation run. Set an instance on a
+ * MyBatisGenerator to enable the measurements, and read the results with getMeasurements or writeJson after the run.
+ *
+ * <p>Measurements are grouped by phase, and by a name within the phase - for example, the table name for the
+ * "introspection.table" phase, or the generator class for the "generation.generator" phase. The time of a nested
+ * phase is included in the phases that contain it, so the time of a plugin callback is also part of the time of the
+ * generator that called it.
+ *
+ * <p>Allocated bytes are measured per thread: a measurement counts only the bytes allocated by the thread that
+ * started it. When tables are introspected or generated on worker threads, the allocations of the
+ * "introspection.table" and "generation.table" measurements are therefore not part of the enclosing
+ * "introspection" and "generation" measurements. In the same way, the "save" measurement does not include the
+ * "save.format", "save.merge" and "save.write" measurements of files that are written on worker threads. Add up the
+ * nested measurements to get the allocations of the whole phase. Allocated bytes are only measured if the JVM
+ * supports it (HotSpot does), and are reported as -1 otherwise. The JVM measures allocations only while a run with
+ * metrics is active; the previous setting is restored when the last such run ends.
+ *
+ * <p>This class is thread safe. Measurements taken on the worker threads of a run are recorded in the same
+ * instance.
+ */
+public class GenerationMetrics {
+
+    /** Introspection of a context. The name is the context id. */
+    public static final String INTROSPECTION = "introspection"; //$NON-NLS-1$
+
+    /** Introspection of a table configuration. The name is the table name. */
+    public static final String INTROSPECTION_TABLE = "introspection.table"; //$NON-NLS-1$
+
+    /** A call to the JDBC DatabaseMetaData. The name is the method name. */
+    public static final String INTROSPECTION_METADATA = "introspection.metadata"; //$NON-NLS-1$
+
+    /** Generation of a context. The name is the context id. */
+    public static final String GENERATION = "generation"; //$NON-NLS-1$
+
+    /** Generation of an introspected table. The name is the table name. */
+    public static final String GENERATION_TABLE = "generation.table"; //$NON-NLS-1$
+
+    /** A Java or XML generator. The name is the generator class. */
+    public static final String GENERATION_GENERATOR = "generation.generator"; //$NON-NLS-1$
+
+    /** A plugin callback. The name is the plugin class and the method name. */
+    public static final String PLUGIN = "plugin"; //$NON-NLS-1$
+
+    /** Saving all files. */
+    public static final String SAVE = "save"; //$NON-NLS-1$
+
+    /** Formatting a generated file. The name is the file name. */
+    public static final String SAVE_FORMAT = "save.format"; //$NON-NLS-1$
+
+    /** Merging a generated file with the existing file. The name is the file name. */
+    public static final String SAVE_MERGE = "save.merge"; //$NON-NLS-1$
+
+    /** Comparing and writing a file. The name is the file name. */
+    public static final String SAVE_WRITE = "save.write"; //$NON-NLS-1$
+
+    private static final Object threadMXBean;
+
+    private static final Method getThreadAllocatedBytes;
+
+    private static final Method isThreadAllocatedMemoryEnabled;
+
+    private static final Method setThreadAllocatedMemoryEnabled;
+
+    /** The number of active runs that record metrics. */
+    private static int activeRuns;
+
+    /** Whether allocations were measured before the first active run enabled them. */
+    private static boolean allocatedMemoryWasEnabled;
+
+    static {
+        Object bean = null;
+        Method getMethod = null;
+        Method isEnabledMethod = null;
+        Method setEnabledMethod = null;
+        try {
+            // not part of the standard API, so it is looked up reflectively
+            Class<?> type = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+            bean = ManagementFactory.getThreadMXBean();
+            if (type.isInstance(bean)
+                    && Boolean.TRUE.equals(type.getMethod("isThreadAllocatedMemorySupported").invoke(bean))) { //$NON-NLS-1$
+                getMethod = type.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+                isEnabledMethod = type.getMethod("isThreadAllocatedMemoryEnabled"); //$NON-NLS-1$
+                setEnabledMethod = type.getMethod("setThreadAllocatedMemoryEnabled", boolean.class); //$NON-NLS-1$
+            }
+        } catch (Exception e) {
+            getMethod = null;
+        }
+        threadMXBean = bean;
+        getThreadAllocatedBytes = getMethod;
+        isThreadAllocatedMemoryEnabled = getMethod == null ? null : isEnabledMethod;
+        setThreadAllocatedMemoryEnabled = getMethod == null ? null : setEnabledMethod;
+    }
+
+    private ConcurrentMap<String, Measurement> measurements = new ConcurrentHashMap<String, Measurement>();
+
+    /**
+     * Starts a measurement in the metrics of the current generation run.
+     *
+     * @param phase
+     *            the phase
+     * @param name
+     *            the name within the phase
+     * @return the timer to stop, or null if the current run does not record metrics
+     */
+    public static Timer start(String phase, String name) {
+        GenerationMetrics metrics = GeneratorSession.getCurrent().getMetrics();
+        return metrics == null ? null : metrics.startTimer(phase, name);
+    }
+
+    /**
+     * Stops a timer returned from start.
+     *
+     * @param timer
+     *            the timer, may be null
+     */
+    public static void stop(Timer timer) {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Wraps an object so that every call through an interface is measured in the metrics of the current generation
+     * run. If the current run does not record metrics, the object is returned unchanged. A result set returned from
+     * a call is wrapped too, and the time spent in its next and close methods is added to the measurement of the
+     * call. The column getters are not measured.
+     *
+     * @param <T>
+     *            the interface type
+     * @param type
+     *            the interface
+     * @param target
+     *            the object to wrap, may be null
+     * @param phase
+     *            the phase of the calls
+     * @param namePrefix
+     *            prepended to the method name to form the name of a measurement
+     * @return the wrapped object
+     */
+    public static <T> T measureCalls(Class<T> type, final T target, final String phase,
+            final String namePrefix) {
+        final GenerationMetrics metrics = GeneratorSession.getCurrent().getMetrics();
+        if (metrics == null || target == null) {
+            return target;
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = namePrefix + method.getName();
+                        Timer timer = metrics.startTimer(phase, name);
+                        try {
+                            Object result = method.invoke(target, args);
+                            if (result != null && method.getReturnType() == ResultSet.class) {
+                                result = metrics.measureResultSet((ResultSet) result, phase, name);
+                            }
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            timer.stop();
+                        }
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Wraps a result set so that the time of moving to the next row and of closing it is added to a measurement
+     * without counting the calls. The driver fetches rows in these methods, while the column getters only read the
+     * current row, so they are not worth two clock and allocation reads per column.
+     */
+    private ResultSet measureResultSet(final ResultSet resultSet, final String phase, final String name) {
+        Object proxy = Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String methodName = method.getName();
+                        Timer timer = "next".equals(methodName) || "close".equals(methodName) //$NON-NLS-1$ //$NON-NLS-2$
+                                ? new Timer(GenerationMetrics.this, phase, name, false) : null;
+                        try {
+                            return method.invoke(resultSet, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            stop(timer);
+                        }
+                    }
+                });
+        return (ResultSet) proxy;
+    }
+
+    /**
+     * Starts a measurement. The timer must be stopped on the same thread.
+     *
+     * @param phase
+     *            the phase
+     * @param name
+     *            the name within the phase
+     * @return the timer
+     */
+    public Timer startTimer(String phase, String name) {
+        return new Timer(this, phase, name, true);
+    }
+
+    /**
+     * Called when a generation run that records these metrics starts. Enables the measurement of allocated bytes
+     * in the JVM if it is not enabled.
+     */
+    void runStarted() {
+        synchronized (GenerationMetrics.class) {
+            if (activeRuns++ == 0 && setThreadAllocatedMemoryEnabled != null) {
+                try {
+                    allocatedMemoryWasEnabled =
+                            Boolean.TRUE.equals(isThreadAllocatedMemoryEnabled.invoke(threadMXBean));
+                    if (!allocatedMemoryWasEnabled) {
+                        setThreadAllocatedMemoryEnabled.invoke(threadMXBean, true);
+                    }
+                } catch (Exception e) {
+                    // allocated bytes are reported as -1
+                }
+            }
+        }
+    }
+
+    /**
+     * Called when a generation run that records these metrics ends. When no other run records metrics, the
+     * measurement of allocated bytes is set back to its setting before the first run.
+     */
+    void runFinished() {
+        synchronized (GenerationMetrics.class) {
+            if (--activeRuns == 0 && setThreadAllocatedMemoryEnabled != null && !allocatedMemoryWasEnabled) {
+                try {
+                    setThreadAllocatedMemoryEnabled.invoke(threadMXBean, false);
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private void record(String phase, String name, boolean counted, long nanos, long allocatedBytes) {
+        String key = phase + '\u0000' + name;
+        Measurement measurement = measurements.get(key);
+        if (measurement == null) {
+            measurement = new Measurement(phase, name);
+            Measurement existing = measurements.putIfAbsent(key, measurement);
+            if (existing != null) {
+                measurement = existing;
+            }
+        }
+        measurement.add(counted, nanos, allocatedBytes);
+    }
+
+    /**
+     * Returns a snapshot of the measurements, sorted by phase and then by descending total time.
+     *
+     * @return the measurements
+     */
+    public List<Measurement> getMeasurements() {
+        List<Measurement> answer = new ArrayList<Measurement>();
+        for (Measurement measurement : measurements.values()) {
+            answer.add(measurement.copy());
+        }
+
+        Collections.sort(answer, new Comparator<Measurement>() {
+            @Override
+            public int compare(Measurement o1, Measurement o2) {
+                int rc = o1.getPhase().compareTo(o2.getPhase());
+                if (rc == 0) {
+                    rc = o1.getTotalNanos() < o2.getTotalNanos() ? 1
+                            : o1.getTotalNanos() > o2.getTotalNanos() ? -1 : 0;
+                }
+                if (rc == 0) {
+                    rc = o1.getName().compareTo(o2.getName());
+                }
+                return rc;
+            }
+        });
+
+        return answer;
+    }
+
+    /**
+     * Removes all measurements.
+     */
+    public void clear() {
+        measurements.clear();
+    }
+
+    /**
+     * Writes the measurements as a JSON document.
+     *
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             if the document cannot be written
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"allocatedBytesSupported\": "); //$NON-NLS-1$
+        writer.write(Boolean.toString(getThreadAllocatedBytes != null));
+        writer.write(",\n  \"measurements\": ["); //$NON-NLS-1$
+        boolean first = true;
+        for (Measurement measurement : getMeasurements()) {
+            writer.write(first ? "\n    {" : ",\n    {"); //$NON-NLS-1$ //$NON-NLS-2$
+            first = false;
+            writer.write("\"phase\": "); //$NON-NLS-1$
+            writeJsonString(writer, measurement.getPhase());
+            writer.write(", \"name\": "); //$NON-NLS-1$
+            writeJsonString(writer, measurement.getName());
+            writer.write(", \"count\": " + measurement.getCount()); //$NON-NLS-1$
+            writer.write(", \"totalNanos\": " + measurement.getTotalNanos()); //$NON-NLS-1$
+            writer.write(", \"maxNanos\": " + measurement.getMaxNanos()); //$NON-NLS-1$
+            writer.write(", \"allocatedBytes\": " + measurement.getAllocatedBytes()); //$NON-NLS-1$
+            writer.write('}');
+        }
+        writer.write("\n  ]\n}\n"); //$NON-NLS-1$
+        writer.flush();
+    }
+
+    /**
+     * Writes the measurements to a file as a JSON document in UTF-8.
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeJson(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory()) {
+            directory.mkdirs();
+        }
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+        try {
+            writeJson(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeJsonString(Writer writer, String s) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < ' ') {
+                writer.write(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    private static long getAllocatedBytes() {
+        if (getThreadAllocatedBytes == null) {
+            return -1L;
+        }
+
+        try {
+            return ((Long) getThreadAllocatedBytes.invoke(threadMXBean,
+                    Thread.currentThread().getId())).longValue();
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * A running measurement.
+     */
+    public static final class Timer {
+        private GenerationMetrics metrics;
+        private String phase;
+        private String name;
+        private boolean counted;
+        private long startNanos;
+        private long startAllocatedBytes;
+
+        private Timer(GenerationMetrics metrics, String phase, String name, boolean counted) {
+            this.metrics = metrics;
+            this.phase = phase;
+            this.name = name;
+            this.counted = counted;
+            startAllocatedBytes = getAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * Records the time and the allocated bytes since the timer was started.
+         */
+        public void stop() {
+            long nanos = System.nanoTime() - startNanos;
+            long endAllocatedBytes = getAllocatedBytes();
+            long allocatedBytes = startAllocatedBytes < 0 || endAllocatedBytes < 0 ? -1L
+                    : endAllocatedBytes - startAllocatedBytes;
+            metrics.record(phase, name, counted, nanos, allocatedBytes);
+        }
+    }
+
+    /**
+     * The accumulated measurements of one name within a phase.
+     */
+    public static final class Measurement {
+        private String phase;
+        private String name;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long allocatedBytes;
+
+        private Measurement(String phase, String name) {
+            this.phase = phase;
+            this.name = name;
+        }
+
+        private synchronized void add(boolean counted, long nanos, long bytes) {
+            if (counted) {
+                count++;
+                maxNanos = Math.max(maxNanos, nanos);
+            }
+            totalNanos += nanos;
+            if (bytes < 0 || allocatedBytes < 0) {
+                allocatedBytes = -1L;
+            } else {
+                allocatedBytes += bytes;
+            }
+        }
+
+        private synchronized Measurement copy() {
+            Measurement answer = new Measurement(phase, name);
+            answer.count = count;
+            answer.totalNanos = totalNanos;
+            answer.maxNanos = maxNanos;
+            answer.allocatedBytes = allocatedBytes;
+            return answer;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the bytes allocated by the measured code, or -1 if the JVM cannot measure allocations.
+         *
+         * @return the allocated bytes
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.mybatis.generator.internal.GeneratorDaemonClient;
+
+/**
+ * A long running generator process. The daemon keeps the JVM, the parsed configurations, the loaded classes, and
+ * the database connections warm between jobs, so that repeated runs of the generator avoid the start up cost of
+ * a new process. Jobs are submitted with the -daemonFile option of ShellRunner, or with the daemonFile parameter of
+ * the Maven plugin.
+ *
+ * <p>The daemon listens on the loopback interface only. It writes its port and a random access token to the daemon
+ * file, which is readable by its owner only. Requests that do not present the token are refused.
+ *
+ * <p>Jobs run concurrently, each in its own generator session. Jobs that use the same configuration file run one
+ * after the other.
+ */
+public class GeneratorDaemon {
+    private static final String DAEMON_FILE = "-daemonFile"; //$NON-NLS-1$
+    private static final String PORT = "-port"; //$NON-NLS-1$
+    private static final String STOP = "-stop"; //$NON-NLS-1$
+
+    private static final int REQUEST_TIMEOUT = 30000;
+
+    /** The time to wait after accept fails, so that a persistent failure does not keep a processor busy. */
+    private static final long ACCEPT_RETRY_DELAY = 1000L;
+
+    private File daemonFile;
+
+    private ServerSocket serverSocket;
+
+    private String token;
+
+    private ExecutorService executorService;
+
+    private ConfigurationCache configurationCache;
+
+    private volatile boolean stopped;
+
+    /**
+     * Opens the server socket and writes the daemon file.
+     *
+     * @param daemonFile
+     *            the file that receives the port and access token of the daemon
+     * @param port
+     *            the port to listen on. If 0, any free port is used.
+     * @throws IOException
+     *             if the socket cannot be opened or the daemon file cannot be written
+     */
+    public GeneratorDaemon(File daemonFile, int port) throws IOException {
+        super();
+        this.daemonFile = daemonFile;
+        token = new BigInteger(130, new SecureRandom()).toString(32);
+        serverSocket = new ServerSocket(port, 50, InetAddress.getByName("127.0.0.1")); //$NON-NLS-1$
+        executorService = Executors.newCachedThreadPool();
+        configurationCache = new ConfigurationCache();
+
+        try {
+            writeDaemonFile();
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts jobs until the daemon is stopped.
+     */
+    public void run() {
+        while (!stopped) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (stopped || serverSocket.isClosed()) {
+                    // the socket is closed when the daemon stops
+                    break;
+                }
+
+                try {
+                    Thread.sleep(ACCEPT_RETRY_DELAY);
+                } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    handle(socket);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops accepting jobs, closes the idle database connections, and deletes the daemon file. Jobs that are
+     * running are allowed to finish.
+     */
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+
+        stopped = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        executorService.shutdown();
+        configurationCache.close();
+        daemonFile.delete();
+    }
+
+    private void writeDaemonFile() throws IOException {
+        File parent = daemonFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        // restrict the permissions before the token is written
+        OutputStream os = new FileOutputStream(daemonFile);
+        try {
+            daemonFile.setReadable(false, false);
+            daemonFile.setReadable(true, true);
+            daemonFile.setWritable(false, false);
+            daemonFile.setWritable(true, true);
+
+            Properties properties = new Properties();
+            properties.setProperty(GeneratorDaemonClient.PROPERTY_PORT, Integer.toString(getPort()));
+            properties.setProperty(GeneratorDaemonClient.PROPERTY_TOKEN, token);
+            properties.store(os, null);
+        } finally {
+            os.close();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try {
+            try {
+                socket.setSoTimeout(REQUEST_TIMEOUT);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        socket.getInputStream(), GeneratorDaemonClient.ENCODING));
+                PrintStream out = new PrintStream(socket.getOutputStream(), true,
+                        GeneratorDaemonClient.ENCODING);
+
+                boolean success = false;
+                String requestToken = reader.readLine();
+                if (requestToken == null
+                        || !MessageDigest.isEqual(token.getBytes(GeneratorDaemonClient.ENCODING),
+                                requestToken.getBytes(GeneratorDaemonClient.ENCODING))) {
+                    out.println(getString("RuntimeError.28")); //$NON-NLS-1$
+                    out.println(GeneratorDaemonClient.STATUS_PREFIX + GeneratorDaemonClient.STATUS_FAILED);
+                    return;
+                }
+
+                String command = reader.readLine();
+                String workingDirectory = reader.readLine();
+                List<String> args = readArguments(reader);
+                if (workingDirectory == null || args == null) {
+                    out.println(getString("RuntimeError.28")); //$NON-NLS-1$
+                } else if (GeneratorDaemonClient.COMMAND_STOP.equals(command)) {
+                    stop();
+                    out.println(getString("Progress.22")); //$NON-NLS-1$
+                    success = true;
+                } else if (GeneratorDaemonClient.COMMAND_RUN.equals(command)) {
+                    success = runJob(args, new File(workingDirectory), out);
+                } else {
+                    out.println(getString("RuntimeError.28")); //$NON-NLS-1$
+                }
+
+                out.println(GeneratorDaemonClient.STATUS_PREFIX
+                        + (success ? GeneratorDaemonClient.STATUS_OK : GeneratorDaemonClient.STATUS_FAILED));
+            } finally {
+                socket.close();
+            }
+        } catch (IOException e) {
+            // the client went away, nothing can be reported
+        }
+    }
+
+    private List<String> readArguments(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        int count;
+        try {
+            count = line == null ? -1 : Integer.parseInt(line);
+        } catch (NumberFormatException e) {
+            count = -1;
+        }
+
+        if (count < 0) {
+            return null;
+        }
+
+        List<String> args = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String arg = reader.readLine();
+            if (arg == null) {
+                return null;
+            }
+            args.add(arg);
+        }
+
+        return args;
+    }
+
+    /**
+     * Runs a job and returns true if it succeeded. A job with warnings succeeds.
+     */
+    private boolean runJob(List<String> args, File workingDirectory, PrintStream out) {
+        List<String> errors = new ArrayList<String>();
+        Map<String, String> arguments = ShellRunner.parseCommandLine(
+                args.toArray(new String[args.size()]), errors);
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                out.println(error);
+            }
+            return false;
+        }
+
+        try {
+            return ShellRunner.run(arguments, out, workingDirectory, configurationCache);
+        } catch (RuntimeException e) {
+            e.printStackTrace(out);
+            return false;
+        }
+    }
+
+    public static void main(String[] args) {
+        File daemonFile = null;
+        int port = 0;
+        boolean stop = false;
+
+        for (int i = 0; i < args.length; i++) {
+            if (DAEMON_FILE.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+                daemonFile = new File(args[++i]);
+            } else if (PORT.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.out.println(getString("RuntimeError.20", args[i])); //$NON-NLS-1$
+                    System.exit(-1);
+                }
+            } else if (STOP.equalsIgnoreCase(args[i])) {
+                stop = true;
+            } else {
+                System.out.println(getString("RuntimeError.20", args[i])); //$NON-NLS-1$
+                System.exit(-1);
+            }
+        }
+
+        if (daemonFile == null) {
+            System.out.println(getString("RuntimeError.19", DAEMON_FILE)); //$NON-NLS-1$
+            System.exit(-1);
+            return; // only to satisfy compiler, never returns
+        }
+
+        try {
+            if (stop) {
+                GeneratorDaemonClient.stop(daemonFile, System.out);
+                return;
+            }
+
+            final GeneratorDaemon daemon = new GeneratorDaemon(daemonFile, port);
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    daemon.stop();
+                }
+            });
+
+            System.out.println(getString("Progress.21", Integer.toString(daemon.getPort()))); //$NON-NLS-1$
+            daemon.run();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
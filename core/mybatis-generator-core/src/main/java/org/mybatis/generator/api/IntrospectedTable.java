@@ -78,7 +78,9 @@ public abstract class IntrospectedTable {
         ATTR_DELETE_BY_PRIMARY_KEY_STATEMENT_ID,
         ATTR_INSERT_STATEMENT_ID,
         ATTR_INSERT_SELECTIVE_STATEMENT_ID,
+        ATTR_INSERT_BATCH_STATEMENT_ID,
         ATTR_SELECT_ALL_STATEMENT_ID,
+        ATTR_SELECT_PAGE_AFTER_STATEMENT_ID,
         ATTR_SELECT_BY_EXAMPLE_STATEMENT_ID,
         ATTR_SELECT_BY_EXAMPLE_WITH_BLOBS_STATEMENT_ID,
         ATTR_SELECT_BY_PRIMARY_KEY_STATEMENT_ID,
@@ -536,7 +538,9 @@ public abstract class IntrospectedTable {
         setDeleteByPrimaryKeyStatementId("deleteByPrimaryKey"); //$NON-NLS-1$
         setInsertStatementId("insert"); //$NON-NLS-1$
         setInsertSelectiveStatementId("insertSelective"); //$NON-NLS-1$
+        setInsertBatchStatementId("insertBatch"); //$NON-NLS-1$
         setSelectAllStatementId("selectAll"); //$NON-NLS-1$
+        setSelectPageAfterStatementId("selectPageAfter"); //$NON-NLS-1$
         setSelectByExampleStatementId("selectByExample"); //$NON-NLS-1$
         setSelectByExampleWithBLOBsStatementId("selectByExampleWithBLOBs"); //$NON-NLS-1$
         setSelectByPrimaryKeyStatementId("selectByPrimaryKey"); //$NON-NLS-1$
@@ -637,6 +641,11 @@ public abstract class IntrospectedTable {
                 InternalAttribute.ATTR_SELECT_ALL_STATEMENT_ID, s);
     }
 
+    public void setSelectPageAfterStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_PAGE_AFTER_STATEMENT_ID, s);
+    }
+
     public void setSelectByExampleStatementId(String s) {
         internalAttributes.put(
                 InternalAttribute.ATTR_SELECT_BY_EXAMPLE_STATEMENT_ID, s);
@@ -647,6 +656,11 @@ public abstract class IntrospectedTable {
                 InternalAttribute.ATTR_INSERT_SELECTIVE_STATEMENT_ID, s);
     }
 
+    public void setInsertBatchStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_INSERT_BATCH_STATEMENT_ID, s);
+    }
+
     public void setInsertStatementId(String s) {
         internalAttributes.put(InternalAttribute.ATTR_INSERT_STATEMENT_ID, s);
     }
@@ -749,6 +763,11 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_SELECT_ALL_STATEMENT_ID);
     }
 
+    public String getSelectPageAfterStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_PAGE_AFTER_STATEMENT_ID);
+    }
+
     public String getSelectByExampleStatementId() {
         return internalAttributes
                 .get(InternalAttribute.ATTR_SELECT_BY_EXAMPLE_STATEMENT_ID);
@@ -759,6 +778,11 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_INSERT_SELECTIVE_STATEMENT_ID);
     }
 
+    public String getInsertBatchStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_INSERT_BATCH_STATEMENT_ID);
+    }
+
     public String getInsertStatementId() {
         return internalAttributes
                 .get(InternalAttribute.ATTR_INSERT_STATEMENT_ID);
@@ -18,27 +18,23 @@ package org.mybatis.generator.api;
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.Context;
-import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.InvalidConfigurationException;
-import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GeneratedFileWriter;
+import org.mybatis.generator.internal.GenerationManifest;
+import org.mybatis.generator.internal.GeneratorSession;
 import org.mybatis.generator.internal.NullProgressCallback;
 import org.mybatis.generator.internal.ObjectFactory;
-import org.mybatis.generator.internal.XmlFileMergerJaxp;
 
 /**
  * This class is the main interface to MyBatis generator. A typical execution of the tool involves these steps:
@@ -73,6 +69,18 @@ public class MyBatisGenerator {
     /** The projects. */
     private Set<String> projects;
 
+    /** The number of threads used to save files. */
+    private int writeThreads = 1;
+
+    /** If true, files whose content has not changed are not written. */
+    private boolean skipUnchangedFiles;
+
+    /** The manifest file for incremental generation, or null. */
+    private File incrementalManifest;
+
+    /** The metrics of the runs, or null. */
+    private GenerationMetrics metrics;
+
     /**
      * Constructs a MyBatisGenerator object.
      * 
@@ -119,6 +127,65 @@ public class MyBatisGenerator {
         this.configuration.validate();
     }
 
+    /**
+     * Sets the number of threads used to save the generated files. Files are formatted on the calling thread,
+     * and checked, merged (XML files only), and written on the I/O threads. Warnings and progress messages are
+     * reported in the same order for any number of threads. The default is 1, which saves every file on the
+     * calling thread.
+     *
+     * @param writeThreads
+     *            the number of threads, must be positive
+     */
+    public void setWriteThreads(int writeThreads) {
+        if (writeThreads < 1) {
+            throw new IllegalArgumentException(getString("RuntimeError.24", //$NON-NLS-1$
+                    Integer.toString(writeThreads)));
+        }
+        this.writeThreads = writeThreads;
+    }
+
+    /**
+     * If true, an existing file is only written if its content differs from the generated content. This keeps
+     * the timestamps of unchanged files, so incremental builds do not recompile them. An unchanged Java file is
+     * also not saved under a unique name when overwriting is disabled. The default is false.
+     *
+     * @param skipUnchangedFiles
+     *            true to skip writing unchanged files
+     */
+    public void setSkipUnchangedFiles(boolean skipUnchangedFiles) {
+        this.skipUnchangedFiles = skipUnchangedFiles;
+    }
+
+    /**
+     * Enables incremental generation. The manifest file records a fingerprint of every table (the introspected
+     * columns, the configuration, and the generator version) and the files written for it. On the next run, tables
+     * with the same fingerprint are not generated again, as long as their files still exist. Files that an earlier
+     * run wrote, but that are not generated anymore, are reported as warnings. The manifest is only updated when
+     * the files are written.
+     *
+     * @param incrementalManifest
+     *            the manifest file, or null to generate every table (the default)
+     */
+    public void setIncrementalManifest(File incrementalManifest) {
+        this.incrementalManifest = incrementalManifest;
+    }
+
+    /**
+     * Enables timing metrics. Every run records the wall time and the allocated bytes of its phases - introspection
+     * (per table and per metadata call), generation (per table and per generator), plugin callbacks, and saving
+     * (formatting, merging, and writing) - in the metrics. Measurements of several runs accumulate.
+     *
+     * @param metrics
+     *            the metrics, or null to disable the measurements (the default)
+     */
+    public void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * This is the main method for generating code. This method is long running, but progress can be provided and the
      * method can be canceled through the ProgressCallback interface. This version of the method runs all configured
@@ -222,10 +289,28 @@ public class MyBatisGenerator {
             callback = new NullProgressCallback();
         }
 
+        // class loaders added by this run are not seen by other runs in the same JVM
+        GenerationMetrics runMetrics = metrics;
+        GeneratorSession session = GeneratorSession.begin();
+        session.setMetrics(runMetrics);
+        if (runMetrics != null) {
+            runMetrics.runStarted();
+        }
+        try {
+            generateInSession(callback, contextIds, fullyQualifiedTableNames, writeFiles);
+        } finally {
+            if (runMetrics != null) {
+                runMetrics.runFinished();
+            }
+            session.end();
+        }
+    }
+
+    private void generateInSession(ProgressCallback callback, Set<String> contextIds,
+            Set<String> fullyQualifiedTableNames, boolean writeFiles) throws SQLException,
+            IOException, InterruptedException {
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
-        ObjectFactory.reset();
-        RootClassInfo.reset();
 
         // calculate the contexts to run
         List<Context> contextsToRun;
@@ -246,6 +331,12 @@ public class MyBatisGenerator {
             ObjectFactory.addExternalClassLoader(classLoader);
         }
 
+        GenerationManifest generationManifest = null;
+        if (incrementalManifest != null) {
+            generationManifest = new GenerationManifest(incrementalManifest);
+            generationManifest.load();
+        }
+
         // now run the introspections...
         int totalSteps = 0;
         for (Context context : contextsToRun) {
@@ -254,8 +345,17 @@ public class MyBatisGenerator {
         callback.introspectionStarted(totalSteps);
 
         for (Context context : contextsToRun) {
-            context.introspectTables(callback, warnings,
-                    fullyQualifiedTableNames);
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.INTROSPECTION, context.getId());
+            try {
+                context.introspectTables(callback, warnings,
+                        fullyQualifiedTableNames);
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
+
+            if (generationManifest != null) {
+                context.removeUnchangedTables(generationManifest, callback, fullyQualifiedTableNames);
+            }
         }
 
         // now run the generates
@@ -266,8 +366,13 @@ public class MyBatisGenerator {
         callback.generationStarted(totalSteps);
 
         for (Context context : contextsToRun) {
-            context.generateFiles(callback, generatedJavaFiles,
-                    generatedXmlFiles, warnings);
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION, context.getId());
+            try {
+                context.generateFiles(callback, generatedJavaFiles,
+                        generatedXmlFiles, warnings, generationManifest);
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
         }
 
         // now save the files
@@ -277,155 +382,39 @@ public class MyBatisGenerator {
 
             for (GeneratedXmlFile gxf : generatedXmlFiles) {
                 projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
             }
 
             for (GeneratedJavaFile gjf : generatedJavaFiles) {
                 projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
             }
 
-            for (String project : projects) {
-                shellCallback.refreshProject(project);
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.SAVE, "files"); //$NON-NLS-1$
+            GeneratedFileWriter fileWriter = new GeneratedFileWriter(shellCallback, writeThreads);
+            fileWriter.setSkipUnchangedFiles(skipUnchangedFiles);
+            try {
+                fileWriter.writeFiles(generatedXmlFiles, generatedJavaFiles, callback, warnings);
+            } finally {
+                GenerationMetrics.stop(timer);
             }
-        }
-
-        callback.done();
-    }
 
-    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
-            throws InterruptedException, IOException {
-        File targetFile;
-        String source;
-        try {
-            File directory = shellCallback.getDirectory(gjf
-                    .getTargetProject(), gjf.getTargetPackage());
-            targetFile = new File(directory, gjf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isMergeSupported()) {
-                    source = shellCallback.mergeJavaFile(gjf
-                            .getFormattedContent(), targetFile,
-                            MergeConstants.OLD_ELEMENT_TAGS,
-                            gjf.getFileEncoding());
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gjf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gjf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+            if (generationManifest != null) {
+                for (File staleFile : generationManifest.update(fileWriter.getTargetFiles())) {
+                    warnings.add(getString("Warning.32", staleFile.getAbsolutePath())); //$NON-NLS-1$
                 }
-            } else {
-                source = gjf.getFormattedContent();
-            }
-
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gjf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
-        }
-    }
 
-    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback)
-            throws InterruptedException, IOException {
-        File targetFile;
-        String source;
-        try {
-            File directory = shellCallback.getDirectory(gxf
-                    .getTargetProject(), gxf.getTargetPackage());
-            targetFile = new File(directory, gxf.getFileName());
-            if (targetFile.exists()) {
-                if (gxf.isMergeable()) {
-                    source = XmlFileMergerJaxp.getMergedSource(gxf,
-                            targetFile);
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gxf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gxf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+                try {
+                    generationManifest.save();
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.33", e.getMessage())); //$NON-NLS-1$
                 }
-            } else {
-                source = gxf.getFormattedContent();
             }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, "UTF-8"); //$NON-NLS-1$
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
-        }
-    }
-
-    /**
-     * Writes, or overwrites, the contents of the specified file.
-     *
-     * @param file
-     *            the file
-     * @param content
-     *            the content
-     * @param fileEncoding
-     *            the file encoding
-     * @throws IOException
-     *             Signals that an I/O exception has occurred.
-     */
-    private void writeFile(File file, String content, String fileEncoding) throws IOException {
-        FileOutputStream fos = new FileOutputStream(file, false);
-        OutputStreamWriter osw;
-        if (fileEncoding == null) {
-            osw = new OutputStreamWriter(fos);
-        } else {
-            osw = new OutputStreamWriter(fos, fileEncoding);
-        }
-
-        BufferedWriter bw = new BufferedWriter(osw);
-        bw.write(content);
-        bw.close();
-    }
-
-    /**
-     * Gets the unique file name.
-     *
-     * @param directory
-     *            the directory
-     * @param fileName
-     *            the file name
-     * @return the unique file name
-     */
-    private File getUniqueFileName(File directory, String fileName) {
-        File answer = null;
-
-        // try up to 1000 times to generate a unique file name
-        StringBuilder sb = new StringBuilder();
-        for (int i = 1; i < 1000; i++) {
-            sb.setLength(0);
-            sb.append(fileName);
-            sb.append('.');
-            sb.append(i);
-
-            File testFile = new File(directory, sb.toString());
-            if (!testFile.exists()) {
-                answer = testFile;
-                break;
+            for (String project : projects) {
+                shellCallback.refreshProject(project);
             }
         }
 
-        if (answer == null) {
-            throw new RuntimeException(getString(
-                    "RuntimeError.3", directory.getAbsolutePath())); //$NON-NLS-1$
-        }
-
-        return answer;
+        callback.done();
     }
 
     /**
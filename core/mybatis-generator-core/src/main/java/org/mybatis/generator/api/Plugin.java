@@ -506,6 +506,28 @@ public interface Plugin {
     boolean clientInsertSelectiveMethodGenerated(Method method,
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable);
 
+    /**
+     * This method is called when the insert batch method has been generated
+     * in the client interface. The method takes a list of records and inserts
+     * them with a single multi-row insert statement.
+     * 
+     * @param method
+     *            the generated insert batch method
+     * @param interfaze
+     *            the partially implemented client interface. You can add
+     *            additional imported classes to the interface if
+     *            necessary.
+     * @param introspectedTable
+     *            The class containing information about the table as
+     *            introspected from the database
+     * @return true if the method should be generated, false if the generated
+     *         method should be ignored. In the case of multiple plugins, the
+     *         first plugin returning false will disable the calling of further
+     *         plugins.
+     */
+    boolean clientInsertBatchMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable);
+
     /**
      * This method is called when the selectByExampleWithBLOBs method has been
      * generated in the client interface.
@@ -1276,6 +1298,60 @@ public interface Plugin {
     boolean sqlMapInsertSelectiveElementGenerated(XmlElement element,
             IntrospectedTable introspectedTable);
 
+    /**
+     * This method is called when the insert batch element is generated.
+     * 
+     * @param element
+     *            the generated &lt;insert&gt; element
+     * @param introspectedTable
+     *            The class containing information about the table as
+     *            introspected from the database
+     * @return true if the element should be generated, false if the generated
+     *         element should be ignored. In the case of multiple plugins, the
+     *         first plugin returning false will disable the calling of further
+     *         plugins.
+     */
+    boolean sqlMapInsertBatchElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable);
+
+    /**
+     * This method is called when the select page after method has been
+     * generated in the client interface. The method returns the rows that
+     * follow a primary key value in primary key order.
+     * 
+     * @param method
+     *            the generated select page after method
+     * @param interfaze
+     *            the partially implemented client interface. You can add
+     *            additional imported classes to the interface if
+     *            necessary.
+     * @param introspectedTable
+     *            The class containing information about the table as
+     *            introspected from the database
+     * @return true if the method should be generated, false if the generated
+     *         method should be ignored. In the case of multiple plugins, the
+     *         first plugin returning false will disable the calling of further
+     *         plugins.
+     */
+    boolean clientSelectPageAfterMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable);
+
+    /**
+     * This method is called when the select page after element is generated.
+     * 
+     * @param element
+     *            the generated &lt;select&gt; element
+     * @param introspectedTable
+     *            The class containing information about the table as
+     *            introspected from the database
+     * @return true if the element should be generated, false if the generated
+     *         element should be ignored. In the case of multiple plugins, the
+     *         first plugin returning false will disable the calling of further
+     *         plugins.
+     */
+    boolean sqlMapSelectPageAfterElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable);
+
     /**
      * This method is called when the resultMap with BLOBs element is generated
      * - this resultMap will extend the base resultMap.
@@ -460,6 +460,30 @@ public abstract class PluginAdapter implements Plugin {
         return true;
     }
 
+    @Override
+    public boolean sqlMapInsertBatchElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertBatchMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectPageAfterElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectPageAfterMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        return true;
+    }
+
     @Override
     public void initialized(IntrospectedTable introspectedTable) {
     }
@@ -19,6 +19,7 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -29,10 +30,12 @@ import java.util.Set;
 import java.util.StringTokenizer;
 
 import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GeneratorDaemonClient;
 import org.mybatis.generator.logging.LogFactory;
 
 /**
@@ -47,6 +50,14 @@ public class ShellRunner {
     private static final String TABLES = "-tables"; //$NON-NLS-1$
     private static final String VERBOSE = "-verbose"; //$NON-NLS-1$
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging"; //$NON-NLS-1$
+    private static final String WRITE_THREADS = "-writeThreads"; //$NON-NLS-1$
+    private static final String SKIP_UNCHANGED = "-skipUnchanged"; //$NON-NLS-1$
+    private static final String INCREMENTAL_MANIFEST = "-incrementalManifest"; //$NON-NLS-1$
+    private static final String DAEMON_FILE = "-daemonFile"; //$NON-NLS-1$
+    private static final String METRICS_REPORT = "-metricsReport"; //$NON-NLS-1$
+    private static final String WATCH = "-watch"; //$NON-NLS-1$
+    private static final String WATCH_INTERVAL = "-watchInterval"; //$NON-NLS-1$
+    private static final String WATCH_FILES = "-watchFiles"; //$NON-NLS-1$
     private static final String HELP_1 = "-?"; //$NON-NLS-1$
     private static final String HELP_2 = "-h"; //$NON-NLS-1$
 
@@ -57,7 +68,16 @@ public class ShellRunner {
             return; // only to satisfy compiler, never returns
         }
 
-        Map<String, String> arguments = parseCommandLine(args);
+        List<String> errors = new ArrayList<String>();
+        Map<String, String> arguments = parseCommandLine(args, errors);
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                writeLine(error);
+            }
+
+            System.exit(-1);
+        }
 
         if (arguments.containsKey(HELP_1)) {
             usage();
@@ -65,18 +85,59 @@ public class ShellRunner {
             return; // only to satisfy compiler, never returns
         }
 
-        if (!arguments.containsKey(CONFIG_FILE)) {
-            writeLine(getString("RuntimeError.0")); //$NON-NLS-1$
+        if (arguments.containsKey(WATCH)) {
+            try {
+                watch(arguments, System.out);
+            } catch (InterruptedException e) {
+                // stopped
+            }
             return;
         }
 
+        if (arguments.containsKey(DAEMON_FILE)) {
+            File daemonFile = new File(arguments.get(DAEMON_FILE));
+            try {
+                if (GeneratorDaemonClient.submit(daemonFile, getDaemonArguments(args),
+                        new File("."), System.out) != GeneratorDaemonClient.NOT_RUNNING) { //$NON-NLS-1$
+                    return;
+                }
+                writeLine(getString("Warning.34", daemonFile.getAbsolutePath())); //$NON-NLS-1$
+            } catch (IOException e) {
+                writeLine(getString("Warning.34", e.getMessage())); //$NON-NLS-1$
+            }
+        }
+
+        run(arguments, System.out, null, null);
+    }
+
+    /**
+     * Runs the generator with parsed command line arguments.
+     *
+     * @param arguments
+     *            the arguments returned from parseCommandLine
+     * @param out
+     *            the stream that receives all messages
+     * @param workingDirectory
+     *            if not null, relative file names (including target projects) are resolved against this directory
+     *            rather than the current directory of the process
+     * @param configurationCache
+     *            if not null, supplies previously parsed configurations
+     * @return true if the generator ran, false if it failed. Warnings do not make a run fail.
+     */
+    static boolean run(Map<String, String> arguments, PrintStream out, File workingDirectory,
+            ConfigurationCache configurationCache) {
+        if (!arguments.containsKey(CONFIG_FILE)) {
+            out.println(getString("RuntimeError.0")); //$NON-NLS-1$
+            return false;
+        }
+
         List<String> warnings = new ArrayList<String>();
 
         String configfile = arguments.get(CONFIG_FILE);
-        File configurationFile = new File(configfile);
+        File configurationFile = resolve(workingDirectory, configfile);
         if (!configurationFile.exists()) {
-            writeLine(getString("RuntimeError.1", configfile)); //$NON-NLS-1$
-            return;
+            out.println(getString("RuntimeError.1", configfile)); //$NON-NLS-1$
+            return false;
         }
 
         Set<String> fullyqualifiedTables = new HashSet<String>();
@@ -103,53 +164,306 @@ public class ShellRunner {
         }
 
         try {
-            ConfigurationParser cp = new ConfigurationParser(warnings);
-            Configuration config = cp.parseConfiguration(configurationFile);
+            Configuration config;
+            if (configurationCache == null) {
+                ConfigurationParser cp = new ConfigurationParser(warnings);
+                config = cp.parseConfiguration(configurationFile);
+            } else {
+                config = configurationCache.getConfiguration(configurationFile, warnings);
+            }
 
             DefaultShellCallback shellCallback = new DefaultShellCallback(
-                    arguments.containsKey(OVERWRITE));
+                    arguments.containsKey(OVERWRITE), workingDirectory);
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+            if (arguments.containsKey(WRITE_THREADS)) {
+                myBatisGenerator.setWriteThreads(Integer.parseInt(arguments.get(WRITE_THREADS)));
+            }
+            myBatisGenerator.setSkipUnchangedFiles(arguments.containsKey(SKIP_UNCHANGED));
+            if (arguments.containsKey(INCREMENTAL_MANIFEST)) {
+                myBatisGenerator.setIncrementalManifest(resolve(workingDirectory,
+                        arguments.get(INCREMENTAL_MANIFEST)));
+            }
+
+            if (arguments.containsKey(METRICS_REPORT)) {
+                myBatisGenerator.setMetrics(new GenerationMetrics());
+            }
 
-            ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
+            ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback(out)
                     : null;
 
-            myBatisGenerator.generate(progressCallback, contexts, fullyqualifiedTables);
+            // a configuration holds the state of its latest run, so runs of the
+            // same (cached) configuration must not overlap
+            synchronized (config) {
+                myBatisGenerator.generate(progressCallback, contexts, fullyqualifiedTables);
+            }
+
+            if (arguments.containsKey(METRICS_REPORT)) {
+                try {
+                    myBatisGenerator.getMetrics().writeJson(resolve(workingDirectory,
+                            arguments.get(METRICS_REPORT)));
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.35", e.getMessage())); //$NON-NLS-1$
+                }
+            }
 
         } catch (XMLParserException e) {
-            writeLine(getString("Progress.3")); //$NON-NLS-1$
-            writeLine();
+            out.println(getString("Progress.3")); //$NON-NLS-1$
+            out.println();
             for (String error : e.getErrors()) {
-                writeLine(error);
+                out.println(error);
             }
 
-            return;
+            return false;
         } catch (SQLException e) {
-            e.printStackTrace();
-            return;
+            e.printStackTrace(out);
+            return false;
         } catch (IOException e) {
-            e.printStackTrace();
-            return;
+            e.printStackTrace(out);
+            return false;
         } catch (InvalidConfigurationException e) {
-            writeLine(getString("Progress.16")); //$NON-NLS-1$
+            out.println(getString("Progress.16")); //$NON-NLS-1$
             for (String error : e.getErrors()) {
-                writeLine(error);
+                out.println(error);
             }
-            return;
+            return false;
         } catch (InterruptedException e) {
             // ignore (will never happen with the DefaultShellCallback)
         }
 
         for (String warning : warnings) {
-            writeLine(warning);
+            out.println(warning);
         }
 
         if (warnings.size() == 0) {
-            writeLine(getString("Progress.4")); //$NON-NLS-1$
+            out.println(getString("Progress.4")); //$NON-NLS-1$
         } else {
-            writeLine();
-            writeLine(getString("Progress.5")); //$NON-NLS-1$
+            out.println();
+            out.println(getString("Progress.5")); //$NON-NLS-1$
         }
+
+        return true;
+    }
+
+    /**
+     * Runs the generator, then keeps running it whenever the configuration file, one of the watched files, or a
+     * table in the database changes. Files are checked by their timestamps. Tables are checked with a cheap schema
+     * fingerprint, and only the changed tables are generated again. Only files with a changed content are written.
+     * This method does not return unless the thread is interrupted.
+     *
+     * @param arguments
+     *            the arguments returned from parseCommandLine
+     * @param out
+     *            the stream that receives all messages
+     * @throws InterruptedException
+     *             if the thread is interrupted
+     */
+    static void watch(Map<String, String> arguments, PrintStream out) throws InterruptedException {
+        Map<String, String> watchArguments = new HashMap<String, String>(arguments);
+        watchArguments.put(SKIP_UNCHANGED, "Y"); //$NON-NLS-1$
+        if (!watchArguments.containsKey(INCREMENTAL_MANIFEST)) {
+            try {
+                File manifest = File.createTempFile("mbg", ".manifest"); //$NON-NLS-1$ //$NON-NLS-2$
+                manifest.deleteOnExit();
+                manifest.delete();
+                watchArguments.put(INCREMENTAL_MANIFEST, manifest.getAbsolutePath());
+            } catch (IOException e) {
+                // every table is generated on every change
+            }
+        }
+
+        long interval = 2000L;
+        if (arguments.containsKey(WATCH_INTERVAL)) {
+            interval = Long.parseLong(arguments.get(WATCH_INTERVAL)) * 1000L;
+        }
+
+        List<File> watchedFiles = new ArrayList<File>();
+        if (arguments.containsKey(CONFIG_FILE)) {
+            watchedFiles.add(new File(arguments.get(CONFIG_FILE)));
+        }
+        for (String fileName : splitList(arguments.get(WATCH_FILES))) {
+            watchedFiles.add(new File(fileName));
+        }
+
+        ConfigurationCache configurationCache = new ConfigurationCache();
+        try {
+            Map<File, Long> timestamps = readTimestamps(watchedFiles);
+            Map<String, Map<String, String>> fingerprints = readSchemaFingerprints(watchArguments,
+                    configurationCache);
+            Map<String, String> pollArguments = getPollArguments(watchArguments, fingerprints);
+            run(watchArguments, out, null, configurationCache);
+            out.println(getString("Progress.23")); //$NON-NLS-1$
+
+            while (true) {
+                Thread.sleep(interval);
+
+                Map<File, Long> currentTimestamps = readTimestamps(watchedFiles);
+                if (!currentTimestamps.equals(timestamps)) {
+                    timestamps = currentTimestamps;
+                    out.println(getString("Progress.24")); //$NON-NLS-1$
+                    fingerprints = readSchemaFingerprints(watchArguments, configurationCache);
+                    pollArguments = getPollArguments(watchArguments, fingerprints);
+                    run(watchArguments, out, null, configurationCache);
+                    out.println(getString("Progress.23")); //$NON-NLS-1$
+                    continue;
+                }
+
+                if (pollArguments == null) {
+                    continue;
+                }
+
+                Map<String, Map<String, String>> currentFingerprints = readSchemaFingerprints(pollArguments,
+                        configurationCache);
+                Set<String> changedContexts = new HashSet<String>();
+                Set<String> changedTables = new HashSet<String>();
+                for (Map.Entry<String, Map<String, String>> context : currentFingerprints.entrySet()) {
+                    Map<String, String> previous = fingerprints.get(context.getKey());
+                    for (Map.Entry<String, String> table : context.getValue().entrySet()) {
+                        if (table.getValue() != null && previous != null
+                                && !table.getValue().equals(previous.get(table.getKey()))) {
+                            changedContexts.add(context.getKey());
+                            changedTables.add(table.getKey());
+                        }
+                    }
+                }
+                fingerprints = currentFingerprints;
+
+                if (!changedTables.isEmpty()) {
+                    out.println(getString("Progress.25", changedTables.toString())); //$NON-NLS-1$
+                    Map<String, String> changedArguments = new HashMap<String, String>(watchArguments);
+                    changedArguments.put(CONTEXT_IDS, joinList(changedContexts));
+                    changedArguments.put(TABLES, joinList(changedTables));
+                    run(changedArguments, out, null, configurationCache);
+                    out.println(getString("Progress.23")); //$NON-NLS-1$
+                }
+            }
+        } finally {
+            configurationCache.close();
+        }
+    }
+
+    /**
+     * Returns the arguments that select the contexts and tables whose fingerprints could be read, or null if there
+     * are none. Tables that cannot be fingerprinted are only generated when a file changes, so the database is not
+     * queried for them on every check.
+     */
+    static Map<String, String> getPollArguments(Map<String, String> arguments,
+            Map<String, Map<String, String>> fingerprints) {
+        Set<String> contexts = new HashSet<String>();
+        Set<String> tables = new HashSet<String>();
+        for (Map.Entry<String, Map<String, String>> context : fingerprints.entrySet()) {
+            for (Map.Entry<String, String> table : context.getValue().entrySet()) {
+                if (table.getValue() != null) {
+                    contexts.add(context.getKey());
+                    tables.add(table.getKey());
+                }
+            }
+        }
+
+        if (tables.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> answer = new HashMap<String, String>(arguments);
+        answer.put(CONTEXT_IDS, joinList(contexts));
+        answer.put(TABLES, joinList(tables));
+        return answer;
+    }
+
+    private static Map<File, Long> readTimestamps(List<File> files) {
+        Map<File, Long> answer = new HashMap<File, Long>();
+        for (File file : files) {
+            answer.put(file, file.lastModified());
+        }
+        return answer;
+    }
+
+    /**
+     * Reads the schema fingerprints of the selected contexts and tables.
+     *
+     * @return a map of context id to the fingerprints of its tables. Contexts whose fingerprints cannot be read are
+     *         missing.
+     */
+    private static Map<String, Map<String, String>> readSchemaFingerprints(Map<String, String> arguments,
+            ConfigurationCache configurationCache) {
+        Map<String, Map<String, String>> answer = new HashMap<String, Map<String, String>>();
+        List<String> warnings = new ArrayList<String>();
+        Configuration config;
+        try {
+            config = configurationCache.getConfiguration(new File(arguments.get(CONFIG_FILE)), warnings);
+        } catch (IOException e) {
+            return answer;
+        } catch (XMLParserException e) {
+            return answer;
+        }
+
+        Set<String> contextIds = new HashSet<String>(splitList(arguments.get(CONTEXT_IDS)));
+        Set<String> tables = new HashSet<String>(splitList(arguments.get(TABLES)));
+        synchronized (config) {
+            for (Context context : config.getContexts()) {
+                if (!contextIds.isEmpty() && !contextIds.contains(context.getId())) {
+                    continue;
+                }
+
+                try {
+                    answer.put(context.getId(), context.readSchemaFingerprints(warnings, tables));
+                } catch (SQLException e) {
+                    // the next run reports the error
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    private static List<String> splitList(String list) {
+        List<String> answer = new ArrayList<String>();
+        if (list != null) {
+            StringTokenizer st = new StringTokenizer(list, ","); //$NON-NLS-1$
+            while (st.hasMoreTokens()) {
+                String s = st.nextToken().trim();
+                if (s.length() > 0) {
+                    answer.add(s);
+                }
+            }
+        }
+        return answer;
+    }
+
+    private static String joinList(Set<String> values) {
+        StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static File resolve(File workingDirectory, String fileName) {
+        File file = new File(fileName);
+        if (workingDirectory == null || file.isAbsolute()) {
+            return file;
+        }
+
+        return new File(workingDirectory, fileName);
+    }
+
+    /**
+     * Returns the command line without the daemon file argument.
+     */
+    private static List<String> getDaemonArguments(String[] args) {
+        List<String> answer = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (DAEMON_FILE.equalsIgnoreCase(args[i])) {
+                i++;
+            } else {
+                answer.add(args[i]);
+            }
+        }
+
+        return answer;
     }
 
     private static void usage() {
@@ -165,12 +479,16 @@ public class ShellRunner {
         System.out.println(message);
     }
 
-    private static void writeLine() {
-        System.out.println();
-    }
-
-    private static Map<String, String> parseCommandLine(String[] args) {
-        List<String> errors = new ArrayList<String>();
+    /**
+     * Parses the command line.
+     *
+     * @param args
+     *            the command line
+     * @param errors
+     *            receives a message for every invalid argument
+     * @return the arguments
+     */
+    static Map<String, String> parseCommandLine(String[] args, List<String> errors) {
         Map<String, String> arguments = new HashMap<String, String>();
 
         for (int i = 0; i < args.length; i++) {
@@ -186,6 +504,10 @@ public class ShellRunner {
                 arguments.put(OVERWRITE, "Y"); //$NON-NLS-1$
             } else if (VERBOSE.equalsIgnoreCase(args[i])) {
                 arguments.put(VERBOSE, "Y"); //$NON-NLS-1$
+            } else if (WATCH.equalsIgnoreCase(args[i])) {
+                arguments.put(WATCH, "Y"); //$NON-NLS-1$
+            } else if (SKIP_UNCHANGED.equalsIgnoreCase(args[i])) {
+                arguments.put(SKIP_UNCHANGED, "Y"); //$NON-NLS-1$
             } else if (HELP_1.equalsIgnoreCase(args[i])) {
                 arguments.put(HELP_1, "Y"); //$NON-NLS-1$
             } else if (HELP_2.equalsIgnoreCase(args[i])) {
@@ -209,19 +531,69 @@ public class ShellRunner {
                     errors.add(getString("RuntimeError.19", TABLES)); //$NON-NLS-1$
                 }
                 i++;
+            } else if (INCREMENTAL_MANIFEST.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(INCREMENTAL_MANIFEST, args[i + 1]);
+                } else {
+                    errors.add(getString("RuntimeError.19", INCREMENTAL_MANIFEST)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (METRICS_REPORT.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(METRICS_REPORT, args[i + 1]);
+                } else {
+                    errors.add(getString("RuntimeError.19", METRICS_REPORT)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (DAEMON_FILE.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(DAEMON_FILE, args[i + 1]);
+                } else {
+                    errors.add(getString("RuntimeError.19", DAEMON_FILE)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (WATCH_FILES.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(WATCH_FILES, args[i + 1]);
+                } else {
+                    errors.add(getString("RuntimeError.19", WATCH_FILES)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (WATCH_INTERVAL.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isPositiveInteger(args[i + 1])) {
+                        arguments.put(WATCH_INTERVAL, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.29", args[i + 1])); //$NON-NLS-1$
+                    }
+                } else {
+                    errors.add(getString("RuntimeError.19", WATCH_INTERVAL)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (WRITE_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isPositiveInteger(args[i + 1])) {
+                        arguments.put(WRITE_THREADS, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.24", args[i + 1])); //$NON-NLS-1$
+                    }
+                } else {
+                    errors.add(getString("RuntimeError.19", WRITE_THREADS)); //$NON-NLS-1$
+                }
+                i++;
             } else {
                 errors.add(getString("RuntimeError.20", args[i])); //$NON-NLS-1$
             }
         }
 
-        if (!errors.isEmpty()) {
-            for (String error : errors) {
-                writeLine(error);
-            }
+        return arguments;
+    }
 
-            System.exit(-1);
+    private static boolean isPositiveInteger(String s) {
+        try {
+            return Integer.parseInt(s) > 0;
+        } catch (NumberFormatException e) {
+            return false;
         }
-
-        return arguments;
     }
 }
@@ -0,0 +1,32 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+/**
+ * Marker interface for plugins and comment generators that may be called from several threads at once.
+ *
+ * <p>When the <code>generationThreads</code> context property is greater than one, tables are
+ * generated concurrently, so every plugin and the comment generator of the context will be called for
+ * different tables at the same time. An implementation should only be marked with this interface if it keeps
+ * no state between calls, or if that state is safe for concurrent use and does not depend on the order in
+ * which tables are generated. If any plugin or the comment generator is not marked, the context is
+ * generated on a single thread.
+ *
+ * <p>Only the interfaces declared by the class itself are considered. A subclass of a marked class is
+ * treated as not thread safe unless it also declares this interface.
+ */
+public interface ThreadSafe {
+}
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.PrintStream;
+
 import org.mybatis.generator.internal.NullProgressCallback;
 
 /**
@@ -25,12 +27,25 @@ import org.mybatis.generator.internal.NullProgressCallback;
  */
 public class VerboseProgressCallback extends NullProgressCallback {
 
+    private PrintStream out;
+
     public VerboseProgressCallback() {
+        this(System.out);
+    }
+
+    /**
+     * Constructs a callback that writes to the specified stream rather than to System.out.
+     *
+     * @param out
+     *            the stream
+     */
+    public VerboseProgressCallback(PrintStream out) {
         super();
+        this.out = out;
     }
 
     @Override
     public void startTask(String taskName) {
-        System.out.println(taskName);
+        out.println(taskName);
     }
 }
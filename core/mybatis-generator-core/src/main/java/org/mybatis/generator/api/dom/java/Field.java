@@ -106,6 +106,19 @@ public class Field extends JavaElement {
         return sb.toString();
     }
 
+    /**
+     * Adds the formatted content of this field to the content of its class, interface, or enum.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(indentLevel, compilationUnit));
+    }
+
     public boolean isTransient() {
         return isTransient;
     }
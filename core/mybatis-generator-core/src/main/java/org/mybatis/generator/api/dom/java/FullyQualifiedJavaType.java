@@ -21,6 +21,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The Class FullyQualifiedJavaType.
@@ -32,19 +34,36 @@ public class FullyQualifiedJavaType implements
     
     private static final String JAVA_LANG = "java.lang"; //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType intInstance = null;
+    /**
+     * The upper bound on the number of remembered parse results. Specifications beyond this limit are still parsed,
+     * but are not remembered.
+     */
+    private static final int MAX_PARSED_TYPES = 10000;
+
+    /**
+     * Parse results of specifications without type arguments or wildcards, keyed by the type specification. These
+     * instances are never handed out - the constructor copies them.
+     */
+    private static final ConcurrentMap<String, FullyQualifiedJavaType> parsedTypes =
+            new ConcurrentHashMap<String, FullyQualifiedJavaType>();
 
-    private static FullyQualifiedJavaType stringInstance = null;
+    private static final FullyQualifiedJavaType intInstance = new FullyQualifiedJavaType("int"); //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType booleanPrimitiveInstance = null;
+    private static final FullyQualifiedJavaType stringInstance =
+            new FullyQualifiedJavaType("java.lang.String"); //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType objectInstance = null;
+    private static final FullyQualifiedJavaType booleanPrimitiveInstance =
+            new FullyQualifiedJavaType("boolean"); //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType dateInstance = null;
+    private static final FullyQualifiedJavaType objectInstance =
+            new FullyQualifiedJavaType("java.lang.Object"); //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType criteriaInstance = null;
+    private static final FullyQualifiedJavaType dateInstance = new FullyQualifiedJavaType("java.util.Date"); //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType generatedCriteriaInstance = null;
+    private static final FullyQualifiedJavaType criteriaInstance = new FullyQualifiedJavaType("Criteria"); //$NON-NLS-1$
+
+    private static final FullyQualifiedJavaType generatedCriteriaInstance =
+            new FullyQualifiedJavaType("GeneratedCriteria"); //$NON-NLS-1$
 
     /** The short name without any generic arguments. */
     private String baseShortName;
@@ -71,6 +90,17 @@ public class FullyQualifiedJavaType implements
 
     private boolean extendsBoundedWildcard;
 
+    // the following values are calculated on demand. For a type with type arguments they
+    // are discarded when the number of type arguments in its tree changes, because the
+    // arguments may have been given type arguments of their own
+    private String fullyQualifiedName;
+
+    private String shortName;
+
+    private List<String> importList;
+
+    private int calculatedTypeArgumentCount;
+
     /**
      * Use this constructor to construct a generic type with the specified type parameters.
      *
@@ -80,7 +110,45 @@ public class FullyQualifiedJavaType implements
     public FullyQualifiedJavaType(String fullTypeSpecification) {
         super();
         typeArguments = new ArrayList<FullyQualifiedJavaType>();
-        parse(fullTypeSpecification);
+        if (isShareable(fullTypeSpecification)) {
+            // the specification has already been parsed (or will be now) - copy the result
+            FullyQualifiedJavaType parsedType = getParsedType(fullTypeSpecification);
+            baseShortName = parsedType.baseShortName;
+            baseQualifiedName = parsedType.baseQualifiedName;
+            explicitlyImported = parsedType.explicitlyImported;
+            packageName = parsedType.packageName;
+            primitive = parsedType.primitive;
+            isArray = parsedType.isArray;
+            primitiveTypeWrapper = parsedType.primitiveTypeWrapper;
+        } else {
+            parse(fullTypeSpecification);
+        }
+    }
+
+    private FullyQualifiedJavaType() {
+        super();
+        typeArguments = new ArrayList<FullyQualifiedJavaType>();
+    }
+
+    private static FullyQualifiedJavaType getParsedType(String fullTypeSpecification) {
+        FullyQualifiedJavaType answer = parsedTypes.get(fullTypeSpecification);
+        if (answer == null) {
+            answer = new FullyQualifiedJavaType();
+            answer.parse(fullTypeSpecification);
+            if (parsedTypes.size() < MAX_PARSED_TYPES) {
+                FullyQualifiedJavaType existing = parsedTypes.putIfAbsent(fullTypeSpecification, answer);
+                if (existing != null) {
+                    answer = existing;
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    private static boolean isShareable(String fullTypeSpecification) {
+        return fullTypeSpecification.indexOf('<') == -1
+                && fullTypeSpecification.indexOf('?') == -1;
     }
 
     public boolean isExplicitlyImported() {
@@ -93,6 +161,19 @@ public class FullyQualifiedJavaType implements
      * @return Returns the fullyQualifiedName.
      */
     public String getFullyQualifiedName() {
+        validateCalculatedValues();
+        if (fullyQualifiedName == null) {
+            fullyQualifiedName = calculateFullyQualifiedName();
+        }
+
+        return fullyQualifiedName;
+    }
+
+    private String calculateFullyQualifiedName() {
+        if (!wildcardType && typeArguments.isEmpty()) {
+            return baseQualifiedName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -138,6 +219,25 @@ public class FullyQualifiedJavaType implements
      * @return the import list
      */
     public List<String> getImportList() {
+        return new ArrayList<String>(getCalculatedImportList());
+    }
+
+    /**
+     * Returns the cached import list. The list must not be modified. A new list is calculated after a type argument
+     * has been added anywhere in the type's tree, so callers can detect changes by comparing the lists.
+     *
+     * @return the import list
+     */
+    List<String> getCalculatedImportList() {
+        validateCalculatedValues();
+        if (importList == null) {
+            importList = calculateImportList();
+        }
+
+        return importList;
+    }
+
+    private List<String> calculateImportList() {
         List<String> answer = new ArrayList<String>();
         if (isExplicitlyImported()) {
             int index = baseShortName.indexOf('.');
@@ -155,7 +255,7 @@ public class FullyQualifiedJavaType implements
         }
 
         for (FullyQualifiedJavaType fqjt : typeArguments) {
-            answer.addAll(fqjt.getImportList());
+            answer.addAll(fqjt.getCalculatedImportList());
         }
 
         return answer;
@@ -182,6 +282,19 @@ public class FullyQualifiedJavaType implements
      * @return Returns the shortName - including any type arguments.
      */
     public String getShortName() {
+        validateCalculatedValues();
+        if (shortName == null) {
+            shortName = calculateShortName();
+        }
+
+        return shortName;
+    }
+
+    private String calculateShortName() {
+        if (!wildcardType && typeArguments.isEmpty()) {
+            return baseShortName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -259,10 +372,6 @@ public class FullyQualifiedJavaType implements
     }
 
     public static final FullyQualifiedJavaType getIntInstance() {
-        if (intInstance == null) {
-            intInstance = new FullyQualifiedJavaType("int"); //$NON-NLS-1$
-        }
-
         return intInstance;
     }
 
@@ -292,51 +401,26 @@ public class FullyQualifiedJavaType implements
     }
 
     public static final FullyQualifiedJavaType getStringInstance() {
-        if (stringInstance == null) {
-            stringInstance = new FullyQualifiedJavaType("java.lang.String"); //$NON-NLS-1$
-        }
-
         return stringInstance;
     }
 
     public static final FullyQualifiedJavaType getBooleanPrimitiveInstance() {
-        if (booleanPrimitiveInstance == null) {
-            booleanPrimitiveInstance = new FullyQualifiedJavaType("boolean"); //$NON-NLS-1$
-        }
-
         return booleanPrimitiveInstance;
     }
 
     public static final FullyQualifiedJavaType getObjectInstance() {
-        if (objectInstance == null) {
-            objectInstance = new FullyQualifiedJavaType("java.lang.Object"); //$NON-NLS-1$
-        }
-
         return objectInstance;
     }
 
     public static final FullyQualifiedJavaType getDateInstance() {
-        if (dateInstance == null) {
-            dateInstance = new FullyQualifiedJavaType("java.util.Date"); //$NON-NLS-1$
-        }
-
         return dateInstance;
     }
 
     public static final FullyQualifiedJavaType getCriteriaInstance() {
-        if (criteriaInstance == null) {
-            criteriaInstance = new FullyQualifiedJavaType("Criteria"); //$NON-NLS-1$
-        }
-
         return criteriaInstance;
     }
 
     public static final FullyQualifiedJavaType getGeneratedCriteriaInstance() {
-        if (generatedCriteriaInstance == null) {
-            generatedCriteriaInstance = new FullyQualifiedJavaType(
-                    "GeneratedCriteria"); //$NON-NLS-1$
-        }
-
         return generatedCriteriaInstance;
     }
 
@@ -347,6 +431,41 @@ public class FullyQualifiedJavaType implements
 
     public void addTypeArgument(FullyQualifiedJavaType type) {
         typeArguments.add(type);
+        clearCalculatedValues();
+    }
+
+    /**
+     * Discards the calculated names of a type with type arguments if a type argument has been added anywhere in its
+     * tree since they were calculated. The names of a type without type arguments depend only on its own
+     * specification.
+     */
+    private void validateCalculatedValues() {
+        if (typeArguments.isEmpty()) {
+            return;
+        }
+
+        int typeArgumentCount = countTypeArguments();
+        if (typeArgumentCount != calculatedTypeArgumentCount) {
+            clearCalculatedValues();
+            calculatedTypeArgumentCount = typeArgumentCount;
+        }
+    }
+
+    private int countTypeArguments() {
+        int answer = typeArguments.size();
+        for (FullyQualifiedJavaType fqjt : typeArguments) {
+            if (!fqjt.typeArguments.isEmpty()) {
+                answer += fqjt.countTypeArguments();
+            }
+        }
+
+        return answer;
+    }
+
+    private void clearCalculatedValues() {
+        fullyQualifiedName = null;
+        shortName = null;
+        importList = null;
     }
 
     private void parse(String fullTypeSpecification) {
@@ -0,0 +1,138 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The set of types imported by a compilation unit. The sorted import statements are maintained as types are added,
+ * so rendering a compilation unit does not recalculate them.
+ *
+ * <p>The statements are recalculated only if a type is removed, or if an imported type was given more type arguments
+ * after it was added.
+ */
+final class ImportedTypes extends AbstractSet<FullyQualifiedJavaType> {
+
+    private final Set<FullyQualifiedJavaType> types = new TreeSet<FullyQualifiedJavaType>();
+
+    /** The import list of each type at the time it was added. */
+    private final Map<FullyQualifiedJavaType, List<String>> importLists =
+            new IdentityHashMap<FullyQualifiedJavaType, List<String>>();
+
+    private Set<String> importStatements = new TreeSet<String>();
+
+    private Set<String> unmodifiableImportStatements = Collections.unmodifiableSet(importStatements);
+
+    private boolean stale;
+
+    @Override
+    public boolean add(FullyQualifiedJavaType type) {
+        if (!types.add(type)) {
+            return false;
+        }
+
+        addImportStatements(type);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return types.contains(o);
+    }
+
+    @Override
+    public void clear() {
+        types.clear();
+        importLists.clear();
+        importStatements.clear();
+        stale = false;
+    }
+
+    @Override
+    public Iterator<FullyQualifiedJavaType> iterator() {
+        final Iterator<FullyQualifiedJavaType> iterator = types.iterator();
+        return new Iterator<FullyQualifiedJavaType>() {
+            private FullyQualifiedJavaType current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public FullyQualifiedJavaType next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                importLists.remove(current);
+                stale = true;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return types.size();
+    }
+
+    /**
+     * Returns the import statements ("import xxx;") for the imported types, sorted and without duplicates.
+     *
+     * @return the import statements
+     */
+    Set<String> getImportStatements() {
+        if (!stale) {
+            for (Map.Entry<FullyQualifiedJavaType, List<String>> entry : importLists.entrySet()) {
+                // the calculated import list is replaced when a type argument is added to the type
+                if (entry.getKey().getCalculatedImportList() != entry.getValue()) {
+                    stale = true;
+                    break;
+                }
+            }
+        }
+
+        if (stale) {
+            importLists.clear();
+            importStatements = new TreeSet<String>();
+            unmodifiableImportStatements = Collections.unmodifiableSet(importStatements);
+            for (FullyQualifiedJavaType type : types) {
+                addImportStatements(type);
+            }
+            stale = false;
+        }
+
+        return unmodifiableImportStatements;
+    }
+
+    private void addImportStatements(FullyQualifiedJavaType type) {
+        List<String> importList = type.getCalculatedImportList();
+        importLists.put(type, importList);
+        for (String importString : importList) {
+            importStatements.add("import " + importString + ';'); //$NON-NLS-1$
+        }
+    }
+}
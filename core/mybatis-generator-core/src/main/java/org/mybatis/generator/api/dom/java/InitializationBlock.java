@@ -130,4 +130,16 @@ public class InitializationBlock {
 
         return sb.toString();
     }
+
+    /**
+     * Adds the formatted content of this initialization block to the content of its class.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel) {
+        sb.append(getFormattedContent(indentLevel));
+    }
 }
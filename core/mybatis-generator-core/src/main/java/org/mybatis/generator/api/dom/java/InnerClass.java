@@ -223,7 +223,28 @@ public class InnerClass extends JavaElement {
      */
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        formatContent(sb, indentLevel, compilationUnit);
+        return sb.toString();
+    }
 
+    /**
+     * Adds the formatted content of this class to the content of its parent.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(indentLevel, compilationUnit));
+    }
+
+    /**
+     * Formats this class into the StringBuilder. Compilation units use this to add the class to their own
+     * StringBuilder.
+     */
+    void formatContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
         addFormattedJavadoc(sb, indentLevel);
         addFormattedAnnotations(sb, indentLevel);
 
@@ -252,7 +273,7 @@ public class InnerClass extends JavaElement {
                 if (comma) {
                     sb.append(", "); //$NON-NLS-1$
                 }
-                sb.append(typeParameter.getFormattedContent(compilationUnit));
+                typeParameter.addFormattedContent(sb, compilationUnit);
                 comma = true;
             }
             sb.append("> "); //$NON-NLS-1$
@@ -285,7 +306,7 @@ public class InnerClass extends JavaElement {
         while (fldIter.hasNext()) {
             OutputUtilities.newLine(sb);
             Field field = fldIter.next();
-            sb.append(field.getFormattedContent(indentLevel, compilationUnit));
+            field.addFormattedContent(sb, indentLevel, compilationUnit);
             if (fldIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -299,7 +320,7 @@ public class InnerClass extends JavaElement {
         while (blkIter.hasNext()) {
             OutputUtilities.newLine(sb);
             InitializationBlock initializationBlock = blkIter.next();
-            sb.append(initializationBlock.getFormattedContent(indentLevel));
+            initializationBlock.addFormattedContent(sb, indentLevel);
             if (blkIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -313,7 +334,7 @@ public class InnerClass extends JavaElement {
         while (mtdIter.hasNext()) {
             OutputUtilities.newLine(sb);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, false, compilationUnit));
+            method.addFormattedContent(sb, indentLevel, false, compilationUnit);
             if (mtdIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -326,7 +347,7 @@ public class InnerClass extends JavaElement {
         while (icIter.hasNext()) {
             OutputUtilities.newLine(sb);
             InnerClass innerClass = icIter.next();
-            sb.append(innerClass.getFormattedContent(indentLevel, compilationUnit));
+            innerClass.addFormattedContent(sb, indentLevel, compilationUnit);
             if (icIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -340,7 +361,7 @@ public class InnerClass extends JavaElement {
         while (ieIter.hasNext()) {
             OutputUtilities.newLine(sb);
             InnerEnum innerEnum = ieIter.next();
-            sb.append(innerEnum.getFormattedContent(indentLevel, compilationUnit));
+            innerEnum.addFormattedContent(sb, indentLevel, compilationUnit);
             if (ieIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -350,8 +371,6 @@ public class InnerClass extends JavaElement {
         OutputUtilities.newLine(sb);
         OutputUtilities.javaIndent(sb, indentLevel);
         sb.append('}');
-
-        return sb.toString();
     }
 
     /**
@@ -155,7 +155,28 @@ public class InnerEnum extends JavaElement {
      */
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        formatContent(sb, indentLevel, compilationUnit);
+        return sb.toString();
+    }
+
+    /**
+     * Adds the formatted content of this enum to the content of its parent.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(indentLevel, compilationUnit));
+    }
 
+    /**
+     * Formats this enum into the StringBuilder. Compilation units use this to add the enum to their own
+     * StringBuilder.
+     */
+    void formatContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
         addFormattedJavadoc(sb, indentLevel);
         addFormattedAnnotations(sb, indentLevel);
 
@@ -207,7 +228,7 @@ public class InnerEnum extends JavaElement {
         while (fldIter.hasNext()) {
             OutputUtilities.newLine(sb);
             Field field = fldIter.next();
-            sb.append(field.getFormattedContent(indentLevel, compilationUnit));
+            field.addFormattedContent(sb, indentLevel, compilationUnit);
             if (fldIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -221,7 +242,7 @@ public class InnerEnum extends JavaElement {
         while (mtdIter.hasNext()) {
             OutputUtilities.newLine(sb);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, false, compilationUnit));
+            method.addFormattedContent(sb, indentLevel, false, compilationUnit);
             if (mtdIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -235,7 +256,7 @@ public class InnerEnum extends JavaElement {
         while (icIter.hasNext()) {
             OutputUtilities.newLine(sb);
             InnerClass innerClass = icIter.next();
-            sb.append(innerClass.getFormattedContent(indentLevel, compilationUnit));
+            innerClass.addFormattedContent(sb, indentLevel, compilationUnit);
             if (icIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -249,7 +270,7 @@ public class InnerEnum extends JavaElement {
         while (ieIter.hasNext()) {
             OutputUtilities.newLine(sb);
             InnerEnum innerEnum = ieIter.next();
-            sb.append(innerEnum.getFormattedContent(indentLevel, compilationUnit));
+            innerEnum.addFormattedContent(sb, indentLevel, compilationUnit);
             if (ieIter.hasNext()) {
                 OutputUtilities.newLine(sb);
             }
@@ -259,8 +280,6 @@ public class InnerEnum extends JavaElement {
         OutputUtilities.newLine(sb);
         OutputUtilities.javaIndent(sb, indentLevel);
         sb.append('}');
-
-        return sb.toString();
     }
 
     /**
@@ -90,7 +90,28 @@ public class InnerInterface extends JavaElement {
      */
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        formatContent(sb, indentLevel, compilationUnit);
+        return sb.toString();
+    }
+
+    /**
+     * Adds the formatted content of this interface to the content of its parent.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(indentLevel, compilationUnit));
+    }
 
+    /**
+     * Formats this interface into the StringBuilder. Compilation units use this to add the interface to their own
+     * StringBuilder.
+     */
+    void formatContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
         addFormattedJavadoc(sb, indentLevel);
         addFormattedAnnotations(sb, indentLevel);
 
@@ -130,7 +151,7 @@ public class InnerInterface extends JavaElement {
         while (fldIter.hasNext()) {
             OutputUtilities.newLine(sb);
             Field field = fldIter.next();
-            sb.append(field.getFormattedContent(indentLevel, compilationUnit));
+            field.addFormattedContent(sb, indentLevel, compilationUnit);
         }
 
         if (fields.size() > 0 && methods.size() > 0) {
@@ -141,7 +162,7 @@ public class InnerInterface extends JavaElement {
         while (mtdIter.hasNext()) {
             newLine(sb);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, true, compilationUnit));
+            method.addFormattedContent(sb, indentLevel, true, compilationUnit);
             if (mtdIter.hasNext()) {
                 newLine(sb);
             }
@@ -154,7 +175,7 @@ public class InnerInterface extends JavaElement {
         while (iiIter.hasNext()) {
             newLine(sb);
             InnerInterface innerInterface = iiIter.next();
-            sb.append(innerInterface.getFormattedContent(indentLevel, compilationUnit));
+            innerInterface.addFormattedContent(sb, indentLevel, compilationUnit);
             if (iiIter.hasNext()) {
                 newLine(sb);
             }
@@ -164,8 +185,6 @@ public class InnerInterface extends JavaElement {
         newLine(sb);
         javaIndent(sb, indentLevel);
         sb.append('}');
-
-        return sb.toString();
     }
 
     /**
@@ -214,7 +214,7 @@ public class Method extends JavaElement {
                     comma = true;
                 }
 
-                sb.append(typeParameter.getFormattedContent(compilationUnit));
+                typeParameter.addFormattedContent(sb, compilationUnit);
             }
             sb.append("> "); //$NON-NLS-1$
         }
@@ -239,7 +239,7 @@ public class Method extends JavaElement {
                 comma = true;
             }
 
-            sb.append(parameter.getFormattedContent(compilationUnit));
+            parameter.addFormattedContent(sb, compilationUnit);
         }
 
         sb.append(')');
@@ -305,6 +305,21 @@ public class Method extends JavaElement {
         return sb.toString();
     }
 
+    /**
+     * Adds the formatted content of this method to the content of its class, interface, or enum.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param indentLevel
+     *            the indent level
+     * @param interfaceMethod
+     *            the interface method
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, int indentLevel, boolean interfaceMethod, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(indentLevel, interfaceMethod, compilationUnit));
+    }
+
     /**
      * Checks if is constructor.
      *
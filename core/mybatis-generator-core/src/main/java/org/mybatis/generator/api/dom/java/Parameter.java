@@ -88,6 +88,17 @@ public class Parameter {
         return sb.toString();
     }
 
+    /**
+     * Adds the formatted content of this parameter to the content of its method.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(compilationUnit));
+    }
+
     @Override
     public String toString() {
         return getFormattedContent(null);
@@ -16,14 +16,22 @@
 package org.mybatis.generator.api.dom.java;
 
 public class PrimitiveTypeWrapper extends FullyQualifiedJavaType {
-    private static PrimitiveTypeWrapper booleanInstance;
-    private static PrimitiveTypeWrapper byteInstance;
-    private static PrimitiveTypeWrapper characterInstance;
-    private static PrimitiveTypeWrapper doubleInstance;
-    private static PrimitiveTypeWrapper floatInstance;
-    private static PrimitiveTypeWrapper integerInstance;
-    private static PrimitiveTypeWrapper longInstance;
-    private static PrimitiveTypeWrapper shortInstance;
+    private static final PrimitiveTypeWrapper booleanInstance =
+            new PrimitiveTypeWrapper("java.lang.Boolean", "booleanValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper byteInstance =
+            new PrimitiveTypeWrapper("java.lang.Byte", "byteValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper characterInstance =
+            new PrimitiveTypeWrapper("java.lang.Character", "charValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper doubleInstance =
+            new PrimitiveTypeWrapper("java.lang.Double", "doubleValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper floatInstance =
+            new PrimitiveTypeWrapper("java.lang.Float", "floatValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper integerInstance =
+            new PrimitiveTypeWrapper("java.lang.Integer", "intValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper longInstance =
+            new PrimitiveTypeWrapper("java.lang.Long", "longValue()"); //$NON-NLS-1$ //$NON-NLS-2$
+    private static final PrimitiveTypeWrapper shortInstance =
+            new PrimitiveTypeWrapper("java.lang.Short", "shortValue()"); //$NON-NLS-1$ //$NON-NLS-2$
 
     private String toPrimitiveMethod;
 
@@ -47,74 +55,34 @@ public class PrimitiveTypeWrapper extends FullyQualifiedJavaType {
     }
 
     public static PrimitiveTypeWrapper getBooleanInstance() {
-        if (booleanInstance == null) {
-            booleanInstance = new PrimitiveTypeWrapper("java.lang.Boolean", //$NON-NLS-1$
-                    "booleanValue()"); //$NON-NLS-1$
-        }
-
         return booleanInstance;
     }
 
     public static PrimitiveTypeWrapper getByteInstance() {
-        if (byteInstance == null) {
-            byteInstance = new PrimitiveTypeWrapper("java.lang.Byte", //$NON-NLS-1$
-                    "byteValue()"); //$NON-NLS-1$
-        }
-
         return byteInstance;
     }
 
     public static PrimitiveTypeWrapper getCharacterInstance() {
-        if (characterInstance == null) {
-            characterInstance = new PrimitiveTypeWrapper("java.lang.Character", //$NON-NLS-1$
-                    "charValue()"); //$NON-NLS-1$
-        }
-
         return characterInstance;
     }
 
     public static PrimitiveTypeWrapper getDoubleInstance() {
-        if (doubleInstance == null) {
-            doubleInstance = new PrimitiveTypeWrapper("java.lang.Double", //$NON-NLS-1$
-                    "doubleValue()"); //$NON-NLS-1$
-        }
-
         return doubleInstance;
     }
 
     public static PrimitiveTypeWrapper getFloatInstance() {
-        if (floatInstance == null) {
-            floatInstance = new PrimitiveTypeWrapper("java.lang.Float", //$NON-NLS-1$
-                    "floatValue()"); //$NON-NLS-1$
-        }
-
         return floatInstance;
     }
 
     public static PrimitiveTypeWrapper getIntegerInstance() {
-        if (integerInstance == null) {
-            integerInstance = new PrimitiveTypeWrapper("java.lang.Integer", //$NON-NLS-1$
-                    "intValue()"); //$NON-NLS-1$
-        }
-
         return integerInstance;
     }
 
     public static PrimitiveTypeWrapper getLongInstance() {
-        if (longInstance == null) {
-            longInstance = new PrimitiveTypeWrapper("java.lang.Long", //$NON-NLS-1$
-                    "longValue()"); //$NON-NLS-1$
-        }
-
         return longInstance;
     }
 
     public static PrimitiveTypeWrapper getShortInstance() {
-        if (shortInstance == null) {
-            shortInstance = new PrimitiveTypeWrapper("java.lang.Short", //$NON-NLS-1$
-                    "shortValue()"); //$NON-NLS-1$
-        }
-
         return shortInstance;
     }
 }
@@ -15,7 +15,6 @@
  */
 package org.mybatis.generator.api.dom.java;
 
-import static org.mybatis.generator.api.dom.OutputUtilities.calculateImports;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
@@ -31,7 +30,7 @@ import java.util.TreeSet;
  */
 public class TopLevelClass extends InnerClass implements CompilationUnit {
 
-    private Set<FullyQualifiedJavaType> importedTypes;
+    private ImportedTypes importedTypes;
 
     private Set<String> staticImports;
 
@@ -39,7 +38,7 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
 
     public TopLevelClass(FullyQualifiedJavaType type) {
         super(type);
-        importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes = new ImportedTypes();
         fileCommentLines = new ArrayList<String>();
         staticImports = new TreeSet<String>();
     }
@@ -96,7 +95,7 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
             newLine(sb);
         }
 
-        Set<String> importStrings = calculateImports(importedTypes);
+        Set<String> importStrings = importedTypes.getImportStatements();
         for (String importString : importStrings) {
             sb.append(importString);
             newLine(sb);
@@ -106,7 +105,7 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
             newLine(sb);
         }
 
-        sb.append(super.getFormattedContent(0, this));
+        super.formatContent(sb, 0, this);
 
         return sb.toString();
     }
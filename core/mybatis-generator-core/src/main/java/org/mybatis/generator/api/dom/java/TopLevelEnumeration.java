@@ -15,7 +15,6 @@
  */
 package org.mybatis.generator.api.dom.java;
 
-import static org.mybatis.generator.api.dom.OutputUtilities.calculateImports;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
@@ -26,7 +25,7 @@ import java.util.TreeSet;
 
 public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
 
-    private Set<FullyQualifiedJavaType> importedTypes;
+    private ImportedTypes importedTypes;
 
     private Set<String> staticImports;
 
@@ -40,7 +39,7 @@ public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
      */
     public TopLevelEnumeration(FullyQualifiedJavaType type) {
         super(type);
-        importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes = new ImportedTypes();
         fileCommentLines = new ArrayList<String>();
         staticImports = new TreeSet<String>();
     }
@@ -74,7 +73,7 @@ public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
             newLine(sb);
         }
 
-        Set<String> importStrings = calculateImports(importedTypes);
+        Set<String> importStrings = importedTypes.getImportStatements();
         for (String importString : importStrings) {
             sb.append(importString);
             newLine(sb);
@@ -84,7 +83,7 @@ public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
             newLine(sb);
         }
 
-        sb.append(super.getFormattedContent(0, this));
+        super.formatContent(sb, 0, this);
 
         return sb.toString();
     }
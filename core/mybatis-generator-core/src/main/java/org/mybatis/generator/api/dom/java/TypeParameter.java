@@ -69,6 +69,17 @@ public class TypeParameter {
         return sb.toString();
     }
 
+    /**
+     * Adds the formatted content of this type parameter to the content of its class or method.
+     *
+     * @param sb
+     *            the StringBuilder of the parent
+     * @param compilationUnit the compilation unit
+     */
+    protected void addFormattedContent(StringBuilder sb, CompilationUnit compilationUnit) {
+        sb.append(getFormattedContent(compilationUnit));
+    }
+
     @Override
     public String toString() {
         return getFormattedContent(null);
@@ -67,12 +67,21 @@ public class Attribute implements Comparable<Attribute> {
      */
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
+        addFormattedContent(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Adds the formatted content to a StringBuilder.
+     *
+     * @param sb
+     *            the StringBuilder
+     */
+    public void addFormattedContent(StringBuilder sb) {
         sb.append(name);
         sb.append("=\""); //$NON-NLS-1$
         sb.append(value);
         sb.append('\"');
-
-        return sb.toString();
     }
 
     @Override
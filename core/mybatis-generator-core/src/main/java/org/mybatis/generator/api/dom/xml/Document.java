@@ -113,7 +113,7 @@ public class Document {
         }
 
         OutputUtilities.newLine(sb);
-        sb.append(rootElement.getFormattedContent(0));
+        rootElement.addFormattedContent(sb, 0);
 
         return sb.toString();
     }
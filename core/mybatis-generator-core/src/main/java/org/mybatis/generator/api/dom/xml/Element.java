@@ -22,4 +22,17 @@ public abstract class Element {
     }
 
     public abstract String getFormattedContent(int indentLevel);
+
+    /**
+     * Adds the formatted content to a StringBuilder. Subclasses should override this method so that nested
+     * elements are rendered into one buffer, rather than into a separate String for every element.
+     *
+     * @param sb
+     *            the StringBuilder
+     * @param indentLevel
+     *            the indent level
+     */
+    public void addFormattedContent(StringBuilder sb, int indentLevel) {
+        sb.append(getFormattedContent(indentLevel));
+    }
 }
@@ -44,9 +44,14 @@ public class TextElement extends Element {
     @Override
     public String getFormattedContent(int indentLevel) {
         StringBuilder sb = new StringBuilder();
+        addFormattedContent(sb, indentLevel);
+        return sb.toString();
+    }
+
+    @Override
+    public void addFormattedContent(StringBuilder sb, int indentLevel) {
         OutputUtilities.xmlIndent(sb, indentLevel);
         sb.append(content);
-        return sb.toString();
     }
 
     /**
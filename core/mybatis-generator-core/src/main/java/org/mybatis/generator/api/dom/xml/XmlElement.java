@@ -130,7 +130,12 @@ public class XmlElement extends Element {
     @Override
     public String getFormattedContent(int indentLevel) {
         StringBuilder sb = new StringBuilder();
+        addFormattedContent(sb, indentLevel);
+        return sb.toString();
+    }
 
+    @Override
+    public void addFormattedContent(StringBuilder sb, int indentLevel) {
         OutputUtilities.xmlIndent(sb, indentLevel);
         sb.append('<');
         sb.append(name);
@@ -138,14 +143,14 @@ public class XmlElement extends Element {
         Collections.sort(attributes);
         for (Attribute att : attributes) {
             sb.append(' ');
-            sb.append(att.getFormattedContent());
+            att.addFormattedContent(sb);
         }
 
         if (elements.size() > 0) {
             sb.append(">"); //$NON-NLS-1$
             for (Element element : elements) {
                 OutputUtilities.newLine(sb);
-                sb.append(element.getFormattedContent(indentLevel + 1));
+                element.addFormattedContent(sb, indentLevel + 1);
             }
             OutputUtilities.newLine(sb);
             OutputUtilities.xmlIndent(sb, indentLevel);
@@ -156,8 +161,6 @@ public class XmlElement extends Element {
         } else {
             sb.append(" />"); //$NON-NLS-1$
         }
-
-        return sb.toString();
     }
 
     /**
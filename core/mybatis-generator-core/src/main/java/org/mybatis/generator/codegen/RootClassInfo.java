@@ -20,130 +20,305 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.beans.BeanInfo;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.util.Collections;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.internal.GeneratorSession;
 import org.mybatis.generator.internal.ObjectFactory;
 
 /**
  * Holds information about a class (uses the JavaBeans Introspector to find properties).
+ *
+ * <p>The results of introspection are kept across generation runs. A cached class is checked once per
+ * {@link GeneratorSession}, and is introspected again only if it is now loaded from a different class loader and the
+ * class files of the class or any of its superclasses and interfaces have a different location or timestamp. Classes
+ * that cannot be introspected are remembered, and reported, once per session only.
+ *
  * @author Jeff Butler
  * 
  */
 public class RootClassInfo {
 
-    private static Map<String, RootClassInfo> rootClassInfoMap;
-
-    static {
-        rootClassInfoMap = Collections
-                .synchronizedMap(new HashMap<String, RootClassInfo>());
-    }
+    private static final ConcurrentMap<String, ClassInfo> classInfoMap =
+            new ConcurrentHashMap<String, ClassInfo>();
 
+    /**
+     * Returns the root class info for a class. Warnings about individual properties are always added to the list
+     * passed in here, so the result may be used safely while several tables are generated concurrently.
+     *
+     * @param className
+     *            the root class
+     * @param warnings
+     *            the warnings list of the caller
+     * @return the root class info
+     */
     public static RootClassInfo getInstance(String className,
             List<String> warnings) {
-        RootClassInfo classInfo = rootClassInfoMap.get(className);
+        if (className == null) {
+            return new RootClassInfo(null, ClassInfo.EMPTY, warnings);
+        }
+
+        ConcurrentMap<String, ClassInfo> sessionClassInfoMap = getSessionClassInfoMap();
+        ClassInfo classInfo = sessionClassInfoMap.get(className);
         if (classInfo == null) {
-            classInfo = new RootClassInfo(className, warnings);
-            rootClassInfoMap.put(className, classInfo);
+            classInfo = classInfoMap.get(className);
+            if (classInfo == null || !classInfo.isCurrent()) {
+                classInfo = ClassInfo.introspect(className, classInfo, warnings);
+                if (classInfo.properties != null) {
+                    classInfoMap.put(className, classInfo);
+                }
+            }
+            sessionClassInfoMap.put(className, classInfo);
         }
 
-        return classInfo;
+        return new RootClassInfo(className, classInfo, warnings);
+    }
+
+    /**
+     * Returns the classes that have already been checked in the current session.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<String, ClassInfo> getSessionClassInfoMap() {
+        GeneratorSession session = GeneratorSession.getCurrent();
+        ConcurrentMap<String, ClassInfo> answer =
+                (ConcurrentMap<String, ClassInfo>) session.getAttribute(RootClassInfo.class);
+        if (answer == null) {
+            answer = (ConcurrentMap<String, ClassInfo>) session.putAttributeIfAbsent(RootClassInfo.class,
+                    new ConcurrentHashMap<String, ClassInfo>());
+        }
+        return answer;
     }
 
     /**
-     * Clears the internal map containing root class info.  This method should be called at the beginning of
-     * a generation run to clear the cached root class info in case there has been a change.
-     * For example, when using the eclipse launcher, the cache would be kept until eclipse
-     * was restarted.
+     * Clears the internal map containing root class info. Generation runs do not need to call this method because
+     * changed classes are detected, but a long running host may call it to release the cached information.
      * 
      */
     public static void reset() {
-        rootClassInfoMap.clear();
+        classInfoMap.clear();
     }
 
-    private PropertyDescriptor[] propertyDescriptors;
     private String className;
+    private Map<String, PropertyInfo> properties;
     private List<String> warnings;
     private boolean genericMode = false;
 
-    private RootClassInfo(String className, List<String> warnings) {
+    private RootClassInfo(String className, ClassInfo classInfo, List<String> warnings) {
         super();
         this.className = className;
+        this.properties = classInfo.properties;
+        this.genericMode = classInfo.genericMode;
         this.warnings = warnings;
+    }
 
-        if (className == null) {
-            return;
+    public boolean containsProperty(IntrospectedColumn introspectedColumn) {
+        if (properties == null) {
+            return false;
         }
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(className);
-        String nameWithoutGenerics = fqjt.getFullyQualifiedNameWithoutTypeParameters();
-        if (!nameWithoutGenerics.equals(className)) {
-            genericMode = true;
+        String propertyName = introspectedColumn.getJavaProperty();
+        PropertyInfo property = properties.get(propertyName);
+        if (property == null) {
+            return false;
         }
 
-        try {
-            Class<?> clazz = ObjectFactory.externalClassForName(nameWithoutGenerics);
-            BeanInfo bi = Introspector.getBeanInfo(clazz);
-            propertyDescriptors = bi.getPropertyDescriptors();
-        } catch (Exception e) {
-            propertyDescriptors = null;
-            warnings.add(getString("Warning.20", className)); //$NON-NLS-1$
+        String propertyType = introspectedColumn.getFullyQualifiedJavaType()
+                .getFullyQualifiedName();
+
+        // property name is in the rootClass...
+
+        // Is it the proper type?
+        if (genericMode && "java.lang.Object".equals(property.type)) { //$NON-NLS-1$
+            // OK - but add a warning
+            warnings.add(getString("Warning.28", //$NON-NLS-1$
+                    propertyName, className));
+        } else if (!propertyType.equals(property.type)) {
+            warnings.add(getString("Warning.21", //$NON-NLS-1$
+                    propertyName, className, propertyType));
+            return false;
         }
-    }
 
-    public boolean containsProperty(IntrospectedColumn introspectedColumn) {
-        if (propertyDescriptors == null) {
+        // Does it have a getter?
+        if (!property.readable) {
+            warnings.add(getString("Warning.22", //$NON-NLS-1$
+                    propertyName, className));
             return false;
         }
 
-        boolean found = false;
-        String propertyName = introspectedColumn.getJavaProperty();
-        String propertyType = introspectedColumn.getFullyQualifiedJavaType()
-                .getFullyQualifiedName();
+        // Does it have a setter?
+        if (!property.writable) {
+            warnings.add(getString("Warning.23", //$NON-NLS-1$
+                    propertyName, className));
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * The part of a property descriptor needed to check a column. Holding no reflective objects means a cached entry
+     * does not keep a class loader alive.
+     */
+    private static class PropertyInfo {
+        private final String type;
+        private final boolean readable;
+        private final boolean writable;
 
-        // get method names from class and check against this column definition.
-        // better yet, have a map of method Names. check against it.
-        for (int i = 0; i < propertyDescriptors.length; i++) {
-            PropertyDescriptor propertyDescriptor = propertyDescriptors[i];
-
-            if (propertyDescriptor.getName().equals(propertyName)) {
-                // property name is in the rootClass...
-
-                // Is it the proper type?
-                String introspectedPropertyType = propertyDescriptor.getPropertyType().getName();
-                if (genericMode && introspectedPropertyType.equals("java.lang.Object")) { //$NON-NLS-1$
-                    // OK - but add a warning
-                    warnings.add(getString("Warning.28", //$NON-NLS-1$
-                            propertyName, className));
-                } else if (!introspectedPropertyType.equals(propertyType)) {
-                    warnings.add(getString("Warning.21", //$NON-NLS-1$
-                            propertyName, className, propertyType));
-                    break;
+        PropertyInfo(PropertyDescriptor propertyDescriptor) {
+            Class<?> propertyType = propertyDescriptor.getPropertyType();
+            type = propertyType == null ? null : propertyType.getName();
+            readable = propertyDescriptor.getReadMethod() != null;
+            writable = propertyDescriptor.getWriteMethod() != null;
+        }
+    }
+
+    /**
+     * The cached result of introspecting a root class.
+     */
+    private static class ClassInfo {
+        static final ClassInfo EMPTY = new ClassInfo(null, false, null, null);
+
+        /** The properties by name, or null if the class could not be introspected. */
+        private final Map<String, PropertyInfo> properties;
+        private final boolean genericMode;
+        private final WeakReference<Class<?>> introspectedClass;
+        /** The locations and timestamps of the class files of the whole hierarchy, or null if any is unknown. */
+        private final String classFiles;
+
+        private ClassInfo(Map<String, PropertyInfo> properties, boolean genericMode,
+                Class<?> introspectedClass, String classFiles) {
+            this.properties = properties;
+            this.genericMode = genericMode;
+            this.introspectedClass = new WeakReference<Class<?>>(introspectedClass);
+            this.classFiles = classFiles;
+        }
+
+        /**
+         * Returns true if the class would be loaded from the same class loader, and therefore has not changed.
+         */
+        boolean isCurrent() {
+            Class<?> clazz = introspectedClass.get();
+            return clazz != null && clazz == loadClass(clazz.getName());
+        }
+
+        static ClassInfo introspect(String className, ClassInfo previous, List<String> warnings) {
+            String nameWithoutGenerics = new FullyQualifiedJavaType(className)
+                    .getFullyQualifiedNameWithoutTypeParameters();
+            boolean genericMode = !nameWithoutGenerics.equals(className);
+
+            Class<?> clazz = loadClass(nameWithoutGenerics);
+            if (clazz == null) {
+                return failed(className, genericMode, warnings);
+            }
+
+            StringBuilder sb = new StringBuilder();
+            String classFiles = appendClassFiles(sb, clazz, new HashSet<Class<?>>()) ? sb.toString() : null;
+
+            if (previous != null && previous.properties != null && classFiles != null
+                    && classFiles.equals(previous.classFiles)) {
+                // a new class loader, but the same class files
+                return new ClassInfo(previous.properties, genericMode, clazz, classFiles);
+            }
+
+            Map<String, PropertyInfo> properties = new HashMap<String, PropertyInfo>();
+            try {
+                BeanInfo bi = Introspector.getBeanInfo(clazz);
+                for (PropertyDescriptor propertyDescriptor : bi.getPropertyDescriptors()) {
+                    properties.put(propertyDescriptor.getName(), new PropertyInfo(propertyDescriptor));
                 }
+            } catch (Exception e) {
+                return failed(className, genericMode, warnings);
+            }
+
+            return new ClassInfo(properties, genericMode, clazz, classFiles);
+        }
 
-                // Does it have a getter?
-                if (propertyDescriptor.getReadMethod() == null) {
-                    warnings.add(getString("Warning.22", //$NON-NLS-1$
-                            propertyName, className));
-                    break;
+        private static ClassInfo failed(String className, boolean genericMode, List<String> warnings) {
+            String warning = getString("Warning.20", className); //$NON-NLS-1$
+            if (GeneratorSession.getCurrent().isFirstReport(warning)) {
+                warnings.add(warning);
+            }
+            return new ClassInfo(null, genericMode, null, null);
+        }
+
+        private static Class<?> loadClass(String name) {
+            try {
+                return ObjectFactory.externalClassForName(name);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        /**
+         * Appends the location and timestamp of the class file of a class, its superclasses and its interfaces.
+         * Classes of the bootstrap class loader are skipped because they cannot change.
+         *
+         * @return false if the class file of any class in the hierarchy is unknown
+         */
+        private static boolean appendClassFiles(StringBuilder sb, Class<?> clazz, Set<Class<?>> visited) {
+            if (clazz == null || clazz.getClassLoader() == null || !visited.add(clazz)) {
+                return true;
+            }
+
+            URL url = clazz.getResource('/' + clazz.getName().replace('.', '/') + ".class"); //$NON-NLS-1$
+            File classFile = url == null ? null : getClassFile(url);
+            if (classFile == null) {
+                return false;
+            }
+
+            sb.append(url.toExternalForm());
+            sb.append('@');
+            sb.append(classFile.lastModified());
+            sb.append('\n');
+
+            if (!appendClassFiles(sb, clazz.getSuperclass(), visited)) {
+                return false;
+            }
+
+            for (Class<?> anInterface : clazz.getInterfaces()) {
+                if (!appendClassFiles(sb, anInterface, visited)) {
+                    return false;
                 }
+            }
 
-                // Does it have a setter?
-                if (propertyDescriptor.getWriteMethod() == null) {
-                    warnings.add(getString("Warning.23", //$NON-NLS-1$
-                            propertyName, className));
-                    break;
+            return true;
+        }
+
+        /**
+         * Returns the file holding a class - either the class file itself or the JAR that contains it. Returns null
+         * for any other kind of location, in which case the class is introspected again whenever its class loader
+         * changes.
+         */
+        private static File getClassFile(URL url) {
+            try {
+                URL fileUrl = url;
+                if ("jar".equals(url.getProtocol())) { //$NON-NLS-1$
+                    String path = url.getPath();
+                    int index = path.indexOf("!/"); //$NON-NLS-1$
+                    if (index == -1) {
+                        return null;
+                    }
+                    fileUrl = new URL(path.substring(0, index));
                 }
 
-                found = true;
-                break;
+                if ("file".equals(fileUrl.getProtocol())) { //$NON-NLS-1$
+                    return new File(fileUrl.toURI());
+                }
+            } catch (Exception e) {
+                // fall through
             }
-        }
 
-        return found;
+            return null;
+        }
     }
 }
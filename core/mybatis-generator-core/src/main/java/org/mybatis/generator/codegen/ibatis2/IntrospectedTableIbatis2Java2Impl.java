@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.ProgressCallback;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
@@ -148,8 +149,14 @@ public class IntrospectedTableIbatis2Java2Impl extends IntrospectedTable {
         List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
 
         for (AbstractJavaGenerator javaGenerator : javaModelGenerators) {
-            List<CompilationUnit> compilationUnits = javaGenerator
-                    .getCompilationUnits();
+            List<CompilationUnit> compilationUnits;
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                    javaGenerator.getClass().getSimpleName());
+            try {
+                compilationUnits = javaGenerator.getCompilationUnits();
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
             for (CompilationUnit compilationUnit : compilationUnits) {
                 GeneratedJavaFile gjf = new GeneratedJavaFile(compilationUnit,
                         context.getJavaModelGeneratorConfiguration()
@@ -161,8 +168,14 @@ public class IntrospectedTableIbatis2Java2Impl extends IntrospectedTable {
         }
 
         for (AbstractJavaGenerator javaGenerator : daoGenerators) {
-            List<CompilationUnit> compilationUnits = javaGenerator
-                    .getCompilationUnits();
+            List<CompilationUnit> compilationUnits;
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                    javaGenerator.getClass().getSimpleName());
+            try {
+                compilationUnits = javaGenerator.getCompilationUnits();
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
             for (CompilationUnit compilationUnit : compilationUnits) {
                 GeneratedJavaFile gjf = new GeneratedJavaFile(compilationUnit,
                         context.getJavaClientGeneratorConfiguration()
@@ -180,7 +193,14 @@ public class IntrospectedTableIbatis2Java2Impl extends IntrospectedTable {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         List<GeneratedXmlFile> answer = new ArrayList<GeneratedXmlFile>();
 
-        Document document = sqlMapGenerator.getDocument();
+        Document document;
+        GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                sqlMapGenerator.getClass().getSimpleName());
+        try {
+            document = sqlMapGenerator.getDocument();
+        } finally {
+            GenerationMetrics.stop(timer);
+        }
         GeneratedXmlFile gxf = new GeneratedXmlFile(document,
                 getIbatis2SqlMapFileName(), getIbatis2SqlMapPackage(), context
                         .getSqlMapGeneratorConfiguration().getTargetProject(),
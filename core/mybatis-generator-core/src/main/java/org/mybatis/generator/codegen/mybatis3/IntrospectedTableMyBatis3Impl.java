@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.ProgressCallback;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
@@ -173,8 +174,14 @@ public class IntrospectedTableMyBatis3Impl extends IntrospectedTable {
         List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
 
         for (AbstractJavaGenerator javaGenerator : javaModelGenerators) {
-            List<CompilationUnit> compilationUnits = javaGenerator
-                    .getCompilationUnits();
+            List<CompilationUnit> compilationUnits;
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                    javaGenerator.getClass().getSimpleName());
+            try {
+                compilationUnits = javaGenerator.getCompilationUnits();
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
             for (CompilationUnit compilationUnit : compilationUnits) {
                 GeneratedJavaFile gjf = new GeneratedJavaFile(compilationUnit,
                         context.getJavaModelGeneratorConfiguration()
@@ -186,8 +193,14 @@ public class IntrospectedTableMyBatis3Impl extends IntrospectedTable {
         }
 
         for (AbstractJavaGenerator javaGenerator : clientGenerators) {
-            List<CompilationUnit> compilationUnits = javaGenerator
-                    .getCompilationUnits();
+            List<CompilationUnit> compilationUnits;
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                    javaGenerator.getClass().getSimpleName());
+            try {
+                compilationUnits = javaGenerator.getCompilationUnits();
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
             for (CompilationUnit compilationUnit : compilationUnits) {
                 GeneratedJavaFile gjf = new GeneratedJavaFile(compilationUnit,
                         context.getJavaClientGeneratorConfiguration()
@@ -206,7 +219,14 @@ public class IntrospectedTableMyBatis3Impl extends IntrospectedTable {
         List<GeneratedXmlFile> answer = new ArrayList<GeneratedXmlFile>();
 
         if (xmlMapperGenerator != null) {
-            Document document = xmlMapperGenerator.getDocument();
+            Document document;
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_GENERATOR,
+                    xmlMapperGenerator.getClass().getSimpleName());
+            try {
+                document = xmlMapperGenerator.getDocument();
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
             String tmp = context.getProperty("mergeable");
             boolean mergeable = false;
             if("true".equalsIgnoreCase(tmp)){
@@ -18,7 +18,14 @@ package org.mybatis.generator.codegen.mybatis3;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.internal.db.PagingDialects;
 
 /**
  * The Class MyBatis3FormattingUtilities.
@@ -27,6 +34,11 @@ import org.mybatis.generator.api.IntrospectedColumn;
  */
 public class MyBatis3FormattingUtilities {
 
+    /**
+     * The name that an insert batch statement binds to its records when the table sets insertBatchMaxRows.
+     */
+    public static final String INSERT_BATCH_BOUNDED_LIST = "listWithinInsertBatchMaxRows"; //$NON-NLS-1$
+
     /**
      * Utility class - no instances.
      */
@@ -217,4 +229,243 @@ public class MyBatis3FormattingUtilities {
         // nothing to do for MyBatis3 so far
         return s;
     }
+
+    /**
+     * Calculates the value of the &lt;bind&gt; that limits the rows of an insert batch statement. A longer
+     * list is bound to null, so MyBatis rejects the statement before it reaches the database with an error
+     * saying that listWithinInsertBatchMaxRows evaluated to a null value.
+     *
+     * @param maxRows
+     *            the insertBatchMaxRows of the table
+     * @return the OGNL expression
+     */
+    public static String getInsertBatchBoundedListExpression(int maxRows) {
+        return "list.size() > " + maxRows + " ? null : list"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Adds the meaning of the INSERT_BATCH_MAX_ROWS field, and the error that MyBatis reports for a longer list,
+     * to the javadoc comment that the comment generator added to the field. Nothing is added if the comment
+     * generator did not add a javadoc comment.
+     *
+     * @param field
+     *            the INSERT_BATCH_MAX_ROWS field
+     * @param introspectedTable
+     *            the introspected table
+     */
+    public static void addInsertBatchMaxRowsJavaDocLines(Field field, IntrospectedTable introspectedTable) {
+        List<String> javaDocLines = field.getJavaDocLines();
+        int end = javaDocLines.size() - 1;
+        if (end < 1 || !"*/".equals(javaDocLines.get(end).trim())) { //$NON-NLS-1$
+            return;
+        }
+
+        // the description goes before the first tag, such as @mbg.generated
+        int index = end;
+        for (int i = 1; i < end; i++) {
+            if (javaDocLines.get(i).trim().startsWith("* @")) { //$NON-NLS-1$
+                index = i;
+                break;
+            }
+        }
+
+        List<String> lines = new ArrayList<String>();
+        if (index == end) {
+            lines.add(" *"); //$NON-NLS-1$
+        }
+        lines.add(" * The insertBatchMaxRows of the table: the maximum number of records that " //$NON-NLS-1$
+                + introspectedTable.getInsertBatchStatementId() + " accepts."); //$NON-NLS-1$
+        lines.add(" * A longer list is rejected before it is sent to the database, and MyBatis reports that"); //$NON-NLS-1$
+        lines.add(" * " + INSERT_BATCH_BOUNDED_LIST + " evaluated to a null value. Split larger lists"); //$NON-NLS-1$ //$NON-NLS-2$
+        lines.add(" * into parts of at most this size."); //$NON-NLS-1$
+        if (index < end) {
+            lines.add(" *"); //$NON-NLS-1$
+        }
+        javaDocLines.addAll(index, lines);
+    }
+
+    /**
+     * Calculates the lines of an @Insert annotation that inserts every record of the list parameter
+     * with a single multi-row statement. The statement is written as a &lt;script&gt; so that
+     * the same annotation works in every runtime that generates annotated mappers.
+     *
+     * @param introspectedTable
+     *            the introspected table
+     * @return the annotation lines
+     */
+    public static List<String> getInsertBatchAnnotationLines(
+            IntrospectedTable introspectedTable) {
+        List<String> answer = new ArrayList<String>();
+        answer.add("@Insert({"); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        OutputUtilities.javaIndent(sb, 1);
+        String indent = sb.toString();
+        answer.add(indent + "\"<script>\","); //$NON-NLS-1$
+
+        String collection = "list"; //$NON-NLS-1$
+        int maxRows = introspectedTable.getTableConfiguration().getInsertBatchMaxRows();
+        if (maxRows > 0) {
+            collection = INSERT_BATCH_BOUNDED_LIST;
+            answer.add(indent + "\"<bind name=\\\"" + collection //$NON-NLS-1$
+                    + "\\\" value=\\\"" + getInsertBatchBoundedListExpression(maxRows) //$NON-NLS-1$
+                    + "\\\" />\","); //$NON-NLS-1$
+        }
+
+        StringBuilder insertClause = new StringBuilder();
+        insertClause.append(indent);
+        insertClause.append("\"insert into "); //$NON-NLS-1$
+        insertClause.append(escapeStringForJava(introspectedTable
+                .getFullyQualifiedTableNameAtRuntime()));
+        insertClause.append(" ("); //$NON-NLS-1$
+
+        StringBuilder valuesClause = new StringBuilder();
+        valuesClause.append(indent);
+        valuesClause.append("\"("); //$NON-NLS-1$
+
+        List<String> valuesClauses = new ArrayList<String>();
+        List<IntrospectedColumn> columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        for (int i = 0; i < columns.size(); i++) {
+            IntrospectedColumn introspectedColumn = columns.get(i);
+
+            insertClause.append(escapeStringForJava(getEscapedColumnName(introspectedColumn)));
+            valuesClause.append(getParameterClause(introspectedColumn, "record.")); //$NON-NLS-1$
+            if (i + 1 < columns.size()) {
+                insertClause.append(", "); //$NON-NLS-1$
+                valuesClause.append(", "); //$NON-NLS-1$
+
+                if (valuesClause.length() > 60) {
+                    insertClause.append("\","); //$NON-NLS-1$
+                    answer.add(insertClause.toString());
+                    insertClause.setLength(0);
+                    insertClause.append(indent);
+                    insertClause.append('"');
+
+                    valuesClause.append("\","); //$NON-NLS-1$
+                    valuesClauses.add(valuesClause.toString());
+                    valuesClause.setLength(0);
+                    valuesClause.append(indent);
+                    valuesClause.append('"');
+                }
+            }
+        }
+
+        insertClause.append(")\","); //$NON-NLS-1$
+        answer.add(insertClause.toString());
+        answer.add(indent + "\"values\","); //$NON-NLS-1$
+        answer.add(indent + "\"<foreach collection=\\\"" + collection //$NON-NLS-1$
+                + "\\\" item=\\\"record\\\" separator=\\\",\\\">\","); //$NON-NLS-1$
+
+        valuesClause.append(")\","); //$NON-NLS-1$
+        valuesClauses.add(valuesClause.toString());
+        answer.addAll(valuesClauses);
+
+        answer.add(indent + "\"</foreach>\","); //$NON-NLS-1$
+        answer.add(indent + "\"</script>\""); //$NON-NLS-1$
+        answer.add("})"); //$NON-NLS-1$
+
+        return answer;
+    }
+
+    /**
+     * Calculates the keyset condition of the select page after statement. The condition
+     * matches the rows whose primary key follows the lastKey parameter in primary key order.
+     * Composite keys are compared as row values if the dialect supports it, and expanded to
+     * one predicate per key column otherwise.
+     *
+     * @param introspectedTable
+     *            the introspected table
+     * @param dialect
+     *            the paging dialect
+     * @return the condition
+     */
+    public static String getSelectPageAfterCondition(
+            IntrospectedTable introspectedTable, PagingDialects dialect) {
+        List<IntrospectedColumn> columns = introspectedTable.getPrimaryKeyColumns();
+        boolean singleKey = columns.size() == 1;
+        StringBuilder sb = new StringBuilder();
+
+        if (singleKey) {
+            sb.append(getAliasedEscapedColumnName(columns.get(0)));
+            sb.append(" > "); //$NON-NLS-1$
+            sb.append(getLastKeyParameterClause(columns.get(0), singleKey));
+        } else if (dialect.supportsRowValueComparison()) {
+            StringBuilder values = new StringBuilder();
+            sb.append('(');
+            values.append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", "); //$NON-NLS-1$
+                    values.append(", "); //$NON-NLS-1$
+                }
+                sb.append(getAliasedEscapedColumnName(columns.get(i)));
+                values.append(getLastKeyParameterClause(columns.get(i), singleKey));
+            }
+            sb.append(") > "); //$NON-NLS-1$
+            sb.append(values);
+            sb.append(')');
+        } else {
+            sb.append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(" or "); //$NON-NLS-1$
+                }
+                sb.append('(');
+                for (int j = 0; j < i; j++) {
+                    sb.append(getAliasedEscapedColumnName(columns.get(j)));
+                    sb.append(" = "); //$NON-NLS-1$
+                    sb.append(getLastKeyParameterClause(columns.get(j), singleKey));
+                    sb.append(" and "); //$NON-NLS-1$
+                }
+                sb.append(getAliasedEscapedColumnName(columns.get(i)));
+                sb.append(" > "); //$NON-NLS-1$
+                sb.append(getLastKeyParameterClause(columns.get(i), singleKey));
+                sb.append(')');
+            }
+            sb.append(')');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Calculates the order by clause of the select page after statement.
+     *
+     * @param introspectedTable
+     *            the introspected table
+     * @return the order by clause
+     */
+    public static String getSelectPageAfterOrderByClause(
+            IntrospectedTable introspectedTable) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("order by "); //$NON-NLS-1$
+        boolean comma = false;
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            if (comma) {
+                sb.append(", "); //$NON-NLS-1$
+            } else {
+                comma = true;
+            }
+            sb.append(getAliasedEscapedColumnName(introspectedColumn));
+        }
+        return sb.toString();
+    }
+
+    private static String getLastKeyParameterClause(
+            IntrospectedColumn introspectedColumn, boolean singleKey) {
+        if (!singleKey) {
+            return getParameterClause(introspectedColumn, "lastKey."); //$NON-NLS-1$
+        }
+
+        // the parameter is the key value itself
+        StringBuilder sb = new StringBuilder();
+        sb.append("#{lastKey,jdbcType="); //$NON-NLS-1$
+        sb.append(introspectedColumn.getJdbcTypeName());
+        if (stringHasValue(introspectedColumn.getTypeHandler())) {
+            sb.append(",typeHandler="); //$NON-NLS-1$
+            sb.append(introspectedColumn.getTypeHandler());
+        }
+        sb.append('}');
+        return sb.toString();
+    }
 }
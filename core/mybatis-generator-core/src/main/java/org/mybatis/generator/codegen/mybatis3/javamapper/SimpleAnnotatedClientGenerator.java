@@ -22,6 +22,7 @@ import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.Anno
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedInsertMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectAllMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectPageAfterMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByPrimaryKeyWithoutBLOBsMethodGenerator;
 
 /**
@@ -68,6 +69,14 @@ public class SimpleAnnotatedClientGenerator extends SimpleJavaClientGenerator {
         initializeAndExecuteGenerator(methodGenerator, interfaze);
     }
 
+    @Override
+    protected void addSelectPageAfterMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedSelectPageAfterMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
     @Override
     protected void addUpdateByPrimaryKeyMethod(Interface interfaze) {
         if (introspectedTable.getRules().generateUpdateByPrimaryKeySelective()) {
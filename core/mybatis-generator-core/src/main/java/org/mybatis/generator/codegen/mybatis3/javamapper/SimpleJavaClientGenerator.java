@@ -33,6 +33,7 @@ import org.mybatis.generator.codegen.mybatis3.javamapper.elements.DeleteByPrimar
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.InsertMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.SelectAllMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.SelectByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.SelectPageAfterMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.UpdateByPrimaryKeyWithoutBLOBsMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.SimpleXMLMapperGenerator;
 import org.mybatis.generator.config.PropertyRegistry;
@@ -81,6 +82,7 @@ public class SimpleJavaClientGenerator extends AbstractJavaClientGenerator {
         addInsertMethod(interfaze);
         addSelectByPrimaryKeyMethod(interfaze);
         addSelectAllMethod(interfaze);
+        addSelectPageAfterMethod(interfaze);
         addUpdateByPrimaryKeyMethod(interfaze);
 
         List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
@@ -123,6 +125,13 @@ public class SimpleJavaClientGenerator extends AbstractJavaClientGenerator {
         initializeAndExecuteGenerator(methodGenerator, interfaze);
     }
 
+    protected void addSelectPageAfterMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectPageAfterMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
     protected void addUpdateByPrimaryKeyMethod(Interface interfaze) {
         if (introspectedTable.getRules().generateUpdateByPrimaryKeySelective()) {
             AbstractJavaMapperMethodGenerator methodGenerator = new UpdateByPrimaryKeyWithoutBLOBsMethodGenerator();
@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+
+/**
+ * Generates the insert batch method. If the insertBatchMaxRows table property is set, the
+ * statement rejects longer lists, and the limit is generated as a constant so that callers
+ * can split larger lists. Identity values retrieved by a select key are not returned to the
+ * records, because the key would be selected only once for the whole statement.
+ */
+public class InsertBatchMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public static final String MAX_ROWS_FIELD_NAME = "INSERT_BATCH_MAX_ROWS"; //$NON-NLS-1$
+
+    public InsertBatchMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Method method = new Method();
+
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName(introspectedTable.getInsertBatchStatementId());
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        FullyQualifiedJavaType parameterType = FullyQualifiedJavaType
+                .getNewListInstance();
+        parameterType.addTypeArgument(recordType);
+
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(recordType);
+        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        addMapperAnnotations(method);
+        
+        if (context.getPlugins().clientInsertBatchMethodGenerated(
+                method, interfaze, introspectedTable)) {
+            addExtraImports(interfaze);
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+
+            int maxRows = introspectedTable.getTableConfiguration()
+                    .getInsertBatchMaxRows();
+            if (maxRows > 0) {
+                Field field = new Field(MAX_ROWS_FIELD_NAME,
+                        FullyQualifiedJavaType.getIntInstance());
+                field.setInitializationString(Integer.toString(maxRows));
+                context.getCommentGenerator().addFieldComment(field,
+                        introspectedTable);
+                MyBatis3FormattingUtilities.addInsertBatchMaxRowsJavaDocLines(field,
+                        introspectedTable);
+                interfaze.addField(field);
+            }
+        }
+    }
+
+    public void addMapperAnnotations(Method method) {
+    }
+
+    public void addExtraImports(Interface interfaze) {
+    }
+}
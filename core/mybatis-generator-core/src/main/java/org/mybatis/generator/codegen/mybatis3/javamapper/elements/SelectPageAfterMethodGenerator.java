@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * Generates the keyset pagination method. The lastKey parameter is the key
+ * value if the table has a single primary key column, otherwise it is the
+ * object that holds the primary key fields.
+ */
+public class SelectPageAfterMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public SelectPageAfterMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType
+                .getNewListInstance();
+        FullyQualifiedJavaType listType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        importedTypes.add(listType);
+        returnType.addTypeArgument(listType);
+        method.setReturnType(returnType);
+        method.setName(introspectedTable.getSelectPageAfterStatementId());
+
+        FullyQualifiedJavaType lastKeyType = calculateLastKeyType(introspectedTable);
+        importedTypes.add(lastKeyType);
+        Parameter parameter = new Parameter(lastKeyType, "lastKey"); //$NON-NLS-1$
+        parameter.addAnnotation("@Param(\"lastKey\")"); //$NON-NLS-1$
+        method.addParameter(parameter);
+
+        parameter = new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit"); //$NON-NLS-1$
+        parameter.addAnnotation("@Param(\"limit\")"); //$NON-NLS-1$
+        method.addParameter(parameter);
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins().clientSelectPageAfterMethodGenerated(method,
+                interfaze, introspectedTable)) {
+            addExtraImports(interfaze);
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    /**
+     * Calculates the type of the lastKey parameter.
+     * 
+     * @param introspectedTable
+     *            the introspected table
+     * @return the key column type for a single column key, the primary key
+     *         class if there is one, or the base record class
+     */
+    public static FullyQualifiedJavaType calculateLastKeyType(
+            IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> primaryKeyColumns = introspectedTable
+                .getPrimaryKeyColumns();
+        if (primaryKeyColumns.size() == 1) {
+            return primaryKeyColumns.get(0).getFullyQualifiedJavaType();
+        } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return new FullyQualifiedJavaType(
+                    introspectedTable.getPrimaryKeyType());
+        } else {
+            return new FullyQualifiedJavaType(
+                    introspectedTable.getBaseRecordType());
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+
+    public void addExtraImports(Interface interfaze) {
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getInsertBatchAnnotationLines;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.InsertBatchMethodGenerator;
+import org.mybatis.generator.config.GeneratedKey;
+
+/**
+ * Generates the insert batch method with an @Insert script. Only JDBC standard generated keys
+ * are returned to the records; no @SelectKey is generated.
+ */
+public class AnnotatedInsertBatchMethodGenerator extends InsertBatchMethodGenerator {
+
+    public AnnotatedInsertBatchMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addMapperAnnotations(Method method) {
+        for (String line : getInsertBatchAnnotationLines(introspectedTable)) {
+            method.addAnnotation(line);
+        }
+
+        // a @SelectKey runs once per statement, so only JDBC generated keys
+        // can be returned for every row
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk != null && gk.isJdbcStandard()) {
+            addGeneratedKeyAnnotation(method, gk);
+        }
+    }
+
+    @Override
+    public void addExtraImports(Interface interfaze) {
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk != null && gk.isJdbcStandard()) {
+            addGeneratedKeyImports(interfaze, gk);
+        }
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Insert")); //$NON-NLS-1$
+    }
+}
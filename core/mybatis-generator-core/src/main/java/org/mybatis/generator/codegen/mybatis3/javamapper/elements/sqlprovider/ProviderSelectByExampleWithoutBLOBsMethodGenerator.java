@@ -28,6 +28,7 @@ import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.internal.db.PagingDialects;
 
 /**
  * 
@@ -109,7 +110,9 @@ public class ProviderSelectByExampleWithoutBLOBsMethodGenerator extends Abstract
         method.addBodyLine("}"); //$NON-NLS-1$
 
         method.addBodyLine(""); //$NON-NLS-1$
-        if (useLegacyBuilder) {
+        if (introspectedTable.getRules().generateExampleLimitOffset()) {
+            addLimitOffsetBodyLines(method);
+        } else if (useLegacyBuilder) {
             method.addBodyLine("return SQL();"); //$NON-NLS-1$
         } else {
             method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
@@ -122,6 +125,45 @@ public class ProviderSelectByExampleWithoutBLOBsMethodGenerator extends Abstract
         }
     }
 
+    /**
+     * The SQL builder has no limit or offset, so the dialect specific clauses
+     * are appended to the built statement.
+     * 
+     * @param method
+     *            the provider method
+     */
+    private void addLimitOffsetBodyLines(Method method) {
+        PagingDialects dialect = context.getPagingDialect();
+        String limit = "#{limit,jdbcType=INTEGER}"; //$NON-NLS-1$
+        String offset = "#{offset,jdbcType=INTEGER}"; //$NON-NLS-1$
+
+        if (useLegacyBuilder) {
+            method.addBodyLine("StringBuilder sb = new StringBuilder(SQL());"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("StringBuilder sb = new StringBuilder(sql.toString());"); //$NON-NLS-1$
+        }
+        method.addBodyLine("if (example != null && (example.getLimit() != null || example.getOffset() != null)) {"); //$NON-NLS-1$
+        if (dialect.requiresOrderBy()) {
+            method.addBodyLine("if (example.getOrderByClause() == null) {"); //$NON-NLS-1$
+            method.addBodyLine("sb.append(\" order by (select null)\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine(""); //$NON-NLS-1$
+        }
+        method.addBodyLine("if (example.getLimit() != null && example.getOffset() != null) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sb.append(\" %s\");", //$NON-NLS-1$
+                escapeStringForJava(dialect.getLimitOffsetClause(limit, offset))));
+        method.addBodyLine("} else if (example.getLimit() != null) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sb.append(\" %s\");", //$NON-NLS-1$
+                escapeStringForJava(dialect.getLimitClause(limit))));
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sb.append(\" %s\");", //$NON-NLS-1$
+                escapeStringForJava(dialect.getOffsetClause(offset))));
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(""); //$NON-NLS-1$
+        method.addBodyLine("return sb.toString();"); //$NON-NLS-1$
+    }
+
     public List<IntrospectedColumn> getColumns() {
         return introspectedTable.getNonBLOBColumns();
     }
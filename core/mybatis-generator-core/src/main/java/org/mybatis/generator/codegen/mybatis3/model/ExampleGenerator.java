@@ -16,6 +16,7 @@
 package org.mybatis.generator.codegen.mybatis3.model;
 
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
@@ -34,6 +35,7 @@ import org.mybatis.generator.api.dom.java.InnerClass;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.PrimitiveTypeWrapper;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
@@ -123,6 +125,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         commentGenerator.addGeneralMethodComment(method, introspectedTable);
         topLevelClass.addMethod(method);
 
+        if (introspectedTable.getRules().generateExampleLimitOffset()) {
+            addLimitOffsetFields(topLevelClass);
+        }
+
         // add field and methods for the list of ored criteria
         field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
@@ -188,6 +194,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.addBodyLine("oredCriteria.clear();"); //$NON-NLS-1$
         method.addBodyLine("orderByClause = null;"); //$NON-NLS-1$
         method.addBodyLine("distinct = false;"); //$NON-NLS-1$
+        if (introspectedTable.getRules().generateExampleLimitOffset()) {
+            method.addBodyLine("limit = null;"); //$NON-NLS-1$
+            method.addBodyLine("offset = null;"); //$NON-NLS-1$
+        }
         commentGenerator.addGeneralMethodComment(method, introspectedTable);
         topLevelClass.addMethod(method);
 
@@ -207,6 +217,37 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         return answer;
     }
 
+    private void addLimitOffsetFields(TopLevelClass topLevelClass) {
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+        FullyQualifiedJavaType integerType = PrimitiveTypeWrapper
+                .getIntegerInstance();
+
+        for (String name : new String[] { "limit", "offset" }) { //$NON-NLS-1$ //$NON-NLS-2$
+            Field field = new Field();
+            field.setVisibility(JavaVisibility.PROTECTED);
+            field.setType(integerType);
+            field.setName(name);
+            commentGenerator.addFieldComment(field, introspectedTable);
+            topLevelClass.addField(field);
+
+            Method method = new Method();
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setName(getSetterMethodName(name));
+            method.addParameter(new Parameter(integerType, name));
+            method.addBodyLine(String.format("this.%s = %s;", name, name)); //$NON-NLS-1$
+            commentGenerator.addGeneralMethodComment(method, introspectedTable);
+            topLevelClass.addMethod(method);
+
+            method = new Method();
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(integerType);
+            method.setName(getGetterMethodName(name, integerType));
+            method.addBodyLine(String.format("return %s;", name)); //$NON-NLS-1$
+            commentGenerator.addGeneralMethodComment(method, introspectedTable);
+            topLevelClass.addMethod(method);
+        }
+    }
+
     private InnerClass getCriterionInnerClass() {
         InnerClass answer = new InnerClass(new FullyQualifiedJavaType(
                 "Criterion")); //$NON-NLS-1$
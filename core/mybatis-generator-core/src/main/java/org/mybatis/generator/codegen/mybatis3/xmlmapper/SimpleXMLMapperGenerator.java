@@ -28,6 +28,7 @@ import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.DeleteByPrimary
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.InsertElementGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.ResultMapWithoutBLOBsElementGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.SimpleSelectAllElementGenerator;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.SelectPageAfterElementGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.SimpleSelectByPrimaryKeyElementGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.UpdateByPrimaryKeyWithoutBLOBsElementGenerator;
 
@@ -58,6 +59,7 @@ public class SimpleXMLMapperGenerator extends AbstractXmlGenerator {
         addUpdateByPrimaryKeyElement(answer);
         addSelectByPrimaryKeyElement(answer);
         addSelectAllElement(answer);
+        addSelectPageAfterElement(answer);
 
         return answer;
     }
@@ -82,6 +84,13 @@ public class SimpleXMLMapperGenerator extends AbstractXmlGenerator {
         initializeAndExecuteGenerator(elementGenerator, parentElement);
     }
 
+    protected void addSelectPageAfterElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectPageAfterElementGenerator(true);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addDeleteByPrimaryKeyElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateDeleteByPrimaryKey()) {
             AbstractXmlElementGenerator elementGenerator = new DeleteByPrimaryKeyElementGenerator(true);
@@ -56,6 +56,7 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         addSelectByExampleWithBLOBsElement(answer);
         addSelectByExampleWithoutBLOBsElement(answer);
         addSelectByPrimaryKeyElement(answer);
+        addSelectPageAfterElement(answer);
         addDeleteByPrimaryKeyElement(answer);
         //@Nothing-add
         addSelectByCdtElement(answer);
@@ -63,6 +64,7 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         addDeleteByExampleElement(answer);
         addInsertElement(answer);
         addInsertSelectiveElement(answer);
+        addInsertBatchElement(answer);
         addCountByExampleElement(answer);
         addUpdateByExampleSelectiveElement(answer);
         addUpdateByExampleWithBLOBsElement(answer);
@@ -185,6 +187,20 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         }
     }
 
+    protected void addSelectPageAfterElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectPageAfterElementGenerator(false);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addInsertBatchElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateInsertBatch()) {
+            AbstractXmlElementGenerator elementGenerator = new InsertBatchElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addCountByExampleElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateCountByExample()) {
             AbstractXmlElementGenerator elementGenerator = new CountByExampleElementGenerator();
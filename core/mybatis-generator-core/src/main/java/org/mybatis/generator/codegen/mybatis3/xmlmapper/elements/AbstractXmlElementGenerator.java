@@ -21,6 +21,7 @@ import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractGenerator;
 import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.internal.db.PagingDialects;
 
 /**
  * 
@@ -99,4 +100,48 @@ public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
 
         return ifElement;
     }
+
+    /**
+     * Adds the dialect specific clauses for the limit and offset properties of
+     * the example class. The clauses must be added after the order by clause.
+     * 
+     * @param answer
+     *            the select by example element
+     */
+    protected void addLimitOffsetElements(XmlElement answer) {
+        if (!introspectedTable.getRules().generateExampleLimitOffset()) {
+            return;
+        }
+
+        PagingDialects dialect = context.getPagingDialect();
+        String limit = "#{limit,jdbcType=INTEGER}"; //$NON-NLS-1$
+        String offset = "#{offset,jdbcType=INTEGER}"; //$NON-NLS-1$
+
+        if (dialect.requiresOrderBy()) {
+            XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+            ifElement.addAttribute(new Attribute("test", //$NON-NLS-1$
+                    "orderByClause == null and (limit != null or offset != null)")); //$NON-NLS-1$
+            ifElement.addElement(new TextElement("order by (select null)")); //$NON-NLS-1$
+            answer.addElement(ifElement);
+        }
+
+        XmlElement chooseElement = new XmlElement("choose"); //$NON-NLS-1$
+
+        XmlElement whenElement = new XmlElement("when"); //$NON-NLS-1$
+        whenElement.addAttribute(new Attribute("test", "limit != null and offset != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        whenElement.addElement(new TextElement(dialect.getLimitOffsetClause(limit, offset)));
+        chooseElement.addElement(whenElement);
+
+        whenElement = new XmlElement("when"); //$NON-NLS-1$
+        whenElement.addAttribute(new Attribute("test", "limit != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        whenElement.addElement(new TextElement(dialect.getLimitClause(limit)));
+        chooseElement.addElement(whenElement);
+
+        whenElement = new XmlElement("when"); //$NON-NLS-1$
+        whenElement.addAttribute(new Attribute("test", "offset != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        whenElement.addElement(new TextElement(dialect.getOffsetClause(offset)));
+        chooseElement.addElement(whenElement);
+
+        answer.addElement(chooseElement);
+    }
 }
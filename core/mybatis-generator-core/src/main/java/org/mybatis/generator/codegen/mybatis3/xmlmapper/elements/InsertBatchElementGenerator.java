@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.GeneratedKey;
+
+/**
+ * Generates a multi-row insert. The list of records is the only parameter, so MyBatis
+ * exposes it as "list" and can write JDBC generated keys back to every record. If the
+ * table sets insertBatchMaxRows, a longer list is rejected by a &lt;bind&gt; before the
+ * statement is sent.
+ */
+public class InsertBatchElementGenerator extends AbstractXmlElementGenerator {
+
+    public InsertBatchElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("insert"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getInsertBatchStatementId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", //$NON-NLS-1$
+                "java.util.List")); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        String collection = "list"; //$NON-NLS-1$
+        int maxRows = introspectedTable.getTableConfiguration().getInsertBatchMaxRows();
+        if (maxRows > 0) {
+            collection = MyBatis3FormattingUtilities.INSERT_BATCH_BOUNDED_LIST;
+            XmlElement bindElement = new XmlElement("bind"); //$NON-NLS-1$
+            bindElement.addAttribute(new Attribute("name", collection)); //$NON-NLS-1$
+            bindElement.addAttribute(new Attribute("value", //$NON-NLS-1$
+                    MyBatis3FormattingUtilities.getInsertBatchBoundedListExpression(maxRows)));
+            answer.addElement(bindElement);
+        }
+
+        // a <selectKey> runs once per statement, so only JDBC generated keys
+        // can be returned for every row. Identity values are still assigned
+        // by the database.
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk != null && gk.isJdbcStandard()) {
+            IntrospectedColumn introspectedColumn = introspectedTable
+                    .getColumn(gk.getColumn());
+            if (introspectedColumn != null) {
+                answer.addAttribute(new Attribute(
+                        "useGeneratedKeys", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+                answer.addAttribute(new Attribute(
+                        "keyProperty", introspectedColumn.getJavaProperty())); //$NON-NLS-1$
+                answer.addAttribute(new Attribute(
+                        "keyColumn", introspectedColumn.getActualColumnName())); //$NON-NLS-1$
+            }
+        }
+
+        StringBuilder insertClause = new StringBuilder();
+
+        insertClause.append("insert into "); //$NON-NLS-1$
+        insertClause.append(introspectedTable
+                .getFullyQualifiedTableNameAtRuntime());
+        insertClause.append(" ("); //$NON-NLS-1$
+
+        XmlElement foreachElement = new XmlElement("foreach"); //$NON-NLS-1$
+        foreachElement.addAttribute(new Attribute("collection", collection)); //$NON-NLS-1$
+        foreachElement.addAttribute(new Attribute("item", "record")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreachElement.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        StringBuilder valuesClause = new StringBuilder();
+        valuesClause.append('(');
+
+        List<IntrospectedColumn> columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        for (int i = 0; i < columns.size(); i++) {
+            IntrospectedColumn introspectedColumn = columns.get(i);
+
+            insertClause.append(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+            valuesClause.append(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn, "record.")); //$NON-NLS-1$
+            if (i + 1 < columns.size()) {
+                insertClause.append(", "); //$NON-NLS-1$
+                valuesClause.append(", "); //$NON-NLS-1$
+            }
+
+            if (valuesClause.length() > 80) {
+                answer.addElement(new TextElement(insertClause.toString()));
+                insertClause.setLength(0);
+                OutputUtilities.xmlIndent(insertClause, 1);
+
+                foreachElement.addElement(new TextElement(valuesClause.toString()));
+                valuesClause.setLength(0);
+                OutputUtilities.xmlIndent(valuesClause, 1);
+            }
+        }
+
+        insertClause.append(')');
+        answer.addElement(new TextElement(insertClause.toString()));
+        answer.addElement(new TextElement("values")); //$NON-NLS-1$
+
+        valuesClause.append(')');
+        foreachElement.addElement(new TextElement(valuesClause.toString()));
+        answer.addElement(foreachElement);
+
+        if (context.getPlugins().sqlMapInsertBatchElementGenerated(answer,
+                introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
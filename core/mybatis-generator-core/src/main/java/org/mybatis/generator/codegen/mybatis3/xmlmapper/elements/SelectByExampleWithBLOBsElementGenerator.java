@@ -78,6 +78,8 @@ public class SelectByExampleWithBLOBsElementGenerator extends
         ifElement.addElement(new TextElement("order by ${orderByClause}")); //$NON-NLS-1$
         answer.addElement(ifElement);
 
+        addLimitOffsetElements(answer);
+
         if (context.getPlugins()
                 .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
                         introspectedTable)) {
@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import java.util.Iterator;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.db.PagingDialects;
+
+/**
+ * Generates the keyset pagination statement. The statement returns the first
+ * rows that follow the lastKey parameter in primary key order, or the first
+ * rows of the table if lastKey is null.
+ */
+public class SelectPageAfterElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    private boolean isSimple;
+
+    public SelectPageAfterElementGenerator(boolean isSimple) {
+        super();
+        this.isSimple = isSimple;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getSelectPageAfterStatementId())); //$NON-NLS-1$
+        // the simple runtime maps all columns in the base result map
+        if (!isSimple && introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            answer.addAttribute(new Attribute("resultMap", //$NON-NLS-1$
+                    introspectedTable.getResultMapWithBLOBsId()));
+        } else {
+            answer.addAttribute(new Attribute("resultMap", //$NON-NLS-1$
+                    introspectedTable.getBaseResultMapId()));
+        }
+        answer.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("select "); //$NON-NLS-1$
+        Iterator<IntrospectedColumn> iter = introspectedTable.getAllColumns()
+                .iterator();
+        while (iter.hasNext()) {
+            sb.append(MyBatis3FormattingUtilities.getSelectListPhrase(iter
+                    .next()));
+
+            if (iter.hasNext()) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+
+            if (sb.length() > 80) {
+                answer.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+            }
+        }
+
+        if (sb.length() > 0) {
+            answer.addElement(new TextElement(sb.toString()));
+        }
+
+        sb.setLength(0);
+        sb.append("from "); //$NON-NLS-1$
+        sb.append(introspectedTable
+                .getAliasedFullyQualifiedTableNameAtRuntime());
+        answer.addElement(new TextElement(sb.toString()));
+
+        PagingDialects dialect = context.getPagingDialect();
+
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "lastKey != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.setLength(0);
+        sb.append("where "); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getSelectPageAfterCondition(
+                introspectedTable, dialect));
+        ifElement.addElement(new TextElement(sb.toString()));
+        answer.addElement(ifElement);
+
+        answer.addElement(new TextElement(MyBatis3FormattingUtilities
+                .getSelectPageAfterOrderByClause(introspectedTable)));
+        answer.addElement(new TextElement(dialect.getLimitClause("#{limit,jdbcType=INTEGER}"))); //$NON-NLS-1$
+
+        if (context.getPlugins().sqlMapSelectPageAfterElementGenerated(
+                answer, introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.mybatis.generator.config;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +41,9 @@ public class Configuration {
     /** The class path entries. */
     private List<String> classPathEntries;
 
+    /** The locations of the properties files read while parsing. */
+    private List<URL> propertiesUrls;
+
     /**
      * Instantiates a new configuration.
      */
@@ -47,6 +51,7 @@ public class Configuration {
         super();
         contexts = new ArrayList<Context>();
         classPathEntries = new ArrayList<String>();
+        propertiesUrls = new ArrayList<URL>();
     }
 
     /**
@@ -68,6 +73,25 @@ public class Configuration {
         return classPathEntries;
     }
 
+    /**
+     * Records the location of a properties file that was read while parsing this configuration.
+     *
+     * @param url
+     *            the location of the properties file
+     */
+    public void addPropertiesUrl(URL url) {
+        propertiesUrls.add(url);
+    }
+
+    /**
+     * Gets the locations of the properties files that were read while parsing this configuration.
+     *
+     * @return the locations
+     */
+    public List<URL> getPropertiesUrls() {
+        return propertiesUrls;
+    }
+
     /**
      * This method does a simple validate, it makes sure that all required fields have been filled in and that all
      * implementation classes exist and are of the proper type. It does not do any more complex operations such as:
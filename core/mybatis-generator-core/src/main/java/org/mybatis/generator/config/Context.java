@@ -20,28 +20,53 @@ import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.GenerationManifest;
+import org.mybatis.generator.internal.GeneratorSession;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.RecordingProgressCallback;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.IntrospectionCache;
+import org.mybatis.generator.internal.db.PagingDialects;
+import org.mybatis.generator.internal.db.ParallelDatabaseIntrospector;
+import org.mybatis.generator.internal.db.ParallelDatabaseIntrospector.TableIntrospectionResult;
+import org.mybatis.generator.internal.db.SchemaMetadataIndex;
 
 /**
  * The Class Context.
@@ -56,6 +81,8 @@ public class Context extends PropertyHolder {
 
     private ConnectionFactoryConfiguration connectionFactoryConfiguration;
 
+    private ConnectionFactory connectionFactory;
+
     private SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration;
 
     private JavaTypeResolverConfiguration javaTypeResolverConfiguration;
@@ -194,6 +221,51 @@ public class Context extends PropertyHolder {
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             pluginConfiguration.validate(errors, id);
         }
+
+        validatePositiveIntegerProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, errors);
+        validatePositiveIntegerProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, errors);
+
+        String dialect = getProperty(PropertyRegistry.CONTEXT_DIALECT);
+        if (stringHasValue(dialect) && PagingDialects.getPagingDialect(dialect.trim()) == null) {
+            errors.add(getString("ValidationError.33", //$NON-NLS-1$
+                    PropertyRegistry.CONTEXT_DIALECT, id));
+        }
+    }
+
+    private void validatePositiveIntegerProperty(String propertyName, List<String> errors) {
+        String value = getProperty(propertyName);
+        if (stringHasValue(value) && getPositiveIntegerProperty(propertyName, 0) == 0) {
+            errors.add(getString("ValidationError.29", propertyName, id)); //$NON-NLS-1$
+        }
+    }
+
+    private int getPositiveIntegerProperty(String propertyName, int defaultValue) {
+        String value = getProperty(propertyName);
+        if (!stringHasValue(value)) {
+            return defaultValue;
+        }
+
+        try {
+            int answer = Integer.parseInt(value.trim());
+            return answer > 0 ? answer : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the dialect that generated statements use to limit the number of rows.
+     *
+     * @return the dialect selected with the dialect property, or the SQL:2008 dialect if
+     *         the property is not set
+     */
+    public PagingDialects getPagingDialect() {
+        String dialect = getProperty(PropertyRegistry.CONTEXT_DIALECT);
+        PagingDialects answer = null;
+        if (stringHasValue(dialect)) {
+            answer = PagingDialects.getPagingDialect(dialect.trim());
+        }
+        return answer == null ? PagingDialects.STANDARD : answer;
     }
 
     public String getId() {
@@ -328,7 +400,7 @@ public class Context extends PropertyHolder {
         }
     }
 
-    public CommentGenerator getCommentGenerator() {
+    public synchronized CommentGenerator getCommentGenerator() {
         if (commentGenerator == null) {
             commentGenerator = ObjectFactory.createCommentGenerator(this);
         }
@@ -336,7 +408,7 @@ public class Context extends PropertyHolder {
         return commentGenerator;
     }
 
-    public JavaFormatter getJavaFormatter() {
+    public synchronized JavaFormatter getJavaFormatter() {
         if (javaFormatter == null) {
             javaFormatter = ObjectFactory.createJavaFormatter(this);
         }
@@ -344,7 +416,7 @@ public class Context extends PropertyHolder {
         return javaFormatter;
     }
 
-    public XmlFormatter getXmlFormatter() {
+    public synchronized XmlFormatter getXmlFormatter() {
         if (xmlFormatter == null) {
             xmlFormatter = ObjectFactory.createXmlFormatter(this);
         }
@@ -435,6 +507,158 @@ public class Context extends PropertyHolder {
             List<String> warnings, Set<String> fullyQualifiedTableNames)
             throws SQLException, InterruptedException {
 
+        IntrospectionCache introspectionCache = createIntrospectionCache();
+
+        // an offline cache needs no connections, so there is nothing to parallelize
+        int introspectionThreads = getPositiveIntegerProperty(
+                PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, 1);
+        if (introspectionThreads > 1
+                && (introspectionCache == null || !introspectionCache.isOffline())) {
+            introspectTablesInParallel(callback, warnings, fullyQualifiedTableNames,
+                    introspectionThreads, introspectionCache);
+        } else {
+            introspectTablesSerially(callback, warnings, fullyQualifiedTableNames,
+                    introspectionCache);
+        }
+
+        if (introspectionCache != null) {
+            try {
+                introspectionCache.save();
+            } catch (IOException e) {
+                warnings.add(getString("Warning.30", e.getMessage())); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Removes the introspected tables that the generation manifest reports as unchanged, and records the remaining
+     * tables in the manifest. Call this after introspectTables, and pass the same manifest to generateFiles.
+     *
+     * <p>Files that plugins generate for the whole context depend on every table, so if the last run generated such
+     * files, and any table changed, every table is generated again.
+     *
+     * @param generationManifest
+     *            the manifest of the current run
+     * @param callback
+     *            the progress callback
+     * @param fullyQualifiedTableNames
+     *            the table names passed to introspectTables
+     */
+    public void removeUnchangedTables(GenerationManifest generationManifest,
+            ProgressCallback callback, Set<String> fullyQualifiedTableNames) {
+        String contextKey = getManifestKey(null);
+        String contextFingerprint = calculateContextFingerprint();
+
+        Set<String> keys = new HashSet<String>();
+        keys.add(contextKey);
+        Map<IntrospectedTable, String> fingerprints = new LinkedHashMap<IntrospectedTable, String>();
+        List<IntrospectedTable> changedTables = new ArrayList<IntrospectedTable>();
+        for (IntrospectedTable introspectedTable : introspectedTables) {
+            String key = getManifestKey(introspectedTable);
+            String fingerprint = calculateTableFingerprint(introspectedTable, contextFingerprint);
+            keys.add(key);
+            fingerprints.put(introspectedTable, fingerprint);
+            if (!generationManifest.isUnchanged(key, fingerprint)) {
+                changedTables.add(introspectedTable);
+            }
+        }
+
+        if (!changedTables.isEmpty() && generationManifest.hasFiles(contextKey)) {
+            changedTables = new ArrayList<IntrospectedTable>(introspectedTables);
+        }
+
+        for (Map.Entry<IntrospectedTable, String> entry : fingerprints.entrySet()) {
+            if (changedTables.contains(entry.getKey())) {
+                generationManifest.startTable(getManifestKey(entry.getKey()), entry.getValue());
+            } else {
+                callback.startTask(getString("Progress.20", //$NON-NLS-1$
+                        entry.getKey().getFullyQualifiedTable().toString()));
+            }
+        }
+
+        if (!changedTables.isEmpty()) {
+            generationManifest.startTable(contextKey, contextFingerprint);
+        }
+
+        if (fullyQualifiedTableNames == null || fullyQualifiedTableNames.isEmpty()) {
+            generationManifest.retainTables(contextKey, keys);
+        }
+
+        introspectedTables = changedTables;
+    }
+
+    /**
+     * Returns the key of a table in the generation manifest, or the key of the context if the table is null.
+     */
+    private String getManifestKey(IntrospectedTable introspectedTable) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(id);
+        sb.append('|');
+        if (introspectedTable != null) {
+            sb.append(introspectedTable.getFullyQualifiedTable());
+            sb.append('|');
+            sb.append(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The context fingerprint covers the generator version and the whole configuration except the tables.
+     */
+    private String calculateContextFingerprint() {
+        XmlElement xmlElement = toXmlElement();
+        Iterator<Element> iter = xmlElement.getElements().iterator();
+        while (iter.hasNext()) {
+            Element element = iter.next();
+            if (element instanceof XmlElement
+                    && "table".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                iter.remove();
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(GenerationManifest.getGeneratorVersion());
+        sb.append('\n');
+        xmlElement.addFormattedContent(sb, 0);
+        return sb.toString();
+    }
+
+    private String calculateTableFingerprint(IntrospectedTable introspectedTable,
+            String contextFingerprint) {
+        StringBuilder sb = new StringBuilder(contextFingerprint);
+        sb.append('\n');
+        introspectedTable.getTableConfiguration().toXmlElement().addFormattedContent(sb, 0);
+        sb.append('\n');
+        sb.append(introspectedTable.getRemarks());
+        sb.append('|');
+        sb.append(introspectedTable.getTableType());
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            sb.append('\n');
+            sb.append(column.getActualColumnName()).append('|');
+            sb.append(column.getJdbcType()).append('|');
+            sb.append(column.getJdbcTypeName()).append('|');
+            sb.append(column.getLength()).append('|');
+            sb.append(column.getScale()).append('|');
+            sb.append(column.isNullable()).append('|');
+            sb.append(column.getRemarks()).append('|');
+            sb.append(column.getDefaultValue()).append('|');
+            sb.append(column.isAutoIncrement()).append('|');
+            sb.append(column.isGeneratedColumn()).append('|');
+            sb.append(column.getFullyQualifiedJavaType()).append('|');
+            sb.append(column.getJavaProperty()).append('|');
+            sb.append(column.getTypeHandler());
+        }
+        for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+            sb.append('\n');
+            sb.append(column.getActualColumnName());
+        }
+        return sb.toString();
+    }
+
+    private void introspectTablesSerially(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames,
+            IntrospectionCache introspectionCache) throws SQLException, InterruptedException {
+
         introspectedTables = new ArrayList<IntrospectedTable>();
         JavaTypeResolver javaTypeResolver = ObjectFactory
                 .createJavaTypeResolver(this, warnings);
@@ -442,19 +666,23 @@ public class Context extends PropertyHolder {
         Connection connection = null;
 
         try {
-            callback.startTask(getString("Progress.0")); //$NON-NLS-1$
-            connection = getConnection();
+            DatabaseMetaData databaseMetaData = null;
+            if (introspectionCache == null || !introspectionCache.isOffline()) {
+                callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+                connection = getConnection();
+                databaseMetaData = connection.getMetaData();
+            }
 
             DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
-                    this, connection.getMetaData(), javaTypeResolver, warnings);
+                    this, databaseMetaData, javaTypeResolver, warnings,
+                    createSchemaMetadataIndex());
+            databaseIntrospector.setIntrospectionCache(introspectionCache);
 
             for (TableConfiguration tc : tableConfigurations) {
                 String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
                                 .getSchema(), tc.getTableName(), '.');
 
-                if (fullyQualifiedTableNames != null
-                        && fullyQualifiedTableNames.size() > 0
-                        && !fullyQualifiedTableNames.contains(tableName)) {
+                if (!isTableSelected(tableName, fullyQualifiedTableNames)) {
                     continue;
                 }
 
@@ -478,6 +706,152 @@ public class Context extends PropertyHolder {
         }
     }
 
+    /**
+     * Introspects tables on a pool of connections. The introspected tables, warnings, and progress
+     * callback events are reported in the same order as the serial introspection.
+     */
+    private void introspectTablesInParallel(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames,
+            int introspectionThreads, IntrospectionCache introspectionCache)
+            throws SQLException, InterruptedException {
+
+        introspectedTables = new ArrayList<IntrospectedTable>();
+
+        List<TableConfiguration> tablesToIntrospect = new ArrayList<TableConfiguration>();
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                    .getSchema(), tc.getTableName(), '.');
+
+            if (isTableSelected(tableName, fullyQualifiedTableNames)
+                    && tc.areAnyStatementsEnabled()) {
+                tablesToIntrospect.add(tc);
+            }
+        }
+
+        ParallelDatabaseIntrospector parallelIntrospector = new ParallelDatabaseIntrospector(
+                this, getConnectionFactory(), introspectionThreads,
+                createSchemaMetadataIndex());
+        parallelIntrospector.setIntrospectionCache(introspectionCache);
+
+        try {
+            callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+            parallelIntrospector.open(tablesToIntrospect.size());
+            warnings.addAll(parallelIntrospector.getWarnings());
+
+            List<Future<TableIntrospectionResult>> results =
+                    new ArrayList<Future<TableIntrospectionResult>>();
+            for (TableConfiguration tc : tablesToIntrospect) {
+                results.add(parallelIntrospector.introspectTables(tc));
+            }
+
+            int index = 0;
+            for (TableConfiguration tc : tableConfigurations) {
+                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                        .getSchema(), tc.getTableName(), '.');
+
+                if (!isTableSelected(tableName, fullyQualifiedTableNames)) {
+                    continue;
+                }
+
+                if (!tc.areAnyStatementsEnabled()) {
+                    warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+                    continue;
+                }
+
+                callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                TableIntrospectionResult result = ParallelDatabaseIntrospector
+                        .getResult(results.get(index++));
+
+                warnings.addAll(result.getWarnings());
+                if (result.getIntrospectedTables() != null) {
+                    introspectedTables.addAll(result.getIntrospectedTables());
+                }
+
+                callback.checkCancel();
+            }
+        } finally {
+            parallelIntrospector.close();
+        }
+    }
+
+    /**
+     * Reads a cheap fingerprint of the tables of every selected table configuration, without introspecting
+     * them. A fingerprint changes when the matching tables change, so this can be used to notice schema changes
+     * between runs.
+     *
+     * @param warnings
+     *            any warning generated from this method will be added to the List
+     * @param fullyQualifiedTableNames
+     *            the tables to read, in the same form as for introspectTables. If null or empty, all tables are read.
+     * @return a map of fully qualified table name (as specified in the configuration) to fingerprint. A fingerprint
+     *         is null if the database cannot be fingerprinted, or if the table configuration has no schema.
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    public Map<String, String> readSchemaFingerprints(List<String> warnings,
+            Set<String> fullyQualifiedTableNames) throws SQLException {
+        Map<String, String> answer = new LinkedHashMap<String, String>();
+        Connection connection = getConnection();
+        try {
+            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(this,
+                    connection.getMetaData(), ObjectFactory.createJavaTypeResolver(this, warnings), warnings);
+            for (TableConfiguration tc : tableConfigurations) {
+                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                        .getSchema(), tc.getTableName(), '.');
+
+                if (isTableSelected(tableName, fullyQualifiedTableNames)
+                        && tc.areAnyStatementsEnabled()) {
+                    answer.put(tableName, databaseIntrospector.readSchemaFingerprint(tc));
+                }
+            }
+        } finally {
+            closeConnection(connection);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns a schema wide metadata index if bulk introspection is enabled, else null.
+     */
+    private SchemaMetadataIndex createSchemaMetadataIndex() {
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION))) {
+            return new SchemaMetadataIndex();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the introspection cache configured for this context, with its entries loaded, or null.
+     */
+    private IntrospectionCache createIntrospectionCache() {
+        String fileName = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE);
+        if (!stringHasValue(fileName)) {
+            return null;
+        }
+
+        String connectionURL;
+        if (jdbcConnectionConfiguration != null) {
+            connectionURL = jdbcConnectionConfiguration.getConnectionURL();
+        } else {
+            connectionURL = connectionFactoryConfiguration.getProperties()
+                    .getProperty("connectionURL"); //$NON-NLS-1$
+        }
+
+        IntrospectionCache introspectionCache = new IntrospectionCache(new File(fileName),
+                connectionURL,
+                isTrue(getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_OFFLINE)));
+        introspectionCache.load();
+        return introspectionCache;
+    }
+
+    private boolean isTableSelected(String tableName, Set<String> fullyQualifiedTableNames) {
+        return fullyQualifiedTableNames == null
+                || fullyQualifiedTableNames.size() == 0
+                || fullyQualifiedTableNames.contains(tableName);
+    }
+
     public int getGenerationSteps() {
         int steps = 0;
 
@@ -490,17 +864,55 @@ public class Context extends PropertyHolder {
         return steps;
     }
 
+    /**
+     * Returns true if the class of the object itself implements ThreadSafe. A subclass of a thread safe
+     * class may add state of its own, so it is only trusted if it declares the interface again.
+     */
+    private static boolean isDeclaredThreadSafe(Object object) {
+        return Arrays.asList(object.getClass().getInterfaces()).contains(ThreadSafe.class);
+    }
+
     public void generateFiles(ProgressCallback callback,
             List<GeneratedJavaFile> generatedJavaFiles,
             List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings)
             throws InterruptedException {
+        generateFiles(callback, generatedJavaFiles, generatedXmlFiles, warnings, null);
+    }
+
+    /**
+     * Generates the files of the introspected tables, and records them in the generation manifest.
+     *
+     * @param callback
+     *            the progress callback
+     * @param generatedJavaFiles
+     *            the list the generated Java files are added to
+     * @param generatedXmlFiles
+     *            the list the generated XML files are added to
+     * @param warnings
+     *            the list warnings are added to
+     * @param generationManifest
+     *            the manifest passed to removeUnchangedTables, or null to generate every file
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     */
+    public void generateFiles(ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings,
+            GenerationManifest generationManifest) throws InterruptedException {
+
+        // types of the plugins that prevent concurrent generation
+        List<String> singleThreadedTypes = new ArrayList<String>();
 
         pluginAggregator = new PluginAggregator();
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             Plugin plugin = ObjectFactory.createPlugin(this,
                     pluginConfiguration);
             if (plugin.validate(warnings)) {
-                pluginAggregator.addPlugin(plugin);
+                pluginAggregator.addPlugin(GenerationMetrics.measureCalls(Plugin.class, plugin,
+                        GenerationMetrics.PLUGIN, plugin.getClass().getSimpleName() + '.'));
+                if (!isDeclaredThreadSafe(plugin)) {
+                    singleThreadedTypes.add(pluginConfiguration.getConfigurationType());
+                }
             } else {
                 warnings.add(getString("Warning.24", //$NON-NLS-1$
                         pluginConfiguration.getConfigurationType(), id));
@@ -508,38 +920,169 @@ public class Context extends PropertyHolder {
         }
 
         if (introspectedTables != null) {
-            for (IntrospectedTable introspectedTable : introspectedTables) {
+            int generationThreads = getPositiveIntegerProperty(
+                    PropertyRegistry.CONTEXT_GENERATION_THREADS, 1);
+            if (generationThreads > 1) {
+                if (!isDeclaredThreadSafe(getCommentGenerator())) {
+                    singleThreadedTypes.add(getCommentGenerator().getClass().getName());
+                }
+
+                for (String type : singleThreadedTypes) {
+                    warnings.add(getString("Warning.31", type, id)); //$NON-NLS-1$
+                }
+            }
+
+            if (generationThreads > 1 && singleThreadedTypes.isEmpty()
+                    && introspectedTables.size() > 1) {
+                generateFilesInParallel(callback, generatedJavaFiles,
+                        generatedXmlFiles, warnings, generationThreads, generationManifest);
+            } else {
+                for (IntrospectedTable introspectedTable : introspectedTables) {
+                    callback.checkCancel();
+
+                    generateFiles(introspectedTable, callback, generatedJavaFiles,
+                            generatedXmlFiles, warnings, generationManifest);
+                }
+            }
+        }
+
+        // if no table changed, the files of the context are not generated again
+        if (generationManifest != null && !generationManifest.isStarted(getManifestKey(null))) {
+            return;
+        }
+
+        List<GeneratedJavaFile> contextJavaFiles = pluginAggregator
+                .contextGenerateAdditionalJavaFiles();
+        List<GeneratedXmlFile> contextXmlFiles = pluginAggregator
+                .contextGenerateAdditionalXmlFiles();
+        generatedJavaFiles.addAll(contextJavaFiles);
+        generatedXmlFiles.addAll(contextXmlFiles);
+
+        if (generationManifest != null) {
+            generationManifest.addGeneratedFiles(getManifestKey(null), contextJavaFiles);
+            generationManifest.addGeneratedFiles(getManifestKey(null), contextXmlFiles);
+        }
+    }
+
+    private void generateFiles(IntrospectedTable introspectedTable,
+            ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings,
+            GenerationManifest generationManifest) {
+        GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.GENERATION_TABLE,
+                introspectedTable.getFullyQualifiedTable().toString());
+        try {
+            introspectedTable.initialize();
+            introspectedTable.calculateGenerators(warnings, callback);
+
+            List<GeneratedJavaFile> tableJavaFiles = new ArrayList<GeneratedJavaFile>();
+            tableJavaFiles.addAll(introspectedTable.getGeneratedJavaFiles());
+            tableJavaFiles.addAll(pluginAggregator
+                    .contextGenerateAdditionalJavaFiles(introspectedTable));
+
+            List<GeneratedXmlFile> tableXmlFiles = new ArrayList<GeneratedXmlFile>();
+            tableXmlFiles.addAll(introspectedTable.getGeneratedXmlFiles());
+            tableXmlFiles.addAll(pluginAggregator
+                    .contextGenerateAdditionalXmlFiles(introspectedTable));
+
+            generatedJavaFiles.addAll(tableJavaFiles);
+            generatedXmlFiles.addAll(tableXmlFiles);
+
+            if (generationManifest != null) {
+                String key = getManifestKey(introspectedTable);
+                generationManifest.addGeneratedFiles(key, tableJavaFiles);
+                generationManifest.addGeneratedFiles(key, tableXmlFiles);
+            }
+        } finally {
+            GenerationMetrics.stop(timer);
+        }
+    }
+
+    /**
+     * Generates each table on a pool of threads. Every table collects its own files, warnings, and progress
+     * tasks, and the results are merged in table order so the output is the same as a serial run.
+     */
+    private void generateFilesInParallel(ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings,
+            int generationThreads, final GenerationManifest generationManifest) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.min(generationThreads, introspectedTables.size()));
+
+        try {
+            GeneratorSession session = GeneratorSession.getCurrent();
+            List<Future<TableGenerationResult>> results =
+                    new ArrayList<Future<TableGenerationResult>>();
+            for (final IntrospectedTable introspectedTable : introspectedTables) {
+                results.add(executorService.submit(session.wrap(new Callable<TableGenerationResult>() {
+                    @Override
+                    public TableGenerationResult call() {
+                        TableGenerationResult result = new TableGenerationResult();
+                        generateFiles(introspectedTable, result.callback,
+                                result.generatedJavaFiles, result.generatedXmlFiles,
+                                result.warnings, generationManifest);
+                        return result;
+                    }
+                })));
+            }
+
+            for (Future<TableGenerationResult> future : results) {
                 callback.checkCancel();
 
-                introspectedTable.initialize();
-                introspectedTable.calculateGenerators(warnings, callback);
-                generatedJavaFiles.addAll(introspectedTable
-                        .getGeneratedJavaFiles());
-                generatedXmlFiles.addAll(introspectedTable
-                        .getGeneratedXmlFiles());
-
-                generatedJavaFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalJavaFiles(introspectedTable));
-                generatedXmlFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalXmlFiles(introspectedTable));
+                TableGenerationResult result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new RuntimeException(cause);
+                    }
+                }
+
+                result.callback.replay(callback);
+                generatedJavaFiles.addAll(result.generatedJavaFiles);
+                generatedXmlFiles.addAll(result.generatedXmlFiles);
+                warnings.addAll(result.warnings);
             }
+        } finally {
+            executorService.shutdownNow();
         }
+    }
 
-        generatedJavaFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalJavaFiles());
-        generatedXmlFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalXmlFiles());
+    private static class TableGenerationResult {
+        private RecordingProgressCallback callback = new RecordingProgressCallback();
+        private List<GeneratedJavaFile> generatedJavaFiles = new ArrayList<GeneratedJavaFile>();
+        private List<GeneratedXmlFile> generatedXmlFiles = new ArrayList<GeneratedXmlFile>();
+        private List<String> warnings = new ArrayList<String>();
     }
 
     private Connection getConnection() throws SQLException {
-        ConnectionFactory connectionFactory;
+        return getConnectionFactory().getConnection();
+    }
+
+    /**
+     * Returns the factory used to open connections for introspection: the factory set with setConnectionFactory, or
+     * else a factory created from the configuration.
+     *
+     * @return the connection factory
+     */
+    public ConnectionFactory getConnectionFactory() {
+        if (connectionFactory != null) {
+            return connectionFactory;
+        }
+
+        ConnectionFactory answer;
         if (jdbcConnectionConfiguration != null) {
-            connectionFactory = new JDBCConnectionFactory(jdbcConnectionConfiguration);
+            answer = new JDBCConnectionFactory(jdbcConnectionConfiguration);
         } else {
-            connectionFactory = ObjectFactory.createConnectionFactory(this);
+            answer = ObjectFactory.createConnectionFactory(this);
         }
 
-        return connectionFactory.getConnection();
+        return answer;
     }
 
     private void closeConnection(Connection connection) {
@@ -557,6 +1100,17 @@ public class Context extends PropertyHolder {
                 && autoDelimitKeywords.booleanValue();
     }
 
+    /**
+     * Sets a connection factory that replaces the configured one. This allows a long running host to keep
+     * connections open between generation runs.
+     *
+     * @param connectionFactory
+     *            the connection factory, or null to use the configured factory
+     */
+    public void setConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
     public ConnectionFactoryConfiguration getConnectionFactoryConfiguration() {
         return connectionFactoryConfiguration;
     }
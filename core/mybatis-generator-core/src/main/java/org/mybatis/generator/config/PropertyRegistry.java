@@ -47,6 +47,9 @@ public class PropertyRegistry {
     public static final String TABLE_RUNTIME_TABLE_NAME = "runtimeTableName"; //$NON-NLS-1$
     public static final String TABLE_MODEL_ONLY = "modelOnly"; //$NON-NLS-1$
     public static final String TABLE_SELECT_ALL_ORDER_BY_CLAUSE = "selectAllOrderByClause"; //$NON-NLS-1$
+    public static final String TABLE_ENABLE_INSERT_BATCH = "enableInsertBatch"; //$NON-NLS-1$
+    public static final String TABLE_INSERT_BATCH_MAX_ROWS = "insertBatchMaxRows"; //$NON-NLS-1$
+    public static final String TABLE_ENABLE_SELECT_PAGE_AFTER = "enableSelectPageAfter"; //$NON-NLS-1$
 
     public static final String CONTEXT_BEGINNING_DELIMITER = "beginningDelimiter"; //$NON-NLS-1$
     public static final String CONTEXT_ENDING_DELIMITER = "endingDelimiter"; //$NON-NLS-1$
@@ -54,6 +57,12 @@ public class PropertyRegistry {
     public static final String CONTEXT_JAVA_FILE_ENCODING = "javaFileEncoding"; //$NON-NLS-1$
     public static final String CONTEXT_JAVA_FORMATTER = "javaFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_THREADS = "introspectionThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_BULK_INTROSPECTION = "bulkIntrospection"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_CACHE = "introspectionCache"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_CACHE_OFFLINE = "introspectionCacheOffline"; //$NON-NLS-1$
+    public static final String CONTEXT_GENERATION_THREADS = "generationThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_DIALECT = "dialect"; //$NON-NLS-1$
 
     public static final String CLIENT_USE_LEGACY_BUILDER = "useLegacyBuilder"; //$NON-NLS-1$
     
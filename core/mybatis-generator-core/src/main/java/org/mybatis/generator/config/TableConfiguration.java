@@ -569,6 +569,31 @@ public class TableConfiguration extends PropertyHolder {
         for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
             ignoredColumnPattern.validate(errors, fqTableName);
         }
+
+        if (stringHasValue(getProperty(PropertyRegistry.TABLE_INSERT_BATCH_MAX_ROWS))
+                && getInsertBatchMaxRows() == 0) {
+            errors.add(getString("ValidationError.30", //$NON-NLS-1$
+                    PropertyRegistry.TABLE_INSERT_BATCH_MAX_ROWS, fqTableName));
+        }
+    }
+
+    /**
+     * Returns the maximum number of rows a generated insert batch statement should receive.
+     *
+     * @return the configured maximum, or 0 if there is no limit or the property is invalid
+     */
+    public int getInsertBatchMaxRows() {
+        String value = getProperty(PropertyRegistry.TABLE_INSERT_BATCH_MAX_ROWS);
+        if (!stringHasValue(value)) {
+            return 0;
+        }
+
+        try {
+            int answer = Integer.parseInt(value.trim());
+            return answer > 0 ? answer : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     public DomainObjectRenamingRule getDomainObjectRenamingRule() {
@@ -40,12 +40,12 @@ import java.util.List;
 import java.util.Properties;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.mybatis.generator.codegen.XmlConstants;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.util.XmlParserPool;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
 import org.w3c.dom.Element;
@@ -124,11 +124,9 @@ public class ConfigurationParser {
     private Configuration parseConfiguration(InputSource inputSource)
             throws IOException, XMLParserException {
         parseErrors.clear();
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setValidating(true);
 
         try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
+            DocumentBuilder builder = XmlParserPool.getValidatingDocumentBuilder();
             builder.setEntityResolver(new ParserEntityResolver());
 
             ParserErrorHandler handler = new ParserErrorHandler(warnings,
@@ -146,6 +144,8 @@ public class ConfigurationParser {
                 } else {
                     parseErrors.add(e.getException().getMessage());
                 }
+            } finally {
+                XmlParserPool.releaseValidatingDocumentBuilder(builder);
             }
 
             if (parseErrors.size() > 0) {
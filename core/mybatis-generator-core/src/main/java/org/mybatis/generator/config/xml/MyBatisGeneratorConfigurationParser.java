@@ -142,6 +142,7 @@ public class MyBatisGeneratorConfigurationParser {
 
             configurationProperties.load(inputStream);
             inputStream.close();
+            configuration.addPropertiesUrl(resourceUrl);
         } catch (IOException e) {
             if (stringHasValue(resource)) {
                 throw new XMLParserException(getString(
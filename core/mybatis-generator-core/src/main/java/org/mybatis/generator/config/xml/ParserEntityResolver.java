@@ -15,8 +15,12 @@
  */
 package org.mybatis.generator.config.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.mybatis.generator.codegen.XmlConstants;
 import org.xml.sax.EntityResolver;
@@ -24,10 +28,14 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
+ * Resolves the configuration DTDs from the classpath. Each DTD is read once and then kept in memory.
+ *
  * @author Jeff Butler
  */
 public class ParserEntityResolver implements EntityResolver {
 
+    private static final ConcurrentMap<String, byte[]> dtds = new ConcurrentHashMap<String, byte[]>();
+
     /**
      *  
      */
@@ -45,22 +53,38 @@ public class ParserEntityResolver implements EntityResolver {
     public InputSource resolveEntity(String publicId, String systemId)
             throws SAXException, IOException {
         if (XmlConstants.IBATOR_CONFIG_PUBLIC_ID.equalsIgnoreCase(publicId)) {
-            InputStream is = getClass().getClassLoader().getResourceAsStream(
-                    "org/mybatis/generator/config/xml/ibator-config_1_0.dtd"); //$NON-NLS-1$
-            InputSource ins = new InputSource(is);
-
-            return ins;
+            return getDtd("org/mybatis/generator/config/xml/ibator-config_1_0.dtd"); //$NON-NLS-1$
         } else if (XmlConstants.MYBATIS_GENERATOR_CONFIG_PUBLIC_ID
                 .equalsIgnoreCase(publicId)) {
-            InputStream is = getClass()
-                    .getClassLoader()
-                    .getResourceAsStream(
-                            "org/mybatis/generator/config/xml/mybatis-generator-config_1_0.dtd"); //$NON-NLS-1$
-            InputSource ins = new InputSource(is);
-
-            return ins;
+            return getDtd("org/mybatis/generator/config/xml/mybatis-generator-config_1_0.dtd"); //$NON-NLS-1$
         } else {
             return null;
         }
     }
+
+    private InputSource getDtd(String resource) throws IOException {
+        byte[] dtd = dtds.get(resource);
+        if (dtd == null) {
+            InputStream is = getClass().getClassLoader().getResourceAsStream(resource);
+            if (is == null) {
+                return new InputSource(is);
+            }
+
+            try {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int count;
+                while ((count = is.read(buffer)) != -1) {
+                    baos.write(buffer, 0, count);
+                }
+                dtd = baos.toByteArray();
+            } finally {
+                is.close();
+            }
+
+            dtds.putIfAbsent(resource, dtd);
+        }
+
+        return new InputSource(new ByteArrayInputStream(dtd));
+    }
 }
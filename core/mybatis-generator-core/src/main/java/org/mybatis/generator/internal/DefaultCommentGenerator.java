@@ -29,6 +29,7 @@ import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -47,7 +48,7 @@ import org.mybatis.generator.internal.util.StringUtility;
 /**
  * @author Jeff Butler
  */
-public class DefaultCommentGenerator implements CommentGenerator {
+public class DefaultCommentGenerator implements CommentGenerator, ThreadSafe {
 
     private Properties properties;
 
@@ -168,7 +169,10 @@ public class DefaultCommentGenerator implements CommentGenerator {
         if (suppressDate) {
             return null;
         } else if (dateFormat != null) {
-            return dateFormat.format(new Date());
+            // SimpleDateFormat is not thread safe
+            synchronized (dateFormat) {
+                return dateFormat.format(new Date());
+            }
         } else {
             return new Date().toString();
         }
@@ -33,6 +33,9 @@ public class DefaultShellCallback implements ShellCallback {
     /** The overwrite. */
     private boolean overwrite;
 
+    /** The directory used to resolve relative target projects, or null for the current directory. */
+    private File baseDirectory;
+
     /**
      * Instantiates a new default shell callback.
      *
@@ -44,6 +47,20 @@ public class DefaultShellCallback implements ShellCallback {
         this.overwrite = overwrite;
     }
 
+    /**
+     * Instantiates a new default shell callback that resolves relative target projects against a directory other than
+     * the current directory.
+     *
+     * @param overwrite
+     *            the overwrite
+     * @param baseDirectory
+     *            the directory used to resolve relative target projects. If null, the current directory is used.
+     */
+    public DefaultShellCallback(boolean overwrite, File baseDirectory) {
+        this(overwrite);
+        this.baseDirectory = baseDirectory;
+    }
+
     /* (non-Javadoc)
      * @see org.mybatis.generator.api.ShellCallback#getDirectory(java.lang.String, java.lang.String)
      */
@@ -58,6 +75,9 @@ public class DefaultShellCallback implements ShellCallback {
         // if it does not already exist
 
         File project = new File(targetProject);
+        if (baseDirectory != null && !project.isAbsolute()) {
+            project = new File(baseDirectory, targetProject);
+        }
         if (!project.isDirectory()) {
             throw new ShellException(getString("Warning.9", //$NON-NLS-1$
                     targetProject));
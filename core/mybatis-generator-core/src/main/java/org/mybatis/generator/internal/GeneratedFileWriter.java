@@ -0,0 +1,539 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.ShellCallback;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * Saves generated files. The content of every file is formatted, and Java files are merged, on the calling
+ * thread because formatters and shell callbacks are not required to be thread safe. Checking for existing files,
+ * merging XML files, and writing can then run on a pool of I/O threads. A file is only formatted when one of the
+ * few files waiting for an I/O thread has been written, so the content of all files is never held at once.
+ *
+ * <p>Warnings and progress tasks are always reported in the order of the files, so the result does not depend on
+ * the number of threads. The file to write is chosen on the calling thread too, including the unique name of a
+ * file that must not overwrite an existing file, so the progress task of a file names the file that is written.
+ * It is started before the file is written.
+ *
+ * <p>Optionally, an existing file is left untouched if it already holds the generated bytes. The file length is
+ * compared first, so only files of the same length are read.
+ */
+public class GeneratedFileWriter {
+
+    private ShellCallback shellCallback;
+
+    private int threads;
+
+    private boolean skipUnchangedFiles;
+
+    /** target directories, keyed by target project and target package. */
+    private Map<String, File> directories;
+
+    private Map<GeneratedFile, File> targetFiles;
+
+    /** the files that the current run writes, including files that are not written yet. */
+    private Set<File> claimedFiles;
+
+    /**
+     * Constructs a writer.
+     *
+     * @param shellCallback
+     *            the shell callback used to resolve directories and merge Java files
+     * @param threads
+     *            the number of I/O threads, 1 writes every file on the calling thread
+     */
+    public GeneratedFileWriter(ShellCallback shellCallback, int threads) {
+        super();
+        this.shellCallback = shellCallback;
+        this.threads = threads;
+        directories = new HashMap<String, File>();
+        targetFiles = new IdentityHashMap<GeneratedFile, File>();
+        claimedFiles = new HashSet<File>();
+    }
+
+    /**
+     * If true, existing files that already hold the generated content are not written again.
+     *
+     * @param skipUnchangedFiles
+     *            true to skip writing unchanged files
+     */
+    public void setSkipUnchangedFiles(boolean skipUnchangedFiles) {
+        this.skipUnchangedFiles = skipUnchangedFiles;
+    }
+
+    /**
+     * Writes the XML files, and then the Java files.
+     *
+     * @param generatedXmlFiles
+     *            the XML files
+     * @param generatedJavaFiles
+     *            the Java files
+     * @param callback
+     *            the progress callback
+     * @param warnings
+     *            the list warnings are added to
+     * @throws IOException
+     *             if a file cannot be written
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     */
+    public void writeFiles(List<GeneratedXmlFile> generatedXmlFiles,
+            List<GeneratedJavaFile> generatedJavaFiles, ProgressCallback callback,
+            List<String> warnings) throws IOException, InterruptedException {
+        List<GeneratedFile> generatedFiles = new ArrayList<GeneratedFile>();
+        generatedFiles.addAll(generatedXmlFiles);
+        generatedFiles.addAll(generatedJavaFiles);
+
+        targetFiles.clear();
+        claimedFiles.clear();
+        if (threads > 1 && generatedFiles.size() > 1) {
+            ExecutorService executorService = Executors.newFixedThreadPool(
+                    Math.min(threads, generatedFiles.size()));
+            try {
+                // files with the same target are written in order so that unique names are stable
+                Map<File, Future<FileWriteResult>> lastWrites = new HashMap<File, Future<FileWriteResult>>();
+                LinkedList<Future<FileWriteResult>> results = new LinkedList<Future<FileWriteResult>>();
+                GeneratorSession session = GeneratorSession.getCurrent();
+                for (GeneratedFile generatedFile : generatedFiles) {
+                    callback.checkCancel();
+                    FileWriteTask task = createTask(generatedFile, callback);
+                    if (task.targetFile != null) {
+                        task.predecessor = lastWrites.get(task.targetFile);
+                        Future<FileWriteResult> result = executorService.submit(session.wrap(task));
+                        lastWrites.put(task.targetFile, result);
+                        results.add(result);
+                    } else {
+                        results.add(executorService.submit(session.wrap(task)));
+                    }
+
+                    // only a few files wait with their content, so memory does not grow with the number of files
+                    while (results.size() > threads * 2) {
+                        report(getResult(results.removeFirst()), warnings);
+                    }
+                }
+
+                while (!results.isEmpty()) {
+                    callback.checkCancel();
+                    report(getResult(results.removeFirst()), warnings);
+                }
+            } finally {
+                executorService.shutdownNow();
+            }
+        } else {
+            for (GeneratedFile generatedFile : generatedFiles) {
+                callback.checkCancel();
+                report(createTask(generatedFile, callback).call(), warnings);
+            }
+        }
+    }
+
+    /**
+     * Returns the file each generated file was written to, or found unchanged in, by the last call to writeFiles.
+     * Files that could not be written are not included.
+     *
+     * @return the target files
+     */
+    public Map<GeneratedFile, File> getTargetFiles() {
+        return targetFiles;
+    }
+
+    /**
+     * Formats the file, merges a Java file, and chooses the file to write on the calling thread.
+     */
+    private FileWriteTask createTask(GeneratedFile generatedFile, ProgressCallback callback) throws IOException {
+        FileWriteTask task;
+        if (generatedFile instanceof GeneratedJavaFile) {
+            task = createTask((GeneratedJavaFile) generatedFile);
+        } else {
+            task = createTask((GeneratedXmlFile) generatedFile);
+        }
+
+        if (task.warning == null) {
+            setTargetFile(task);
+            callback.startTask(getString("Progress.15", task.targetFile.getName())); //$NON-NLS-1$
+        }
+        return task;
+    }
+
+    /**
+     * Chooses the file to write. If the file exists, or an earlier file of this run is written to it, and the
+     * content is neither merged nor allowed to overwrite it, the content is written to a file with a unique name -
+     * unless unchanged files are skipped and the existing file already holds the content.
+     */
+    private void setTargetFile(FileWriteTask task) throws IOException {
+        File targetFile = new File(task.directory, task.fileName);
+        boolean claimed = !claimedFiles.add(targetFile);
+        if (!task.merged && !task.mergeXml && !task.overwrite && (claimed || targetFile.exists())) {
+            task.bytes = encode(task.content, task.fileEncoding);
+            if (claimed || !skipUnchangedFiles || !isUnchanged(targetFile, task.bytes)) {
+                targetFile = getUniqueFileName(task.directory, task.fileName);
+                claimedFiles.add(targetFile);
+                task.renamed = true;
+            }
+        }
+        task.targetFile = targetFile;
+    }
+
+    private FileWriteTask createTask(GeneratedXmlFile gxf) {
+        String content;
+        GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.SAVE_FORMAT, gxf.getFileName());
+        try {
+            content = gxf.getFormattedContent();
+        } finally {
+            GenerationMetrics.stop(timer);
+        }
+        FileWriteTask task = new FileWriteTask(gxf, gxf.getFileName(), content, "UTF-8"); //$NON-NLS-1$
+        try {
+            task.directory = getDirectory(gxf.getTargetProject(), gxf.getTargetPackage());
+            task.mergeXml = gxf.isMergeable();
+            task.overwrite = shellCallback.isOverwriteEnabled();
+        } catch (ShellException e) {
+            task.warning = e.getMessage();
+        }
+        return task;
+    }
+
+    private FileWriteTask createTask(GeneratedJavaFile gjf) {
+        String content;
+        GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.SAVE_FORMAT, gjf.getFileName());
+        try {
+            content = gjf.getFormattedContent();
+        } finally {
+            GenerationMetrics.stop(timer);
+        }
+        FileWriteTask task = new FileWriteTask(gjf, gjf.getFileName(), content, gjf.getFileEncoding());
+        try {
+            task.directory = getDirectory(gjf.getTargetProject(), gjf.getTargetPackage());
+            task.overwrite = shellCallback.isOverwriteEnabled();
+            if (shellCallback.isMergeSupported()) {
+                File targetFile = new File(task.directory, gjf.getFileName());
+                if (targetFile.exists()) {
+                    timer = GenerationMetrics.start(GenerationMetrics.SAVE_MERGE, gjf.getFileName());
+                    try {
+                        task.content = shellCallback.mergeJavaFile(task.content, targetFile,
+                                MergeConstants.OLD_ELEMENT_TAGS, gjf.getFileEncoding());
+                    } finally {
+                        GenerationMetrics.stop(timer);
+                    }
+                    task.merged = true;
+                }
+            }
+        } catch (ShellException e) {
+            task.warning = e.getMessage();
+        }
+        return task;
+    }
+
+    private File getDirectory(String targetProject, String targetPackage) throws ShellException {
+        String key = targetProject + '|' + targetPackage;
+        File directory = directories.get(key);
+        if (directory == null) {
+            directory = shellCallback.getDirectory(targetProject, targetPackage);
+            directories.put(key, directory);
+        }
+        return directory;
+    }
+
+    private void report(FileWriteResult result, List<String> warnings) {
+        warnings.addAll(result.warnings);
+        if (result.targetFile != null) {
+            targetFiles.put(result.generatedFile, result.targetFile);
+        }
+    }
+
+    private static FileWriteResult getResult(Future<FileWriteResult> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    private class FileWriteTask implements Callable<FileWriteResult> {
+        private GeneratedFile generatedFile;
+        private String fileName;
+        private String content;
+        private String fileEncoding;
+        private File directory;
+        /** the file to write, null if the file could not be prepared. */
+        private File targetFile;
+        /** true if the target file has a unique name because the file name was already taken. */
+        private boolean renamed;
+        /** the encoded content, if it was already needed to choose the target file. */
+        private ByteBuffer bytes;
+        private boolean mergeXml;
+        private boolean merged;
+        private boolean overwrite;
+
+        /** if not null, the file could not be prepared and is not written. */
+        private String warning;
+
+        /** an earlier write to the same file that must finish first. */
+        private Future<FileWriteResult> predecessor;
+
+        FileWriteTask(GeneratedFile generatedFile, String fileName, String content, String fileEncoding) {
+            this.generatedFile = generatedFile;
+            this.fileName = fileName;
+            this.content = content;
+            this.fileEncoding = fileEncoding;
+        }
+
+        @Override
+        public FileWriteResult call() throws IOException {
+            FileWriteResult result = new FileWriteResult(generatedFile);
+            if (warning != null) {
+                result.warnings.add(warning);
+                return result;
+            }
+
+            if (predecessor != null) {
+                try {
+                    predecessor.get();
+                } catch (Exception e) {
+                    // the failure is reported with the earlier file
+                }
+            }
+
+            File targetFile = this.targetFile;
+            if (renamed) {
+                result.warnings.add(getString("Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+            }
+
+            boolean exists = !renamed && targetFile.exists();
+            String source = content;
+            if (exists && mergeXml) {
+                GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.SAVE_MERGE, fileName);
+                try {
+                    source = XmlFileMergerJaxp.getMergedSource(content, targetFile);
+                } catch (ShellException e) {
+                    result.warnings.add(e.getMessage());
+                    return result;
+                } finally {
+                    GenerationMetrics.stop(timer);
+                }
+            }
+
+            GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.SAVE_WRITE, fileName);
+            try {
+                ByteBuffer bytes = this.bytes;
+                if (exists) {
+                    if (skipUnchangedFiles) {
+                        if (bytes == null) {
+                            bytes = encode(source, fileEncoding);
+                        }
+                        if (isUnchanged(targetFile, bytes)) {
+                            result.targetFile = targetFile;
+                            result.unchanged = true;
+                            return result;
+                        }
+                    }
+
+                    // merged content always replaces the existing file
+                    if (!merged && !mergeXml) {
+                        result.warnings.add(getString("Warning.11", //$NON-NLS-1$
+                                targetFile.getAbsolutePath()));
+                    }
+                }
+
+                writeFile(targetFile, bytes == null ? encode(source, fileEncoding) : bytes);
+                result.targetFile = targetFile;
+                return result;
+            } finally {
+                GenerationMetrics.stop(timer);
+            }
+        }
+    }
+
+    private static class FileWriteResult {
+        private GeneratedFile generatedFile;
+        /** the file that was written, or null if nothing was written. */
+        private File targetFile;
+        /** true if the target file already held the content and was not written. */
+        private boolean unchanged;
+        private List<String> warnings = new ArrayList<String>();
+
+        FileWriteResult(GeneratedFile generatedFile) {
+            this.generatedFile = generatedFile;
+        }
+    }
+
+    /**
+     * Encodes the content in a single pass.
+     *
+     * @param content
+     *            the content
+     * @param fileEncoding
+     *            the file encoding, or null for the platform default
+     * @return the encoded content
+     * @throws UnsupportedEncodingException
+     *             if the encoding is not supported
+     */
+    private static ByteBuffer encode(String content, String fileEncoding) throws UnsupportedEncodingException {
+        Charset charset;
+        if (fileEncoding == null) {
+            charset = Charset.defaultCharset();
+        } else {
+            try {
+                charset = Charset.forName(fileEncoding);
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(fileEncoding);
+            }
+        }
+
+        return charset.encode(content);
+    }
+
+    /**
+     * Returns true if the file holds exactly the specified bytes. The buffer position is not changed.
+     *
+     * @param file
+     *            the file
+     * @param bytes
+     *            the bytes
+     * @return true if the file content is equal
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static boolean isUnchanged(File file, ByteBuffer bytes) throws IOException {
+        if (file.length() != bytes.remaining()) {
+            return false;
+        }
+
+        ByteBuffer expected = bytes.duplicate();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(expected.remaining(), 8192) + 1);
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                if (buffer.remaining() > expected.remaining()) {
+                    return false;
+                }
+
+                ByteBuffer slice = expected.slice();
+                slice.limit(buffer.remaining());
+                if (!slice.equals(buffer)) {
+                    return false;
+                }
+
+                expected.position(expected.position() + buffer.remaining());
+                buffer.clear();
+            }
+        } finally {
+            fis.close();
+        }
+
+        return !expected.hasRemaining();
+    }
+
+    /**
+     * Writes, or overwrites, the contents of the specified file through a file channel.
+     *
+     * @param file
+     *            the file
+     * @param buffer
+     *            the encoded content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeFile(File file, ByteBuffer buffer) throws IOException {
+        FileOutputStream fos = new FileOutputStream(file, false);
+        try {
+            FileChannel channel = fos.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            fos.close();
+        }
+    }
+
+    /**
+     * Gets the unique file name.
+     *
+     * @param directory
+     *            the directory
+     * @param fileName
+     *            the file name
+     * @return the unique file name
+     */
+    private File getUniqueFileName(File directory, String fileName) {
+        File answer = null;
+
+        // try up to 1000 times to generate a unique file name
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i < 1000; i++) {
+            sb.setLength(0);
+            sb.append(fileName);
+            sb.append('.');
+            sb.append(i);
+
+            File testFile = new File(directory, sb.toString());
+            if (!testFile.exists() && !claimedFiles.contains(testFile)) {
+                answer = testFile;
+                break;
+            }
+        }
+
+        if (answer == null) {
+            throw new RuntimeException(getString(
+                    "RuntimeError.3", directory.getAbsolutePath())); //$NON-NLS-1$
+        }
+
+        return answer;
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.StringUtility.digest;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
+
+/**
+ * Remembers, for every introspected table, a fingerprint of everything that affects the generated code and the
+ * files that were written for it. A table whose fingerprint did not change, and whose files still exist, does not
+ * need to be generated again.
+ *
+ * <p>Files that were written by an earlier run but are not produced anymore are reported as stale. The manifest is
+ * only updated after the files are saved, so an interrupted run is simply repeated.
+ *
+ * <p>A manifest holds the state of a single run. Create a new instance, and load it, for every run.
+ *
+ * <p>This class is thread safe.
+ */
+public class GenerationManifest {
+
+    private static final int FORMAT_VERSION = 2;
+
+    /** the version recorded if the generator is not run from a packaged jar. */
+    private static final String DEVELOPMENT_VERSION = "development"; //$NON-NLS-1$
+
+    private File file;
+
+    private Map<String, Entry> entries;
+
+    /** tables generated in this run, with the digests of their fingerprints. */
+    private Map<String, String> generatedTables;
+
+    private Map<String, List<GeneratedFile>> generatedFiles;
+
+    /** tables that no longer exist in a context that was fully generated. */
+    private Set<String> removedTables;
+
+    private Log logger;
+
+    /**
+     * Constructs a manifest. Call load() to read the previous run.
+     *
+     * @param file
+     *            the manifest file
+     */
+    public GenerationManifest(File file) {
+        super();
+        this.file = file;
+        entries = new HashMap<String, Entry>();
+        generatedTables = new LinkedHashMap<String, String>();
+        generatedFiles = new HashMap<String, List<GeneratedFile>>();
+        removedTables = new HashSet<String>();
+        logger = LogFactory.getLog(getClass());
+    }
+
+    /**
+     * Returns the version of the generator that is recorded in the fingerprints. If the generator does not run from
+     * a packaged jar, the implementation version is unknown and a fixed version is returned.
+     *
+     * @return the generator version
+     */
+    public static String getGeneratorVersion() {
+        Package generatorPackage = GenerationManifest.class.getPackage();
+        String version = generatorPackage == null ? null : generatorPackage.getImplementationVersion();
+        return version == null ? DEVELOPMENT_VERSION : version;
+    }
+
+    /**
+     * Reads the manifest file. A missing, unreadable, or outdated file leaves the manifest empty, so every table
+     * is generated.
+     */
+    public synchronized void load() {
+        entries.clear();
+        if (!file.isFile()) {
+            return;
+        }
+
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (dis.readInt() == FORMAT_VERSION) {
+                int count = dis.readInt();
+                for (int i = 0; i < count; i++) {
+                    String key = dis.readUTF();
+                    Entry entry = new Entry(dis.readUTF());
+                    int fileCount = dis.readInt();
+                    for (int j = 0; j < fileCount; j++) {
+                        entry.files.add(dis.readUTF());
+                    }
+                    entries.put(key, entry);
+                }
+            }
+        } catch (Exception e) {
+            entries.clear();
+            if (logger.isDebugEnabled()) {
+                logger.debug(getString("Tracing.6", file.getAbsolutePath(), e.getMessage())); //$NON-NLS-1$
+            }
+        } finally {
+            if (dis != null) {
+                try {
+                    dis.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the table was generated with the same fingerprint, and all of its files still exist.
+     *
+     * @param key
+     *            the table key
+     * @param fingerprint
+     *            the current fingerprint of the table
+     * @return true if the table does not need to be generated
+     */
+    public synchronized boolean isUnchanged(String key, String fingerprint) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.fingerprint.equals(digest(fingerprint))) {
+            return false;
+        }
+
+        for (String path : entry.files) {
+            if (!new File(path).exists()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns true if the previous run recorded files for the key.
+     *
+     * @param key
+     *            the key
+     * @return true if there are recorded files
+     */
+    public synchronized boolean hasFiles(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && !entry.files.isEmpty();
+    }
+
+    /**
+     * Records that a table is generated in this run.
+     *
+     * @param key
+     *            the table key
+     * @param fingerprint
+     *            the fingerprint of the table
+     */
+    public synchronized void startTable(String key, String fingerprint) {
+        generatedTables.put(key, digest(fingerprint));
+        generatedFiles.put(key, new ArrayList<GeneratedFile>());
+    }
+
+    /**
+     * Returns true if the table was passed to startTable in this run.
+     *
+     * @param key
+     *            the table key
+     * @return true if the table is generated in this run
+     */
+    public synchronized boolean isStarted(String key) {
+        return generatedTables.containsKey(key);
+    }
+
+    /**
+     * Records files generated for a table that was passed to startTable. Files of other tables are ignored.
+     *
+     * @param key
+     *            the table key
+     * @param files
+     *            the generated files
+     */
+    public synchronized void addGeneratedFiles(String key, List<? extends GeneratedFile> files) {
+        List<GeneratedFile> tableFiles = generatedFiles.get(key);
+        if (tableFiles != null) {
+            tableFiles.addAll(files);
+        }
+    }
+
+    /**
+     * Forgets every table of a context that is not in the specified set. Call this only if every table of the
+     * context was selected for the run.
+     *
+     * @param keyPrefix
+     *            the prefix of the keys of the context
+     * @param keys
+     *            the keys of all current tables of the context
+     */
+    public synchronized void retainTables(String keyPrefix, Set<String> keys) {
+        for (String key : entries.keySet()) {
+            if (key.startsWith(keyPrefix) && !keys.contains(key)) {
+                removedTables.add(key);
+            }
+        }
+    }
+
+    /**
+     * Records the files written for the tables generated in this run.
+     *
+     * @param targetFiles
+     *            the file each generated file was written to. A table with a generated file that was not written
+     *            is forgotten, so it is generated again by the next run.
+     * @return the existing files that were written by an earlier run, but are not generated anymore
+     */
+    public synchronized List<File> update(Map<GeneratedFile, File> targetFiles) {
+        Set<String> previousFiles = new LinkedHashSet<String>();
+        for (String key : removedTables) {
+            previousFiles.addAll(entries.remove(key).files);
+        }
+
+        for (Map.Entry<String, String> table : generatedTables.entrySet()) {
+            Entry previous = entries.remove(table.getKey());
+            if (previous != null) {
+                previousFiles.addAll(previous.files);
+            }
+
+            Entry entry = new Entry(table.getValue());
+            for (GeneratedFile generatedFile : generatedFiles.get(table.getKey())) {
+                File targetFile = targetFiles.get(generatedFile);
+                if (targetFile == null) {
+                    entry = null;
+                    break;
+                }
+                entry.files.add(targetFile.getAbsolutePath());
+            }
+
+            if (entry != null) {
+                entries.put(table.getKey(), entry);
+            }
+        }
+
+        for (Entry entry : entries.values()) {
+            previousFiles.removeAll(entry.files);
+        }
+
+        List<File> answer = new ArrayList<File>();
+        for (String path : previousFiles) {
+            File staleFile = new File(path);
+            if (staleFile.exists()) {
+                answer.add(staleFile);
+            }
+        }
+
+        generatedTables.clear();
+        generatedFiles.clear();
+        removedTables.clear();
+        return answer;
+    }
+
+    /**
+     * Writes the manifest file.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(getString("RuntimeError.25", file.getPath())); //$NON-NLS-1$
+        }
+
+        // write to a temporary file first so that a failed write never leaves a broken manifest
+        File temporaryFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+        try {
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                dos.writeUTF(entry.getKey());
+                dos.writeUTF(entry.getValue().fingerprint);
+                dos.writeInt(entry.getValue().files.size());
+                for (String path : entry.getValue().files) {
+                    dos.writeUTF(path);
+                }
+            }
+        } finally {
+            dos.close();
+        }
+
+        if (file.exists() && !file.delete() || !temporaryFile.renameTo(file)) {
+            temporaryFile.delete();
+            throw new IOException(getString("RuntimeError.25", file.getPath())); //$NON-NLS-1$
+        }
+    }
+
+    private static class Entry {
+        private String fingerprint;
+        private List<String> files;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+            files = new ArrayList<String>();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Submits jobs to a running generator daemon (see org.mybatis.generator.api.GeneratorDaemon).
+ *
+ * <p>The daemon writes its port and an access token to a daemon file that only its owner can read. A client reads
+ * the file, connects to the port on the loopback interface, and sends a request made of lines of text: the token,
+ * the command, the working directory of the client, the number of arguments, and the arguments. The daemon answers
+ * with the messages of the job, followed by a line with the exit status of the job, and closes the connection when
+ * the job is finished.
+ */
+public class GeneratorDaemonClient {
+
+    public static final String PROPERTY_PORT = "port"; //$NON-NLS-1$
+
+    public static final String PROPERTY_TOKEN = "token"; //$NON-NLS-1$
+
+    public static final String COMMAND_RUN = "RUN"; //$NON-NLS-1$
+
+    public static final String COMMAND_STOP = "STOP"; //$NON-NLS-1$
+
+    public static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    /** The prefix of the last line of a reply, which holds the exit status of the job. */
+    public static final String STATUS_PREFIX = "STATUS:"; //$NON-NLS-1$
+
+    /** The exit status of a job that succeeded. */
+    public static final int STATUS_OK = 0;
+
+    /** The exit status of a job that failed, or whose status is unknown because the connection was lost. */
+    public static final int STATUS_FAILED = 1;
+
+    /** Returned instead of an exit status if no daemon could be reached. */
+    public static final int NOT_RUNNING = -1;
+
+    /**
+     * Utility class. No instances allowed.
+     */
+    private GeneratorDaemonClient() {
+        super();
+    }
+
+    /**
+     * Submits a job to the daemon and copies the messages of the job to a stream.
+     *
+     * @param daemonFile
+     *            the file written by the daemon
+     * @param arguments
+     *            the command line arguments of the job - the same arguments accepted by ShellRunner
+     * @param workingDirectory
+     *            the directory used to resolve relative file names in the job
+     * @param out
+     *            the stream that receives the messages of the job
+     * @return the exit status of the job - STATUS_OK if it succeeded - or NOT_RUNNING if no daemon could be reached.
+     *         If NOT_RUNNING, the caller should run the job itself.
+     * @throws IOException
+     *             if the connection to the daemon fails while the job runs
+     */
+    public static int submit(File daemonFile, List<String> arguments, File workingDirectory,
+            PrintStream out) throws IOException {
+        return send(daemonFile, COMMAND_RUN, workingDirectory, arguments, out);
+    }
+
+    /**
+     * Asks the daemon to stop.
+     *
+     * @param daemonFile
+     *            the file written by the daemon
+     * @param out
+     *            the stream that receives the reply of the daemon
+     * @return the exit status of the request, or NOT_RUNNING if no daemon could be reached
+     * @throws IOException
+     *             if the connection to the daemon fails
+     */
+    public static int stop(File daemonFile, PrintStream out) throws IOException {
+        return send(daemonFile, COMMAND_STOP, new File("."), //$NON-NLS-1$
+                Collections.<String> emptyList(), out);
+    }
+
+    private static int send(File daemonFile, String command, File workingDirectory,
+            List<String> arguments, PrintStream out) throws IOException {
+        if (!daemonFile.isFile()) {
+            return NOT_RUNNING;
+        }
+
+        Properties properties = new Properties();
+        InputStream is = new FileInputStream(daemonFile);
+        try {
+            properties.load(is);
+        } finally {
+            is.close();
+        }
+
+        int port;
+        try {
+            port = Integer.parseInt(properties.getProperty(PROPERTY_PORT));
+        } catch (NumberFormatException e) {
+            return NOT_RUNNING;
+        }
+
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getByName("127.0.0.1"), port); //$NON-NLS-1$
+        } catch (ConnectException e) {
+            // the daemon is not running (any more)
+            return NOT_RUNNING;
+        }
+
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), ENCODING));
+            writeLine(writer, properties.getProperty(PROPERTY_TOKEN));
+            writeLine(writer, command);
+            writeLine(writer, workingDirectory.getCanonicalPath());
+            writeLine(writer, Integer.toString(arguments.size()));
+            for (String argument : arguments) {
+                writeLine(writer, argument);
+            }
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), ENCODING));
+            // the status is the last line, so every line is printed only once the next one arrives
+            String previousLine = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (previousLine != null) {
+                    out.println(previousLine);
+                }
+                previousLine = line;
+            }
+
+            if (previousLine != null && previousLine.startsWith(STATUS_PREFIX)) {
+                return parseStatus(previousLine.substring(STATUS_PREFIX.length()));
+            }
+
+            if (previousLine != null) {
+                out.println(previousLine);
+            }
+            return STATUS_FAILED;
+        } finally {
+            socket.close();
+        }
+    }
+
+    private static int parseStatus(String status) {
+        try {
+            return Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            return STATUS_FAILED;
+        }
+    }
+
+    private static void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line == null ? "" : line); //$NON-NLS-1$
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mybatis.generator.api.GenerationMetrics;
+
+/**
+ * Holds the state of a generation run that must not be shared with other runs in the same JVM: the external class
+ * loaders (with the classes resolved through them), the warnings that are reported only once per run, and the
+ * metrics of the run.
+ *
+ * <p>A session belongs to the thread that begins it. Work that a run hands to other threads must be wrapped with
+ * {@link #wrap(Callable)} so that it runs in the same session. Code running outside of a session uses a global
+ * session.
+ */
+public final class GeneratorSession {
+
+    private static final GeneratorSession globalSession = new GeneratorSession(null);
+
+    private static final ThreadLocal<GeneratorSession> currentSession = new ThreadLocal<GeneratorSession>();
+
+    private final GeneratorSession parent;
+
+    private final AtomicReference<ObjectFactory.ClassLoaders> classLoaders =
+            new AtomicReference<ObjectFactory.ClassLoaders>(new ObjectFactory.ClassLoaders());
+
+    private final ConcurrentMap<String, Boolean> reportedWarnings = new ConcurrentHashMap<String, Boolean>();
+
+    private final ConcurrentMap<Object, Object> attributes = new ConcurrentHashMap<Object, Object>();
+
+    private volatile GenerationMetrics metrics;
+
+    private GeneratorSession(GeneratorSession parent) {
+        super();
+        this.parent = parent;
+    }
+
+    /**
+     * Begins a new session on the calling thread. The session starts with no external class loaders. Every call must
+     * be matched by a call to end on the same thread, typically in a finally block.
+     *
+     * @return the new session
+     */
+    public static GeneratorSession begin() {
+        GeneratorSession session = new GeneratorSession(currentSession.get());
+        currentSession.set(session);
+        return session;
+    }
+
+    /**
+     * Ends this session. The session that was current when this session began becomes current again.
+     */
+    public void end() {
+        if (currentSession.get() != this) {
+            return;
+        }
+
+        if (parent == null) {
+            currentSession.remove();
+        } else {
+            currentSession.set(parent);
+        }
+    }
+
+    /**
+     * Returns the session of the calling thread, or the global session if no session is active.
+     *
+     * @return the current session
+     */
+    public static GeneratorSession getCurrent() {
+        GeneratorSession session = currentSession.get();
+        return session == null ? globalSession : session;
+    }
+
+    /**
+     * Returns a task that runs the given task with this session as the current session of the thread that runs it.
+     * The thread's previous session is restored when the task ends.
+     *
+     * @param <T>
+     *            the result type of the task
+     * @param task
+     *            the task
+     * @return the wrapped task
+     */
+    public <T> Callable<T> wrap(final Callable<T> task) {
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                GeneratorSession previous = currentSession.get();
+                currentSession.set(GeneratorSession.this);
+                try {
+                    return task.call();
+                } finally {
+                    if (previous == null) {
+                        currentSession.remove();
+                    } else {
+                        currentSession.set(previous);
+                    }
+                }
+            }
+        };
+    }
+
+    AtomicReference<ObjectFactory.ClassLoaders> getClassLoaders() {
+        return classLoaders;
+    }
+
+    /**
+     * Records a warning that should be reported only once per session.
+     *
+     * @param warning
+     *            the warning
+     * @return true if the warning has not been reported in this session before
+     */
+    public boolean isFirstReport(String warning) {
+        return reportedWarnings.putIfAbsent(warning, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Returns a value that was stored in this session.
+     *
+     * @param key
+     *            the key of the value
+     * @return the value, or null if no value is stored under the key
+     */
+    public Object getAttribute(Object key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * Stores a value in this session unless a value is already stored under the key. Components use this to keep
+     * state that is valid for one generation run only.
+     *
+     * @param key
+     *            the key of the value
+     * @param value
+     *            the value
+     * @return the value stored under the key - either the value already stored, or the value passed in
+     */
+    public Object putAttributeIfAbsent(Object key, Object value) {
+        Object existing = attributes.putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+
+    /**
+     * Returns the metrics recorded for this session.
+     *
+     * @return the metrics, or null if this session does not record metrics
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
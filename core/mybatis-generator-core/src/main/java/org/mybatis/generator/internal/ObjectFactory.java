@@ -18,9 +18,14 @@ package org.mybatis.generator.internal;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
@@ -54,11 +59,8 @@ import org.mybatis.generator.runtime.dynamic.sql.IntrospectedTableMyBatis3Dynami
  */
 public class ObjectFactory {
 
-    private static List<ClassLoader> externalClassLoaders;
-
-    static {
-        externalClassLoaders = new ArrayList<ClassLoader>();
-    }
+    /** Marks a class that is not found by any external class loader. */
+    private static final Class<?> NOT_EXTERNAL = void.class;
 
     /**
      * Utility class. No instances allowed.
@@ -72,10 +74,12 @@ public class ObjectFactory {
      * a generation run so that and change to the classloading configuration
      * will be reflected.  For example, if the eclipse launcher changes configuration
      * it might not be updated if eclipse hasn't been restarted.
+     *
+     * <p>Only the class loaders of the current GeneratorSession are cleared.
      * 
      */
     public static void reset() {
-        externalClassLoaders.clear();
+        getClassLoadersReference().set(new ClassLoaders());
     }
 
     /**
@@ -86,9 +90,21 @@ public class ObjectFactory {
      * @param classLoader
      *            the class loader
      */
-    public static synchronized void addExternalClassLoader(
+    public static void addExternalClassLoader(
             ClassLoader classLoader) {
-        ObjectFactory.externalClassLoaders.add(classLoader);
+        AtomicReference<ClassLoaders> reference = getClassLoadersReference();
+        ClassLoaders classLoaders;
+        do {
+            classLoaders = reference.get();
+        } while (!reference.compareAndSet(classLoaders, classLoaders.with(classLoader)));
+    }
+
+    private static AtomicReference<ClassLoaders> getClassLoadersReference() {
+        return GeneratorSession.getCurrent().getClassLoaders();
+    }
+
+    private static ClassLoaders getClassLoaders() {
+        return getClassLoadersReference().get();
     }
 
     /**
@@ -104,16 +120,23 @@ public class ObjectFactory {
      */
     public static Class<?> externalClassForName(String type)
             throws ClassNotFoundException {
-
-        Class<?> clazz;
-
-        for (ClassLoader classLoader : externalClassLoaders) {
-            try {
-                clazz = Class.forName(type, true, classLoader);
-                return clazz;
-            } catch (Throwable e) {
-                // ignore - fail safe below
+        ClassLoaders classLoaders = getClassLoaders();
+        Class<?> clazz = classLoaders.externalClasses.get(type);
+        if (clazz == null) {
+            clazz = NOT_EXTERNAL;
+            for (ClassLoader classLoader : classLoaders.classLoaders) {
+                try {
+                    clazz = Class.forName(type, true, classLoader);
+                    break;
+                } catch (Throwable e) {
+                    // ignore - fail safe below
+                }
             }
+            classLoaders.externalClasses.put(type, clazz);
+        }
+
+        if (clazz != NOT_EXTERNAL) {
+            return clazz;
         }
 
         return internalClassForName(type);
@@ -124,7 +147,7 @@ public class ObjectFactory {
 
         try {
             Class<?> clazz = externalClassForName(type);
-            answer = clazz.newInstance();
+            answer = newInstance(clazz);
         } catch (Exception e) {
             throw new RuntimeException(getString(
                     "RuntimeError.6", type), e); //$NON-NLS-1$
@@ -135,10 +158,16 @@ public class ObjectFactory {
 
     public static Class<?> internalClassForName(String type)
             throws ClassNotFoundException {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        ClassLoaders classLoaders = getClassLoaders();
+        InternalClass internalClass = classLoaders.internalClasses.get(type);
+        if (internalClass != null && internalClass.contextClassLoader == cl) {
+            return internalClass.clazz;
+        }
+
         Class<?> clazz = null;
 
         try {
-            ClassLoader cl = Thread.currentThread().getContextClassLoader();
             clazz = Class.forName(type, true, cl);
         } catch (Exception e) {
             // ignore - failsafe below
@@ -148,13 +177,14 @@ public class ObjectFactory {
             clazz = Class.forName(type, true, ObjectFactory.class.getClassLoader());
         }
 
+        classLoaders.internalClasses.put(type, new InternalClass(clazz, cl));
         return clazz;
     }
 
     public static URL getResource(String resource) {
         URL url;
 
-        for (ClassLoader classLoader : externalClassLoaders) {
+        for (ClassLoader classLoader : getClassLoaders().classLoaders) {
             url = classLoader.getResource(resource);
             if (url != null) {
                 return url;
@@ -177,7 +207,7 @@ public class ObjectFactory {
         try {
             Class<?> clazz = internalClassForName(type);
 
-            answer = clazz.newInstance();
+            answer = newInstance(clazz);
         } catch (Exception e) {
             throw new RuntimeException(getString(
                     "RuntimeError.6", type), e); //$NON-NLS-1$
@@ -187,6 +217,17 @@ public class ObjectFactory {
         return answer;
     }
 
+    private static Object newInstance(Class<?> clazz) throws Exception {
+        ConcurrentMap<Class<?>, Constructor<?>> constructors = getClassLoaders().constructors;
+        Constructor<?> constructor = constructors.get(clazz);
+        if (constructor == null) {
+            constructor = clazz.getConstructor();
+            constructors.put(clazz, constructor);
+        }
+
+        return constructor.newInstance();
+    }
+
     public static JavaTypeResolver createJavaTypeResolver(Context context,
             List<String> warnings) {
         JavaTypeResolverConfiguration config = context
@@ -348,4 +389,45 @@ public class ObjectFactory {
 
         return answer;
     }
+
+    /**
+     * An immutable list of external class loaders, with the classes and constructors resolved through it. Adding a
+     * class loader creates a new instance, so a cached result never outlives the class loaders it was resolved with.
+     * Instances are never shared between sessions.
+     */
+    static final class ClassLoaders {
+
+        final List<ClassLoader> classLoaders;
+        final ConcurrentMap<String, Class<?>> externalClasses = new ConcurrentHashMap<String, Class<?>>();
+        final ConcurrentMap<String, InternalClass> internalClasses = new ConcurrentHashMap<String, InternalClass>();
+        final ConcurrentMap<Class<?>, Constructor<?>> constructors =
+                new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+        ClassLoaders() {
+            this(Collections.<ClassLoader> emptyList());
+        }
+
+        private ClassLoaders(List<ClassLoader> classLoaders) {
+            this.classLoaders = classLoaders;
+        }
+
+        ClassLoaders with(ClassLoader classLoader) {
+            List<ClassLoader> newClassLoaders = new ArrayList<ClassLoader>(classLoaders);
+            newClassLoaders.add(classLoader);
+            return new ClassLoaders(Collections.unmodifiableList(newClassLoaders));
+        }
+    }
+
+    /**
+     * A class resolved by internalClassForName. The result depends on the context class loader of the thread.
+     */
+    private static final class InternalClass {
+        final Class<?> clazz;
+        final ClassLoader contextClassLoader;
+
+        InternalClass(Class<?> clazz, ClassLoader contextClassLoader) {
+            this.clazz = clazz;
+            this.contextClassLoader = contextClassLoader;
+        }
+    }
 }
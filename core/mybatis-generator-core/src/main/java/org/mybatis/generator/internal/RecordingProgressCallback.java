@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * This class implements a progress callback that records task names so they can be
+ * reported later. It is used when code is generated on a worker thread: the tasks are
+ * replayed to the client's callback on the calling thread, in table order.
+ *
+ * <p>Cancellation is not checked here - the calling thread checks it between tables.
+ */
+public class RecordingProgressCallback implements ProgressCallback {
+
+    private List<String> taskNames;
+
+    public RecordingProgressCallback() {
+        super();
+        taskNames = new ArrayList<String>();
+    }
+
+    @Override
+    public void generationStarted(int totalTasks) {
+    }
+
+    @Override
+    public void introspectionStarted(int totalTasks) {
+    }
+
+    @Override
+    public void saveStarted(int totalTasks) {
+    }
+
+    @Override
+    public void startTask(String taskName) {
+        taskNames.add(taskName);
+    }
+
+    @Override
+    public void checkCancel() throws InterruptedException {
+    }
+
+    @Override
+    public void done() {
+    }
+
+    /**
+     * Reports the recorded tasks to another callback.
+     *
+     * @param callback
+     *            the callback
+     */
+    public void replay(ProgressCallback callback) {
+        for (String taskName : taskNames) {
+            callback.startTask(taskName);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.mybatis.generator.api.ConnectionFactory;
+
+/**
+ * A connection factory that keeps connections open after the generator closes them, and hands them out again on the
+ * next call to getConnection. Long running hosts (like the generator daemon) use this factory so that repeated runs
+ * do not pay for opening a connection.
+ */
+public class ReusableConnectionFactory implements ConnectionFactory {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private ConnectionFactory connectionFactory;
+
+    private BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<Connection>();
+
+    private volatile boolean factoryClosed;
+
+    /**
+     * Constructs a factory that reuses the connections of another factory.
+     *
+     * @param connectionFactory
+     *            the factory that opens new connections
+     */
+    public ReusableConnectionFactory(ConnectionFactory connectionFactory) {
+        super();
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            if (isUsable(connection)) {
+                return wrap(connection);
+            }
+            close(connection);
+        }
+
+        return wrap(connectionFactory.getConnection());
+    }
+
+    @Override
+    public void addConfigurationProperties(Properties properties) {
+        connectionFactory.addConfigurationProperties(properties);
+    }
+
+    /**
+     * Closes every idle connection. Connections that are in use are closed when the generator closes them.
+     */
+    public void close() {
+        factoryClosed = true;
+        closeIdleConnections();
+    }
+
+    private void closeIdleConnections() {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            close(connection);
+        }
+    }
+
+    private void release(Connection connection) {
+        idleConnections.add(connection);
+        if (factoryClosed) {
+            // the factory was closed while the connection was in use
+            closeIdleConnections();
+        }
+    }
+
+    private static boolean isUsable(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (Throwable e) {
+            // some drivers do not implement isValid
+            try {
+                return !connection.isClosed();
+            } catch (SQLException e1) {
+                return false;
+            }
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ReusableConnectionFactory.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Returns the connection to the idle connections when the generator closes it.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private Connection connection;
+        private boolean closed;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                if ("equals".equals(name)) { //$NON-NLS-1$
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) { //$NON-NLS-1$
+                    return System.identityHashCode(proxy);
+                }
+                return method.invoke(connection, args);
+            } else if ("close".equals(name) && method.getParameterTypes().length == 0) { //$NON-NLS-1$
+                if (!closed) {
+                    closed = true;
+                    release(connection);
+                }
+                return null;
+            } else if ("isClosed".equals(name) && method.getParameterTypes().length == 0) { //$NON-NLS-1$
+                return closed || connection.isClosed();
+            } else if (closed) {
+                throw new SQLException(getString("RuntimeError.27")); //$NON-NLS-1$
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2006-2017 the original author or authors.
+ *    Copyright 2006-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,52 +17,79 @@ package org.mybatis.generator.internal;
 
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.namespace.QName;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.DTD;
+import javax.xml.stream.events.EntityReference;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.ProcessingInstruction;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.transform.stream.StreamSource;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.ShellException;
-import org.w3c.dom.Comment;
-import org.w3c.dom.Document;
-import org.w3c.dom.DocumentType;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
-import org.xml.sax.EntityResolver;
+import org.mybatis.generator.internal.util.XmlParserPool;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
  * This class handles the task of merging changes into an existing XML file.
- * 
+ *
+ * <p>Both files are read as streams of StAX events. The children of the new root element are written
+ * first, then the children of the existing root element are copied straight through, except for the
+ * generated elements. Only the leading comments of an existing element are held in memory while deciding
+ * whether it was generated, so neither file is ever held as a tree. The output is the same as the output
+ * of the former DOM based merge (see {@link DomWriter}).
+ *
  * @author Jeff Butler
  */
 public class XmlFileMergerJaxp {
-    private static class NullEntityResolver implements EntityResolver {
+    private static class NullXMLResolver implements XMLResolver {
+        private String publicId;
+        private String systemId;
+
         /**
-         * returns an empty reader. This is done so that the parser doesn't
+         * returns an empty stream. This is done so that the parser doesn't
          * attempt to read a DTD. We don't need that support for the merge and
          * it can cause problems on systems that aren't Internet connected.
+         * The identifiers are kept in case the parser does not report the
+         * DOCTYPE declaration.
          */
         @Override
-        public InputSource resolveEntity(String publicId, String systemId)
-                throws SAXException, IOException {
-
-            StringReader sr = new StringReader(""); //$NON-NLS-1$
+        public Object resolveEntity(String publicID, String systemID,
+                String baseURI, String namespace) {
+            if (publicId == null && systemId == null) {
+                publicId = publicID;
+                systemId = systemID;
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        }
 
-            return new InputSource(sr);
+        void reset() {
+            publicId = null;
+            systemId = null;
         }
     }
 
@@ -75,11 +102,32 @@ public class XmlFileMergerJaxp {
 
     public static String getMergedSource(GeneratedXmlFile generatedXmlFile,
             File existingFile) throws ShellException {
+        return getMergedSource(generatedXmlFile.getFormattedContent(), existingFile);
+    }
+
+    /**
+     * Merges the formatted content of a generated file into an existing file.
+     *
+     * @param formattedContent
+     *            the formatted content of the generated file
+     * @param existingFile
+     *            the existing file
+     * @return the merged source
+     * @throws ShellException
+     *             if the files cannot be merged
+     */
+    public static String getMergedSource(String formattedContent,
+            File existingFile) throws ShellException {
 
         try {
-            return getMergedSource(new InputSource(new StringReader(generatedXmlFile.getFormattedContent())),
-                new InputSource(new InputStreamReader(new FileInputStream(existingFile), "UTF-8")), //$NON-NLS-1$
-                existingFile.getName());
+            InputStreamReader existingReader = new InputStreamReader(
+                    new FileInputStream(existingFile), "UTF-8"); //$NON-NLS-1$
+            try {
+                return getMergedSource(new InputSource(new StringReader(formattedContent)),
+                    new InputSource(existingReader), existingFile.getName());
+            } finally {
+                existingReader.close();
+            }
         } catch (IOException e) {
             throw new ShellException(getString("Warning.13", //$NON-NLS-1$
                     existingFile.getName()), e);
@@ -91,155 +139,576 @@ public class XmlFileMergerJaxp {
                     existingFile.getName()), e);
         }
     }
-    
+
     public static String getMergedSource(InputSource newFile,
             InputSource existingFile, String existingFileName) throws IOException, SAXException,
             ParserConfigurationException, ShellException {
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory
-                .newInstance();
-        factory.setExpandEntityReferences(false);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        builder.setEntityResolver(new NullEntityResolver());
-
-        Document existingDocument = builder.parse(existingFile);
-        Document newDocument = builder.parse(newFile);
+        NullXMLResolver resolver = new NullXMLResolver();
+        XMLInputFactory factory = XmlParserPool.getXMLInputFactory();
+        XMLEventReader existingReader = null;
+        XMLEventReader newReader = null;
+        try {
+            factory.setXMLResolver(resolver);
+            existingReader = createEventReader(factory, existingFile);
+            newReader = createEventReader(factory, newFile);
+            return new StreamingMerger(existingFileName, resolver).merge(newReader, existingReader);
+        } catch (XMLStreamException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFileName), e);
+        } finally {
+            close(existingReader);
+            close(newReader);
+            XmlParserPool.releaseXMLInputFactory(factory);
+        }
+    }
 
-        DocumentType newDocType = newDocument.getDoctype();
-        DocumentType existingDocType = existingDocument.getDoctype();
+    private static XMLEventReader createEventReader(XMLInputFactory factory,
+            InputSource inputSource) throws XMLStreamException {
+        if (inputSource.getCharacterStream() != null) {
+            return factory.createXMLEventReader(inputSource.getCharacterStream());
+        } else if (inputSource.getByteStream() != null) {
+            return factory.createXMLEventReader(inputSource.getByteStream());
+        } else {
+            return factory.createXMLEventReader(new StreamSource(inputSource.getSystemId()));
+        }
+    }
 
-        if (!newDocType.getName().equals(existingDocType.getName())) {
-            throw new ShellException(getString("Warning.12", //$NON-NLS-1$
-                    existingFileName));
+    private static void close(XMLEventReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // ignore
+            }
         }
+    }
 
-        Element existingRootElement = existingDocument.getDocumentElement();
-        Element newRootElement = newDocument.getDocumentElement();
+    /**
+     * The parts of a document that come before the content of the root element.
+     */
+    private static class Prolog {
+        private String version;
+        private DocumentType documentType;
+        private StartElement rootElement;
+    }
 
-        // reconcile the root element attributes -
-        // take all attributes from the new element and add to the existing
-        // element
+    /**
+     * The parts of a DOCTYPE declaration that are written to the merged file.
+     */
+    private static class DocumentType {
+        private String name;
+        private String publicId;
+        private String systemId;
+        private String internalSubset;
+
+        /**
+         * Parses a DOCTYPE declaration. Some parsers (the JDK parser for XML 1.1) do not always report the
+         * full declaration - then the name of the root element and the identifiers the resolver was asked
+         * for are used instead.
+         */
+        static DocumentType parse(String declaration, String rootName, NullXMLResolver resolver) {
+            DocumentType answer = new DocumentType();
+            int[] position = { "<!DOCTYPE".length() }; //$NON-NLS-1$
+            skipWhiteSpace(declaration, position);
+            int start = position[0];
+            while (position[0] < declaration.length()
+                    && !Character.isWhitespace(declaration.charAt(position[0]))
+                    && declaration.charAt(position[0]) != '['
+                    && declaration.charAt(position[0]) != '>') {
+                position[0]++;
+            }
+            answer.name = declaration.substring(start, position[0]);
+            if (answer.name.length() == 0) {
+                answer.name = rootName;
+                answer.publicId = resolver.publicId;
+                answer.systemId = resolver.systemId;
+                return answer;
+            }
+
+            skipWhiteSpace(declaration, position);
+            if (declaration.startsWith("PUBLIC", position[0])) { //$NON-NLS-1$
+                position[0] += "PUBLIC".length(); //$NON-NLS-1$
+                answer.publicId = readQuotedString(declaration, position);
+                answer.systemId = readQuotedString(declaration, position);
+            } else if (declaration.startsWith("SYSTEM", position[0])) { //$NON-NLS-1$
+                position[0] += "SYSTEM".length(); //$NON-NLS-1$
+                answer.systemId = readQuotedString(declaration, position);
+            }
+
+            skipWhiteSpace(declaration, position);
+            int end = declaration.lastIndexOf(']');
+            if (position[0] < declaration.length() && declaration.charAt(position[0]) == '['
+                    && end > position[0]) {
+                answer.internalSubset = declaration.substring(position[0] + 1, end);
+            }
 
-        // remove all attributes from the existing root element
-        NamedNodeMap attributes = existingRootElement.getAttributes();
-        int attributeCount = attributes.getLength();
-        for (int i = attributeCount - 1; i >= 0; i--) {
-            Node node = attributes.item(i);
-            existingRootElement.removeAttribute(node.getNodeName());
+            return answer;
         }
 
-        // add attributes from the new root node to the old root node
-        attributes = newRootElement.getAttributes();
-        attributeCount = attributes.getLength();
-        for (int i = 0; i < attributeCount; i++) {
-            Node node = attributes.item(i);
-            existingRootElement.setAttribute(node.getNodeName(), node
-                    .getNodeValue());
+        private static void skipWhiteSpace(String s, int[] position) {
+            while (position[0] < s.length() && Character.isWhitespace(s.charAt(position[0]))) {
+                position[0]++;
+            }
         }
 
-        // remove the old generated elements and any
-        // white space before the old nodes
-        List<Node> nodesToDelete = new ArrayList<Node>();
-        NodeList children = existingRootElement.getChildNodes();
-        int length = children.getLength();
-        for (int i = 0; i < length; i++) {
-            Node node = children.item(i);
-            if (isGeneratedNode(node)) {
-                nodesToDelete.add(node);
-            } else if (isWhiteSpace(node)
-                    && isGeneratedNode(children.item(i + 1))) {
-                nodesToDelete.add(node);
+        private static String readQuotedString(String s, int[] position) {
+            skipWhiteSpace(s, position);
+            if (position[0] >= s.length()) {
+                return null;
+            }
+
+            char quote = s.charAt(position[0]);
+            if (quote != '"' && quote != '\'') {
+                return null;
+            }
+
+            int end = s.indexOf(quote, position[0] + 1);
+            if (end == -1) {
+                return null;
             }
+
+            String answer = s.substring(position[0] + 1, end);
+            position[0] = end + 1;
+            return answer;
         }
+    }
+
+    /**
+     * Writes the merged file. The output is formatted exactly like {@link DomWriter} formats a document.
+     */
+    private static class StreamingMerger {
+        private String existingFileName;
+        private NullXMLResolver resolver;
+        private StringBuilder sb;
+        private String lineSeparator;
+        private boolean isXML11;
+        private boolean startTagOpen;
 
-        for (Node node : nodesToDelete) {
-            existingRootElement.removeChild(node);
+        StreamingMerger(String existingFileName, NullXMLResolver resolver) {
+            super();
+            this.existingFileName = existingFileName;
+            this.resolver = resolver;
+            sb = new StringBuilder();
+            lineSeparator = System.getProperty("line.separator"); //$NON-NLS-1$
         }
 
-        // add the new generated elements
-        children = newRootElement.getChildNodes();
-        length = children.getLength();
-        Node firstChild = existingRootElement.getFirstChild();
-        for (int i = 0; i < length; i++) {
-            Node node = children.item(i);
-            // don't add the last node if it is only white space
-            if (i == length - 1 && isWhiteSpace(node)) {
-                break;
+        String merge(XMLEventReader newReader, XMLEventReader existingReader)
+                throws XMLStreamException, ShellException {
+            Prolog existingProlog = readProlog(existingReader);
+            Prolog newProlog = readProlog(newReader);
+
+            if (newProlog.documentType == null || existingProlog.documentType == null
+                    || !newProlog.documentType.name.equals(existingProlog.documentType.name)) {
+                throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                        existingFileName));
             }
 
-            Node newNode = existingDocument.importNode(node, true);
-            if (firstChild == null) {
-                existingRootElement.appendChild(newNode);
+            isXML11 = "1.1".equals(existingProlog.version); //$NON-NLS-1$
+            if (isXML11) {
+                sb.append("<?xml version=\"1.1\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
             } else {
-                existingRootElement.insertBefore(newNode, firstChild);
+                sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
             }
+            sb.append(lineSeparator);
+            writeDocumentType(existingProlog.documentType);
+
+            // the existing root element keeps its name, but takes all attributes from the new root element
+            String rootName = getName(existingProlog.rootElement.getName());
+            sb.append('<');
+            sb.append(rootName);
+            writeAttributes(newProlog.rootElement);
+            startTagOpen = true;
+
+            // the new generated elements go before everything in the existing file
+            copyNewChildren(newReader);
+            copyExistingChildren(existingReader);
+
+            writeEndElement(rootName);
+            return sb.toString();
         }
 
-        // pretty print the result
-        return prettyPrint(existingDocument);
-    }
+        private Prolog readProlog(XMLEventReader reader) throws XMLStreamException,
+                ShellException {
+            resolver.reset();
 
-    private static String prettyPrint(Document document) throws ShellException {
-        DomWriter dw = new DomWriter();
-        String s = dw.toString(document);
-        return s;
-    }
+            Prolog prolog = new Prolog();
+            String declaration = null;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartDocument()) {
+                    prolog.version = ((StartDocument) event).getVersion();
+                } else if (event.getEventType() == XMLStreamConstants.DTD) {
+                    declaration = ((DTD) event).getDocumentTypeDeclaration();
+                } else if (event.isStartElement()) {
+                    prolog.rootElement = event.asStartElement();
+                    if (declaration != null) {
+                        prolog.documentType = DocumentType.parse(declaration,
+                                getName(prolog.rootElement.getName()), resolver);
+                    }
+                    return prolog;
+                }
+            }
 
-    private static boolean isGeneratedNode(Node node) {
-        boolean rc = false;
+            throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                    existingFileName));
+        }
 
-        if (node != null && node.getNodeType() == Node.ELEMENT_NODE) {
-            Element element = (Element) node;
-            String id = element.getAttribute("id"); //$NON-NLS-1$
+        /**
+         * Copies the children of the new root element, except for trailing white space.
+         */
+        private void copyNewChildren(XMLEventReader reader) throws XMLStreamException,
+                ShellException {
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                XMLEvent event = reader.nextEvent();
+                if (isText(event)) {
+                    text.append(event.asCharacters().getData());
+                } else if (event.isEndElement()) {
+                    // don't add the last node if it is only white space
+                    if (!isWhiteSpace(text)) {
+                        writeText(text);
+                    }
+                    return;
+                } else {
+                    writeText(text);
+                    text.setLength(0);
+                    if (event.isStartElement()) {
+                        transferElement(event.asStartElement(),
+                                Collections.<XMLEvent>emptyList(), reader, true);
+                    } else {
+                        write(event);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the children of the existing root element, except for the old generated elements and any
+         * white space before them.
+         */
+        private void copyExistingChildren(XMLEventReader reader) throws XMLStreamException,
+                ShellException {
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                XMLEvent event = reader.nextEvent();
+                if (isText(event)) {
+                    text.append(event.asCharacters().getData());
+                } else if (event.isEndElement()) {
+                    writeText(text);
+                    return;
+                } else if (event.isStartElement()) {
+                    List<XMLEvent> lookahead = new ArrayList<XMLEvent>();
+                    boolean generated = isGeneratedElement(event.asStartElement(),
+                            lookahead, reader);
+                    if (!generated || !isWhiteSpace(text)) {
+                        writeText(text);
+                    }
+                    text.setLength(0);
+                    transferElement(event.asStartElement(), lookahead, reader, !generated);
+                } else {
+                    writeText(text);
+                    text.setLength(0);
+                    write(event);
+                }
+            }
+        }
+
+        /**
+         * Decides whether an existing element was generated. An element is generated if its id has one of
+         * the old prefixes, or if one of the comments before its first other child includes one of the
+         * element tags. The events read to find the comments are added to the lookahead list.
+         */
+        private boolean isGeneratedElement(StartElement element, List<XMLEvent> lookahead,
+                XMLEventReader reader) throws XMLStreamException {
+            Attribute id = element.getAttributeByName(new QName("id")); //$NON-NLS-1$
             if (id != null) {
                 for (String prefix : MergeConstants.OLD_XML_ELEMENT_PREFIXES) {
-                    if (id.startsWith(prefix)) {
-                        rc = true;
-                        break;
+                    if (id.getValue().startsWith(prefix)) {
+                        return true;
                     }
                 }
             }
 
-            if (rc == false) {
-                // check for new node format - if the first non-whitespace node
-                // is an XML comment, and the comment includes
-                // one of the old element tags,
-                // then it is a generated node
-                NodeList children = node.getChildNodes();
-                int length = children.getLength();
-                for (int i = 0; i < length; i++) {
-                    Node childNode = children.item(i);
-                    if (isWhiteSpace(childNode)) {
-                        continue;
-                    } else if (childNode.getNodeType() == Node.COMMENT_NODE) {
-                        Comment comment = (Comment) childNode;
-                        String commentData = comment.getData();
-                        for (String tag : MergeConstants.OLD_ELEMENT_TAGS) {
-                            if (commentData.contains(tag)) {
-                                rc = true;
-                                break;
-                            }
-                        }
-                    } else {
-                        break;
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                XMLEvent event = reader.nextEvent();
+                lookahead.add(event);
+                if (isText(event)) {
+                    text.append(event.asCharacters().getData());
+                    continue;
+                }
+
+                if (!isWhiteSpace(text)) {
+                    return false;
+                }
+                text.setLength(0);
+
+                if (event.getEventType() != XMLStreamConstants.COMMENT) {
+                    return false;
+                }
+
+                String commentData = ((Comment) event).getText();
+                for (String tag : MergeConstants.OLD_ELEMENT_TAGS) {
+                    if (commentData.contains(tag)) {
+                        return true;
                     }
                 }
             }
         }
 
-        return rc;
-    }
+        /**
+         * Reads an element up to and including its end tag, first from the lookahead list and then from
+         * the reader. The events are written if copy is true, and dropped otherwise.
+         */
+        private void transferElement(StartElement element, List<XMLEvent> lookahead,
+                XMLEventReader reader, boolean copy) throws XMLStreamException, ShellException {
+            if (copy) {
+                write(element);
+            }
+
+            Iterator<XMLEvent> iter = lookahead.iterator();
+            int depth = 1;
+            while (depth > 0) {
+                XMLEvent event = iter.hasNext() ? iter.next() : reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                } else if (event.isEndElement()) {
+                    depth--;
+                }
+
+                if (copy) {
+                    write(event);
+                }
+            }
+        }
+
+        private void write(XMLEvent event) throws ShellException {
+            int type = event.getEventType();
+            switch (type) {
+            case XMLStreamConstants.START_ELEMENT:
+                beginNode();
+                sb.append('<');
+                sb.append(getName(event.asStartElement().getName()));
+                writeAttributes(event.asStartElement());
+                startTagOpen = true;
+                break;
+
+            case XMLStreamConstants.END_ELEMENT:
+                writeEndElement(getName(event.asEndElement().getName()));
+                break;
+
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CDATA:
+                if (isText(event)) {
+                    writeText(event.asCharacters().getData());
+                } else {
+                    writeCData(event.asCharacters().getData());
+                }
+                break;
+
+            case XMLStreamConstants.COMMENT:
+                beginNode();
+                sb.append("<!--"); //$NON-NLS-1$
+                normalizeAndAppend(((Comment) event).getText(), false);
+                sb.append("-->"); //$NON-NLS-1$
+                break;
 
-    private static boolean isWhiteSpace(Node node) {
-        boolean rc = false;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                ProcessingInstruction pi = (ProcessingInstruction) event;
+                beginNode();
+                sb.append("<?"); //$NON-NLS-1$
+                sb.append(pi.getTarget());
+                if (pi.getData() != null && pi.getData().length() > 0) {
+                    sb.append(' ');
+                    sb.append(pi.getData());
+                }
+                sb.append("?>"); //$NON-NLS-1$
+                break;
+
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                beginNode();
+                sb.append('&');
+                sb.append(((EntityReference) event).getName());
+                sb.append(';');
+                break;
+
+            default:
+                throw new ShellException(getString(
+                        "RuntimeError.18", Integer.toString(type))); //$NON-NLS-1$
+            }
+        }
+
+        private void writeDocumentType(DocumentType documentType) {
+            sb.append("<!DOCTYPE "); //$NON-NLS-1$
+            sb.append(documentType.name);
+            if (documentType.publicId != null) {
+                sb.append(" PUBLIC \""); //$NON-NLS-1$
+                sb.append(documentType.publicId);
+                sb.append("\" \""); //$NON-NLS-1$
+                sb.append(documentType.systemId);
+                sb.append('\"');
+            } else if (documentType.systemId != null) {
+                sb.append(" SYSTEM \""); //$NON-NLS-1$
+                sb.append(documentType.systemId);
+                sb.append('"');
+            }
 
-        if (node != null && node.getNodeType() == Node.TEXT_NODE) {
-            Text tn = (Text) node;
-            if (tn.getData().trim().length() == 0) {
-                rc = true;
+            if (documentType.internalSubset != null) {
+                sb.append(" ["); //$NON-NLS-1$
+                sb.append(lineSeparator);
+                sb.append(documentType.internalSubset);
+                sb.append(']');
             }
+            sb.append('>');
+            sb.append(lineSeparator);
         }
 
-        return rc;
+        private void writeAttributes(StartElement element) {
+            List<String[]> attributes = new ArrayList<String[]>();
+            Iterator<?> iter = element.getNamespaces();
+            while (iter.hasNext()) {
+                Namespace namespace = (Namespace) iter.next();
+                String name = namespace.isDefaultNamespaceDeclaration() ? "xmlns" //$NON-NLS-1$
+                        : "xmlns:" + namespace.getPrefix(); //$NON-NLS-1$
+                attributes.add(new String[] { name, namespace.getNamespaceURI() });
+            }
+
+            iter = element.getAttributes();
+            while (iter.hasNext()) {
+                Attribute attribute = (Attribute) iter.next();
+                attributes.add(new String[] { getName(attribute.getName()), attribute.getValue() });
+            }
+
+            Collections.sort(attributes, new Comparator<String[]>() {
+                @Override
+                public int compare(String[] o1, String[] o2) {
+                    return o1[0].compareTo(o2[0]);
+                }
+            });
+
+            for (String[] attribute : attributes) {
+                sb.append(' ');
+                sb.append(attribute[0]);
+                sb.append("=\""); //$NON-NLS-1$
+                normalizeAndAppend(attribute[1], true);
+                sb.append('"');
+            }
+        }
+
+        private void writeEndElement(String name) {
+            if (startTagOpen) {
+                sb.append(" />"); //$NON-NLS-1$
+                startTagOpen = false;
+            } else {
+                sb.append("</"); //$NON-NLS-1$
+                sb.append(name);
+                sb.append('>');
+            }
+        }
+
+        private void writeText(CharSequence text) {
+            if (text.length() > 0) {
+                beginNode();
+                normalizeAndAppend(text, false);
+            }
+        }
+
+        private void writeCData(String data) {
+            beginNode();
+            sb.append("<![CDATA["); //$NON-NLS-1$
+            // XML parsers normalize line endings to '\n'.  We should write
+            // it out as it was in the original to avoid whitespace commits
+            // on some version control systems
+            for (int i = 0; i < data.length(); i++) {
+                char c = data.charAt(i);
+                if (c == '\n') {
+                    sb.append(lineSeparator);
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append("]]>"); //$NON-NLS-1$
+        }
+
+        private void beginNode() {
+            if (startTagOpen) {
+                sb.append('>');
+                startTagOpen = false;
+            }
+        }
+
+        private void normalizeAndAppend(CharSequence s, boolean isAttValue) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                case '<':
+                    sb.append("&lt;"); //$NON-NLS-1$
+                    break;
+                case '>':
+                    sb.append("&gt;"); //$NON-NLS-1$
+                    break;
+                case '&':
+                    sb.append("&amp;"); //$NON-NLS-1$
+                    break;
+                case '"':
+                    // A '"' that appears in character data
+                    // does not need to be escaped.
+                    if (isAttValue) {
+                        sb.append("&quot;"); //$NON-NLS-1$
+                    } else {
+                        sb.append('"');
+                    }
+                    break;
+                case '\r':
+                    // If CR is part of the document's content, it
+                    // must be printed as a literal otherwise
+                    // it would be normalized to LF when the document
+                    // is reparsed.
+                    sb.append("&#xD;"); //$NON-NLS-1$
+                    break;
+                case '\n':
+                    // write LF with the system default line separator,
+                    // like DomWriter does
+                    sb.append(lineSeparator);
+                    break;
+                default:
+                    // In XML 1.1, control chars in the ranges [#x1-#x1F, #x7F-#x9F]
+                    // must be escaped. Tabs in attribute values are escaped so
+                    // that they are not normalized to spaces when the document
+                    // is reparsed.
+                    if (isXML11
+                            && ((c >= 0x01 && c <= 0x1F && c != 0x09 && c != 0x0A)
+                                    || (c >= 0x7F && c <= 0x9F) || c == 0x2028)
+                            || isAttValue && (c == 0x09 || c == 0x0A)) {
+                        sb.append("&#x"); //$NON-NLS-1$
+                        sb.append(Integer.toHexString(c).toUpperCase());
+                        sb.append(';');
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String getName(QName name) {
+        String prefix = name.getPrefix();
+        if (prefix == null || prefix.length() == 0) {
+            return name.getLocalPart();
+        } else {
+            return prefix + ':' + name.getLocalPart();
+        }
+    }
+
+    private static boolean isText(XMLEvent event) {
+        int type = event.getEventType();
+        return (type == XMLStreamConstants.CHARACTERS || type == XMLStreamConstants.SPACE)
+                && !event.asCharacters().isCData();
+    }
+
+    private static boolean isWhiteSpace(CharSequence text) {
+        return text.toString().trim().length() == 0;
     }
 }
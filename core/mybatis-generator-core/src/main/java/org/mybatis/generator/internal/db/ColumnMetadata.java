@@ -0,0 +1,177 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * One row of a <code>DatabaseMetaData.getColumns</code> result. The raw values are kept
+ * so that a fresh IntrospectedColumn can be built for every table configuration that matches
+ * the row.
+ */
+class ColumnMetadata {
+
+    private ActualTableName actualTableName;
+    private int jdbcType;
+    private int length;
+    private String columnName;
+    private boolean nullable;
+    private int scale;
+    private String remarks;
+    private String defaultValue;
+    private Boolean autoIncrement;
+    private Boolean generatedColumn;
+
+    private ColumnMetadata() {
+        super();
+    }
+
+    /**
+     * Reads every row from a getColumns result set. The result set is not closed.
+     *
+     * @param rs
+     *            the result set
+     * @param rows
+     *            the list the rows are added to
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    static void readAll(ResultSet rs, List<ColumnMetadata> rows) throws SQLException {
+        boolean supportsIsAutoIncrement = false;
+        boolean supportsIsGeneratedColumn = false;
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int colCount = rsmd.getColumnCount();
+        for (int i = 1; i <= colCount; i++) {
+            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsAutoIncrement = true;
+            }
+            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsGeneratedColumn = true;
+            }
+        }
+
+        while (rs.next()) {
+            ColumnMetadata row = new ColumnMetadata();
+            row.jdbcType = rs.getInt("DATA_TYPE"); //$NON-NLS-1$
+            row.length = rs.getInt("COLUMN_SIZE"); //$NON-NLS-1$
+            row.columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+            row.nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable; //$NON-NLS-1$
+            row.scale = rs.getInt("DECIMAL_DIGITS"); //$NON-NLS-1$
+            row.remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+            row.defaultValue = rs.getString("COLUMN_DEF"); //$NON-NLS-1$
+
+            if (supportsIsAutoIncrement) {
+                row.autoIncrement = "YES".equals(rs.getString("IS_AUTOINCREMENT")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            if (supportsIsGeneratedColumn) {
+                row.generatedColumn = "YES".equals(rs.getString("IS_GENERATEDCOLUMN")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            row.actualTableName = new ActualTableName(
+                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+
+            rows.add(row);
+        }
+    }
+
+    void write(DataOutput out) throws IOException {
+        IntrospectionCache.writeActualTableName(out, actualTableName);
+        out.writeInt(jdbcType);
+        out.writeInt(length);
+        IntrospectionCache.writeString(out, columnName);
+        out.writeBoolean(nullable);
+        out.writeInt(scale);
+        IntrospectionCache.writeString(out, remarks);
+        IntrospectionCache.writeString(out, defaultValue);
+        IntrospectionCache.writeBoolean(out, autoIncrement);
+        IntrospectionCache.writeBoolean(out, generatedColumn);
+    }
+
+    static ColumnMetadata read(DataInput in) throws IOException {
+        ColumnMetadata row = new ColumnMetadata();
+        row.actualTableName = IntrospectionCache.readActualTableName(in);
+        row.jdbcType = in.readInt();
+        row.length = in.readInt();
+        row.columnName = IntrospectionCache.readString(in);
+        row.nullable = in.readBoolean();
+        row.scale = in.readInt();
+        row.remarks = IntrospectionCache.readString(in);
+        row.defaultValue = IntrospectionCache.readString(in);
+        row.autoIncrement = IntrospectionCache.readBoolean(in);
+        row.generatedColumn = IntrospectionCache.readBoolean(in);
+        return row;
+    }
+
+    ActualTableName getActualTableName() {
+        return actualTableName;
+    }
+
+    int getJdbcType() {
+        return jdbcType;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    String getColumnName() {
+        return columnName;
+    }
+
+    boolean isNullable() {
+        return nullable;
+    }
+
+    int getScale() {
+        return scale;
+    }
+
+    String getRemarks() {
+        return remarks;
+    }
+
+    String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns null if the driver does not report IS_AUTOINCREMENT.
+     *
+     * @return the auto increment flag
+     */
+    Boolean getAutoIncrement() {
+        return autoIncrement;
+    }
+
+    /**
+     * Returns null if the driver does not report IS_GENERATEDCOLUMN.
+     *
+     * @return the generated column flag
+     */
+    Boolean getGeneratedColumn() {
+        return generatedColumn;
+    }
+}
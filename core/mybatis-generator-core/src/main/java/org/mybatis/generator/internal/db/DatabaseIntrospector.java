@@ -26,7 +26,6 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -39,6 +38,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaTypeResolver;
@@ -50,6 +50,7 @@ import org.mybatis.generator.config.GeneratedKey;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.TableConfiguration;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.db.SchemaMetadataIndex.SchemaMetadata;
 import org.mybatis.generator.logging.Log;
 import org.mybatis.generator.logging.LogFactory;
 
@@ -68,29 +69,127 @@ public class DatabaseIntrospector {
 
     private Log logger;
 
+    private SchemaMetadataIndex schemaMetadataIndex;
+
+    private IntrospectionCache introspectionCache;
+
+    /** fingerprints of the schemas read by readSchemaFingerprint, keyed by local catalog and schema. */
+    private Map<String, Map<String, String>> schemaFingerprints = new HashMap<String, Map<String, String>>();
+
     public DatabaseIntrospector(Context context,
             DatabaseMetaData databaseMetaData,
             JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        this(context, databaseMetaData, javaTypeResolver, warnings, null);
+    }
+
+    /**
+     * Constructs an introspector that serves table metadata from a schema wide index.
+     *
+     * @param context
+     *            the context
+     * @param databaseMetaData
+     *            the database metadata
+     * @param javaTypeResolver
+     *            the java type resolver
+     * @param warnings
+     *            the warnings
+     * @param schemaMetadataIndex
+     *            if not null, each catalog/schema is read once into this index
+     *            instead of querying the metadata for every table
+     */
+    public DatabaseIntrospector(Context context,
+            DatabaseMetaData databaseMetaData,
+            JavaTypeResolver javaTypeResolver, List<String> warnings,
+            SchemaMetadataIndex schemaMetadataIndex) {
         super();
         this.context = context;
-        this.databaseMetaData = databaseMetaData;
+        // if metrics are recorded, every metadata call is measured
+        this.databaseMetaData = GenerationMetrics.measureCalls(DatabaseMetaData.class, databaseMetaData,
+                GenerationMetrics.INTROSPECTION_METADATA, ""); //$NON-NLS-1$
         this.javaTypeResolver = javaTypeResolver;
         this.warnings = warnings;
+        this.schemaMetadataIndex = schemaMetadataIndex;
         logger = LogFactory.getLog(getClass());
     }
 
-    private void calculatePrimaryKey(FullyQualifiedTable table,
-            IntrospectedTable introspectedTable) {
+    /**
+     * Sets a persistent cache of table metadata. If the cache is offline, the database metadata
+     * may be null and is never used.
+     *
+     * @param introspectionCache
+     *            the cache, may be shared by several introspectors
+     */
+    public void setIntrospectionCache(IntrospectionCache introspectionCache) {
+        this.introspectionCache = introspectionCache;
+    }
+
+    /**
+     * Reads a cheap fingerprint of the tables that match a table configuration, without introspecting them. The
+     * fingerprint changes when a matching table is created, dropped, or altered. Each catalog/schema is queried
+     * once per introspector.
+     *
+     * @param tc
+     *            the table configuration
+     * @return the fingerprint, or null if the database cannot be fingerprinted, or if the table configuration has
+     *         no schema
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    public String readSchemaFingerprint(TableConfiguration tc) throws SQLException {
+        String[] localNames = getLocalNames(tc);
+        String schemaKey = localNames[0] + '|' + localNames[1];
+        if (!schemaFingerprints.containsKey(schemaKey)) {
+            schemaFingerprints.put(schemaKey, SchemaFingerprint.read(databaseMetaData,
+                    localNames[0], localNames[1]));
+        }
+
+        Map<String, String> tables = schemaFingerprints.get(schemaKey);
+        if (tables == null) {
+            return null;
+        }
+
+        Map<String, String> answer = new TreeMap<String, String>();
+        Pattern pattern = SchemaMetadataIndex.compileLikePattern(localNames[2],
+                databaseMetaData.getSearchStringEscape(), false);
+        for (Map.Entry<String, String> entry : tables.entrySet()) {
+            if (pattern.matcher(entry.getKey()).matches()) {
+                answer.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return answer.toString();
+    }
+
+    private void calculatePrimaryKey(IntrospectedTable introspectedTable,
+            TableMetadata tableMetadata, ActualTableName atn) {
+        List<String> keyColumns = tableMetadata.getPrimaryKeyColumns(atn);
+        if (keyColumns == null) {
+            warnings.add(getString("Warning.15")); //$NON-NLS-1$
+            return;
+        }
+
+        for (String columnName : keyColumns) {
+            introspectedTable.addPrimaryKeyColumn(columnName);
+        }
+    }
+
+    private void readPrimaryKey(TableConfiguration tc, TableMetadata tableMetadata,
+            SchemaMetadata schemaMetadata, ActualTableName atn) {
+        if (schemaMetadata != null && schemaMetadata.hasPrimaryKeys()) {
+            tableMetadata.setPrimaryKeyColumns(atn, schemaMetadata.getPrimaryKeyColumns(atn));
+            return;
+        }
+
         ResultSet rs = null;
 
         try {
             rs = databaseMetaData.getPrimaryKeys(
-                    table.getIntrospectedCatalog(), table
-                            .getIntrospectedSchema(), table
-                            .getIntrospectedTableName());
+                    getIntrospectedCatalog(tc, atn),
+                    getIntrospectedSchema(tc, atn),
+                    atn.getTableName());
         } catch (SQLException e) {
             closeResultSet(rs);
-            warnings.add(getString("Warning.15")); //$NON-NLS-1$
+            tableMetadata.setPrimaryKeyColumns(atn, null);
             return;
         }
 
@@ -103,16 +202,27 @@ public class DatabaseIntrospector {
                 keyColumns.put(keySeq, columnName);
             }
 
-            for (String columnName : keyColumns.values()) {
-                introspectedTable.addPrimaryKeyColumn(columnName);
-            }
+            tableMetadata.setPrimaryKeyColumns(atn, new ArrayList<String>(keyColumns.values()));
         } catch (SQLException e) {
             // ignore the primary key if there's any error
+            tableMetadata.setPrimaryKeyColumns(atn, new ArrayList<String>());
         } finally {
             closeResultSet(rs);
         }
     }
 
+    /**
+     * The returned catalog is only used if a catalog was specified on the table configuration. The
+     * same rule is applied in calculateIntrospectedTables.
+     */
+    private String getIntrospectedCatalog(TableConfiguration tc, ActualTableName atn) {
+        return stringHasValue(tc.getCatalog()) ? atn.getCatalog() : null;
+    }
+
+    private String getIntrospectedSchema(TableConfiguration tc, ActualTableName atn) {
+        return stringHasValue(tc.getSchema()) ? atn.getSchema() : null;
+    }
+
     private void closeResultSet(ResultSet rs) {
         if (rs != null) {
             try {
@@ -174,9 +284,28 @@ public class DatabaseIntrospector {
      */
     public List<IntrospectedTable> introspectTables(TableConfiguration tc)
             throws SQLException {
+        GenerationMetrics.Timer timer = GenerationMetrics.start(GenerationMetrics.INTROSPECTION_TABLE,
+                composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(), tc.getTableName(), '.'));
+        try {
+            return introspectTablesWithoutMetrics(tc);
+        } finally {
+            GenerationMetrics.stop(timer);
+        }
+    }
+
+    private List<IntrospectedTable> introspectTablesWithoutMetrics(TableConfiguration tc)
+            throws SQLException {
+
+        TableMetadata tableMetadata = getTableMetadata(tc);
+        if (tableMetadata == null) {
+            warnings.add(getString("Warning.29", //$NON-NLS-1$
+                    composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(),
+                            tc.getTableName(), '.')));
+            return null;
+        }
 
         // get the raw columns from the DB
-        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc);
+        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc, tableMetadata);
 
         if (columns.isEmpty()) {
             warnings.add(getString("Warning.19", tc.getCatalog(), //$NON-NLS-1$
@@ -190,7 +319,7 @@ public class DatabaseIntrospector {
         calculateIdentityColumns(tc, columns);
 
         List<IntrospectedTable> introspectedTables = calculateIntrospectedTables(
-                tc, columns);
+                tc, columns, tableMetadata);
 
         // now introspectedTables has all the columns from all the
         // tables in the configuration. Do some validation...
@@ -430,8 +559,17 @@ public class DatabaseIntrospector {
         }
     }
 
-    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
-            TableConfiguration tc) throws SQLException {
+    /**
+     * Calculates the catalog, schema, and table name in the form they are passed to the database metadata
+     * (case adjusted and with wildcards escaped if required).
+     *
+     * @param tc
+     *            the table configuration
+     * @return an array holding the catalog, schema, and table name
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    private String[] getLocalNames(TableConfiguration tc) throws SQLException {
         String localCatalog;
         String localSchema;
         String localTableName;
@@ -496,8 +634,47 @@ public class DatabaseIntrospector {
             localTableName = sb.toString();
         }
 
-        Map<ActualTableName, List<IntrospectedColumn>> answer =
-                new HashMap<ActualTableName, List<IntrospectedColumn>>();
+        return new String[] { localCatalog, localSchema, localTableName };
+    }
+
+    /**
+     * Returns the metadata for a table configuration from the cache if possible, else from the database.
+     *
+     * @param tc
+     *            the table configuration
+     * @return the metadata, or null if the cache is offline and has no entry for the table
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    private TableMetadata getTableMetadata(TableConfiguration tc) throws SQLException {
+        if (introspectionCache != null) {
+            TableMetadata tableMetadata = introspectionCache.get(tc, databaseMetaData);
+            if (tableMetadata != null || introspectionCache.isOffline()) {
+                return tableMetadata;
+            }
+        }
+
+        TableMetadata tableMetadata = readTableMetadata(tc);
+
+        if (introspectionCache != null) {
+            introspectionCache.put(tc, tableMetadata, databaseMetaData);
+        }
+
+        return tableMetadata;
+    }
+
+    private TableMetadata readTableMetadata(TableConfiguration tc) throws SQLException {
+        String[] localNames = getLocalNames(tc);
+        String localCatalog = localNames[0];
+        String localSchema = localNames[1];
+        String localTableName = localNames[2];
+
+        // without a schema the bulk query would read every table of the database
+        SchemaMetadata schemaMetadata = null;
+        if (schemaMetadataIndex != null && localSchema != null) {
+            schemaMetadata = schemaMetadataIndex.getSchemaMetadata(databaseMetaData,
+                    localCatalog, localSchema);
+        }
 
         if (logger.isDebugEnabled()) {
             String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
@@ -505,50 +682,60 @@ public class DatabaseIntrospector {
             logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
         }
 
-        ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
-                localTableName, "%"); //$NON-NLS-1$
-
-        boolean supportsIsAutoIncrement = false;
-        boolean supportsIsGeneratedColumn = false;
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int colCount = rsmd.getColumnCount();
-        for (int i = 1; i <= colCount; i++) {
-            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsAutoIncrement = true;
-            }
-            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsGeneratedColumn = true;
+        List<ColumnMetadata> rows;
+        if (schemaMetadata == null) {
+            rows = new ArrayList<ColumnMetadata>();
+            ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
+                    localTableName, "%"); //$NON-NLS-1$
+            try {
+                ColumnMetadata.readAll(rs, rows);
+            } finally {
+                closeResultSet(rs);
             }
+        } else {
+            rows = schemaMetadata.getColumns(localTableName,
+                    databaseMetaData.getSearchStringEscape());
+        }
+
+        TableMetadata tableMetadata = new TableMetadata(localNames, rows);
+        for (ActualTableName atn : tableMetadata.getActualTableNames()) {
+            readPrimaryKey(tc, tableMetadata, schemaMetadata, atn);
+            readTableInformation(tc, tableMetadata, schemaMetadata, atn);
         }
 
-        while (rs.next()) {
+        return tableMetadata;
+    }
+
+    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
+            TableConfiguration tc, TableMetadata tableMetadata) {
+        String localSchema = tableMetadata.getLocalSchema();
+        String localTableName = tableMetadata.getLocalTableName();
+
+        Map<ActualTableName, List<IntrospectedColumn>> answer =
+                new HashMap<ActualTableName, List<IntrospectedColumn>>();
+
+        for (ColumnMetadata row : tableMetadata.getColumns()) {
             IntrospectedColumn introspectedColumn = ObjectFactory
                     .createIntrospectedColumn(context);
 
             introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE")); //$NON-NLS-1$
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE")); //$NON-NLS-1$
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
-            introspectedColumn
-                    .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable); //$NON-NLS-1$
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS")); //$NON-NLS-1$
-            introspectedColumn.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
-
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement(
-                        "YES".equals(rs.getString("IS_AUTOINCREMENT"))); //$NON-NLS-1$ //$NON-NLS-2$
+            introspectedColumn.setJdbcType(row.getJdbcType());
+            introspectedColumn.setLength(row.getLength());
+            introspectedColumn.setActualColumnName(row.getColumnName());
+            introspectedColumn.setNullable(row.isNullable());
+            introspectedColumn.setScale(row.getScale());
+            introspectedColumn.setRemarks(row.getRemarks());
+            introspectedColumn.setDefaultValue(row.getDefaultValue());
+
+            if (row.getAutoIncrement() != null) {
+                introspectedColumn.setAutoIncrement(row.getAutoIncrement());
             }
 
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn(
-                        "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))); //$NON-NLS-1$ //$NON-NLS-2$
+            if (row.getGeneratedColumn() != null) {
+                introspectedColumn.setGeneratedColumn(row.getGeneratedColumn());
             }
 
-            ActualTableName atn = new ActualTableName(
-                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
-                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
-                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+            ActualTableName atn = row.getActualTableName();
 
             List<IntrospectedColumn> columns = answer.get(atn);
             if (columns == null) {
@@ -567,8 +754,6 @@ public class DatabaseIntrospector {
             }
         }
 
-        closeResultSet(rs);
-
         if (answer.size() > 1
                 && !stringContainsSQLWildcard(localSchema)
                 && !stringContainsSQLWildcard(localTableName)) {
@@ -597,7 +782,8 @@ public class DatabaseIntrospector {
 
     private List<IntrospectedTable> calculateIntrospectedTables(
             TableConfiguration tc,
-            Map<ActualTableName, List<IntrospectedColumn>> columns) {
+            Map<ActualTableName, List<IntrospectedColumn>> columns,
+            TableMetadata tableMetadata) {
         boolean delimitIdentifiers = tc.isDelimitIdentifiers()
                 || stringContainsSpace(tc.getCatalog())
                 || stringContainsSpace(tc.getSchema())
@@ -617,8 +803,8 @@ public class DatabaseIntrospector {
             // configuration, then some sort of DB default is being returned
             // and we don't want that in our SQL
             FullyQualifiedTable table = new FullyQualifiedTable(
-                    stringHasValue(tc.getCatalog()) ? atn.getCatalog() : null,
-                    stringHasValue(tc.getSchema()) ? atn.getSchema() : null,
+                    getIntrospectedCatalog(tc, atn),
+                    getIntrospectedSchema(tc, atn),
                     atn.getTableName(),
                     tc.getDomainObjectName(),
                     tc.getAlias(),
@@ -637,9 +823,9 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
+            calculatePrimaryKey(introspectedTable, tableMetadata, atn);
 
-            enhanceIntrospectedTable(introspectedTable);
+            enhanceIntrospectedTable(introspectedTable, tableMetadata, atn);
 
             answer.add(introspectedTable);
         }
@@ -648,28 +834,51 @@ public class DatabaseIntrospector {
     }
 
     /**
-     * Calls database metadata to retrieve extra information about the table
-     * such as remarks associated with the table and the type.
+     * Sets extra information about the table such as remarks associated with the table and the type.
      *
-     * <p>If there is any error, we just add a warning and continue.
+     * <p>If there was any error reading the information, we just add a warning and continue.
      *
      * @param introspectedTable the introspected table to enhance
+     * @param tableMetadata the metadata read for the table configuration
+     * @param atn the actual table name returned by the column metadata
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
-        try {
-            FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable,
+            TableMetadata tableMetadata, ActualTableName atn) {
+        String error = tableMetadata.getTableInformationError(atn);
+        if (error != null) {
+            warnings.add(getString("Warning.27", error)); //$NON-NLS-1$
+            return;
+        }
+
+        String[] tableInformation = tableMetadata.getTableInformation(atn);
+        if (tableInformation != null) {
+            introspectedTable.setRemarks(tableInformation[0]);
+            introspectedTable.setTableType(tableInformation[1]);
+        }
+    }
+
+    /**
+     * Calls database metadata to retrieve extra information about the table
+     * such as remarks associated with the table and the type.
+     */
+    private void readTableInformation(TableConfiguration tc, TableMetadata tableMetadata,
+            SchemaMetadata schemaMetadata, ActualTableName atn) {
+        if (schemaMetadata != null && schemaMetadata.hasTables()) {
+            tableMetadata.setTableInformation(atn, schemaMetadata.getTableInformation(atn));
+            return;
+        }
 
-            ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
-                    fqt.getIntrospectedTableName(), null);
+        try {
+            ResultSet rs = databaseMetaData.getTables(getIntrospectedCatalog(tc, atn),
+                    getIntrospectedSchema(tc, atn), atn.getTableName(), null);
             if (rs.next()) {
                 String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
                 String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
-                introspectedTable.setRemarks(remarks);
-                introspectedTable.setTableType(tableType);
+                tableMetadata.setTableInformation(atn, new String[] { remarks, tableType });
             }
             closeResultSet(rs);
         } catch (SQLException e) {
-            warnings.add(getString("Warning.27", e.getMessage())); //$NON-NLS-1$
+            tableMetadata.setTableInformationError(atn, String.valueOf(e.getMessage()));
         }
     }
 }
@@ -0,0 +1,381 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.digest;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.regex.Pattern;
+
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
+
+/**
+ * A file backed cache of the raw metadata read for each table configuration. Entries are keyed by a
+ * SHA-256 hash of the JDBC URL and the table configuration, so that credentials in the URL are not written
+ * to the file, and carry a fingerprint of the tables they describe (see {@link SchemaFingerprint}). An entry
+ * is only used if the fingerprint still matches the database.
+ *
+ * <p>The file is written with DataOutputStream rather than Java serialization, so loading a file never
+ * instantiates classes named in the file.
+ *
+ * <p>In offline mode the database is not consulted at all, and the cached entries are used as a snapshot
+ * of the schema.
+ *
+ * <p>This class is thread safe. The fingerprints are read outside the lock that guards the entries, and each
+ * schema is only read once, even if several introspectors share the cache.
+ */
+public class IntrospectionCache {
+
+    private static final int FORMAT_VERSION = 2;
+
+    private File file;
+
+    private String connectionURL;
+
+    private boolean offline;
+
+    private Map<String, TableMetadata> entries;
+
+    private ConcurrentMap<String, FutureTask<Map<String, String>>> fingerprints;
+
+    private boolean dirty;
+
+    private Log logger;
+
+    /**
+     * Constructs a cache. Call load() to read the existing entries.
+     *
+     * @param file
+     *            the cache file
+     * @param connectionURL
+     *            the JDBC URL of the database, used to keep entries of different databases apart
+     * @param offline
+     *            if true, entries are used without checking the database
+     */
+    public IntrospectionCache(File file, String connectionURL, boolean offline) {
+        super();
+        this.file = file;
+        this.connectionURL = connectionURL;
+        this.offline = offline;
+        entries = new HashMap<String, TableMetadata>();
+        fingerprints = new ConcurrentHashMap<String, FutureTask<Map<String, String>>>();
+        logger = LogFactory.getLog(getClass());
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Reads the cache file. A missing, unreadable, or outdated file leaves the cache empty.
+     */
+    public synchronized void load() {
+        entries.clear();
+        if (!file.isFile()) {
+            return;
+        }
+
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (dis.readInt() == FORMAT_VERSION) {
+                int size = dis.readInt();
+                for (int i = 0; i < size; i++) {
+                    String key = dis.readUTF();
+                    entries.put(key, TableMetadata.read(dis));
+                }
+            }
+        } catch (Exception e) {
+            // the cache is only an optimization - start over
+            entries.clear();
+            if (logger.isDebugEnabled()) {
+                logger.debug(getString("Tracing.5", file.getAbsolutePath(), e.getMessage())); //$NON-NLS-1$
+            }
+        } finally {
+            if (dis != null) {
+                try {
+                    dis.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the cache file if any entry was added since it was loaded.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(getString("RuntimeError.23", file.getPath())); //$NON-NLS-1$
+        }
+
+        // write to a temporary file first so that a failed write never leaves a broken cache
+        File temporaryFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+        try {
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeInt(entries.size());
+            for (Map.Entry<String, TableMetadata> entry : entries.entrySet()) {
+                dos.writeUTF(entry.getKey());
+                entry.getValue().write(dos);
+            }
+        } finally {
+            dos.close();
+        }
+
+        if (file.exists() && !file.delete() || !temporaryFile.renameTo(file)) {
+            temporaryFile.delete();
+            throw new IOException(getString("RuntimeError.23", file.getPath())); //$NON-NLS-1$
+        }
+
+        dirty = false;
+    }
+
+    /**
+     * Returns the cached metadata for a table configuration. Unless the cache is offline, the entry is
+     * only returned if the fingerprint of its tables has not changed.
+     *
+     * @param tc
+     *            the table configuration
+     * @param databaseMetaData
+     *            the database metadata, may be null if the cache is offline
+     * @return the metadata, or null if there is no usable entry
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    TableMetadata get(TableConfiguration tc,
+            DatabaseMetaData databaseMetaData) throws SQLException {
+        TableMetadata tableMetadata;
+        synchronized (this) {
+            tableMetadata = entries.get(getKey(tc));
+        }
+        if (tableMetadata == null || offline) {
+            return tableMetadata;
+        }
+
+        String fingerprint = calculateFingerprint(tableMetadata, databaseMetaData);
+        if (fingerprint != null && fingerprint.equals(tableMetadata.getFingerprint())) {
+            return tableMetadata;
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores freshly read metadata. The entry is not stored if the database cannot be fingerprinted.
+     *
+     * @param tc
+     *            the table configuration
+     * @param tableMetadata
+     *            the metadata
+     * @param databaseMetaData
+     *            the database metadata
+     * @throws SQLException
+     *             if the database metadata cannot be read
+     */
+    void put(TableConfiguration tc, TableMetadata tableMetadata,
+            DatabaseMetaData databaseMetaData) throws SQLException {
+        String fingerprint = calculateFingerprint(tableMetadata, databaseMetaData);
+        if (fingerprint == null) {
+            return;
+        }
+
+        tableMetadata.setFingerprint(fingerprint);
+        synchronized (this) {
+            entries.put(getKey(tc), tableMetadata);
+            dirty = true;
+        }
+    }
+
+    private String getKey(TableConfiguration tc) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(connectionURL);
+        sb.append('|');
+        sb.append(tc.getCatalog());
+        sb.append('|');
+        sb.append(tc.getSchema());
+        sb.append('|');
+        sb.append(tc.getTableName());
+        sb.append('|');
+        sb.append(tc.isDelimitIdentifiers());
+        sb.append('|');
+        sb.append(tc.isWildcardEscapingEnabled());
+
+        return digest(sb.toString());
+    }
+
+    /**
+     * The fingerprint covers the tables the entry was read from and every table that matches the table
+     * name pattern now, so that dropped, changed, and newly matching tables all invalidate the entry.
+     */
+    private String calculateFingerprint(TableMetadata tableMetadata,
+            DatabaseMetaData databaseMetaData) throws SQLException {
+        Map<String, String> tables = getSchemaFingerprint(databaseMetaData,
+                tableMetadata.getLocalCatalog(), tableMetadata.getLocalSchema());
+        if (tables == null) {
+            return null;
+        }
+
+        Map<String, String> answer = new TreeMap<String, String>();
+        for (ActualTableName atn : tableMetadata.getActualTableNames()) {
+            String fingerprint = tables.get(atn.getTableName());
+            answer.put(atn.getTableName(), fingerprint == null ? "" : fingerprint); //$NON-NLS-1$
+        }
+
+        Pattern pattern = SchemaMetadataIndex.compileLikePattern(tableMetadata.getLocalTableName(),
+                databaseMetaData.getSearchStringEscape(), false);
+        for (Map.Entry<String, String> entry : tables.entrySet()) {
+            if (pattern.matcher(entry.getKey()).matches()) {
+                answer.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return answer.toString();
+    }
+
+    private Map<String, String> getSchemaFingerprint(final DatabaseMetaData databaseMetaData,
+            final String catalog, final String schemaPattern) {
+        String key = String.valueOf(catalog) + '|' + String.valueOf(schemaPattern);
+
+        FutureTask<Map<String, String>> task = fingerprints.get(key);
+        if (task == null) {
+            FutureTask<Map<String, String>> newTask = new FutureTask<Map<String, String>>(
+                    new Callable<Map<String, String>>() {
+                        @Override
+                        public Map<String, String> call() {
+                            return SchemaFingerprint.read(databaseMetaData, catalog, schemaPattern);
+                        }
+                    });
+
+            task = fingerprints.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // SchemaFingerprint.read throws no checked exceptions
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            // writeUTF is limited to 64K, which long remarks may exceed
+            byte[] bytes = value.getBytes("UTF-8"); //$NON-NLS-1$
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8"); //$NON-NLS-1$
+    }
+
+    static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size == -1) {
+            return null;
+        }
+        List<String> answer = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            answer.add(readString(in));
+        }
+        return answer;
+    }
+
+    static void writeBoolean(DataOutput out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value.booleanValue() ? 1 : 0);
+    }
+
+    static Boolean readBoolean(DataInput in) throws IOException {
+        byte value = in.readByte();
+        return value == -1 ? null : Boolean.valueOf(value == 1);
+    }
+
+    static void writeActualTableName(DataOutput out, ActualTableName atn) throws IOException {
+        writeString(out, atn.getCatalog());
+        writeString(out, atn.getSchema());
+        writeString(out, atn.getTableName());
+    }
+
+    static ActualTableName readActualTableName(DataInput in) throws IOException {
+        return new ActualTableName(readString(in), readString(in), readString(in));
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+/**
+ * Typesafe enum of the database dialects that generated statements can use to
+ * limit and skip returned rows. The dialect is selected with the
+ * <tt>dialect</tt> context property. If no dialect is selected, the SQL:2008
+ * <code>FETCH FIRST</code> syntax is used.
+ */
+public enum PagingDialects {
+
+    MYSQL(true),
+    POSTGRESQL(true),
+    ORACLE(false),
+    SQLSERVER(false),
+    HSQLDB(true),
+    STANDARD(false);
+
+    private boolean rowValueComparison;
+
+    private PagingDialects(boolean rowValueComparison) {
+        this.rowValueComparison = rowValueComparison;
+    }
+
+    /**
+     * Returns true if the database can compare row values, like
+     * <code>(A, B) &gt; (?, ?)</code>. Other databases need the comparison
+     * expanded to one predicate per column.
+     *
+     * @return true if row values can be compared
+     */
+    public boolean supportsRowValueComparison() {
+        return rowValueComparison;
+    }
+
+    /**
+     * Calculates the clause that limits a select statement to a number of
+     * rows. The clause must follow the order by clause.
+     *
+     * @param limit
+     *            the limit, typically a parameter like <code>#{limit}</code>
+     * @return the limit clause
+     */
+    public String getLimitClause(String limit) {
+        StringBuilder sb = new StringBuilder();
+        switch (this) {
+        case MYSQL:
+        case POSTGRESQL:
+        case HSQLDB:
+            sb.append("limit "); //$NON-NLS-1$
+            sb.append(limit);
+            break;
+
+        case SQLSERVER:
+            // SQL Server only accepts FETCH after an OFFSET
+            sb.append("offset 0 rows fetch next "); //$NON-NLS-1$
+            sb.append(limit);
+            sb.append(" rows only"); //$NON-NLS-1$
+            break;
+
+        default:
+            sb.append("fetch first "); //$NON-NLS-1$
+            sb.append(limit);
+            sb.append(" rows only"); //$NON-NLS-1$
+            break;
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Calculates the clause that skips a number of rows and limits a select
+     * statement to a number of the remaining rows. The clause must follow the
+     * order by clause.
+     *
+     * @param limit
+     *            the limit, typically a parameter like <code>#{limit}</code>
+     * @param offset
+     *            the offset, typically a parameter like <code>#{offset}</code>
+     * @return the limit and offset clause
+     */
+    public String getLimitOffsetClause(String limit, String offset) {
+        StringBuilder sb = new StringBuilder();
+        switch (this) {
+        case MYSQL:
+        case POSTGRESQL:
+        case HSQLDB:
+            sb.append("limit "); //$NON-NLS-1$
+            sb.append(limit);
+            sb.append(" offset "); //$NON-NLS-1$
+            sb.append(offset);
+            break;
+
+        default:
+            sb.append("offset "); //$NON-NLS-1$
+            sb.append(offset);
+            sb.append(" rows fetch next "); //$NON-NLS-1$
+            sb.append(limit);
+            sb.append(" rows only"); //$NON-NLS-1$
+            break;
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Calculates the clause that skips a number of rows of a select statement.
+     * The clause must follow the order by clause.
+     *
+     * @param offset
+     *            the offset, typically a parameter like <code>#{offset}</code>
+     * @return the offset clause
+     */
+    public String getOffsetClause(String offset) {
+        StringBuilder sb = new StringBuilder();
+        switch (this) {
+        case MYSQL:
+            // MySQL has no OFFSET without a LIMIT, so the manual recommends
+            // the largest possible limit
+            sb.append("limit 18446744073709551615 offset "); //$NON-NLS-1$
+            sb.append(offset);
+            break;
+
+        default:
+            sb.append("offset "); //$NON-NLS-1$
+            sb.append(offset);
+            sb.append(" rows"); //$NON-NLS-1$
+            break;
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns true if the database only accepts an offset or limit clause
+     * after an order by clause.
+     *
+     * @return true if an order by clause is required
+     */
+    public boolean requiresOrderBy() {
+        return this == SQLSERVER;
+    }
+
+    /**
+     * Gets the paging dialect.
+     *
+     * @param dialect
+     *            the value of the dialect property
+     * @return the paging dialect for the value. May return null if there is
+     *         no known dialect for the value
+     */
+    public static PagingDialects getPagingDialect(String dialect) {
+        PagingDialects returnValue = null;
+
+        if ("MySQL".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = MYSQL;
+        } else if ("PostgreSQL".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = POSTGRESQL;
+        } else if ("Oracle".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = ORACLE;
+        } else if ("SqlServer".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = SQLSERVER;
+        } else if ("HSQLDB".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = HSQLDB;
+        } else if ("Standard".equalsIgnoreCase(dialect)) { //$NON-NLS-1$
+            returnValue = STANDARD;
+        }
+
+        return returnValue;
+    }
+}
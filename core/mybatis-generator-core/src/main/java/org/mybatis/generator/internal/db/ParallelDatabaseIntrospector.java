@@ -0,0 +1,252 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.JavaTypeResolver;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.GeneratorSession;
+import org.mybatis.generator.internal.ObjectFactory;
+
+/**
+ * Introspects tables on a bounded pool of threads. Each thread borrows a worker that owns its own
+ * connection, type resolver, and DatabaseIntrospector, so no JDBC objects are shared between threads.
+ *
+ * <p>Warnings are collected per table so that the caller can merge them back in configuration order.
+ */
+public class ParallelDatabaseIntrospector {
+
+    private Context context;
+
+    private ConnectionFactory connectionFactory;
+
+    private int threads;
+
+    private SchemaMetadataIndex schemaMetadataIndex;
+
+    private IntrospectionCache introspectionCache;
+
+    private ExecutorService executorService;
+
+    private BlockingQueue<Worker> workers;
+
+    private List<Worker> allWorkers;
+
+    private List<String> warnings;
+
+    /**
+     * Constructs a parallel introspector.
+     *
+     * @param context
+     *            the context
+     * @param connectionFactory
+     *            the factory used to open one connection per worker
+     * @param threads
+     *            the maximum number of workers
+     * @param schemaMetadataIndex
+     *            an index shared by all workers, or null to query the metadata for every table
+     */
+    public ParallelDatabaseIntrospector(Context context,
+            ConnectionFactory connectionFactory, int threads,
+            SchemaMetadataIndex schemaMetadataIndex) {
+        super();
+        this.context = context;
+        this.connectionFactory = connectionFactory;
+        this.threads = threads;
+        this.schemaMetadataIndex = schemaMetadataIndex;
+        allWorkers = new ArrayList<Worker>();
+        warnings = new ArrayList<String>();
+    }
+
+    /**
+     * Sets a persistent cache shared by all workers. The cache must not be offline.
+     *
+     * @param introspectionCache
+     *            the cache
+     */
+    public void setIntrospectionCache(IntrospectionCache introspectionCache) {
+        this.introspectionCache = introspectionCache;
+    }
+
+    /**
+     * Opens the connections and starts the worker threads. No more connections than tables will be opened.
+     *
+     * @param tableCount
+     *            the number of tables that will be introspected
+     * @throws SQLException
+     *             if a connection cannot be opened
+     */
+    public void open(int tableCount) throws SQLException {
+        int size = Math.max(1, Math.min(threads, tableCount));
+        workers = new ArrayBlockingQueue<Worker>(size);
+        for (int i = 0; i < size; i++) {
+            Worker worker = new Worker();
+            allWorkers.add(worker);
+            worker.open(i == 0);
+            workers.add(worker);
+        }
+
+        executorService = Executors.newFixedThreadPool(size);
+    }
+
+    /**
+     * Returns the warnings generated while opening the workers, such as warnings from the type resolver.
+     *
+     * @return the warnings
+     */
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public Future<TableIntrospectionResult> introspectTables(final TableConfiguration tc) {
+        return executorService.submit(GeneratorSession.getCurrent().wrap(new Callable<TableIntrospectionResult>() {
+            @Override
+            public TableIntrospectionResult call() throws Exception {
+                Worker worker = workers.take();
+                try {
+                    return worker.introspectTables(tc);
+                } finally {
+                    workers.put(worker);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Waits for a result and unwraps any exception thrown by the worker.
+     *
+     * @param future
+     *            a future returned from introspectTables
+     * @return the result
+     * @throws SQLException
+     *             if the worker failed with an SQLException
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting
+     */
+    public static TableIntrospectionResult getResult(Future<TableIntrospectionResult> future)
+            throws SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads and closes every connection. Safe to call if open failed part way through.
+     */
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+
+        for (Worker worker : allWorkers) {
+            worker.close();
+        }
+    }
+
+    private class Worker {
+        private Connection connection;
+        private List<String> warnings;
+        private DatabaseIntrospector databaseIntrospector;
+
+        void open(boolean reportWarnings) throws SQLException {
+            connection = connectionFactory.getConnection();
+            warnings = new ArrayList<String>();
+            JavaTypeResolver javaTypeResolver = ObjectFactory
+                    .createJavaTypeResolver(context, warnings);
+            // every worker creates the same type resolver, so the warnings are only reported once
+            if (reportWarnings) {
+                ParallelDatabaseIntrospector.this.warnings.addAll(warnings);
+            }
+            warnings.clear();
+            databaseIntrospector = new DatabaseIntrospector(context,
+                    connection.getMetaData(), javaTypeResolver, warnings,
+                    schemaMetadataIndex);
+            databaseIntrospector.setIntrospectionCache(introspectionCache);
+        }
+
+        TableIntrospectionResult introspectTables(TableConfiguration tc) throws SQLException {
+            try {
+                List<IntrospectedTable> tables = databaseIntrospector.introspectTables(tc);
+                return new TableIntrospectionResult(tables, new ArrayList<String>(warnings));
+            } finally {
+                warnings.clear();
+            }
+        }
+
+        void close() {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * The tables and warnings produced by introspecting a single table configuration.
+     */
+    public static class TableIntrospectionResult {
+        private List<IntrospectedTable> introspectedTables;
+        private List<String> warnings;
+
+        public TableIntrospectionResult(List<IntrospectedTable> introspectedTables,
+                List<String> warnings) {
+            super();
+            this.introspectedTables = introspectedTables;
+            this.warnings = warnings;
+        }
+
+        /**
+         * Returns the introspected tables, or null if the configuration did not resolve to any table.
+         *
+         * @return the introspected tables
+         */
+        public List<IntrospectedTable> getIntrospectedTables() {
+            return introspectedTables;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a cheap fingerprint of every table in a schema with a few queries per schema. The fingerprint of a
+ * table changes whenever its columns, primary key, or remarks change, so a cached introspection result can be
+ * trusted as long as the fingerprint is the same.
+ *
+ * <p>Oracle exposes the time of the last DDL statement, which is combined with the column count. Other
+ * databases are read with one schema wide <code>getColumns</code> and <code>getTables</code> call, and the
+ * primary keys are read from the standard INFORMATION_SCHEMA views.
+ *
+ * <p>A schema must be known (the catalog on MySQL, which reports databases as catalogs). Without one the
+ * queries would read every table of the database, so a table configuration without a schema cannot be
+ * fingerprinted.
+ */
+class SchemaFingerprint {
+
+    private static final String ORACLE_QUERY =
+            "select o.OBJECT_NAME, to_char(o.LAST_DDL_TIME, 'YYYYMMDDHH24MISS'), " //$NON-NLS-1$
+            + "(select count(*) from ALL_TAB_COLUMNS c " //$NON-NLS-1$
+            + "where c.OWNER = o.OWNER and c.TABLE_NAME = o.OBJECT_NAME) " //$NON-NLS-1$
+            + "from ALL_OBJECTS o where o.OWNER like ? " //$NON-NLS-1$
+            + "and o.OBJECT_TYPE in ('TABLE', 'VIEW')"; //$NON-NLS-1$
+
+    private static final String PRIMARY_KEY_QUERY =
+            "select k.TABLE_NAME, k.COLUMN_NAME, k.ORDINAL_POSITION " //$NON-NLS-1$
+            + "from INFORMATION_SCHEMA.TABLE_CONSTRAINTS t " //$NON-NLS-1$
+            + "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " //$NON-NLS-1$
+            + "on k.CONSTRAINT_SCHEMA = t.CONSTRAINT_SCHEMA " //$NON-NLS-1$
+            + "and k.CONSTRAINT_NAME = t.CONSTRAINT_NAME " //$NON-NLS-1$
+            + "and k.TABLE_NAME = t.TABLE_NAME " //$NON-NLS-1$
+            + "where t.CONSTRAINT_TYPE = 'PRIMARY KEY' and t.TABLE_SCHEMA like ? " //$NON-NLS-1$
+            + "order by k.TABLE_SCHEMA, k.TABLE_NAME, k.ORDINAL_POSITION"; //$NON-NLS-1$
+
+    private static final String[] COLUMN_ATTRIBUTES = { "COLUMN_NAME", "DATA_TYPE", //$NON-NLS-1$ //$NON-NLS-2$
+        "TYPE_NAME", "COLUMN_SIZE", "DECIMAL_DIGITS", "NULLABLE", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        "COLUMN_DEF", "REMARKS" }; //$NON-NLS-1$ //$NON-NLS-2$
+
+    /**
+     * Utility class. No instances allowed
+     */
+    private SchemaFingerprint() {
+        super();
+    }
+
+    /**
+     * Reads the fingerprint of every table in a schema.
+     *
+     * @param databaseMetaData
+     *            the database metadata
+     * @param catalog
+     *            the local catalog, may be null
+     * @param schemaPattern
+     *            the local schema pattern, may be null
+     * @return a map of table name to fingerprint, or null if the database or the schema cannot be fingerprinted
+     */
+    static Map<String, String> read(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern) {
+        try {
+            String productName = databaseMetaData.getDatabaseProductName();
+            productName = productName == null ? "" : productName.toLowerCase(Locale.ENGLISH); //$NON-NLS-1$
+            boolean mysql = productName.contains("mysql") || productName.contains("mariadb"); //$NON-NLS-1$ //$NON-NLS-2$
+
+            // MySQL reports databases as catalogs
+            String informationSchemaPattern = mysql ? catalog : schemaPattern;
+            if (informationSchemaPattern == null) {
+                // without a schema the queries would read every table of the database
+                return null;
+            }
+
+            if (productName.contains("oracle")) { //$NON-NLS-1$
+                return readOracle(databaseMetaData, schemaPattern);
+            } else {
+                return readMetaData(databaseMetaData, catalog, schemaPattern, informationSchemaPattern);
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> readOracle(DatabaseMetaData databaseMetaData,
+            String owner) throws SQLException {
+        Map<String, String> answer = new HashMap<String, String>();
+        PreparedStatement ps = databaseMetaData.getConnection().prepareStatement(ORACLE_QUERY);
+        try {
+            ps.setString(1, owner);
+            ResultSet rs = ps.executeQuery();
+            try {
+                while (rs.next()) {
+                    append(answer, rs.getString(1),
+                            "ddl=" + rs.getString(2) + ",columns=" + rs.getInt(3)); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            } finally {
+                rs.close();
+            }
+        } finally {
+            ps.close();
+        }
+        return answer;
+    }
+
+    /**
+     * Reads the columns and tables of a schema, and the primary keys from INFORMATION_SCHEMA. The
+     * primary keys of a whole schema cannot be read with <code>getPrimaryKeys</code> on every driver.
+     */
+    private static Map<String, String> readMetaData(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern, String informationSchemaPattern) throws SQLException {
+        Map<String, String> answer = new HashMap<String, String>();
+
+        ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            while (rs.next()) {
+                StringBuilder sb = new StringBuilder("column="); //$NON-NLS-1$
+                for (int i = 0; i < COLUMN_ATTRIBUTES.length; i++) {
+                    if (i > 0) {
+                        sb.append(':');
+                    }
+                    sb.append(rs.getString(COLUMN_ATTRIBUTES[i]));
+                }
+                append(answer, rs.getString("TABLE_NAME"), sb.toString()); //$NON-NLS-1$
+            }
+        } finally {
+            rs.close();
+        }
+
+        rs = databaseMetaData.getTables(catalog, schemaPattern, "%", null); //$NON-NLS-1$
+        try {
+            while (rs.next()) {
+                append(answer, rs.getString("TABLE_NAME"), //$NON-NLS-1$
+                        "table=" + rs.getString("TABLE_TYPE") //$NON-NLS-1$ //$NON-NLS-2$
+                        + ':' + rs.getString("REMARKS")); //$NON-NLS-1$
+            }
+        } finally {
+            rs.close();
+        }
+
+        PreparedStatement ps = databaseMetaData.getConnection().prepareStatement(PRIMARY_KEY_QUERY);
+        try {
+            ps.setString(1, informationSchemaPattern);
+            rs = ps.executeQuery();
+            try {
+                while (rs.next()) {
+                    append(answer, rs.getString(1),
+                            "key=" + rs.getString(2) + ':' + rs.getInt(3)); //$NON-NLS-1$
+                }
+            } finally {
+                rs.close();
+            }
+        } finally {
+            ps.close();
+        }
+
+        return answer;
+    }
+
+    private static void append(Map<String, String> fingerprints, String tableName, String value) {
+        String existing = fingerprints.get(tableName);
+        fingerprints.put(tableName, existing == null ? value : existing + ';' + value);
+    }
+}
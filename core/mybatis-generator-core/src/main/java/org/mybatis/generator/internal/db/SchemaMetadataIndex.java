@@ -0,0 +1,263 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringContainsSQLWildcard;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the column, primary key, and table metadata for whole schemas. Each distinct catalog/schema
+ * pair is read with one <code>getColumns</code>, one <code>getPrimaryKeys</code>, and one
+ * <code>getTables</code> call, and every table configuration in that schema is then served from memory.
+ *
+ * <p>This class is thread safe. If several introspectors share an index, each schema is still only read once.
+ */
+public class SchemaMetadataIndex {
+
+    private ConcurrentMap<String, FutureTask<SchemaMetadata>> schemas;
+
+    public SchemaMetadataIndex() {
+        super();
+        schemas = new ConcurrentHashMap<String, FutureTask<SchemaMetadata>>();
+    }
+
+    SchemaMetadata getSchemaMetadata(final DatabaseMetaData databaseMetaData,
+            final String catalog, final String schemaPattern) throws SQLException {
+        String key = String.valueOf(catalog) + '|' + String.valueOf(schemaPattern);
+
+        FutureTask<SchemaMetadata> task = schemas.get(key);
+        if (task == null) {
+            FutureTask<SchemaMetadata> newTask = new FutureTask<SchemaMetadata>(
+                    new Callable<SchemaMetadata>() {
+                        @Override
+                        public SchemaMetadata call() throws SQLException {
+                            return new SchemaMetadata(databaseMetaData, catalog, schemaPattern);
+                        }
+                    });
+
+            task = schemas.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new SQLException(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    static class SchemaMetadata {
+        private List<ColumnMetadata> columns;
+
+        /** null if the driver could not return primary keys for the whole schema. */
+        private Map<ActualTableName, Map<Short, String>> primaryKeys;
+
+        /** null if the driver could not return tables for the whole schema. */
+        private Map<ActualTableName, String[]> tables;
+
+        SchemaMetadata(DatabaseMetaData databaseMetaData, String catalog,
+                String schemaPattern) throws SQLException {
+            columns = new ArrayList<ColumnMetadata>();
+            ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%"); //$NON-NLS-1$ //$NON-NLS-2$
+            try {
+                ColumnMetadata.readAll(rs, columns);
+            } finally {
+                closeResultSet(rs);
+            }
+
+            // getPrimaryKeys does not accept patterns, so a wildcard schema is
+            // left to the per table calls
+            if (!stringContainsSQLWildcard(schemaPattern)) {
+                readPrimaryKeys(databaseMetaData, catalog, schemaPattern);
+            }
+
+            readTables(databaseMetaData, catalog, schemaPattern);
+        }
+
+        private void readPrimaryKeys(DatabaseMetaData databaseMetaData, String catalog, String schema) {
+            ResultSet rs = null;
+            try {
+                rs = databaseMetaData.getPrimaryKeys(catalog, schema, null);
+                Map<ActualTableName, Map<Short, String>> answer =
+                        new HashMap<ActualTableName, Map<Short, String>>();
+                while (rs.next()) {
+                    ActualTableName atn = new ActualTableName(
+                            rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                            rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                            rs.getString("TABLE_NAME")); //$NON-NLS-1$
+
+                    // keep primary columns in key sequence order
+                    Map<Short, String> keyColumns = answer.get(atn);
+                    if (keyColumns == null) {
+                        keyColumns = new TreeMap<Short, String>();
+                        answer.put(atn, keyColumns);
+                    }
+                    keyColumns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME")); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                primaryKeys = answer;
+            } catch (SQLException e) {
+                // some drivers require a table name - fall back to per table calls
+                primaryKeys = null;
+            } finally {
+                closeResultSet(rs);
+            }
+        }
+
+        private void readTables(DatabaseMetaData databaseMetaData, String catalog, String schemaPattern) {
+            ResultSet rs = null;
+            try {
+                rs = databaseMetaData.getTables(catalog, schemaPattern, "%", null); //$NON-NLS-1$
+                Map<ActualTableName, String[]> answer = new HashMap<ActualTableName, String[]>();
+                while (rs.next()) {
+                    ActualTableName atn = new ActualTableName(
+                            rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                            rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                            rs.getString("TABLE_NAME")); //$NON-NLS-1$
+                    answer.put(atn, new String[] {
+                            rs.getString("REMARKS"), //$NON-NLS-1$
+                            rs.getString("TABLE_TYPE") }); //$NON-NLS-1$
+                }
+                tables = answer;
+            } catch (SQLException e) {
+                // fall back to per table calls
+                tables = null;
+            } finally {
+                closeResultSet(rs);
+            }
+        }
+
+        /**
+         * Returns the columns of every table whose name matches the pattern, in the order the
+         * driver returned them.
+         *
+         * @param tableNamePattern
+         *            a table name pattern in the form accepted by <code>DatabaseMetaData.getColumns</code>
+         * @param escape
+         *            the search string escape of the database
+         * @return the matching columns
+         */
+        List<ColumnMetadata> getColumns(String tableNamePattern, String escape) {
+            Pattern pattern = compileLikePattern(tableNamePattern, escape, false);
+            List<ColumnMetadata> answer = new ArrayList<ColumnMetadata>();
+            for (ColumnMetadata column : columns) {
+                if (pattern.matcher(column.getActualTableName().getTableName()).matches()) {
+                    answer.add(column);
+                }
+            }
+            return answer;
+        }
+
+        boolean hasPrimaryKeys() {
+            return primaryKeys != null;
+        }
+
+        /**
+         * Returns the primary key columns in key sequence order, or an empty list if the table has no primary key.
+         *
+         * @param atn
+         *            the table
+         * @return the key columns
+         */
+        List<String> getPrimaryKeyColumns(ActualTableName atn) {
+            Map<Short, String> keyColumns = primaryKeys.get(atn);
+            if (keyColumns == null) {
+                return new ArrayList<String>();
+            }
+            return new ArrayList<String>(keyColumns.values());
+        }
+
+        boolean hasTables() {
+            return tables != null;
+        }
+
+        /**
+         * Returns the remarks and table type, or null if the driver did not report the table.
+         *
+         * @param atn
+         *            the table
+         * @return an array holding REMARKS and TABLE_TYPE
+         */
+        String[] getTableInformation(ActualTableName atn) {
+            return tables.get(atn);
+        }
+    }
+
+    static Pattern compileLikePattern(String likePattern, String escape, boolean ignoreCase) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < likePattern.length()) {
+            if (escape != null && escape.length() > 0
+                    && likePattern.startsWith(escape, i)
+                    && i + escape.length() < likePattern.length()) {
+                i += escape.length();
+                sb.append(Pattern.quote(likePattern.substring(i, i + 1)));
+            } else {
+                char c = likePattern.charAt(i);
+                if (c == '%') {
+                    sb.append(".*"); //$NON-NLS-1$
+                } else if (c == '_') {
+                    sb.append('.');
+                } else {
+                    sb.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            i++;
+        }
+
+        int flags = Pattern.DOTALL;
+        if (ignoreCase) {
+            flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        return Pattern.compile(sb.toString(), flags);
+    }
+
+    private static void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything read from the database metadata for one table configuration: the column rows, and the
+ * primary key and table information of every table the rows belong to. Nothing in this class depends
+ * on the rest of the configuration, so a snapshot can be cached and replayed against a changed
+ * configuration.
+ */
+class TableMetadata {
+
+    private String localCatalog;
+    private String localSchema;
+    private String localTableName;
+    private List<ColumnMetadata> columns;
+
+    /** a null value means the primary key could not be read. */
+    private Map<ActualTableName, List<String>> primaryKeys;
+    private Map<ActualTableName, String[]> tableInformation;
+    private Map<ActualTableName, String> tableInformationErrors;
+
+    private String fingerprint;
+
+    TableMetadata(String[] localNames, List<ColumnMetadata> columns) {
+        super();
+        localCatalog = localNames[0];
+        localSchema = localNames[1];
+        localTableName = localNames[2];
+        this.columns = columns;
+        primaryKeys = new HashMap<ActualTableName, List<String>>();
+        tableInformation = new HashMap<ActualTableName, String[]>();
+        tableInformationErrors = new HashMap<ActualTableName, String>();
+    }
+
+    String getLocalCatalog() {
+        return localCatalog;
+    }
+
+    String getLocalSchema() {
+        return localSchema;
+    }
+
+    String getLocalTableName() {
+        return localTableName;
+    }
+
+    List<ColumnMetadata> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the distinct tables of the column rows, in the order they were first returned.
+     *
+     * @return the tables
+     */
+    Set<ActualTableName> getActualTableNames() {
+        Set<ActualTableName> answer = new LinkedHashSet<ActualTableName>();
+        for (ColumnMetadata column : columns) {
+            answer.add(column.getActualTableName());
+        }
+        return answer;
+    }
+
+    void setPrimaryKeyColumns(ActualTableName atn, List<String> keyColumns) {
+        primaryKeys.put(atn, keyColumns == null ? null : new ArrayList<String>(keyColumns));
+    }
+
+    /**
+     * Returns the primary key columns in key sequence order, or null if the primary key could not be read.
+     *
+     * @param atn
+     *            the table
+     * @return the key columns
+     */
+    List<String> getPrimaryKeyColumns(ActualTableName atn) {
+        return primaryKeys.get(atn);
+    }
+
+    void setTableInformation(ActualTableName atn, String[] information) {
+        tableInformation.put(atn, information);
+    }
+
+    /**
+     * Returns the remarks and table type, or null if the driver did not report the table.
+     *
+     * @param atn
+     *            the table
+     * @return an array holding REMARKS and TABLE_TYPE
+     */
+    String[] getTableInformation(ActualTableName atn) {
+        return tableInformation.get(atn);
+    }
+
+    void setTableInformationError(ActualTableName atn, String message) {
+        tableInformationErrors.put(atn, message);
+    }
+
+    /**
+     * Returns the message of the exception thrown while reading the table information, or null if there was none.
+     *
+     * @param atn
+     *            the table
+     * @return the message
+     */
+    String getTableInformationError(ActualTableName atn) {
+        return tableInformationErrors.get(atn);
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    void write(DataOutput out) throws IOException {
+        IntrospectionCache.writeString(out, localCatalog);
+        IntrospectionCache.writeString(out, localSchema);
+        IntrospectionCache.writeString(out, localTableName);
+        IntrospectionCache.writeString(out, fingerprint);
+
+        out.writeInt(columns.size());
+        for (ColumnMetadata column : columns) {
+            column.write(out);
+        }
+
+        out.writeInt(primaryKeys.size());
+        for (Map.Entry<ActualTableName, List<String>> entry : primaryKeys.entrySet()) {
+            IntrospectionCache.writeActualTableName(out, entry.getKey());
+            IntrospectionCache.writeStrings(out, entry.getValue());
+        }
+
+        out.writeInt(tableInformation.size());
+        for (Map.Entry<ActualTableName, String[]> entry : tableInformation.entrySet()) {
+            IntrospectionCache.writeActualTableName(out, entry.getKey());
+            IntrospectionCache.writeStrings(out,
+                    entry.getValue() == null ? null : Arrays.asList(entry.getValue()));
+        }
+
+        out.writeInt(tableInformationErrors.size());
+        for (Map.Entry<ActualTableName, String> entry : tableInformationErrors.entrySet()) {
+            IntrospectionCache.writeActualTableName(out, entry.getKey());
+            IntrospectionCache.writeString(out, entry.getValue());
+        }
+    }
+
+    static TableMetadata read(DataInput in) throws IOException {
+        String[] localNames = new String[] {
+                IntrospectionCache.readString(in),
+                IntrospectionCache.readString(in),
+                IntrospectionCache.readString(in) };
+        String fingerprint = IntrospectionCache.readString(in);
+
+        int size = in.readInt();
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>(size);
+        for (int i = 0; i < size; i++) {
+            columns.add(ColumnMetadata.read(in));
+        }
+
+        TableMetadata answer = new TableMetadata(localNames, columns);
+        answer.fingerprint = fingerprint;
+
+        size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            answer.primaryKeys.put(IntrospectionCache.readActualTableName(in),
+                    IntrospectionCache.readStrings(in));
+        }
+
+        size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            ActualTableName atn = IntrospectionCache.readActualTableName(in);
+            List<String> information = IntrospectionCache.readStrings(in);
+            answer.tableInformation.put(atn,
+                    information == null ? null : information.toArray(new String[information.size()]));
+        }
+
+        size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            answer.tableInformationErrors.put(IntrospectionCache.readActualTableName(in),
+                    IntrospectionCache.readString(in));
+        }
+
+        return answer;
+    }
+}
@@ -19,6 +19,7 @@ import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.config.GeneratedKey;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.TableConfiguration;
 import org.mybatis.generator.internal.util.StringUtility;
@@ -78,6 +79,71 @@ public abstract class BaseRules implements Rules {
         return tableConfiguration.isInsertStatementEnabled();
     }
 
+    /**
+     * Implements the rule for generating the insert batch SQL Map element and
+     * client method. The statement must be enabled with the enableInsertBatch
+     * table property and the insert statement must be allowed. Tables with a
+     * generated key that is read from a sequence before the insert are
+     * skipped because a single &lt;selectKey&gt; cannot supply a value for
+     * every row. Tables with an identity generated key are allowed, but the
+     * identity values are not returned to the records.
+     * 
+     * @return true if the element and method should be generated
+     */
+    @Override
+    public boolean generateInsertBatch() {
+        if (isModelOnly
+                || introspectedTable.getTargetRuntime() == TargetRuntime.IBATIS2
+                || !tableConfiguration.isInsertStatementEnabled()
+                || !StringUtility.isTrue(tableConfiguration
+                        .getProperty(PropertyRegistry.TABLE_ENABLE_INSERT_BATCH))) {
+            return false;
+        }
+
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        return gk == null || gk.isJdbcStandard() || gk.isIdentity();
+    }
+
+    /**
+     * Implements the rule for generating the select page after SQL Map
+     * element and client method. The statement must be enabled with the
+     * enableSelectPageAfter table property, and the table must have a primary
+     * key to order and seek by.
+     * 
+     * @return true if the element and method should be generated
+     */
+    @Override
+    public boolean generateSelectPageAfter() {
+        if (isModelOnly
+                || introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3
+                || !StringUtility.isTrue(tableConfiguration
+                        .getProperty(PropertyRegistry.TABLE_ENABLE_SELECT_PAGE_AFTER))) {
+            return false;
+        }
+
+        return introspectedTable.hasPrimaryKeyColumns();
+    }
+
+    /**
+     * Implements the rule for generating the limit and offset properties of
+     * the example class. The properties are only generated for MyBatis3 when
+     * a dialect is selected with the dialect context property, so that the
+     * generated clauses match the target database.
+     * 
+     * @return true if the limit and offset should be generated
+     */
+    @Override
+    public boolean generateExampleLimitOffset() {
+        if (isModelOnly
+                || introspectedTable.getTargetRuntime() != TargetRuntime.MYBATIS3
+                || !StringUtility.stringHasValue(introspectedTable.getContext()
+                        .getProperty(PropertyRegistry.CONTEXT_DIALECT))) {
+            return false;
+        }
+
+        return tableConfiguration.isSelectByExampleStatementEnabled();
+    }
+
     /**
      * Calculates the class that contains all fields. This class is used as the
      * insert statement parameter, as well as the returned value from the select
@@ -45,6 +45,41 @@ public interface Rules {
      */
     boolean generateInsertSelective();
 
+    /**
+     * Implements the rule for generating the multi-row insert batch SQL Map
+     * element and client method. The statement is only generated for MyBatis3
+     * when it is enabled with a table property, the insert statement is
+     * allowed, and the table has no generated key, a JDBC standard generated
+     * key, or an identity generated key. JDBC standard keys are returned for
+     * every row. Identity keys are not returned, because they are selected
+     * after the insert and a single select cannot return a value for every
+     * row.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateInsertBatch();
+
+    /**
+     * Implements the rule for generating the keyset pagination SQL Map
+     * element and client method. The statement is only generated for MyBatis3
+     * when it is enabled with a table property and the table has a primary
+     * key.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateSelectPageAfter();
+
+    /**
+     * Implements the rule for generating the limit and offset properties of
+     * the example class, and the matching clauses of the select by example SQL
+     * Map elements and provider methods. The clauses are only generated for
+     * MyBatis3 when the dialect context property is set and the select by
+     * example statement is enabled.
+     * 
+     * @return true if the limit and offset should be generated
+     */
+    boolean generateExampleLimitOffset();
+
     /**
      * Calculates the class that contains all fields. This class is used as the
      * insert statement parameter, as well as the returned value from the select
@@ -109,6 +109,21 @@ public class RulesDelegate implements Rules {
         return rules.generateInsertSelective();
     }
 
+    @Override
+    public boolean generateInsertBatch() {
+        return rules.generateInsertBatch();
+    }
+
+    @Override
+    public boolean generateSelectPageAfter() {
+        return rules.generateSelectPageAfter();
+    }
+
+    @Override
+    public boolean generateExampleLimitOffset() {
+        return rules.generateExampleLimitOffset();
+    }
+
     @Override
     public boolean generatePrimaryKeyClass() {
         return rules.generatePrimaryKeyClass();
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.internal.util;
 
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.StringTokenizer;
 
 /**
@@ -102,4 +105,30 @@ public class StringUtility {
 
         return s.indexOf('%') != -1 || s.indexOf('_') != -1;
     }
+
+    /**
+     * Returns the SHA-256 digest of the UTF-8 bytes of a string as hex digits.
+     *
+     * @param s
+     *            the string
+     * @return the digest
+     */
+    public static String digest(String s) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+            byte[] digest = messageDigest.digest(s.getBytes("UTF-8")); //$NON-NLS-1$
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new RuntimeException(e);
+        } catch (UnsupportedEncodingException e) {
+            // every Java platform supports UTF-8
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * This class keeps XML parsers for reuse, so that the JAXP factory lookup is not repeated for every
+ * configuration file and every merged file. Each thread has its own idle parser. A parser is taken with one
+ * of the get methods and must be given back with the matching release method, which also drops any
+ * resolver or handler set on it. If a thread asks for a second parser before releasing the first, a new one
+ * is created.
+ */
+public class XmlParserPool {
+
+    private static final String REPORT_CDATA_EVENT =
+            "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+    private static final ThreadLocal<DocumentBuilder> validatingDocumentBuilders =
+            new ThreadLocal<DocumentBuilder>();
+
+    private static final ThreadLocal<XMLInputFactory> xmlInputFactories =
+            new ThreadLocal<XMLInputFactory>();
+
+    /**
+     * Utility class - no instances allowed
+     */
+    private XmlParserPool() {
+        super();
+    }
+
+    /**
+     * Returns a validating document builder in its initial state.
+     *
+     * @return the document builder
+     * @throws ParserConfigurationException
+     *             if a document builder cannot be created
+     */
+    public static DocumentBuilder getValidatingDocumentBuilder()
+            throws ParserConfigurationException {
+        DocumentBuilder builder = validatingDocumentBuilders.get();
+        if (builder == null) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setValidating(true);
+            return factory.newDocumentBuilder();
+        }
+
+        validatingDocumentBuilders.remove();
+        return builder;
+    }
+
+    public static void releaseValidatingDocumentBuilder(DocumentBuilder builder) {
+        builder.reset();
+        validatingDocumentBuilders.set(builder);
+    }
+
+    /**
+     * Returns an input factory that reports documents as they are written: names are not
+     * processed for namespaces, and entity references and CDATA sections are reported as such.
+     *
+     * @return the input factory
+     */
+    public static XMLInputFactory getXMLInputFactory() {
+        XMLInputFactory factory = xmlInputFactories.get();
+        if (factory == null) {
+            factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE);
+            // the JDK parser reports CDATA sections as plain characters unless asked otherwise
+            if (factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+                factory.setProperty(REPORT_CDATA_EVENT, Boolean.TRUE);
+            }
+            return factory;
+        }
+
+        xmlInputFactories.remove();
+        return factory;
+    }
+
+    public static void releaseXMLInputFactory(XMLInputFactory factory) {
+        factory.setXMLResolver(null);
+        factory.setXMLReporter(null);
+        xmlInputFactories.set(factory);
+    }
+}
@@ -0,0 +1,413 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * This plugin generates a batch writer class for every table with a MyBatis3
+ * mapper. The writer opens an <code>ExecutorType.BATCH</code> session from a
+ * <code>SqlSessionFactory</code>, calls the insert, update by primary key, and
+ * delete by primary key mapper methods for every record of an
+ * <code>Iterable</code>, and flushes the batch every N rows. If the mapper has
+ * an insertBatch method, the writer also sends the records as multi-row inserts.
+ * The batch methods return -1 if the driver does not report the update counts of
+ * a batch.
+ * 
+ * <p>This plugin accepts three properties:
+ * 
+ * <ul>
+ * <li><tt>flushRows</tt> (optional) the default number of rows sent to the
+ * database in one JDBC batch. This defaults to 1000 if not specified.</li>
+ * <li><tt>targetPackage</tt> (optional) the package of the generated classes.
+ * This defaults to the package of the mapper interfaces.</li>
+ * <li><tt>targetProject</tt> (optional) the project of the generated classes.
+ * This defaults to the project of the mapper interfaces.</li>
+ * </ul>
+ */
+public class BatchWriterPlugin extends PluginAdapter implements ThreadSafe {
+
+    private static final String DEFAULT_FLUSH_ROWS = "1000"; //$NON-NLS-1$
+
+    private static final String INSERT = "insert"; //$NON-NLS-1$
+    private static final String INSERT_BATCH = "insertBatch"; //$NON-NLS-1$
+    private static final String UPDATE = "update"; //$NON-NLS-1$
+    private static final String UPDATE_WITH_BLOBS = "updateWithBLOBs"; //$NON-NLS-1$
+    private static final String DELETE = "delete"; //$NON-NLS-1$
+
+    private Map<FullyQualifiedTable, Map<String, Method>> mapperMethods =
+            new ConcurrentHashMap<FullyQualifiedTable, Map<String, Method>>();
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        String flushRows = properties.getProperty("flushRows"); //$NON-NLS-1$
+        if (stringHasValue(flushRows)) {
+            boolean valid;
+            try {
+                valid = Integer.parseInt(flushRows.trim()) > 0;
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+
+            if (!valid) {
+                warnings.add(getString("ValidationError.31", //$NON-NLS-1$
+                        "flushRows", "BatchWriterPlugin")); //$NON-NLS-1$ //$NON-NLS-2$
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        saveMethod(introspectedTable, INSERT, method);
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertBatchMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        saveMethod(introspectedTable, INSERT_BATCH, method);
+        return true;
+    }
+
+    @Override
+    public boolean clientUpdateByPrimaryKeyWithBLOBsMethodGenerated(
+            Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        saveMethod(introspectedTable, UPDATE_WITH_BLOBS, method);
+        return true;
+    }
+
+    @Override
+    public boolean clientUpdateByPrimaryKeyWithoutBLOBsMethodGenerated(
+            Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        saveMethod(introspectedTable, UPDATE, method);
+        return true;
+    }
+
+    @Override
+    public boolean clientDeleteByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        saveMethod(introspectedTable, DELETE, method);
+        return true;
+    }
+
+    private void saveMethod(IntrospectedTable introspectedTable, String key, Method method) {
+        Map<String, Method> methods = mapperMethods.get(introspectedTable.getFullyQualifiedTable());
+        if (methods == null) {
+            methods = new ConcurrentHashMap<String, Method>();
+            mapperMethods.put(introspectedTable.getFullyQualifiedTable(), methods);
+        }
+        methods.put(key, method);
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(
+            IntrospectedTable introspectedTable) {
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+
+        Map<String, Method> methods = mapperMethods.remove(introspectedTable.getFullyQualifiedTable());
+        JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+        if (methods == null
+                || clientConfiguration == null
+                || introspectedTable.getTargetRuntime() == TargetRuntime.IBATIS2) {
+            return answer;
+        }
+
+        TopLevelClass topLevelClass = getBatchWriterClass(introspectedTable, methods,
+                clientConfiguration.getTargetPackage());
+
+        String targetProject = properties.getProperty("targetProject"); //$NON-NLS-1$
+        if (!stringHasValue(targetProject)) {
+            targetProject = clientConfiguration.getTargetProject();
+        }
+
+        answer.add(new GeneratedJavaFile(topLevelClass, targetProject,
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter()));
+        return answer;
+    }
+
+    private TopLevelClass getBatchWriterClass(IntrospectedTable introspectedTable,
+            Map<String, Method> methods, String mapperPackage) {
+        String targetPackage = properties.getProperty("targetPackage"); //$NON-NLS-1$
+        if (!stringHasValue(targetPackage)) {
+            targetPackage = mapperPackage;
+        }
+
+        FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(
+                introspectedTable.getMyBatis3JavaMapperType());
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        FullyQualifiedJavaType sqlSessionFactory =
+                new FullyQualifiedJavaType("org.apache.ibatis.session.SqlSessionFactory"); //$NON-NLS-1$
+
+        String baseName = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType())
+                .getShortNameWithoutTypeArguments();
+        TopLevelClass topLevelClass = new TopLevelClass(targetPackage + '.'
+                + baseName + "BatchWriter"); //$NON-NLS-1$
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+        context.getCommentGenerator().addClassComment(topLevelClass, introspectedTable);
+        topLevelClass.addImportedType(mapperType);
+        topLevelClass.addImportedType(recordType);
+        topLevelClass.addImportedType(sqlSessionFactory);
+        topLevelClass.addImportedType("org.apache.ibatis.executor.BatchResult"); //$NON-NLS-1$
+        topLevelClass.addImportedType("org.apache.ibatis.session.ExecutorType"); //$NON-NLS-1$
+        topLevelClass.addImportedType("org.apache.ibatis.session.SqlSession"); //$NON-NLS-1$
+
+        Field field = new Field("sqlSessionFactory", sqlSessionFactory); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        field = new Field("flushRows", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setConstructor(true);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(sqlSessionFactory, "sqlSessionFactory")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        method.addBodyLine("this(sqlSessionFactory, " //$NON-NLS-1$
+                + properties.getProperty("flushRows", DEFAULT_FLUSH_ROWS).trim() //$NON-NLS-1$
+                + ");"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method(topLevelClass.getType().getShortName());
+        method.setConstructor(true);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(sqlSessionFactory, "sqlSessionFactory")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "flushRows")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        method.addBodyLine("if (flushRows <= 0) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"flushRows must be greater than 0\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("this.sqlSessionFactory = sqlSessionFactory;"); //$NON-NLS-1$
+        method.addBodyLine("this.flushRows = flushRows;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        Method mapperMethod = methods.get(INSERT);
+        if (mapperMethod != null) {
+            addBatchMethod(topLevelClass, introspectedTable, "insert", //$NON-NLS-1$
+                    "mapper." + mapperMethod.getName() + "(record);", //$NON-NLS-1$ //$NON-NLS-2$
+                    mapperType, recordType);
+        }
+
+        mapperMethod = methods.get(UPDATE_WITH_BLOBS);
+        if (mapperMethod == null) {
+            mapperMethod = methods.get(UPDATE);
+        }
+        if (mapperMethod != null) {
+            addBatchMethod(topLevelClass, introspectedTable, "updateByPrimaryKey", //$NON-NLS-1$
+                    "mapper." + mapperMethod.getName() + "(record);", //$NON-NLS-1$ //$NON-NLS-2$
+                    mapperType, recordType);
+        }
+
+        mapperMethod = methods.get(DELETE);
+        if (mapperMethod != null) {
+            addBatchMethod(topLevelClass, introspectedTable, "deleteByPrimaryKey", //$NON-NLS-1$
+                    getDeleteCall(introspectedTable, mapperMethod), mapperType, recordType);
+        }
+
+        mapperMethod = methods.get(INSERT_BATCH);
+        if (mapperMethod != null) {
+            addMultiRowInsertMethod(topLevelClass, introspectedTable, mapperMethod,
+                    mapperType, recordType);
+        }
+
+        addFlushMethod(topLevelClass, introspectedTable);
+
+        return topLevelClass;
+    }
+
+    /**
+     * Calculates the call of the delete by primary key method. The method either takes
+     * the key class, which the record extends, or one parameter for every key column in
+     * key column order.
+     */
+    private String getDeleteCall(IntrospectedTable introspectedTable, Method mapperMethod) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("mapper."); //$NON-NLS-1$
+        sb.append(mapperMethod.getName());
+        sb.append('(');
+        List<Parameter> parameters = mapperMethod.getParameters();
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (parameters.size() == 1 && parameters.get(0).getType().getFullyQualifiedName()
+                .equals(introspectedTable.getPrimaryKeyType())) {
+            sb.append("record"); //$NON-NLS-1$
+        } else {
+            for (int i = 0; i < parameters.size() && i < keyColumns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+                IntrospectedColumn keyColumn = keyColumns.get(i);
+                sb.append("record."); //$NON-NLS-1$
+                sb.append(JavaBeansUtil.getGetterMethodName(keyColumn.getJavaProperty(),
+                        keyColumn.getFullyQualifiedJavaType()));
+                sb.append("()"); //$NON-NLS-1$
+            }
+        }
+        sb.append(");"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    private void addBatchMethod(TopLevelClass topLevelClass, IntrospectedTable introspectedTable,
+            String name, String mapperCall, FullyQualifiedJavaType mapperType,
+            FullyQualifiedJavaType recordType) {
+        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType("java.lang.Iterable"); //$NON-NLS-1$
+        parameterType.addTypeArgument(recordType);
+
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        method.addBodyLine("SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine(mapperType.getShortName() + " mapper = sqlSession.getMapper(" //$NON-NLS-1$
+                + mapperType.getShortName() + ".class);"); //$NON-NLS-1$
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine("int pending = 0;"); //$NON-NLS-1$
+        method.addBodyLine("for (" + recordType.getShortName() + " record : records) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(mapperCall);
+        method.addBodyLine("if (++pending == flushRows) {"); //$NON-NLS-1$
+        method.addBodyLine("rows = flush(sqlSession, rows);"); //$NON-NLS-1$
+        method.addBodyLine("pending = 0;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("rows = flush(sqlSession, rows);"); //$NON-NLS-1$
+        method.addBodyLine("sqlSession.commit();"); //$NON-NLS-1$
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+        method.addBodyLine("} finally {"); //$NON-NLS-1$
+        method.addBodyLine("sqlSession.close();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * Adds a method that sends the records in lists to the insert batch method. The lists are
+     * no larger than the INSERT_BATCH_MAX_ROWS constant of the mapper, or flushRows if the
+     * constant was not generated.
+     */
+    private void addMultiRowInsertMethod(TopLevelClass topLevelClass, IntrospectedTable introspectedTable,
+            Method mapperMethod, FullyQualifiedJavaType mapperType, FullyQualifiedJavaType recordType) {
+        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType("java.lang.Iterable"); //$NON-NLS-1$
+        parameterType.addTypeArgument(recordType);
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+
+        Method method = new Method(mapperMethod.getName());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        String maxRows;
+        if (introspectedTable.getTableConfiguration().getInsertBatchMaxRows() > 0) {
+            maxRows = mapperType.getShortName() + ".INSERT_BATCH_MAX_ROWS"; //$NON-NLS-1$
+        } else {
+            maxRows = "flushRows"; //$NON-NLS-1$
+        }
+
+        method.addBodyLine("SqlSession sqlSession = sqlSessionFactory.openSession();"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine(mapperType.getShortName() + " mapper = sqlSession.getMapper(" //$NON-NLS-1$
+                + mapperType.getShortName() + ".class);"); //$NON-NLS-1$
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine("List<" + recordType.getShortName() + "> chunk = new ArrayList<" //$NON-NLS-1$ //$NON-NLS-2$
+                + recordType.getShortName() + ">();"); //$NON-NLS-1$
+        method.addBodyLine("for (" + recordType.getShortName() + " record : records) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("chunk.add(record);"); //$NON-NLS-1$
+        method.addBodyLine("if (chunk.size() == " + maxRows + ") {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("rows += mapper." + mapperMethod.getName() + "(chunk);"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("chunk = new ArrayList<" + recordType.getShortName() + ">();"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (!chunk.isEmpty()) {"); //$NON-NLS-1$
+        method.addBodyLine("rows += mapper." + mapperMethod.getName() + "(chunk);"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sqlSession.commit();"); //$NON-NLS-1$
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+        method.addBodyLine("} finally {"); //$NON-NLS-1$
+        method.addBodyLine("sqlSession.close();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * Adds the method that flushes the batch and adds its update counts to the rows written
+     * so far. Some drivers (Oracle among them) report Statement.SUCCESS_NO_INFO instead of a
+     * count, so the total is unknown from then on and the method returns -1.
+     */
+    private void addFlushMethod(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        Method method = new Method("flush"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(
+                new FullyQualifiedJavaType("org.apache.ibatis.session.SqlSession"), "sqlSession")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "rows")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        method.addBodyLine("int answer = rows;"); //$NON-NLS-1$
+        method.addBodyLine("for (BatchResult batchResult : sqlSession.flushStatements()) {"); //$NON-NLS-1$
+        method.addBodyLine("for (int updateCount : batchResult.getUpdateCounts()) {"); //$NON-NLS-1$
+        method.addBodyLine("if (answer < 0 || updateCount < 0) {"); //$NON-NLS-1$
+        method.addBodyLine("// the driver did not report the count (Statement.SUCCESS_NO_INFO)"); //$NON-NLS-1$
+        method.addBodyLine("answer = -1;"); //$NON-NLS-1$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine("answer += updateCount;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+
+        topLevelClass.addMethod(method);
+    }
+}
@@ -64,10 +64,10 @@ public class DubboServicePlugin extends PluginAdapter {
         interfaze.setVisibility(JavaVisibility.PUBLIC);
         if (methods != null && methods.size() > 0) {
             for (Method m : methods) {
-                Method method = new Method(m);
+                Method method = copyMethod(m);
                 String originalReturnType = m.getReturnType().getShortNameWithoutTypeArguments();
                 method.setReturnType(wrapFullyQualifiedJavaType(method, entityType.getShortName()));
-                if ("List".equalsIgnoreCase(originalReturnType)) {
+                if ("List".equalsIgnoreCase(originalReturnType) && !isKeysetPaged(m, introspectedTable)) {
                     Method nonePageableMethod = new Method(method);
                     method.addParameter(1, new Parameter(FullyQualifiedJavaType.getIntInstance(), "startIndex"));
                     method.addParameter(2, new Parameter(FullyQualifiedJavaType.getIntInstance(), "pageSize"));
@@ -119,7 +119,7 @@ public class DubboServicePlugin extends PluginAdapter {
         if (methods != null && methods.size() > 0) {
             for (Method m : methods) {
                 String originalReturnType = m.getReturnType().getShortNameWithoutTypeArguments();
-                Method method = new Method(m);
+                Method method = copyMethod(m);
 
                 method.setReturnType(wrapFullyQualifiedJavaType(method, entityType.getShortName()));
                 StringBuffer buffer = new StringBuffer();
@@ -128,17 +128,21 @@ public class DubboServicePlugin extends PluginAdapter {
                 buffer.append("(");
                 List<Parameter> parameters = m.getParameters();
                 if (parameters != null && parameters.size() > 0) {
-                    for (Parameter parameter : parameters) {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        Parameter parameter = parameters.get(i);
                         String parameterName = parameter.getName();
                         FullyQualifiedJavaType type = parameter.getType();
                         clazz.addImportedType(type);
+                        if (i > 0) {
+                            buffer.append(", ");
+                        }
                         buffer.append(parameterName);
                     }
                 }
                 buffer.append("))").append(";");
                 // 生成分页
 
-                if ("List".equalsIgnoreCase(originalReturnType)) {
+                if ("List".equalsIgnoreCase(originalReturnType) && !isKeysetPaged(m, introspectedTable)) {
                     Method nonePageableMethod = new Method(method);
                     StringBuffer nonePageableMethodBody = new StringBuffer(buffer.toString());
                     nonePageableMethod.addBodyLine(nonePageableMethodBody.toString());
@@ -168,6 +172,32 @@ public class DubboServicePlugin extends PluginAdapter {
         return new GeneratedJavaFile(clazz, targetImplProject, new DefaultJavaFormatter());
     }
 
+    /**
+     * 复制Mapper方法, 去掉Service中没有导入的 @Param 注解
+     *
+     * @param m
+     * @return
+     */
+    private Method copyMethod(Method m) {
+        Method method = new Method(m);
+        method.getParameters().clear();
+        for (Parameter parameter : m.getParameters()) {
+            method.addParameter(new Parameter(parameter.getType(), parameter.getName()));
+        }
+        return method;
+    }
+
+    /**
+     * selectPageAfter 已经按主键分页, 不再生成 PageHelper 分页方法
+     *
+     * @param m
+     * @param introspectedTable
+     * @return
+     */
+    private boolean isKeysetPaged(Method m, IntrospectedTable introspectedTable) {
+        return m.getName().equals(introspectedTable.getSelectPageAfterStatementId());
+    }
+
     private FullyQualifiedJavaType wrapFullyQualifiedJavaType(Method method, String domainObjectName) {
         FullyQualifiedJavaType returnType = method.getReturnType();
         FullyQualifiedJavaType genericReturnType = null;
@@ -306,6 +336,12 @@ public class DubboServicePlugin extends PluginAdapter {
         return super.clientSelectByExampleWithoutBLOBsMethodGenerated(method, topLevelClass, introspectedTable);
     }
 
+    @Override
+    public boolean clientSelectPageAfterMethodGenerated(Method method, Interface interfaze, IntrospectedTable introspectedTable) {
+        list.add(method);
+        return super.clientSelectPageAfterMethodGenerated(method, interfaze, introspectedTable);
+    }
+
     @Override
     public boolean clientSelectByPrimaryKeyMethodGenerated(Method method, Interface interfaze, IntrospectedTable introspectedTable) {
         list.add(method);
@@ -21,6 +21,7 @@ import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
@@ -37,7 +38,7 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
  *
  * @author Stefan Lack
  */
-public class FluentBuilderMethodsPlugin extends PluginAdapter {
+public class FluentBuilderMethodsPlugin extends PluginAdapter implements ThreadSafe {
 
     @Override
     public boolean validate(List<String> warnings) {
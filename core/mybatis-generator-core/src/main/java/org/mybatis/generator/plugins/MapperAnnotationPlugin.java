@@ -20,11 +20,12 @@ import java.util.List;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 
-public class MapperAnnotationPlugin extends PluginAdapter {
+public class MapperAnnotationPlugin extends PluginAdapter implements ThreadSafe {
 
     @Override
     public boolean validate(List<String> warnings) {
@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 
 /**
  * This plugin demonstrates overriding the initialized() method to rename the
@@ -52,7 +53,7 @@ import org.mybatis.generator.api.PluginAdapter;
  * @author Jeff Butler
  * 
  */
-public class RenameExampleClassPlugin extends PluginAdapter {
+public class RenameExampleClassPlugin extends PluginAdapter implements ThreadSafe {
     private String searchString;
     private String replaceString;
     private Pattern pattern;
@@ -16,15 +16,16 @@
 package org.mybatis.generator.plugins;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.Method;
@@ -40,12 +41,12 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
  * 
  * @author Jeff Butler
  */
-public class RowBoundsPlugin extends PluginAdapter {
+public class RowBoundsPlugin extends PluginAdapter implements ThreadSafe {
 
     private FullyQualifiedJavaType rowBounds =
             new FullyQualifiedJavaType("org.apache.ibatis.session.RowBounds"); //$NON-NLS-1$
     private Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd =
-            new HashMap<FullyQualifiedTable, List<XmlElement>>();
+            new ConcurrentHashMap<FullyQualifiedTable, List<XmlElement>>();
 
     @Override
     public boolean validate(List<String> warnings) {
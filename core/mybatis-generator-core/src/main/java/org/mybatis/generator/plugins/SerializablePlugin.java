@@ -21,6 +21,7 @@ import java.util.Properties;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
@@ -39,7 +40,7 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
  * @author Jeff Butler
  * 
  */
-public class SerializablePlugin extends PluginAdapter {
+public class SerializablePlugin extends PluginAdapter implements ThreadSafe {
 
     private FullyQualifiedJavaType serializable;
     private FullyQualifiedJavaType gwtSerializable;
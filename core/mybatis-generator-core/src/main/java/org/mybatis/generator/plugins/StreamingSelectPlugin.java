@@ -0,0 +1,290 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * This plugin adds streaming variants of the list returning select methods
+ * (selectByExample, selectByExampleWithBLOBs, selectAll and selectListByWhere)
+ * to the generated mapper interface. For every such method two overloaded
+ * methods are added:
+ * 
+ * <ul>
+ * <li><tt>Cursor&lt;Record&gt; xxxStreaming(...)</tt> returns a MyBatis
+ * cursor that reads the rows lazily. The cursor must be consumed and closed
+ * before the session is closed.</li>
+ * <li><tt>void xxxStreaming(..., ResultHandler&lt;Record&gt; resultHandler)</tt>
+ * passes every row to the result handler.</li>
+ * </ul>
+ * 
+ * <p>Both methods share one statement with a <tt>FORWARD_ONLY</tt> result set
+ * type and a fetch size, so the rows are never held in memory all at once. The
+ * statement is added to the XML mapper, or as an annotation to the mapper
+ * interface if the original select is annotated.
+ * 
+ * <p>This plugin accepts one property:
+ * 
+ * <ul>
+ * <li><tt>fetchSize</tt> (optional) the JDBC fetch size of the streaming
+ * statements. This defaults to 1000 if not specified. MySQL only streams
+ * rows with a fetch size of -2147483648 (Integer.MIN_VALUE).</li>
+ * </ul>
+ * 
+ * <p>This plugin is only valid for MyBatis3 and MyBatis3Simple, and requires
+ * MyBatis 3.4.0 or later at runtime.
+ */
+public class StreamingSelectPlugin extends PluginAdapter implements ThreadSafe {
+
+    public static final String METHOD_SUFFIX = "Streaming"; //$NON-NLS-1$
+
+    private static final String DEFAULT_FETCH_SIZE = "1000"; //$NON-NLS-1$
+
+    private FullyQualifiedJavaType cursor =
+            new FullyQualifiedJavaType("org.apache.ibatis.cursor.Cursor"); //$NON-NLS-1$
+    private FullyQualifiedJavaType resultHandler =
+            new FullyQualifiedJavaType("org.apache.ibatis.session.ResultHandler"); //$NON-NLS-1$
+    private Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd =
+            new ConcurrentHashMap<FullyQualifiedTable, List<XmlElement>>();
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        String fetchSize = properties.getProperty("fetchSize"); //$NON-NLS-1$
+        if (stringHasValue(fetchSize)) {
+            try {
+                Integer.parseInt(fetchSize.trim());
+            } catch (NumberFormatException e) {
+                warnings.add(getString("ValidationError.32", //$NON-NLS-1$
+                        "fetchSize", "StreamingSelectPlugin")); //$NON-NLS-1$ //$NON-NLS-2$
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithBLOBsMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addStreamingMethods(method, interfaze);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(
+            Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addStreamingMethods(method, interfaze);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectAllMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            addStreamingMethods(method, interfaze);
+        }
+        return true;
+    }
+
+    /**
+     * The selectListByWhere method is reported through the select by primary
+     * key hook, so we recognize it by its name.
+     */
+    @Override
+    public boolean clientSelectByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && method.getName().equals(introspectedTable.getSelectByCdtStatementId())) {
+            addStreamingMethods(method, interfaze);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectAllElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3) {
+            copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && introspectedTable.getSelectByCdtStatementId().equals(getId(element))) {
+            copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        }
+        return true;
+    }
+
+    /**
+     * We'll override this method and add any new elements generated by
+     * previous calls
+     */
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToAdd.get(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                document.getRootElement().addElement(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the cursor and result handler overloads of a list returning select
+     * method. If the original method is annotated, the cursor method carries
+     * the statement and the result handler method shares it. Otherwise the
+     * statement is added to the XML mapper when the element is generated.
+     * 
+     * @param method the list returning method
+     * @param interfaze the mapper interface
+     */
+    private void addStreamingMethods(Method method, Interface interfaze) {
+        FullyQualifiedJavaType recordType = method.getReturnType().getTypeArguments().get(0);
+        boolean annotated = isAnnotated(method);
+
+        Method cursorMethod = new Method(method);
+        cursorMethod.setName(method.getName() + METHOD_SUFFIX);
+        FullyQualifiedJavaType returnType = new FullyQualifiedJavaType(cursor.getFullyQualifiedName());
+        returnType.addTypeArgument(recordType);
+        cursorMethod.setReturnType(returnType);
+        if (annotated) {
+            cursorMethod.addAnnotation("@Options(fetchSize=" + getFetchSize() //$NON-NLS-1$
+                    + ", resultSetType=ResultSetType.FORWARD_ONLY)"); //$NON-NLS-1$
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options")); //$NON-NLS-1$
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.mapping.ResultSetType")); //$NON-NLS-1$
+        }
+        interfaze.addMethod(cursorMethod);
+        interfaze.addImportedType(cursor);
+
+        Method handlerMethod = new Method(method);
+        handlerMethod.setName(method.getName() + METHOD_SUFFIX);
+        handlerMethod.setReturnType(null);
+        if (annotated) {
+            // MyBatis does not allow two annotated statements with the same id
+            handlerMethod.getAnnotations().clear();
+        }
+        FullyQualifiedJavaType handlerType = new FullyQualifiedJavaType(resultHandler.getFullyQualifiedName());
+        handlerType.addTypeArgument(recordType);
+        handlerMethod.addParameter(new Parameter(handlerType, "resultHandler")); //$NON-NLS-1$
+        interfaze.addMethod(handlerMethod);
+        interfaze.addImportedType(resultHandler);
+    }
+
+    private boolean isAnnotated(Method method) {
+        for (String annotation : method.getAnnotations()) {
+            if (annotation.startsWith("@Select")) { //$NON-NLS-1$
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getFetchSize() {
+        return properties.getProperty("fetchSize", DEFAULT_FETCH_SIZE).trim(); //$NON-NLS-1$
+    }
+
+    private String getId(XmlElement element) {
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())) { //$NON-NLS-1$
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Use the element copy constructor to create a new element with the
+     * streaming id, fetch size and result set type.
+     * 
+     * @param element the element
+     * @param fqt the table
+     */
+    private void copyAndSaveElement(XmlElement element, FullyQualifiedTable fqt) {
+        XmlElement newElement = new XmlElement(element);
+
+        // remove old id attribute and add a new one with the new name
+        for (Iterator<Attribute> iterator = newElement.getAttributes().iterator(); iterator.hasNext();) {
+            Attribute attribute = iterator.next();
+            if ("id".equals(attribute.getName())) { //$NON-NLS-1$
+                iterator.remove();
+                Attribute newAttribute = new Attribute("id", attribute.getValue() + METHOD_SUFFIX); //$NON-NLS-1$
+                newElement.addAttribute(newAttribute);
+                break;
+            }
+        }
+        newElement.addAttribute(new Attribute("fetchSize", getFetchSize())); //$NON-NLS-1$
+        newElement.addAttribute(new Attribute("resultSetType", "FORWARD_ONLY")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // save the new element locally.   We'll add it to the document
+        // later
+        List<XmlElement> elements = elementsToAdd.get(fqt);
+        if (elements == null) {
+            elements = new ArrayList<XmlElement>();
+            elementsToAdd.put(fqt, elements);
+        }
+        elements.add(newElement);
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafe;
 
 /**
  * This plugin marks generated XML mapper files as unmergeable.  This will cause the generator to either
@@ -30,7 +31,7 @@ import org.mybatis.generator.api.PluginAdapter;
  * @author Jeff Butler
  * 
  */
-public class UnmergeableXmlMappersPlugin extends PluginAdapter {
+public class UnmergeableXmlMappersPlugin extends PluginAdapter implements ThreadSafe {
 
     @Override
     public boolean validate(List<String> warnings) {
@@ -22,12 +22,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaClientGenerator;
 import org.mybatis.generator.codegen.AbstractXmlGenerator;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.internal.util.JavaBeansUtil;
 import org.mybatis.generator.runtime.dynamic.sql.elements.AbstractMethodGenerator;
@@ -41,6 +43,7 @@ import org.mybatis.generator.runtime.dynamic.sql.elements.CountByExampleMethodGe
 import org.mybatis.generator.runtime.dynamic.sql.elements.DeleteByExampleMethodGenerator;
 import org.mybatis.generator.runtime.dynamic.sql.elements.DeleteByPrimaryKeyMethodGenerator;
 import org.mybatis.generator.runtime.dynamic.sql.elements.FragmentGenerator;
+import org.mybatis.generator.runtime.dynamic.sql.elements.InsertBatchMethodGenerator;
 import org.mybatis.generator.runtime.dynamic.sql.elements.InsertMethodGenerator;
 import org.mybatis.generator.runtime.dynamic.sql.elements.InsertSelectiveMethodGenerator;
 import org.mybatis.generator.runtime.dynamic.sql.elements.MethodAndImports;
@@ -96,6 +99,7 @@ public class DynamicSqlMapperGenerator extends AbstractJavaClientGenerator {
         addDeleteByPrimaryKeyMethod(interfaze);
         addInsertMethod(interfaze);
         addInsertSelectiveMethod(interfaze);
+        addInsertBatchMethod(interfaze);
         addSelectByExampleMethod(interfaze);
         addSelectDistinctByExampleMethod(interfaze);
         addSelectByPrimaryKeyMethod(interfaze);
@@ -262,6 +266,26 @@ public class DynamicSqlMapperGenerator extends AbstractJavaClientGenerator {
         generate(interfaze, generator);
     }
 
+    private void addInsertBatchMethod(Interface interfaze) {
+        InsertBatchMethodGenerator generator = new InsertBatchMethodGenerator.Builder()
+                .withContext(context)
+                .withIntrospectedTable(introspectedTable)
+                .withRecordType(recordType)
+                .build();
+        
+        if (generate(interfaze, generator)) {
+            int maxRows = introspectedTable.getTableConfiguration().getInsertBatchMaxRows();
+            if (maxRows > 0) {
+                Field field = new Field("INSERT_BATCH_MAX_ROWS", //$NON-NLS-1$
+                        FullyQualifiedJavaType.getIntInstance());
+                field.setInitializationString(Integer.toString(maxRows));
+                context.getCommentGenerator().addFieldComment(field, introspectedTable);
+                MyBatis3FormattingUtilities.addInsertBatchMaxRowsJavaDocLines(field, introspectedTable);
+                interfaze.addField(field);
+            }
+        }
+    }
+
     private void addSelectByExampleMethod(Interface interfaze) {
         SelectByExampleMethodGenerator generator = new SelectByExampleMethodGenerator.Builder()
                 .withContext(context)
@@ -350,13 +374,15 @@ public class DynamicSqlMapperGenerator extends AbstractJavaClientGenerator {
         return DynamicSqlSupportClassGenerator.of(introspectedTable, context.getCommentGenerator()).generate();
     }
 
-    private void generate(Interface interfaze, AbstractMethodGenerator generator) {
+    private boolean generate(Interface interfaze, AbstractMethodGenerator generator) {
         MethodAndImports mi = generator.generateMethodAndImports();
         if (mi != null && generator.callPlugins(mi.getMethod(), interfaze)) {
             interfaze.addMethod(mi.getMethod());
             interfaze.addImportedTypes(mi.getImports());
             interfaze.addStaticImports(mi.getStaticImports());
+            return true;
         }
+        return false;
     }
 
     @Override
@@ -0,0 +1,102 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.runtime.dynamic.sql.elements;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getInsertBatchAnnotationLines;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.config.GeneratedKey;
+
+public class InsertBatchMethodGenerator extends AbstractMethodGenerator {
+    private FullyQualifiedJavaType recordType;
+    
+    private InsertBatchMethodGenerator(Builder builder) {
+        super(builder);
+        recordType = builder.recordType;
+    }
+
+    @Override
+    public MethodAndImports generateMethodAndImports() {
+        if (!introspectedTable.getRules().generateInsertBatch()) {
+            return null;
+        }
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<FullyQualifiedJavaType>();
+        
+        imports.add(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Insert")); //$NON-NLS-1$
+        imports.add(FullyQualifiedJavaType.getNewListInstance());
+        imports.add(recordType);
+        
+        FullyQualifiedJavaType parameterType = FullyQualifiedJavaType.getNewListInstance();
+        parameterType.addTypeArgument(recordType);
+        
+        Method method = new Method(introspectedTable.getInsertBatchStatementId());
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodAnnotation(method, introspectedTable, imports);
+        for (String line : getInsertBatchAnnotationLines(introspectedTable)) {
+            method.addAnnotation(line);
+        }
+
+        // the records are the only parameter, so the key property is not prefixed
+        // as it is for the single row inserts. A @SelectKey runs once per statement,
+        // so only JDBC generated keys can be returned for every row.
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk != null && gk.isJdbcStandard()) {
+            IntrospectedColumn introspectedColumn = introspectedTable.getColumn(gk.getColumn());
+            if (introspectedColumn != null) {
+                imports.add(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options")); //$NON-NLS-1$
+                method.addAnnotation("@Options(useGeneratedKeys=true,keyProperty=\"" //$NON-NLS-1$
+                        + introspectedColumn.getJavaProperty() + "\")"); //$NON-NLS-1$
+            }
+        }
+
+        return MethodAndImports.withMethod(method)
+                .withImports(imports)
+                .build();
+    }
+
+    @Override
+    public boolean callPlugins(Method method, Interface interfaze) {
+        return context.getPlugins().clientInsertBatchMethodGenerated(method, interfaze, introspectedTable);
+    }
+
+    public static class Builder extends BaseBuilder<Builder, InsertBatchMethodGenerator> {
+        private FullyQualifiedJavaType recordType;
+        
+        public Builder withRecordType(FullyQualifiedJavaType recordType) {
+            this.recordType = recordType;
+            return this;
+        }
+
+        @Override
+        public Builder getThis() {
+            return this;
+        }
+
+        @Override
+        public InsertBatchMethodGenerator build() {
+            return new InsertBatchMethodGenerator(this);
+        }
+    }
+}
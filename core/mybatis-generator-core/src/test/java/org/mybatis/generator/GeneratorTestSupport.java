@@ -0,0 +1,199 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * Shared fixture for tests that run the generator against the test database and
+ * /scripts/generatorConfig.xml.
+ */
+public final class GeneratorTestSupport {
+
+    private GeneratorTestSupport() {
+    }
+
+    /**
+     * Creates the test database and parses the test configuration. Dates are suppressed in the generated comments so
+     * that the output of two runs can be compared.
+     *
+     * @param warnings
+     *            the parser warnings
+     * @param contextIds
+     *            the contexts to keep. If empty, all contexts are kept
+     * @return the configuration
+     */
+    public static Configuration createConfiguration(List<String> warnings, String... contextIds)
+            throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(
+                GeneratorTestSupport.class.getResourceAsStream("/scripts/generatorConfig.xml"));
+
+        List<String> ids = Arrays.asList(contextIds);
+        Iterator<Context> iter = config.getContexts().iterator();
+        while (iter.hasNext()) {
+            Context context = iter.next();
+            if (!ids.isEmpty() && !ids.contains(context.getId())) {
+                iter.remove();
+                continue;
+            }
+
+            if (context.getCommentGeneratorConfiguration() == null) {
+                context.setCommentGeneratorConfiguration(new CommentGeneratorConfiguration());
+            }
+            context.getCommentGeneratorConfiguration().addProperty(
+                    PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        }
+
+        return config;
+    }
+
+    /**
+     * Adds a property to every context of the configuration.
+     */
+    public static void addContextProperty(Configuration config, String name, String value) {
+        for (Context context : config.getContexts()) {
+            context.addProperty(name, value);
+        }
+    }
+
+    /**
+     * Sets the schema of every table configuration of the configuration.
+     */
+    public static void setSchema(Configuration config, String schema) {
+        for (Context context : config.getContexts()) {
+            for (TableConfiguration tc : context.getTableConfigurations()) {
+                tc.setSchema(schema);
+            }
+        }
+    }
+
+    /**
+     * Writes every generated file of the configuration to the directory.
+     */
+    public static void setTargetProject(Configuration config, File directory) {
+        String targetProject = directory.getPath();
+        for (Context context : config.getContexts()) {
+            context.getJavaModelGeneratorConfiguration().setTargetProject(targetProject);
+            if (context.getSqlMapGeneratorConfiguration() != null) {
+                context.getSqlMapGeneratorConfiguration().setTargetProject(targetProject);
+            }
+            if (context.getJavaClientGeneratorConfiguration() != null) {
+                context.getJavaClientGeneratorConfiguration().setTargetProject(targetProject);
+            }
+        }
+    }
+
+    /**
+     * Generates the files of the configuration without writing them.
+     */
+    public static MyBatisGenerator generate(Configuration config, List<String> warnings) throws Exception {
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        myBatisGenerator.generate(null, null, null, false);
+        return myBatisGenerator;
+    }
+
+    /**
+     * Returns the content of every generated Java and XML file, keyed by target package and file name.
+     */
+    public static Map<String, String> getGeneratedContents(MyBatisGenerator myBatisGenerator) {
+        Map<String, String> answer = new TreeMap<String, String>();
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            answer.put(gjf.getTargetPackage() + "." + gjf.getFileName(), gjf.getFormattedContent());
+        }
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            answer.put(gxf.getTargetPackage() + "." + gxf.getFileName(), gxf.getFormattedContent());
+        }
+        return answer;
+    }
+
+    /**
+     * Generates the files of the test configuration with the context properties and returns their content.
+     */
+    public static Map<String, String> generateContents(List<String> warnings, String... properties)
+            throws Exception {
+        Configuration config = createConfiguration(warnings);
+        for (int i = 0; i < properties.length; i += 2) {
+            addContextProperty(config, properties[i], properties[i + 1]);
+        }
+        return getGeneratedContents(generate(config, warnings));
+    }
+
+    public static File createTempDirectory() throws Exception {
+        File directory = File.createTempFile("mbg", "");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    public static Map<String, String> readFiles(File directory) throws Exception {
+        Map<String, String> answer = new TreeMap<String, String>();
+        readFiles(directory, "", answer);
+        return answer;
+    }
+
+    private static void readFiles(File directory, String prefix, Map<String, String> files) throws Exception {
+        for (File file : directory.listFiles()) {
+            if (file.isDirectory()) {
+                readFiles(file, prefix + file.getName() + "/", files);
+            } else {
+                files.put(prefix + file.getName(), new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+            }
+        }
+    }
+
+    public static File findFile(File directory, String suffix) {
+        for (File file : directory.listFiles()) {
+            if (file.isDirectory()) {
+                File answer = findFile(file, suffix);
+                if (answer != null) {
+                    return answer;
+                }
+            } else if (file.getName().endsWith(suffix)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestSupport.createTempDirectory;
+import static org.mybatis.generator.GeneratorTestSupport.delete;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.config.Configuration;
+
+public class ConfigurationCacheTest {
+
+    @Test
+    public void testChangedPropertiesFileIsParsedAgain() throws Exception {
+        File directory = createTempDirectory();
+        ConfigurationCache cache = new ConfigurationCache();
+        try {
+            File propertiesFile = new File(directory, "database.properties");
+            writeProperties(propertiesFile, "PKOnly");
+            File configFile = writeConfiguration(directory, propertiesFile);
+
+            List<String> warnings = new ArrayList<String>();
+            Configuration configuration = cache.getConfiguration(configFile, warnings);
+            assertSame(configuration, cache.getConfiguration(configFile, warnings));
+
+            writeProperties(propertiesFile, "PKFields");
+            propertiesFile.setLastModified(propertiesFile.lastModified() + 10000);
+            Configuration changed = cache.getConfiguration(configFile, warnings);
+            assertNotSame(configuration, changed);
+            assertEquals("PKFields", changed.getContexts().get(0).getTableConfigurations().get(0).getTableName());
+        } finally {
+            cache.close();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testReplacedConfigurationClosesItsConnections() throws Exception {
+        File directory = createTempDirectory();
+        ConfigurationCache cache = new ConfigurationCache();
+        try {
+            File propertiesFile = new File(directory, "database.properties");
+            writeProperties(propertiesFile, "PKOnly");
+            File configFile = writeConfiguration(directory, propertiesFile);
+
+            Configuration configuration = cache.getConfiguration(configFile, new ArrayList<String>());
+            Connection idle = configuration.getContexts().get(0).getConnectionFactory().getConnection();
+            Connection idleConnection = idle.unwrap(Connection.class);
+            idle.close();
+            Connection inUse = configuration.getContexts().get(0).getConnectionFactory().getConnection();
+            Connection inUseConnection = inUse.unwrap(Connection.class);
+            assertSame(idleConnection, inUseConnection);
+            Connection other = configuration.getContexts().get(0).getConnectionFactory().getConnection();
+            Connection otherConnection = other.unwrap(Connection.class);
+            other.close();
+
+            configFile.setLastModified(configFile.lastModified() + 10000);
+            assertNotSame(configuration, cache.getConfiguration(configFile, new ArrayList<String>()));
+            assertTrue(otherConnection.isClosed());
+            assertFalse(inUseConnection.isClosed());
+
+            // a job that was still running closes its connection when it finishes
+            inUse.close();
+            assertTrue(inUseConnection.isClosed());
+        } finally {
+            cache.close();
+            delete(directory);
+        }
+    }
+
+    private static void writeProperties(File file, String tableName) throws Exception {
+        String properties = "database.url=jdbc:hsqldb:mem:cache\ntable.name=" + tableName + "\n";
+        Files.write(file.toPath(), properties.getBytes("UTF-8"));
+    }
+
+    private static File writeConfiguration(File directory, File propertiesFile) throws Exception {
+        String config = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE generatorConfiguration PUBLIC"
+                + " \"-//mybatis.org//DTD MyBatis Generator Configuration 1.0//EN\""
+                + " \"http://mybatis.org/dtd/mybatis-generator-config_1_0.dtd\">\n"
+                + "<generatorConfiguration>\n"
+                + "  <properties url=\"" + propertiesFile.toURI().toURL() + "\"/>\n"
+                + "  <context id=\"cache\">\n"
+                + "    <jdbcConnection driverClass=\"org.hsqldb.jdbcDriver\" connectionURL=\"${database.url}\""
+                + " userId=\"sa\"/>\n"
+                + "    <javaModelGenerator targetPackage=\"model\" targetProject=\"gen\"/>\n"
+                + "    <table tableName=\"${table.name}\"/>\n"
+                + "  </context>\n"
+                + "</generatorConfiguration>\n";
+        File file = new File(directory, "generatorConfig.xml");
+        Files.write(file.toPath(), config.getBytes("UTF-8"));
+        return file;
+    }
+}
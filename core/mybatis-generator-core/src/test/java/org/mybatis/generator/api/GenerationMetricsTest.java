@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GeneratorSession;
+
+import com.sun.management.ThreadMXBean;
+
+public class GenerationMetricsTest {
+
+    @Test
+    public void testMetricsCoverEveryPhase() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            MyBatisGenerator myBatisGenerator = generate(directory);
+
+            Set<String> phases = new HashSet<String>();
+            for (GenerationMetrics.Measurement measurement : myBatisGenerator.getMetrics().getMeasurements()) {
+                phases.add(measurement.getPhase());
+                assertTrue(measurement.getCount() > 0);
+            }
+            assertTrue(phases.containsAll(Arrays.asList(GenerationMetrics.INTROSPECTION,
+                    GenerationMetrics.INTROSPECTION_TABLE, GenerationMetrics.INTROSPECTION_METADATA,
+                    GenerationMetrics.GENERATION, GenerationMetrics.GENERATION_TABLE,
+                    GenerationMetrics.GENERATION_GENERATOR, GenerationMetrics.PLUGIN, GenerationMetrics.SAVE,
+                    GenerationMetrics.SAVE_FORMAT, GenerationMetrics.SAVE_WRITE)));
+
+            StringWriter json = new StringWriter();
+            myBatisGenerator.getMetrics().writeJson(json);
+            assertTrue(json.toString().contains("\"phase\": \"introspection.table\", \"name\": \"PKOnly\""));
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testAllocationMeasurementIsRestoredAfterTheRun() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+
+        boolean enabled = threadMXBean.isThreadAllocatedMemoryEnabled();
+        File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            threadMXBean.setThreadAllocatedMemoryEnabled(false);
+            MyBatisGenerator myBatisGenerator = generate(directory);
+            assertEquals(false, threadMXBean.isThreadAllocatedMemoryEnabled());
+            for (GenerationMetrics.Measurement measurement : myBatisGenerator.getMetrics().getMeasurements()) {
+                assertTrue(measurement.getAllocatedBytes() >= 0);
+            }
+
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            generate(directory);
+            assertEquals(true, threadMXBean.isThreadAllocatedMemoryEnabled());
+        } finally {
+            threadMXBean.setThreadAllocatedMemoryEnabled(enabled);
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testReadingResultSetsIsMeasured() throws Exception {
+        final ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+                    private boolean read;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("next".equals(method.getName())) {
+                            Thread.sleep(50L);
+                            read = !read;
+                            return read;
+                        }
+                        if ("getString".equals(method.getName())) {
+                            Thread.sleep(500L);
+                        }
+                        return null;
+                    }
+                });
+        DatabaseMetaData databaseMetaData = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        return resultSet;
+                    }
+                });
+
+        GenerationMetrics metrics = new GenerationMetrics();
+        GeneratorSession session = GeneratorSession.begin();
+        session.setMetrics(metrics);
+        try {
+            DatabaseMetaData measured = GenerationMetrics.measureCalls(DatabaseMetaData.class, databaseMetaData,
+                    GenerationMetrics.INTROSPECTION_METADATA, "");
+            ResultSet rs = measured.getColumns(null, null, "PKOnly", null);
+            while (rs.next()) {
+                rs.getString("COLUMN_NAME");
+            }
+            rs.close();
+        } finally {
+            session.end();
+        }
+
+        List<GenerationMetrics.Measurement> measurements = metrics.getMeasurements();
+        assertEquals(1, measurements.size());
+        assertEquals("getColumns", measurements.get(0).getName());
+        assertEquals(1, measurements.get(0).getCount());
+        assertTrue(measurements.get(0).getTotalNanos() >= 100000000L);
+        // the column getters are not measured
+        assertTrue(measurements.get(0).getTotalNanos() < 500000000L);
+    }
+
+    private static MyBatisGenerator generate(File directory) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        GeneratorTestSupport.setTargetProject(config, directory);
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        myBatisGenerator.setMetrics(new GenerationMetrics());
+        myBatisGenerator.generate(null);
+        return myBatisGenerator;
+    }
+}
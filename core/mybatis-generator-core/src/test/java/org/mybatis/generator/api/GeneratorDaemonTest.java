@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestSupport.createTempDirectory;
+import static org.mybatis.generator.GeneratorTestSupport.delete;
+import static org.mybatis.generator.GeneratorTestSupport.readFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.JavaCodeGenerationTest;
+import org.mybatis.generator.internal.GeneratorDaemonClient;
+
+public class GeneratorDaemonTest {
+
+    @Test
+    public void testDaemonRunsSubmittedJobs() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        File directory = createTempDirectory();
+        try {
+            String config = new String(Files.readAllBytes(
+                    new File(getClass().getResource("/scripts/generatorConfig.xml").toURI()).toPath()), "UTF-8");
+            Files.write(new File(directory, "generatorConfig.xml").toPath(),
+                    config.replace("\"MAVEN\"", "\"gen\"").getBytes("UTF-8"));
+            File targetDirectory = new File(directory, "gen");
+            targetDirectory.mkdirs();
+
+            File daemonFile = new File(directory, "daemon.properties");
+            Thread thread = startDaemon(daemonFile);
+
+            // relative names are resolved against the directory of the client
+            List<String> args = Arrays.asList("-configfile", "generatorConfig.xml", "-overwrite");
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(GeneratorDaemonClient.STATUS_OK,
+                        GeneratorDaemonClient.submit(daemonFile, args, directory, new PrintStream(out, true, "UTF-8")));
+                assertTrue(out.toString("UTF-8").contains("MyBatis Generator finished"));
+                assertFalse(out.toString("UTF-8").contains(GeneratorDaemonClient.STATUS_PREFIX));
+                Map<String, String> files = readFiles(targetDirectory);
+                assertFalse(files.isEmpty());
+
+                // the second job uses the cached configuration
+                delete(targetDirectory);
+                targetDirectory.mkdirs();
+                out.reset();
+                assertEquals(GeneratorDaemonClient.STATUS_OK,
+                        GeneratorDaemonClient.submit(daemonFile, args, directory, new PrintStream(out, true, "UTF-8")));
+                assertTrue(out.toString("UTF-8").contains("MyBatis Generator finished"));
+                assertEquals(files.keySet(), readFiles(targetDirectory).keySet());
+            } finally {
+                assertEquals(GeneratorDaemonClient.STATUS_OK,
+                        GeneratorDaemonClient.stop(daemonFile, new PrintStream(new ByteArrayOutputStream())));
+                thread.join(10000);
+            }
+
+            assertFalse(thread.isAlive());
+            assertFalse(daemonFile.exists());
+            assertEquals(GeneratorDaemonClient.NOT_RUNNING, GeneratorDaemonClient.submit(daemonFile, args, directory,
+                    new PrintStream(new ByteArrayOutputStream())));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testDaemonReportsFailedJobs() throws Exception {
+        File directory = createTempDirectory();
+        try {
+            File daemonFile = new File(directory, "daemon.properties");
+            Thread thread = startDaemon(daemonFile);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(GeneratorDaemonClient.STATUS_FAILED,
+                        GeneratorDaemonClient.submit(daemonFile, Arrays.asList("-configfile", "missing.xml"),
+                                directory, new PrintStream(out, true, "UTF-8")));
+                assertFalse(out.toString("UTF-8").isEmpty());
+                assertFalse(out.toString("UTF-8").contains(GeneratorDaemonClient.STATUS_PREFIX));
+            } finally {
+                GeneratorDaemonClient.stop(daemonFile, new PrintStream(new ByteArrayOutputStream()));
+                thread.join(10000);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static Thread startDaemon(File daemonFile) throws Exception {
+        final GeneratorDaemon daemon = new GeneratorDaemon(daemonFile, 0);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                daemon.run();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestSupport.createTempDirectory;
+import static org.mybatis.generator.GeneratorTestSupport.delete;
+import static org.mybatis.generator.GeneratorTestSupport.findFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.internal.util.messages.Messages;
+
+public class ShellRunnerTest {
+
+    private static final String DATABASE_URL = "jdbc:hsqldb:mem:watch";
+
+    @Test
+    public void testWatchRegeneratesChangedTables() throws Exception {
+        File directory = createTempDirectory();
+        execute("create table Watched (id int not null primary key, name varchar(20))");
+        try {
+            File configFile = new File(directory, "generatorConfig.xml");
+            Files.write(configFile.toPath(), createConfiguration(directory).getBytes("UTF-8"));
+            Map<String, String> arguments = ShellRunner.parseCommandLine(new String[] {
+                    "-configfile", configFile.getAbsolutePath(), "-overwrite", "-watch", "-watchInterval", "1" },
+                    new ArrayList<String>());
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final PrintStream printStream = new PrintStream(out, true, "UTF-8");
+            final Map<String, String> watchArguments = arguments;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ShellRunner.watch(watchArguments, printStream);
+                    } catch (InterruptedException e) {
+                        // stopped
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            try {
+                String watching = Messages.getString("Progress.23");
+                awaitOutput(out, watching, 1);
+                File model = findFile(directory, "Watched.java");
+                String content = new String(Files.readAllBytes(model.toPath()), "UTF-8");
+                assertFalse(content.contains("description"));
+
+                execute("alter table Watched add column description varchar(50)");
+                awaitOutput(out, watching, 2);
+
+                String output = out.toString("UTF-8");
+                assertTrue(output, output.contains(Messages.getString("Progress.25", "[PUBLIC.Watched]")));
+                assertFalse(output, output.contains(Messages.getString("Warning.32", model.getAbsolutePath())));
+                content = new String(Files.readAllBytes(model.toPath()), "UTF-8");
+                assertTrue(content.contains("private String description;"));
+            } finally {
+                thread.interrupt();
+                thread.join(10000);
+            }
+            assertFalse(thread.isAlive());
+        } finally {
+            execute("drop table Watched");
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testTablesWithoutFingerprintsAreNotPolled() {
+        Map<String, String> arguments = new HashMap<String, String>();
+        arguments.put("-configfile", "generatorConfig.xml");
+        Map<String, Map<String, String>> fingerprints = new HashMap<String, Map<String, String>>();
+        Map<String, String> unscoped = new HashMap<String, String>();
+        unscoped.put("Unscoped", null);
+        fingerprints.put("unscoped", unscoped);
+        assertNull(ShellRunner.getPollArguments(arguments, fingerprints));
+
+        Map<String, String> scoped = new HashMap<String, String>();
+        scoped.put("PUBLIC.Scoped", "{SCOPED=column=ID}");
+        scoped.put("Other", null);
+        fingerprints.put("scoped", scoped);
+        Map<String, String> pollArguments = ShellRunner.getPollArguments(arguments, fingerprints);
+        assertEquals("generatorConfig.xml", pollArguments.get("-configfile"));
+        assertEquals("scoped", pollArguments.get("-contextids"));
+        assertEquals("PUBLIC.Scoped", pollArguments.get("-tables"));
+    }
+
+    private static void awaitOutput(ByteArrayOutputStream out, String line, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 30000L;
+        while (countOccurrences(out.toString("UTF-8"), line) < count) {
+            assertTrue(out.toString("UTF-8"), System.currentTimeMillis() < deadline);
+            Thread.sleep(50L);
+        }
+    }
+
+    private static int countOccurrences(String s, String part) {
+        int count = 0;
+        int index = s.indexOf(part);
+        while (index != -1) {
+            count++;
+            index = s.indexOf(part, index + part.length());
+        }
+        return count;
+    }
+
+    private static void execute(String sql) throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+        try {
+            connection.createStatement().execute(sql);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static String createConfiguration(File directory) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE generatorConfiguration PUBLIC"
+                + " \"-//mybatis.org//DTD MyBatis Generator Configuration 1.0//EN\""
+                + " \"http://mybatis.org/dtd/mybatis-generator-config_1_0.dtd\">\n"
+                + "<generatorConfiguration>\n"
+                + "  <context id=\"watch\" targetRuntime=\"MyBatis3Simple\">\n"
+                + "    <jdbcConnection driverClass=\"org.hsqldb.jdbcDriver\" connectionURL=\"" + DATABASE_URL + "\""
+                + " userId=\"sa\"/>\n"
+                + "    <javaModelGenerator targetPackage=\"watch\" targetProject=\"" + directory.getAbsolutePath()
+                + "\"/>\n"
+                + "    <table schema=\"PUBLIC\" tableName=\"Watched\"/>\n"
+                + "  </context>\n"
+                + "</generatorConfiguration>\n";
+    }
+}
@@ -17,8 +17,11 @@ package org.mybatis.generator.api.dom.java;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -278,4 +281,57 @@ public class FullyQualifiedJavaTypeTest {
         assertTrue(fqjt.getImportList().contains("java.util.List"));
         assertFalse(fqjt.getImportList().contains("java.util.List[]"));
     }
+
+    @Test
+    public void testNamesAreRecalculatedWhenNestedTypeArgumentsAreAdded() {
+        FullyQualifiedJavaType list = FullyQualifiedJavaType.getNewListInstance();
+        FullyQualifiedJavaType map = FullyQualifiedJavaType.getNewMapInstance();
+        list.addTypeArgument(map);
+        assertEquals("List<Map>", list.getShortName());
+
+        map.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        map.addTypeArgument(new FullyQualifiedJavaType("com.foo.Bar"));
+        assertEquals("List<Map<String, Bar>>", list.getShortName());
+        assertEquals("java.util.List<java.util.Map<java.lang.String, com.foo.Bar>>", list.getFullyQualifiedName());
+        assertTrue(list.getImportList().contains("com.foo.Bar"));
+    }
+
+    @Test
+    public void testNamesAreKeptWhenUnrelatedTypeArgumentsAreAdded() {
+        FullyQualifiedJavaType list = FullyQualifiedJavaType.getNewListInstance();
+        list.addTypeArgument(new FullyQualifiedJavaType("com.foo.Bar"));
+        String shortName = list.getShortName();
+        String fullyQualifiedName = list.getFullyQualifiedName();
+
+        FullyQualifiedJavaType map = FullyQualifiedJavaType.getNewMapInstance();
+        map.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        assertSame(shortName, list.getShortName());
+        assertSame(fullyQualifiedName, list.getFullyQualifiedName());
+    }
+
+    @Test
+    public void testConstructedInstancesAreIndependent() {
+        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType("java.lang.Object");
+        assertNotSame(fqjt, new FullyQualifiedJavaType("java.lang.Object"));
+
+        fqjt.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        assertEquals("java.lang.Object<java.lang.String>", fqjt.getFullyQualifiedName());
+        assertEquals("java.lang.Object", FullyQualifiedJavaType.getObjectInstance().getFullyQualifiedName());
+        assertEquals("java.lang.Object", new FullyQualifiedJavaType("java.lang.Object").getFullyQualifiedName());
+    }
+
+    @Test
+    public void testSharedInstancesAreReused() {
+        assertSame(FullyQualifiedJavaType.getIntInstance(), FullyQualifiedJavaType.getIntInstance());
+        assertSame(FullyQualifiedJavaType.getStringInstance(), FullyQualifiedJavaType.getStringInstance());
+        assertNotSame(FullyQualifiedJavaType.getNewListInstance(), FullyQualifiedJavaType.getNewListInstance());
+    }
+
+    @Test
+    public void testImportListCanBeModified() {
+        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType("com.foo.Bar");
+        List<String> importList = fqjt.getImportList();
+        importList.add("com.foo.Baz");
+        assertEquals(1, fqjt.getImportList().size());
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ImportedTypesTest {
+
+    @Test
+    public void testImportStatementsAreNotRebuiltForUnchangedTypes() {
+        ImportedTypes importedTypes = new ImportedTypes();
+        importedTypes.add(new FullyQualifiedJavaType("java.util.List<com.foo.Bar>"));
+        importedTypes.add(new FullyQualifiedJavaType("java.util.Date"));
+
+        Set<String> importStatements = importedTypes.getImportStatements();
+        assertEquals(3, importStatements.size());
+        assertSame(importStatements, importedTypes.getImportStatements());
+    }
+
+    @Test
+    public void testImportStatementsAreRebuiltWhenATypeArgumentIsAdded() {
+        ImportedTypes importedTypes = new ImportedTypes();
+        FullyQualifiedJavaType map = FullyQualifiedJavaType.getNewMapInstance();
+        importedTypes.add(map);
+        Set<String> importStatements = importedTypes.getImportStatements();
+        assertEquals(1, importStatements.size());
+
+        map.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        map.addTypeArgument(new FullyQualifiedJavaType("com.foo.Bar"));
+        Set<String> rebuiltImportStatements = importedTypes.getImportStatements();
+        assertNotSame(importStatements, rebuiltImportStatements);
+        assertEquals(2, rebuiltImportStatements.size());
+        assertTrue(rebuiltImportStatements.contains("import com.foo.Bar;"));
+        assertSame(rebuiltImportStatements, importedTypes.getImportStatements());
+    }
+
+    @Test
+    public void testImportStatementsAreRebuiltWhenATypeIsRemoved() {
+        ImportedTypes importedTypes = new ImportedTypes();
+        importedTypes.add(new FullyQualifiedJavaType("java.util.Date"));
+        importedTypes.add(new FullyQualifiedJavaType("com.foo.Bar"));
+        assertEquals(2, importedTypes.getImportStatements().size());
+
+        Iterator<FullyQualifiedJavaType> iterator = importedTypes.iterator();
+        iterator.next();
+        iterator.remove();
+        Set<String> importStatements = importedTypes.getImportStatements();
+        assertEquals(1, importStatements.size());
+        assertTrue(importStatements.contains("import java.util.Date;"));
+    }
+}
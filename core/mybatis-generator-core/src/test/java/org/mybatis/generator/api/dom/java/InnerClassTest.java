@@ -185,4 +185,62 @@ public class InnerClassTest {
 
         assertEquals(excepted, clazz.getFormattedContent(0, null));
     }
+
+    @Test
+    public void testAddFormattedContentMatchesGetFormattedContent() {
+        InnerClass clazz = new InnerClass("com.foo.UserClass");
+        clazz.addField(new Field("test", FullyQualifiedJavaType.getStringInstance()));
+        clazz.addInitializationBlock(new InitializationBlock(true));
+        clazz.addMethod(new Method("method1"));
+        InnerClass innerClass = new InnerClass("InnerUserClass");
+        innerClass.addMethod(new Method("method2"));
+        clazz.addInnerClass(innerClass);
+        clazz.addInnerEnum(new InnerEnum(new FullyQualifiedJavaType("TestEnum")));
+
+        StringBuilder sb = new StringBuilder("prefix");
+        clazz.addFormattedContent(sb, 1, null);
+        assertEquals("prefix" + clazz.getFormattedContent(1, null), sb.toString());
+    }
+
+    @Test
+    public void testNestedSubclassesAreRenderedThroughTheirOverrides() {
+        InnerClass clazz = new InnerClass("com.foo.UserClass");
+        clazz.addField(new Field("test", FullyQualifiedJavaType.getStringInstance()) {
+            @Override
+            public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
+                return "    // field";
+            }
+        });
+        clazz.addMethod(new Method("method1") {
+            @Override
+            public String getFormattedContent(int indentLevel, boolean interfaceMethod,
+                    CompilationUnit compilationUnit) {
+                return "    // method";
+            }
+        });
+        clazz.addInnerClass(new InnerClass("InnerUserClass") {
+            @Override
+            public void addFormattedContent(StringBuilder sb, int indentLevel, CompilationUnit compilationUnit) {
+                sb.append("    // class");
+            }
+        });
+        clazz.addInnerEnum(new InnerEnum(new FullyQualifiedJavaType("TestEnum")) {
+            @Override
+            public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
+                return "    // enum";
+            }
+        });
+
+        String excepted = "class UserClass {" + LF
+                + "    // field" + LF
+                + "" + LF
+                + "    // method" + LF
+                + "" + LF
+                + "    // class" + LF
+                + "" + LF
+                + "    // enum" + LF
+                + "}";
+
+        assertEquals(excepted, clazz.getFormattedContent(0, null));
+    }
 }
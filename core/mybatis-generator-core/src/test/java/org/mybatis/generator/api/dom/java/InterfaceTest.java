@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -66,6 +67,23 @@ public class InterfaceTest {
         assertTrue(interfaze.getImportedTypes().contains(hashMap));
     }
 
+    @Test
+    public void testImportStatementsFollowChangesToImportedTypes() {
+
+        Interface interfaze = new Interface("com.foo.UserInterface");
+        FullyQualifiedJavaType list = FullyQualifiedJavaType.getNewListInstance();
+        interfaze.addImportedType(list);
+        interfaze.getImportedTypes().add(new FullyQualifiedJavaType("com.bar.Generated"));
+        assertTrue(interfaze.getFormattedContent().contains("import com.bar.Generated;"
+                + System.getProperty("line.separator") + "import java.util.List;"));
+
+        list.addTypeArgument(new FullyQualifiedJavaType("com.baz.Record"));
+        assertTrue(interfaze.getFormattedContent().contains("import com.baz.Record;"));
+
+        interfaze.getImportedTypes().clear();
+        assertFalse(interfaze.getFormattedContent().contains("import "));
+    }
+
     @Test
     public void testAddFileCommentLine() {
 
@@ -233,4 +233,35 @@ public class MethodTest {
 
         assertEquals(excepted, method.getFormattedContent(0, false, null));
     }
+
+    @Test
+    public void testAddFormattedContentMatchesGetFormattedContent() {
+        Method method = new Method("foo");
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addTypeParameter(new TypeParameter("T"));
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("T"), "t"));
+        method.addBodyLine("if (t == null) {");
+        method.addBodyLine("return;");
+        method.addBodyLine("}");
+
+        StringBuilder sb = new StringBuilder("prefix");
+        method.addFormattedContent(sb, 1, false, null);
+        assertEquals("prefix" + method.getFormattedContent(1, false, null), sb.toString());
+    }
+
+    @Test
+    public void testParameterSubclassIsRenderedThroughItsOverride() {
+        Method method = new Method("foo");
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "i") {
+            @Override
+            public String getFormattedContent(CompilationUnit compilationUnit) {
+                return "int... i";
+            }
+        });
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "j"));
+
+        String excepted = "abstract void foo(int... i, int j);";
+
+        assertEquals(excepted, method.getFormattedContent(0, false, null));
+    }
 }
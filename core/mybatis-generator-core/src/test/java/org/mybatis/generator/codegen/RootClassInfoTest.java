@@ -0,0 +1,186 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.internal.GeneratorSession;
+import org.mybatis.generator.internal.ObjectFactory;
+
+public class RootClassInfoTest {
+
+    private static final String BASE_WITH_A = "package rootclass; public class Base {"
+            + " public String getA() { return null; } public void setA(String a) { } }";
+
+    private static final String BASE_WITH_A_AND_B = "package rootclass; public class Base {"
+            + " public String getA() { return null; } public void setA(String a) { }"
+            + " public String getB() { return null; } public void setB(String b) { } }";
+
+    private static final String ROOT = "package rootclass; public class Root extends Base { }";
+
+    private static final String ROOT_WITH_B = "package rootclass; public class Root extends Base {"
+            + " public String getB() { return null; } public void setB(String b) { } }";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        RootClassInfo.reset();
+        directory = GeneratorTestSupport.createTempDirectory();
+    }
+
+    @After
+    public void tearDown() {
+        RootClassInfo.reset();
+        GeneratorTestSupport.delete(directory);
+    }
+
+    @Test
+    public void testUnchangedClassFilesAreNotIntrospectedAgain() throws Exception {
+        compile("Base", BASE_WITH_A);
+        compile("Root", ROOT);
+        assertProperties(true, false);
+
+        // new class files with the old timestamps look unchanged, so the cached properties are kept
+        long baseTimestamp = classFile("Base").lastModified();
+        long rootTimestamp = classFile("Root").lastModified();
+        compile("Base", BASE_WITH_A_AND_B);
+        compile("Root", ROOT);
+        assertTrue(classFile("Base").setLastModified(baseTimestamp));
+        assertTrue(classFile("Root").setLastModified(rootTimestamp));
+        assertProperties(true, false);
+    }
+
+    @Test
+    public void testChangedClassIsIntrospectedAgain() throws Exception {
+        compile("Base", BASE_WITH_A);
+        compile("Root", ROOT);
+        assertProperties(true, false);
+
+        compile("Root", ROOT_WITH_B);
+        touch("Root");
+        assertProperties(true, true);
+    }
+
+    @Test
+    public void testChangedSuperclassIsIntrospectedAgain() throws Exception {
+        compile("Base", BASE_WITH_A);
+        compile("Root", ROOT);
+        assertProperties(true, false);
+
+        long rootTimestamp = classFile("Root").lastModified();
+        compile("Base", BASE_WITH_A_AND_B);
+        touch("Base");
+        assertEquals(rootTimestamp, classFile("Root").lastModified());
+        assertProperties(true, true);
+    }
+
+    @Test
+    public void testFailedLookupIsRememberedForTheSession() throws Exception {
+        GeneratorSession session = GeneratorSession.begin();
+        try {
+            List<String> warnings = new ArrayList<String>();
+            RootClassInfo rootClassInfo = RootClassInfo.getInstance("rootclass.Root", warnings);
+            assertFalse(rootClassInfo.containsProperty(createColumn("a")));
+            assertEquals(1, warnings.size());
+
+            warnings.clear();
+            RootClassInfo.getInstance("rootclass.Root", warnings);
+            assertTrue(warnings.isEmpty());
+        } finally {
+            session.end();
+        }
+
+        // the failure does not carry over to the next session
+        compile("Base", BASE_WITH_A);
+        compile("Root", ROOT);
+        assertProperties(true, false);
+    }
+
+    /**
+     * Checks the properties of the root class in a new session, with a new class loader - as a new generation run
+     * would.
+     */
+    private void assertProperties(boolean a, boolean b) throws Exception {
+        GeneratorSession session = GeneratorSession.begin();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, null);
+        try {
+            ObjectFactory.addExternalClassLoader(classLoader);
+            List<String> warnings = new ArrayList<String>();
+            RootClassInfo rootClassInfo = RootClassInfo.getInstance("rootclass.Root", warnings);
+            assertEquals(a, rootClassInfo.containsProperty(createColumn("a")));
+            assertEquals(b, rootClassInfo.containsProperty(createColumn("b")));
+            assertTrue(warnings.isEmpty());
+        } finally {
+            session.end();
+            classLoader.close();
+        }
+    }
+
+    private IntrospectedColumn createColumn(String javaProperty) {
+        IntrospectedColumn introspectedColumn = new IntrospectedColumn();
+        introspectedColumn.setJavaProperty(javaProperty);
+        introspectedColumn.setFullyQualifiedJavaType(FullyQualifiedJavaType.getStringInstance());
+        return introspectedColumn;
+    }
+
+    private void compile(String className, String source) throws Exception {
+        File sourceDirectory = new File(directory, "src");
+        assertTrue(sourceDirectory.isDirectory() || sourceDirectory.mkdirs());
+        File sourceFile = new File(sourceDirectory, className + ".java");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), "UTF-8");
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-d", directory.getAbsolutePath(),
+                "-classpath", directory.getAbsolutePath(), sourceFile.getAbsolutePath());
+        assertEquals(0, result);
+        assertFalse(classFile(className).lastModified() == 0L);
+    }
+
+    private void touch(String className) {
+        File classFile = classFile(className);
+        assertTrue(classFile.setLastModified(classFile.lastModified() + 10000L));
+    }
+
+    private File classFile(String className) {
+        return new File(directory, "rootclass/" + className + ".class");
+    }
+}
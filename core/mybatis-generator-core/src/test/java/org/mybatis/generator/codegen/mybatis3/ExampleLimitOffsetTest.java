@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+
+import com.github.javaparser.JavaParser;
+
+public class ExampleLimitOffsetTest {
+
+    @Test
+    public void testExampleLimitOffsetUsesContextDialect() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        for (Context context : config.getContexts()) {
+            if ("FlatJava5".equals(context.getId())) {
+                context.addProperty(PropertyRegistry.CONTEXT_DIALECT, "SqlServer");
+            } else if ("FlatJava5_Annotated".equals(context.getId())) {
+                context.addProperty(PropertyRegistry.CONTEXT_DIALECT, "PostgreSQL");
+            }
+        }
+        MyBatisGenerator myBatisGenerator = GeneratorTestSupport.generate(config, warnings);
+
+        Map<String, String> files = new TreeMap<String, String>();
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            JavaParser.parse(gjf.getFormattedContent());
+            if ("PkfieldsExample.java".equals(gjf.getFileName())
+                    || "PkfieldsSqlProvider.java".equals(gjf.getFileName())) {
+                files.put(gjf.getTargetPackage() + "." + gjf.getFileName(), gjf.getFormattedContent());
+            }
+        }
+
+        assertTrue(files.get("mbg.test.mb3.generated.flat.model.PkfieldsExample.java").contains(
+                "public void setLimit(Integer limit) {"));
+        assertFalse(files.get("mbg.test.mb3.generated.hierarchical.model.PkfieldsExample.java").contains(
+                "setLimit"));
+        assertTrue(files.get("mbg.test.mb3.generated.annotated.flat.mapper.PkfieldsSqlProvider.java").contains(
+                "sb.append(\" limit #{limit,jdbcType=INTEGER} offset #{offset,jdbcType=INTEGER}\");"));
+        assertFalse(files.get("mbg.test.mb3.generated.annotated.hierarchical.mapper.PkfieldsSqlProvider.java")
+                .contains("getLimit()"));
+
+        boolean found = false;
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            if ("mbg.test.mb3.generated.flat.xml".equals(gxf.getTargetPackage())
+                    && "PkfieldsMapper.xml".equals(gxf.getFileName())) {
+                String content = gxf.getFormattedContent();
+                assertTrue(content.contains("order by (select null)"));
+                assertTrue(content.contains(
+                        "offset #{offset,jdbcType=INTEGER} rows fetch next #{limit,jdbcType=INTEGER} rows only"));
+                assertTrue(content.contains("offset #{offset,jdbcType=INTEGER} rows"
+                        + System.getProperty("line.separator")));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+
+import com.github.javaparser.JavaParser;
+
+public class InsertBatchTest {
+
+    @Test
+    public void testInsertBatchIsGeneratedForEveryRuntime() throws Exception {
+        MyBatisGenerator myBatisGenerator = generate("100");
+
+        Set<String> packages = new HashSet<String>();
+        boolean foundLimitComment = false;
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            String content = gjf.getFormattedContent();
+            JavaParser.parse(content);
+            if (content.contains("int insertBatch(List<")) {
+                assertTrue(content.contains("int INSERT_BATCH_MAX_ROWS = 100;"));
+                packages.add(gjf.getTargetPackage());
+                foundLimitComment |= content.contains("listWithinInsertBatchMaxRows evaluated to a null value");
+            }
+            if (content.contains("\"<script>\",")) {
+                assertTrue(content.contains(
+                        "\"<bind name=\\\"listWithinInsertBatchMaxRows\\\" value=\\\"list.size() > 100 ? null : list\\\" />\","));
+                assertTrue(content.contains(
+                        "\"<foreach collection=\\\"listWithinInsertBatchMaxRows\\\" item=\\\"record\\\" separator=\\\",\\\">\","));
+            }
+        }
+        assertTrue(foundLimitComment);
+        assertTrue(packages.contains("mbg.test.mb3.generated.flat.mapper"));
+        assertTrue(packages.contains("mbg.test.mb3.generated.annotated.flat.mapper"));
+        assertTrue(packages.contains("mbg.test.mb3.generated.mixed.flat.mapper"));
+
+        boolean foundGeneratedKeys = false;
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            String content = gxf.getFormattedContent();
+            int index = content.indexOf("<insert id=\"insertBatch\"");
+            if (index != -1) {
+                assertTrue(content.contains(
+                        "<bind name=\"listWithinInsertBatchMaxRows\" value=\"list.size() > 100 ? null : list\" />"));
+                assertTrue(content.contains(
+                        "<foreach collection=\"listWithinInsertBatchMaxRows\" item=\"record\" separator=\",\">"));
+                String element = content.substring(index, content.indexOf('>', index));
+                foundGeneratedKeys |= element.contains("useGeneratedKeys=\"true\"");
+            }
+        }
+        assertTrue(foundGeneratedKeys);
+    }
+
+    @Test
+    public void testInsertBatchWithoutMaxRowsAcceptsAnyList() throws Exception {
+        MyBatisGenerator myBatisGenerator = generate(null);
+
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            String content = gjf.getFormattedContent();
+            assertFalse(content.contains("INSERT_BATCH_MAX_ROWS"));
+            assertFalse(content.contains("<bind"));
+        }
+
+        boolean foundInsertBatch = false;
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            String content = gxf.getFormattedContent();
+            if (content.contains("<insert id=\"insertBatch\"")) {
+                foundInsertBatch = true;
+                assertFalse(content.contains("listWithinInsertBatchMaxRows"));
+                assertTrue(content.contains("<foreach collection=\"list\" item=\"record\" separator=\",\">"));
+            }
+        }
+        assertTrue(foundInsertBatch);
+    }
+
+    private static MyBatisGenerator generate(String maxRows) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        for (Context context : config.getContexts()) {
+            if ("FlatJava5_Mixed".equals(context.getId())) {
+                context.setTargetRuntime("MyBatis3DynamicSql");
+            }
+            for (TableConfiguration tc : context.getTableConfigurations()) {
+                tc.addProperty(PropertyRegistry.TABLE_ENABLE_INSERT_BATCH, "true");
+                if (maxRows != null) {
+                    tc.addProperty(PropertyRegistry.TABLE_INSERT_BATCH_MAX_ROWS, maxRows);
+                }
+            }
+        }
+        return GeneratorTestSupport.generate(config, warnings);
+    }
+}
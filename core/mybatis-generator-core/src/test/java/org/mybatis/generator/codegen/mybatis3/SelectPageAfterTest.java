@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+
+import com.github.javaparser.JavaParser;
+
+public class SelectPageAfterTest {
+
+    @Test
+    public void testSelectPageAfterUsesContextDialect() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        for (Context context : config.getContexts()) {
+            if ("FlatJava5".equals(context.getId())) {
+                context.addProperty(PropertyRegistry.CONTEXT_DIALECT, "MySQL");
+            }
+            for (TableConfiguration tc : context.getTableConfigurations()) {
+                tc.addProperty(PropertyRegistry.TABLE_ENABLE_SELECT_PAGE_AFTER, "true");
+            }
+        }
+        MyBatisGenerator myBatisGenerator = GeneratorTestSupport.generate(config, warnings);
+
+        Map<String, String> mappers = new TreeMap<String, String>();
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            JavaParser.parse(gjf.getFormattedContent());
+            if ("PkfieldsMapper.java".equals(gjf.getFileName())) {
+                mappers.put(gjf.getTargetPackage(), gjf.getFormattedContent());
+            }
+        }
+
+        assertTrue(mappers.get("mbg.test.mb3.generated.flat.mapper").contains(
+                "List<Pkfields> selectPageAfter(@Param(\"lastKey\") Pkfields lastKey, @Param(\"limit\") int limit);"));
+        assertTrue(mappers.get("mbg.test.mb3.generated.hierarchical.mapper").contains(
+                "List<Pkfields> selectPageAfter(@Param(\"lastKey\") PkfieldsKey lastKey, @Param(\"limit\") int limit);"));
+
+        String mapper = mappers.get("mbg.test.mb3.generated.annotated.flat.mapper");
+        assertTrue(mapper.contains("\"where ((B.ID2 > #{lastKey.id2,jdbcType=INTEGER}) or "
+                + "(B.ID2 = #{lastKey.id2,jdbcType=INTEGER} and B.ID1 > #{lastKey.id1,jdbcType=INTEGER}))\","));
+        assertTrue(mapper.contains("\"fetch first #{limit,jdbcType=INTEGER} rows only\","));
+
+        boolean found = false;
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            if ("mbg.test.mb3.generated.flat.xml".equals(gxf.getTargetPackage())
+                    && "PkfieldsMapper.xml".equals(gxf.getFileName())) {
+                String content = gxf.getFormattedContent();
+                assertTrue(content.contains("where (B.ID2, B.ID1) > "
+                        + "(#{lastKey.id2,jdbcType=INTEGER}, #{lastKey.id1,jdbcType=INTEGER})"));
+                assertTrue(content.contains("order by B.ID2, B.ID1"));
+                assertTrue(content.contains("limit #{limit,jdbcType=INTEGER}"));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.JavaCodeGenerationTest;
+import org.mybatis.generator.api.ThreadSafe;
+import org.mybatis.generator.internal.DefaultCommentGenerator;
+import org.mybatis.generator.plugins.ToStringPlugin;
+
+public class ContextTest {
+
+    @Test
+    public void testParallelGenerationMatchesSerialGeneration() throws Exception {
+        List<String> serialWarnings = new ArrayList<String>();
+        Map<String, String> serialFiles = generate(serialWarnings, "1", null, null);
+
+        List<String> parallelWarnings = new ArrayList<String>();
+        Map<String, String> parallelFiles = generate(parallelWarnings, "4", null, null);
+
+        assertFalse(serialFiles.isEmpty());
+        assertEquals(serialFiles, parallelFiles);
+        assertEquals(serialWarnings, parallelWarnings);
+    }
+
+    @Test
+    public void testSubclassOfThreadSafeCommentGeneratorIsNotThreadSafe() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        generate(warnings, "4", ExtendedCommentGenerator.class, null);
+        assertTrue(warnings.toString(), containsWarningFor(warnings, ExtendedCommentGenerator.class));
+
+        warnings = new ArrayList<String>();
+        generate(warnings, "4", DeclaredCommentGenerator.class, null);
+        assertFalse(warnings.toString(), containsWarningFor(warnings, DeclaredCommentGenerator.class));
+    }
+
+    @Test
+    public void testSubclassOfThreadSafePluginIsNotThreadSafe() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        generate(warnings, "4", null, ExtendedToStringPlugin.class);
+        assertTrue(warnings.toString(), containsWarningFor(warnings, ExtendedToStringPlugin.class));
+
+        warnings = new ArrayList<String>();
+        generate(warnings, "4", null, DeclaredToStringPlugin.class);
+        assertFalse(warnings.toString(), containsWarningFor(warnings, DeclaredToStringPlugin.class));
+    }
+
+    @Test
+    public void testSchemaFingerprintsChangeWithTheTables() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5");
+        Context context = config.getContexts().get(0);
+        try {
+            // without a schema every table of the database would be read
+            assertTrue(context.readSchemaFingerprints(warnings, null).containsKey("PKOnly"));
+            assertNull(context.readSchemaFingerprints(warnings, null).get("PKOnly"));
+
+            GeneratorTestSupport.setSchema(config, "PUBLIC");
+            Map<String, String> fingerprints = context.readSchemaFingerprints(warnings, null);
+            assertNotNull(fingerprints.get("PUBLIC.PKOnly"));
+            assertEquals(fingerprints, context.readSchemaFingerprints(warnings, null));
+
+            Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+            try {
+                connection.createStatement().execute("alter table PKOnly add column newcol int");
+            } finally {
+                connection.close();
+            }
+
+            Map<String, String> changedFingerprints = context.readSchemaFingerprints(warnings, null);
+            assertFalse(fingerprints.get("PUBLIC.PKOnly").equals(changedFingerprints.get("PUBLIC.PKOnly")));
+            assertEquals(fingerprints.get("PUBLIC.PKFields"), changedFingerprints.get("PUBLIC.PKFields"));
+        } finally {
+            JavaCodeGenerationTest.createDatabase();
+        }
+    }
+
+    private boolean containsWarningFor(List<String> warnings, Class<?> type) {
+        for (String warning : warnings) {
+            if (warning.startsWith(type.getName() + " ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, String> generate(List<String> warnings, String generationThreads,
+            Class<?> commentGeneratorType, Class<?> pluginType) throws Exception {
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5");
+        GeneratorTestSupport.addContextProperty(config, PropertyRegistry.CONTEXT_GENERATION_THREADS,
+                generationThreads);
+        Context context = config.getContexts().get(0);
+        if (commentGeneratorType != null) {
+            context.getCommentGeneratorConfiguration().setConfigurationType(commentGeneratorType.getName());
+        }
+        if (pluginType != null) {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(pluginType.getName());
+            context.addPluginConfiguration(pluginConfiguration);
+        }
+        return GeneratorTestSupport.getGeneratedContents(GeneratorTestSupport.generate(config, warnings));
+    }
+
+    public static class ExtendedCommentGenerator extends DefaultCommentGenerator {
+    }
+
+    public static class DeclaredCommentGenerator extends DefaultCommentGenerator implements ThreadSafe {
+    }
+
+    public static class ExtendedToStringPlugin extends ToStringPlugin {
+    }
+
+    public static class DeclaredToStringPlugin extends ToStringPlugin implements ThreadSafe {
+    }
+}
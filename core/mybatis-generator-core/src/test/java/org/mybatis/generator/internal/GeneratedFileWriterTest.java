@@ -0,0 +1,231 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.exception.ShellException;
+
+public class GeneratedFileWriterTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    public void testParallelWritingMatchesSerialWriting() throws Exception {
+        File serialDirectory = GeneratorTestSupport.createTempDirectory();
+        File parallelDirectory = GeneratorTestSupport.createTempDirectory();
+        try {
+            List<String> serialWarnings = new ArrayList<String>();
+            write(serialDirectory, 1, serialWarnings);
+
+            List<String> parallelWarnings = new ArrayList<String>();
+            write(parallelDirectory, THREADS, parallelWarnings);
+
+            Map<String, String> serialFiles = GeneratorTestSupport.readFiles(serialDirectory);
+            assertFalse(serialFiles.isEmpty());
+            assertEquals(serialFiles, GeneratorTestSupport.readFiles(parallelDirectory));
+            assertEquals(serialWarnings, parallelWarnings);
+
+            // the second run merges the XML files and overwrites the Java files
+            write(parallelDirectory, THREADS, new ArrayList<String>());
+            assertEquals(serialFiles, GeneratorTestSupport.readFiles(parallelDirectory));
+        } finally {
+            GeneratorTestSupport.delete(serialDirectory);
+            GeneratorTestSupport.delete(parallelDirectory);
+        }
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotWritten() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            write(directory, 1, new ArrayList<String>());
+            File javaFile = GeneratorTestSupport.findFile(directory, ".java");
+            File xmlFile = GeneratorTestSupport.findFile(directory, ".xml");
+            javaFile.setLastModified(1000L);
+            xmlFile.setLastModified(1000L);
+
+            MyBatisGenerator myBatisGenerator = write(directory, 2, true, new ArrayList<String>());
+            assertFalse(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+            assertEquals(1000L, javaFile.lastModified());
+            assertEquals(1000L, xmlFile.lastModified());
+
+            write(directory, 1, new ArrayList<String>());
+            assertTrue(javaFile.lastModified() > 1000L);
+            assertTrue(xmlFile.lastModified() > 1000L);
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testShellCallbackIsOnlyCalledOnTheCallingThread() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            RecordingShellCallback shellCallback = new RecordingShellCallback();
+            List<String> warnings = new ArrayList<String>();
+            for (int i = 0; i < 2; i++) {
+                GeneratedFileWriter writer = new GeneratedFileWriter(shellCallback, THREADS);
+                writer.writeFiles(createXmlFiles(directory, 20, null), Collections.<GeneratedJavaFile> emptyList(),
+                        new NullProgressCallback(), warnings);
+            }
+
+            // the second run overwrites every file
+            assertEquals(20, warnings.size());
+            assertEquals(Collections.singleton(Thread.currentThread()), shellCallback.threads);
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testFilesAreFormattedOnlyWhenFewFilesWait() throws Exception {
+        final File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            final List<String> startedTasks = new ArrayList<String>();
+            GeneratedFileWriter writer = new GeneratedFileWriter(new DefaultShellCallback(true), THREADS);
+            writer.writeFiles(createXmlFiles(directory, 50, startedTasks),
+                    Collections.<GeneratedJavaFile> emptyList(), new NullProgressCallback() {
+                        @Override
+                        public void startTask(String taskName) {
+                            String fileName = taskName.substring(taskName.lastIndexOf(' ') + 1);
+                            assertNull(GeneratorTestSupport.findFile(directory, fileName));
+                            startedTasks.add(fileName);
+                        }
+                    }, new ArrayList<String>());
+
+            assertEquals(50, startedTasks.size());
+            assertEquals(50, writer.getTargetFiles().size());
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testProgressNamesTheUniqueFileName() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        try {
+            final List<String> startedTasks = new ArrayList<String>();
+            for (int i = 0; i < 2; i++) {
+                GeneratedFileWriter writer = new GeneratedFileWriter(new DefaultShellCallback(false), THREADS);
+                writer.writeFiles(createXmlFiles(directory, 2, null), Collections.<GeneratedJavaFile> emptyList(),
+                        new NullProgressCallback() {
+                            @Override
+                            public void startTask(String taskName) {
+                                startedTasks.add(taskName);
+                            }
+                        }, new ArrayList<String>());
+            }
+
+            // the second run may not overwrite the files, so it writes them with unique names
+            assertEquals(Arrays.asList("Saving file File0.xml", "Saving file File1.xml",
+                    "Saving file File0.xml.1", "Saving file File1.xml.1"), startedTasks);
+            assertNotNull(GeneratorTestSupport.findFile(directory, "File1.xml.1"));
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    /**
+     * Creates XML files that check, when they are formatted, that the progress tasks of the earlier files have
+     * started and that only a few earlier files have not been written yet.
+     */
+    private List<GeneratedXmlFile> createXmlFiles(final File directory, int count,
+            final List<String> startedTasks) {
+        List<GeneratedXmlFile> answer = new ArrayList<GeneratedXmlFile>();
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final String fileName = "File" + i + ".xml";
+            Document document = new Document();
+            document.setRootElement(new XmlElement("root"));
+            answer.add(new GeneratedXmlFile(document, fileName, "test", directory.getPath(), false, null) {
+                @Override
+                public String getFormattedContent() {
+                    if (startedTasks != null) {
+                        // the progress task starts when the file to write has been chosen
+                        assertEquals(index, startedTasks.size());
+                        File[] written = new File(directory, "test").listFiles();
+                        assertTrue(index - (written == null ? 0 : written.length) <= THREADS * 2);
+                    }
+                    return "<root>" + index + "</root>";
+                }
+            });
+        }
+        return answer;
+    }
+
+    private MyBatisGenerator write(File directory, int writeThreads, List<String> warnings) throws Exception {
+        return write(directory, writeThreads, false, warnings);
+    }
+
+    private MyBatisGenerator write(File directory, int writeThreads, boolean skipUnchangedFiles,
+            List<String> warnings) throws Exception {
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5", "miscellaneousTests");
+        GeneratorTestSupport.setTargetProject(config, directory);
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        myBatisGenerator.setWriteThreads(writeThreads);
+        myBatisGenerator.setSkipUnchangedFiles(skipUnchangedFiles);
+        myBatisGenerator.generate(null);
+        return myBatisGenerator;
+    }
+
+    private static class RecordingShellCallback extends DefaultShellCallback {
+        private Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+        RecordingShellCallback() {
+            super(true);
+        }
+
+        @Override
+        public File getDirectory(String targetProject, String targetPackage) throws ShellException {
+            threads.add(Thread.currentThread());
+            return super.getDirectory(targetProject, targetPackage);
+        }
+
+        @Override
+        public boolean isMergeSupported() {
+            threads.add(Thread.currentThread());
+            return super.isMergeSupported();
+        }
+
+        @Override
+        public boolean isOverwriteEnabled() {
+            threads.add(Thread.currentThread());
+            return super.isOverwriteEnabled();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+
+public class GenerationManifestTest {
+
+    @Test
+    public void testIncrementalGenerationSkipsUnchangedTables() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        File manifest = new File(directory, "manifest.bin");
+        try {
+            List<String> warnings = new ArrayList<String>();
+            MyBatisGenerator myBatisGenerator = createGenerator(directory, warnings);
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.generate(null);
+            assertTrue(manifest.isFile());
+            int fileCount = myBatisGenerator.getGeneratedJavaFiles().size();
+            assertTrue(fileCount > 0);
+
+            warnings.clear();
+            myBatisGenerator.generate(null);
+            assertTrue(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+            assertTrue(myBatisGenerator.getGeneratedXmlFiles().isEmpty());
+
+            // a removed table is no longer generated, and its files are reported as stale
+            warnings.clear();
+            Configuration config = createConfiguration(directory, warnings);
+            config.getContexts().get(0).getTableConfigurations().remove(0);
+            myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.generate(null);
+            assertTrue(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+            int staleFiles = 0;
+            for (String warning : warnings) {
+                if (warning.contains("is no longer generated")) {
+                    staleFiles++;
+                }
+            }
+            assertTrue(staleFiles > 0);
+
+            // deleted files are generated again
+            GeneratorTestSupport.delete(new File(directory, "mbg"));
+            warnings.clear();
+            myBatisGenerator = createGenerator(directory, warnings);
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.generate(null);
+            assertEquals(fileCount, myBatisGenerator.getGeneratedJavaFiles().size());
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testManifestStateIsNotKeptBetweenRuns() throws Exception {
+        File directory = GeneratorTestSupport.createTempDirectory();
+        File manifest = new File(directory, "manifest.bin");
+        try {
+            List<String> warnings = new ArrayList<String>();
+            MyBatisGenerator myBatisGenerator = createGenerator(directory, warnings);
+            myBatisGenerator.generate(null);
+            int javaFileCount = myBatisGenerator.getGeneratedJavaFiles().size();
+            int xmlFileCount = myBatisGenerator.getGeneratedXmlFiles().size();
+
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.generate(null);
+            myBatisGenerator.generate(null);
+            assertTrue(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+
+            // the same contexts generate every file again once the manifest is not used
+            myBatisGenerator.setIncrementalManifest(null);
+            myBatisGenerator.generate(null);
+            assertEquals(javaFileCount, myBatisGenerator.getGeneratedJavaFiles().size());
+            assertEquals(xmlFileCount, myBatisGenerator.getGeneratedXmlFiles().size());
+        } finally {
+            GeneratorTestSupport.delete(directory);
+        }
+    }
+
+    @Test
+    public void testManifestIsReadBack() throws Exception {
+        File file = File.createTempFile("mbg", ".manifest");
+        try {
+            GenerationManifest manifest = new GenerationManifest(file);
+            manifest.startTable("table", "fingerprint");
+            manifest.update(new HashMap<GeneratedFile, File>());
+            manifest.save();
+
+            GenerationManifest loaded = new GenerationManifest(file);
+            loaded.load();
+            assertTrue(loaded.isUnchanged("table", "fingerprint"));
+            assertFalse(loaded.isUnchanged("table", "other fingerprint"));
+            assertFalse(loaded.isStarted("table"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testGeneratorVersionIsNeverNull() {
+        assertNotNull(GenerationManifest.getGeneratorVersion());
+    }
+
+    private MyBatisGenerator createGenerator(File directory, List<String> warnings) throws Exception {
+        return new MyBatisGenerator(createConfiguration(directory, warnings), new DefaultShellCallback(true),
+                warnings);
+    }
+
+    private Configuration createConfiguration(File directory, List<String> warnings) throws Exception {
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5", "miscellaneousTests");
+        GeneratorTestSupport.setTargetProject(config, directory);
+        return config;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.config.Configuration;
+
+public class GeneratorSessionTest {
+
+    @Test
+    public void testSessionIsNotInheritedByNewThreads() throws Exception {
+        final AtomicReference<GeneratorSession> threadSession = new AtomicReference<GeneratorSession>();
+        GeneratorSession global = GeneratorSession.getCurrent();
+        GeneratorSession session = GeneratorSession.begin();
+        try {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    threadSession.set(GeneratorSession.getCurrent());
+                }
+            };
+            thread.start();
+            thread.join();
+        } finally {
+            session.end();
+        }
+
+        assertNotSame(session, threadSession.get());
+        assertSame(global, threadSession.get());
+        assertSame(global, GeneratorSession.getCurrent());
+    }
+
+    @Test
+    public void testWrappedTasksRunInTheSession() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        GeneratorSession session = GeneratorSession.begin();
+        try {
+            Callable<GeneratorSession> getCurrent = new Callable<GeneratorSession>() {
+                @Override
+                public GeneratorSession call() {
+                    return GeneratorSession.getCurrent();
+                }
+            };
+
+            assertSame(session, executorService.submit(session.wrap(getCurrent)).get());
+            // the pool thread does not keep the session after the task
+            assertNotSame(session, executorService.submit(getCurrent).get());
+        } finally {
+            session.end();
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentGeneratorsMatchSerialGeneration() throws Exception {
+        List<String> serialWarnings = new ArrayList<String>();
+        Map<String, String> serialFiles = GeneratorTestSupport.getGeneratedContents(
+                GeneratorTestSupport.generate(GeneratorTestSupport.createConfiguration(serialWarnings),
+                        serialWarnings));
+
+        List<Callable<Map<String, String>>> runs = new ArrayList<Callable<Map<String, String>>>();
+        for (int i = 0; i < 4; i++) {
+            final List<String> warnings = new ArrayList<String>();
+            final Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+            runs.add(new Callable<Map<String, String>>() {
+                @Override
+                public Map<String, String> call() throws Exception {
+                    return GeneratorTestSupport.getGeneratedContents(GeneratorTestSupport.generate(config, warnings));
+                }
+            });
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(runs.size());
+        try {
+            for (Future<Map<String, String>> future : executorService.invokeAll(runs)) {
+                assertEquals(serialFiles, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ObjectFactoryTest {
+
+    @Test
+    public void testSessionsDoNotShareResolvedClasses() throws Exception {
+        GeneratorSession first = GeneratorSession.begin();
+        try {
+            assertSame(String.class, ObjectFactory.externalClassForName("java.lang.String"));
+            assertFalse(first.getClassLoaders().get().externalClasses.isEmpty());
+        } finally {
+            first.end();
+        }
+
+        GeneratorSession second = GeneratorSession.begin();
+        try {
+            assertTrue(second.getClassLoaders().get().externalClasses.isEmpty());
+        } finally {
+            second.end();
+        }
+    }
+
+    @Test
+    public void testResetDiscardsResolvedClasses() throws Exception {
+        GeneratorSession session = GeneratorSession.begin();
+        try {
+            ObjectFactory.addExternalClassLoader(getClass().getClassLoader());
+            assertSame(String.class, ObjectFactory.externalClassForName("java.lang.String"));
+            ObjectFactory.createInternalObject(DefaultCommentGenerator.class.getName());
+            ObjectFactory.reset();
+
+            ObjectFactory.ClassLoaders classLoaders = session.getClassLoaders().get();
+            assertTrue(classLoaders.classLoaders.isEmpty());
+            assertTrue(classLoaders.externalClasses.isEmpty());
+            assertTrue(classLoaders.internalClasses.isEmpty());
+            assertTrue(classLoaders.constructors.isEmpty());
+        } finally {
+            session.end();
+        }
+    }
+}
@@ -67,6 +67,44 @@ public class XmlFileMergerTest {
         assertEquals(generatedFile1.getFormattedContent(), mergedSource);
     }
 
+    @Test
+    public void testThatUserElementsAreKeptAndGeneratedElementsAreReplaced() throws Exception {
+        String header = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+                + "\"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n";
+        String newFile = header
+                + "<mapper namespace=\"new\">\n"
+                + "  <select id=\"generated\">\n"
+                + "    <!-- @mbg.generated -->\n"
+                + "    select 2\n"
+                + "  </select>\n"
+                + "</mapper>\n";
+        String existingFile = header
+                + "<mapper namespace=\"old\">\n"
+                + "  <select id=\"generated\">\n"
+                + "    <!-- @mbg.generated -->\n"
+                + "    select 1\n"
+                + "  </select>\n"
+                + "  <select id=\"ibatorgenerated_old\">select 0</select>\n"
+                + "  <sql id=\"user\"><![CDATA[ a < b ]]></sql>\n"
+                + "  <sql id=\"empty\"></sql>\n"
+                + "</mapper>\n";
+
+        String mergedSource = XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newFile)),
+                new InputSource(new StringReader(existingFile)), "TestMapper.xml");
+
+        String expected = header
+                + "<mapper namespace=\"new\">\n"
+                + "  <select id=\"generated\">\n"
+                + "    <!-- @mbg.generated -->\n"
+                + "    select 2\n"
+                + "  </select>\n"
+                + "  <sql id=\"user\"><![CDATA[ a < b ]]></sql>\n"
+                + "  <sql id=\"empty\" />\n"
+                + "</mapper>";
+        assertEquals(expected.replace("\n", System.getProperty("line.separator")), mergedSource);
+    }
+
     private XmlElement getSqlMapElement(CommentGenerator commentGenerator) {
 
         XmlElement answer = new XmlElement("mapper");
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.JavaCodeGenerationTest;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.PropertyRegistry;
+
+public class IntrospectionCacheTest {
+
+    @Test
+    public void testCacheMatchesIntrospection() throws Exception {
+        File cacheFile = File.createTempFile("mbg", ".cache");
+        cacheFile.delete();
+        try {
+            List<String> warnings = new ArrayList<String>();
+            Map<String, String> files = generate(warnings);
+
+            List<String> cachingWarnings = new ArrayList<String>();
+            Map<String, String> cachingFiles = generate(cachingWarnings,
+                    PropertyRegistry.CONTEXT_INTROSPECTION_CACHE, cacheFile.getPath());
+            assertTrue(cacheFile.isFile());
+
+            List<String> cachedWarnings = new ArrayList<String>();
+            Map<String, String> cachedFiles = generate(cachedWarnings,
+                    PropertyRegistry.CONTEXT_INTROSPECTION_CACHE, cacheFile.getPath());
+
+            List<String> offlineWarnings = new ArrayList<String>();
+            Map<String, String> offlineFiles = generate(offlineWarnings,
+                    PropertyRegistry.CONTEXT_INTROSPECTION_CACHE, cacheFile.getPath(),
+                    PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_OFFLINE, "true");
+
+            assertFalse(files.isEmpty());
+            assertEquals(files, cachingFiles);
+            assertEquals(files, cachedFiles);
+            assertEquals(files, offlineFiles);
+            assertEquals(warnings, cachingWarnings);
+            assertEquals(warnings, cachedWarnings);
+            assertEquals(warnings, offlineWarnings);
+        } finally {
+            cacheFile.delete();
+        }
+    }
+
+    @Test
+    public void testCacheFileDoesNotContainTheConnectionUrl() throws Exception {
+        File cacheFile = File.createTempFile("mbg", ".cache");
+        cacheFile.delete();
+        try {
+            generate(new ArrayList<String>(), PropertyRegistry.CONTEXT_INTROSPECTION_CACHE, cacheFile.getPath());
+
+            String content = new String(Files.readAllBytes(cacheFile.toPath()), "ISO-8859-1");
+            assertTrue(content.contains("PKFIELDS"));
+            assertFalse(content.contains("jdbc:hsqldb"));
+            assertFalse(content.contains("aname"));
+        } finally {
+            cacheFile.delete();
+        }
+    }
+
+    @Test
+    public void testFingerprintCoversPrimaryKeysAndRemarks() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute("create table FingerprintTest (id int not null, name varchar(20))");
+            String created = readFingerprint(connection);
+
+            statement.execute("alter table FingerprintTest add primary key (id)");
+            String keyed = readFingerprint(connection);
+            assertFalse(created.equals(keyed));
+
+            statement.execute("comment on table FingerprintTest is 'table remarks'");
+            String tableRemarks = readFingerprint(connection);
+            assertFalse(keyed.equals(tableRemarks));
+
+            statement.execute("comment on column FingerprintTest.name is 'column remarks'");
+            String columnRemarks = readFingerprint(connection);
+            assertFalse(tableRemarks.equals(columnRemarks));
+
+            assertEquals(columnRemarks, readFingerprint(connection));
+        } finally {
+            statement.execute("drop table FingerprintTest if exists");
+            statement.close();
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testSchemaIsRequiredForAFingerprint() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+        try {
+            assertNull(SchemaFingerprint.read(connection.getMetaData(), null, null));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private String readFingerprint(Connection connection) throws Exception {
+        Map<String, String> fingerprints = SchemaFingerprint.read(connection.getMetaData(), null, "PUBLIC");
+        assertNotNull(fingerprints);
+        String answer = fingerprints.get("FINGERPRINTTEST");
+        assertNotNull(answer);
+        return answer;
+    }
+
+    private Map<String, String> generate(List<String> warnings, String... properties) throws Exception {
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5", "miscellaneousTests");
+        // only tables in a known schema can be fingerprinted
+        GeneratorTestSupport.setSchema(config, "PUBLIC");
+        for (int i = 0; i < properties.length; i += 2) {
+            GeneratorTestSupport.addContextProperty(config, properties[i], properties[i + 1]);
+        }
+        return GeneratorTestSupport.getGeneratedContents(GeneratorTestSupport.generate(config, warnings));
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaTypeResolverConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.types.JavaTypeResolverDefaultImpl;
+
+public class ParallelDatabaseIntrospectorTest {
+
+    @Test
+    public void testParallelIntrospectionMatchesSerialIntrospection() throws Exception {
+        List<String> serialWarnings = new ArrayList<String>();
+        Map<String, String> serialFiles = GeneratorTestSupport.generateContents(serialWarnings);
+
+        List<String> parallelWarnings = new ArrayList<String>();
+        Map<String, String> parallelFiles = GeneratorTestSupport.generateContents(parallelWarnings,
+                PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, "4");
+
+        assertFalse(serialFiles.isEmpty());
+        assertEquals(serialFiles, parallelFiles);
+        assertEquals(serialWarnings, parallelWarnings);
+    }
+
+    @Test
+    public void testWarningsOfTheTypeResolverAreKept() throws Exception {
+        List<String> serialWarnings = generateWithWarningTypeResolver("1");
+        List<String> parallelWarnings = generateWithWarningTypeResolver("4");
+
+        assertEquals(1, Collections.frequency(serialWarnings, WarningJavaTypeResolver.WARNING));
+        assertEquals(serialWarnings, parallelWarnings);
+    }
+
+    private List<String> generateWithWarningTypeResolver(String threads) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings, "FlatJava5");
+        Context context = config.getContexts().get(0);
+        context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, threads);
+        JavaTypeResolverConfiguration javaTypeResolverConfiguration = new JavaTypeResolverConfiguration();
+        javaTypeResolverConfiguration.setConfigurationType(WarningJavaTypeResolver.class.getName());
+        context.setJavaTypeResolverConfiguration(javaTypeResolverConfiguration);
+        GeneratorTestSupport.generate(config, warnings);
+        return warnings;
+    }
+
+    public static class WarningJavaTypeResolver extends JavaTypeResolverDefaultImpl {
+        static final String WARNING = "type resolver created";
+
+        @Override
+        public void setWarnings(List<String> warnings) {
+            super.setWarnings(warnings);
+            warnings.add(WARNING);
+        }
+    }
+}
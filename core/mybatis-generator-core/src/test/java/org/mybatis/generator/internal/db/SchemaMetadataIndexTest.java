@@ -0,0 +1,169 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.db.SchemaMetadataIndex.SchemaMetadata;
+
+public class SchemaMetadataIndexTest {
+
+    @Test
+    public void testBulkIntrospectionMatchesPerTableIntrospection() throws Exception {
+        RecordingConnectionFactory perTableFactory = new RecordingConnectionFactory();
+        List<String> perTableWarnings = new ArrayList<String>();
+        Map<String, String> perTableFiles = generate(perTableFactory, "PUBLIC", false, perTableWarnings);
+
+        RecordingConnectionFactory bulkFactory = new RecordingConnectionFactory();
+        List<String> bulkWarnings = new ArrayList<String>();
+        Map<String, String> bulkFiles = generate(bulkFactory, "PUBLIC", true, bulkWarnings);
+
+        assertFalse(perTableFiles.isEmpty());
+        assertEquals(perTableFiles, bulkFiles);
+        assertEquals(perTableWarnings, bulkWarnings);
+
+        assertFalse(perTableFactory.calls.contains("getColumns(PUBLIC, %)"));
+        assertTrue(bulkFactory.calls.contains("getColumns(PUBLIC, %)"));
+        assertTrue(bulkFactory.calls.contains("getPrimaryKeys(PUBLIC, null)"));
+        assertFalse(bulkFactory.calls.contains("getPrimaryKeys(PUBLIC, PKFIELDS)"));
+    }
+
+    @Test
+    public void testTablesWithoutSchemaAreNotReadInBulk() throws Exception {
+        RecordingConnectionFactory factory = new RecordingConnectionFactory();
+        generate(factory, null, true, new ArrayList<String>());
+
+        assertFalse(factory.calls.contains("getColumns(null, %)"));
+        assertTrue(factory.calls.contains("getColumns(null, PKFIELDS)"));
+    }
+
+    @Test
+    public void testSchemaMetadataMatchesTableNamesLikeTheDatabase() throws Exception {
+        Connection connection = new RecordingConnectionFactory().getConnection();
+        try {
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            SchemaMetadata schemaMetadata = new SchemaMetadataIndex().getSchemaMetadata(
+                    databaseMetaData, null, "PUBLIC");
+            String escape = databaseMetaData.getSearchStringEscape();
+
+            assertEquals(2, schemaMetadata.getColumns("PKONLY", escape).size());
+            assertTrue(schemaMetadata.getColumns("PkOnly", escape).isEmpty());
+
+            assertTrue(schemaMetadata.hasPrimaryKeys());
+            ActualTableName atn = new ActualTableName("PUBLIC", "PUBLIC", "PKFIELDS");
+            assertEquals(Arrays.asList("ID2", "ID1"), schemaMetadata.getPrimaryKeyColumns(atn));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private Map<String, String> generate(ConnectionFactory connectionFactory, String schema,
+            boolean bulk, List<String> warnings) throws Exception {
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings,
+                "FlatJava5", "HierarchicalJava5", "miscellaneousTests");
+        for (Context context : config.getContexts()) {
+            context.setConnectionFactory(connectionFactory);
+            context.addProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, Boolean.toString(bulk));
+            for (TableConfiguration tc : context.getTableConfigurations()) {
+                tc.setSchema(schema);
+            }
+        }
+        return GeneratorTestSupport.getGeneratedContents(GeneratorTestSupport.generate(config, warnings));
+    }
+
+    /**
+     * Records the metadata calls. HSQLDB does not return the primary keys of a whole schema, so they are read from
+     * the view that backs getPrimaryKeys.
+     */
+    private static class RecordingConnectionFactory implements ConnectionFactory {
+        private List<String> calls = new ArrayList<String>();
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+            final DatabaseMetaData databaseMetaData = (DatabaseMetaData) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[] { DatabaseMetaData.class },
+                    new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if ("getColumns".equals(method.getName())) {
+                                record("getColumns(" + args[1] + ", " + args[2] + ")");
+                            } else if ("getPrimaryKeys".equals(method.getName())) {
+                                record("getPrimaryKeys(" + args[1] + ", " + args[2] + ")");
+                                if (args[2] == null) {
+                                    PreparedStatement ps = connection.prepareStatement(
+                                            "select * from INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS where TABLE_SCHEM = ?");
+                                    ps.setString(1, (String) args[1]);
+                                    return ps.executeQuery();
+                                }
+                            }
+                            return invokeTarget(connection.getMetaData(), method, args);
+                        }
+                    });
+
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if ("getMetaData".equals(method.getName())) {
+                                return databaseMetaData;
+                            }
+                            return invokeTarget(connection, method, args);
+                        }
+                    });
+        }
+
+        private synchronized void record(String call) {
+            calls.add(call);
+        }
+
+        @Override
+        public void addConfigurationProperties(Properties properties) {
+        }
+
+        private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
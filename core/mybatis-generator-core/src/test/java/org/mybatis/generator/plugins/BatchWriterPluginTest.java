@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PluginConfiguration;
+
+import com.github.javaparser.JavaParser;
+
+public class BatchWriterPluginTest {
+
+    @Test
+    public void testBatchWriterPluginGeneratesWriters() throws Exception {
+        String writer = generateWriter();
+        assertTrue(writer.contains("this(sqlSessionFactory, 500);"));
+        assertTrue(writer.contains("sqlSessionFactory.openSession(ExecutorType.BATCH)"));
+        assertTrue(writer.contains("mapper.insert(record);"));
+        assertTrue(writer.contains("mapper.updateByPrimaryKey(record);"));
+        assertTrue(writer.contains("mapper.deleteByPrimaryKey(record.getId2(), record.getId1());"));
+        assertTrue(writer.contains("if (++pending == flushRows) {"));
+    }
+
+    @Test
+    public void testConstructorRejectsInvalidFlushRows() throws Exception {
+        String writer = generateWriter();
+        int constructor = writer.indexOf("int flushRows) {");
+        int check = writer.indexOf("if (flushRows <= 0) {");
+        assertTrue(constructor != -1 && check > constructor);
+        assertTrue(check < writer.indexOf("this.flushRows = flushRows;"));
+        assertTrue(writer.contains("throw new IllegalArgumentException(\"flushRows must be greater than 0\");"));
+    }
+
+    @Test
+    public void testUnknownUpdateCountsAreReported() throws Exception {
+        String writer = generateWriter();
+        assertTrue(writer.contains("rows = flush(sqlSession, rows);"));
+        assertTrue(writer.contains("if (answer < 0 || updateCount < 0) {"));
+        assertTrue(writer.contains("answer = -1;"));
+        assertFalse(writer.contains("if (updateCount > 0) {"));
+    }
+
+    private static String generateWriter() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        for (Context context : config.getContexts()) {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType("org.mybatis.generator.plugins.BatchWriterPlugin");
+            pluginConfiguration.addProperty("flushRows", "500");
+            context.addPluginConfiguration(pluginConfiguration);
+        }
+        MyBatisGenerator myBatisGenerator = GeneratorTestSupport.generate(config, warnings);
+
+        String writer = null;
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            if (gjf.getFileName().endsWith("BatchWriter.java")) {
+                JavaParser.parse(gjf.getFormattedContent());
+                if ("mbg.test.mb3.generated.flat.mapper".equals(gjf.getTargetPackage())
+                        && "PkfieldsBatchWriter.java".equals(gjf.getFileName())) {
+                    writer = gjf.getFormattedContent();
+                }
+            }
+        }
+        assertNotNull(writer);
+        return writer;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2006-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorTestSupport;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PluginConfiguration;
+
+import com.github.javaparser.JavaParser;
+
+public class StreamingSelectPluginTest {
+
+    @Test
+    public void testStreamingSelectPluginAddsCursorMethods() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        Configuration config = GeneratorTestSupport.createConfiguration(warnings);
+        for (Context context : config.getContexts()) {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType("org.mybatis.generator.plugins.StreamingSelectPlugin");
+            pluginConfiguration.addProperty("fetchSize", "-2147483648");
+            context.addPluginConfiguration(pluginConfiguration);
+        }
+        MyBatisGenerator myBatisGenerator = GeneratorTestSupport.generate(config, warnings);
+
+        Map<String, String> mappers = new TreeMap<String, String>();
+        for (GeneratedJavaFile gjf : myBatisGenerator.getGeneratedJavaFiles()) {
+            JavaParser.parse(gjf.getFormattedContent());
+            if ("PkfieldsMapper.java".equals(gjf.getFileName())) {
+                mappers.put(gjf.getTargetPackage(), gjf.getFormattedContent());
+            }
+        }
+
+        String mapper = mappers.get("mbg.test.mb3.generated.flat.mapper");
+        assertTrue(mapper.contains("Cursor<Pkfields> selectByExampleStreaming(PkfieldsExample example);"));
+        assertTrue(mapper.contains(
+                "void selectByExampleStreaming(PkfieldsExample example, ResultHandler<Pkfields> resultHandler);"));
+        assertTrue(mapper.contains("Cursor<Pkfields> selectListByWhereStreaming(Pkfields record);"));
+
+        mapper = mappers.get("mbg.test.mb3.generated.annotated.flat.mapper");
+        assertTrue(mapper.contains("@Options(fetchSize=-2147483648, resultSetType=ResultSetType.FORWARD_ONLY)"));
+        assertTrue(mapper.contains("Cursor<Pkfields> selectByExampleStreaming(PkfieldsExample example);"));
+
+        mapper = mappers.get("mbg.test.mb3.generated.simple.mapper");
+        assertTrue(mapper.contains("Cursor<Pkfields> selectAllStreaming();"));
+        assertTrue(mapper.contains("void selectAllStreaming(ResultHandler<Pkfields> resultHandler);"));
+
+        boolean found = false;
+        for (GeneratedXmlFile gxf : myBatisGenerator.getGeneratedXmlFiles()) {
+            String content = gxf.getFormattedContent();
+            if ("mbg.test.mb3.generated.flat.xml".equals(gxf.getTargetPackage())
+                    && "PkfieldsMapper.xml".equals(gxf.getFileName())) {
+                assertTrue(content.contains("fetchSize=\"-2147483648\" id=\"selectByExampleStreaming\""));
+                assertTrue(content.contains("id=\"selectListByWhereStreaming\""));
+                assertTrue(content.contains("resultSetType=\"FORWARD_ONLY\""));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+}
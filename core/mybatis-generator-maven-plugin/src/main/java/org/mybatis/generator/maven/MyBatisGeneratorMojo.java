@@ -15,30 +15,40 @@
  */
 package org.mybatis.generator.maven;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.regex.Pattern;
 
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.MyBatisGenerator;
 import org.mybatis.generator.api.ShellCallback;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.GeneratorDaemonClient;
+import org.mybatis.generator.internal.GeneratorSession;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.util.ClassloaderUtility;
 import org.mybatis.generator.internal.util.StringUtility;
@@ -52,6 +62,10 @@ import org.mybatis.generator.logging.LogFactory;
         requiresDependencyResolution = ResolutionScope.TEST)
 public class MyBatisGeneratorMojo extends AbstractMojo {
 
+    /** Matches the target project that only the MavenShellCallback can resolve. */
+    private static final Pattern MAVEN_TARGET_PROJECT =
+            Pattern.compile("targetProject\\s*=\\s*[\"']MAVEN[\"']"); //$NON-NLS-1$
+
     private ThreadLocal<ClassLoader> savedClassloader = new ThreadLocal<ClassLoader>();
 
     /**
@@ -61,6 +75,12 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
     @Parameter(property = "project", required = true, readonly = true)
     private MavenProject project;
 
+    /**
+     * The execution of this mojo.
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
     /**
      * Output Directory.
      */
@@ -89,6 +109,38 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
     @Parameter(property = "mybatis.generator.overwrite", defaultValue = "false")
     private boolean overwrite;
 
+    /**
+     * The number of threads used to save the generated files. Default is 1.
+     */
+    @Parameter(property = "mybatis.generator.writeThreads", defaultValue = "1")
+    private int writeThreads;
+
+    /**
+     * If true, files whose content has not changed will not be written again.
+     */
+    @Parameter(property = "mybatis.generator.skipUnchanged", defaultValue = "false")
+    private boolean skipUnchanged;
+
+    /**
+     * Location of the manifest used for incremental generation. If not specified, every table is generated.
+     */
+    @Parameter(property = "mybatis.generator.incrementalManifest")
+    private File incrementalManifest;
+
+    /**
+     * Location of a JSON report of the time and the allocated memory of each phase of the run. If not specified,
+     * nothing is measured.
+     */
+    @Parameter(property = "mybatis.generator.metricsReport")
+    private File metricsReport;
+
+    /**
+     * Location of the file written by a running generator daemon. If specified, and the daemon can be reached,
+     * the generator runs in the daemon rather than in the Maven process.
+     */
+    @Parameter(property = "mybatis.generator.daemonFile")
+    private File daemonFile;
+
     /**
      * Location of a SQL script file to run before generating code. If null,
      * then no script will be run. If not null, then jdbcDriver, jdbcURL must be
@@ -164,58 +216,83 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
 
         saveClassLoader();
 
-        LogFactory.setLogFactory(new MavenLogFactory(this));
-
-        calculateClassPath();
-
-        // add resource directories to the classpath.  This is required to support
-        // use of a properties file in the build.  Typically, the properties file
-        // is in the project's source tree, but the plugin classpath does not
-        // include the project classpath.
-        List<Resource> resources = project.getResources();
-        List<String> resourceDirectories = new ArrayList<String>();
-        for (Resource resource : resources) {
-            resourceDirectories.add(resource.getDirectory());
-        }
-        ClassLoader cl = ClassloaderUtility.getCustomClassloader(resourceDirectories);
-        ObjectFactory.addExternalClassLoader(cl);
-
-        if (configurationFile == null) {
-            throw new MojoExecutionException(
-                    Messages.getString("RuntimeError.0")); //$NON-NLS-1$
-        }
+        // the class loaders added by this execution are released when it ends
+        GeneratorSession session = GeneratorSession.begin();
+        try {
+            LogFactory.setLogFactory(new MavenLogFactory(this));
+
+            calculateClassPath();
+
+            // add resource directories to the classpath.  This is required to support
+            // use of a properties file in the build.  Typically, the properties file
+            // is in the project's source tree, but the plugin classpath does not
+            // include the project classpath.
+            List<Resource> resources = project.getResources();
+            List<String> resourceDirectories = new ArrayList<String>();
+            for (Resource resource : resources) {
+                resourceDirectories.add(resource.getDirectory());
+            }
+            ClassLoader cl = ClassloaderUtility.getCustomClassloader(resourceDirectories);
+            ObjectFactory.addExternalClassLoader(cl);
 
-        List<String> warnings = new ArrayList<String>();
+            if (configurationFile == null) {
+                throw new MojoExecutionException(
+                        Messages.getString("RuntimeError.0")); //$NON-NLS-1$
+            }
 
-        if (!configurationFile.exists()) {
-            throw new MojoExecutionException(Messages.getString(
-                    "RuntimeError.1", configurationFile.toString())); //$NON-NLS-1$
-        }
+            if (!configurationFile.exists()) {
+                throw new MojoExecutionException(Messages.getString(
+                        "RuntimeError.1", configurationFile.toString())); //$NON-NLS-1$
+            }
 
-        runScriptIfNecessary();
+            runScriptIfNecessary();
 
-        Set<String> fullyqualifiedTables = new HashSet<String>();
-        if (StringUtility.stringHasValue(tableNames)) {
-            StringTokenizer st = new StringTokenizer(tableNames, ","); //$NON-NLS-1$
-            while (st.hasMoreTokens()) {
-                String s = st.nextToken().trim();
-                if (s.length() > 0) {
-                    fullyqualifiedTables.add(s);
+            Set<String> fullyqualifiedTables = new HashSet<String>();
+            if (StringUtility.stringHasValue(tableNames)) {
+                StringTokenizer st = new StringTokenizer(tableNames, ","); //$NON-NLS-1$
+                while (st.hasMoreTokens()) {
+                    String s = st.nextToken().trim();
+                    if (s.length() > 0) {
+                        fullyqualifiedTables.add(s);
+                    }
                 }
             }
-        }
 
-        Set<String> contextsToRun = new HashSet<String>();
-        if (StringUtility.stringHasValue(contexts)) {
-            StringTokenizer st = new StringTokenizer(contexts, ","); //$NON-NLS-1$
-            while (st.hasMoreTokens()) {
-                String s = st.nextToken().trim();
-                if (s.length() > 0) {
-                    contextsToRun.add(s);
+            Set<String> contextsToRun = new HashSet<String>();
+            if (StringUtility.stringHasValue(contexts)) {
+                StringTokenizer st = new StringTokenizer(contexts, ","); //$NON-NLS-1$
+                while (st.hasMoreTokens()) {
+                    String s = st.nextToken().trim();
+                    if (s.length() > 0) {
+                        contextsToRun.add(s);
+                    }
                 }
             }
+
+            if (daemonFile == null || !runInDaemon()) {
+                runInProcess(contextsToRun, fullyqualifiedTables);
+            }
+
+            if (project != null && outputDirectory != null
+                    && outputDirectory.exists()) {
+                project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
+
+                Resource resource = new Resource();
+                resource.setDirectory(outputDirectory.getAbsolutePath());
+                resource.addInclude("**/*.xml");
+                project.addResource(resource);
+            }
+        } finally {
+            session.end();
         }
 
+        restoreClassLoader();
+    }
+
+    private void runInProcess(Set<String> contextsToRun, Set<String> fullyqualifiedTables)
+            throws MojoExecutionException {
+        List<String> warnings = new ArrayList<String>();
+
         try {
             ConfigurationParser cp = new ConfigurationParser(
                     project.getProperties(), warnings);
@@ -224,9 +301,23 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
             ShellCallback callback = new MavenShellCallback(this, overwrite);
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, callback, warnings);
+            myBatisGenerator.setWriteThreads(writeThreads);
+            myBatisGenerator.setSkipUnchangedFiles(skipUnchanged);
+            myBatisGenerator.setIncrementalManifest(incrementalManifest);
+            if (metricsReport != null) {
+                myBatisGenerator.setMetrics(new GenerationMetrics());
+            }
 
             myBatisGenerator.generate(new MavenProgressCallback(getLog(), verbose), contextsToRun, fullyqualifiedTables);
 
+            if (metricsReport != null) {
+                try {
+                    myBatisGenerator.getMetrics().writeJson(metricsReport);
+                } catch (IOException e) {
+                    warnings.add(Messages.getString("Warning.35", e.getMessage())); //$NON-NLS-1$
+                }
+            }
+
         } catch (XMLParserException e) {
             for (String error : e.getErrors()) {
                 getLog().error(error);
@@ -250,18 +341,125 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
         for (String error : warnings) {
             getLog().warn(error);
         }
+    }
 
-        if (project != null && outputDirectory != null
-                && outputDirectory.exists()) {
-            project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
+    /**
+     * Sends the job to the generator daemon.
+     *
+     * @return true if the daemon ran the job, false if the job must run in this process
+     * @throws MojoExecutionException
+     *             if the daemon ran the job and the job failed
+     */
+    private boolean runInDaemon() throws MojoExecutionException {
+        String restriction = getDaemonRestriction();
+        if (restriction != null) {
+            getLog().warn(restriction);
+            return false;
+        }
 
-            Resource resource = new Resource();
-            resource.setDirectory(outputDirectory.getAbsolutePath());
-            resource.addInclude("**/*.xml");
-            project.addResource(resource);
+        List<String> args = new ArrayList<String>();
+        args.add("-configfile"); //$NON-NLS-1$
+        args.add(configurationFile.getAbsolutePath());
+        if (overwrite) {
+            args.add("-overwrite"); //$NON-NLS-1$
+        }
+        if (verbose) {
+            args.add("-verbose"); //$NON-NLS-1$
+        }
+        if (StringUtility.stringHasValue(contexts)) {
+            args.add("-contextids"); //$NON-NLS-1$
+            args.add(contexts);
+        }
+        if (StringUtility.stringHasValue(tableNames)) {
+            args.add("-tables"); //$NON-NLS-1$
+            args.add(tableNames);
+        }
+        args.add("-writeThreads"); //$NON-NLS-1$
+        args.add(Integer.toString(writeThreads));
+        if (skipUnchanged) {
+            args.add("-skipUnchanged"); //$NON-NLS-1$
+        }
+        if (incrementalManifest != null) {
+            args.add("-incrementalManifest"); //$NON-NLS-1$
+            args.add(incrementalManifest.getAbsolutePath());
+        }
+        if (metricsReport != null) {
+            args.add("-metricsReport"); //$NON-NLS-1$
+            args.add(metricsReport.getAbsolutePath());
         }
 
-        restoreClassLoader();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int status;
+        String[] lines;
+        try {
+            status = GeneratorDaemonClient.submit(daemonFile, args, project.getBasedir(),
+                    new PrintStream(out, true, GeneratorDaemonClient.ENCODING));
+            lines = out.toString(GeneratorDaemonClient.ENCODING).split("\\r?\\n"); //$NON-NLS-1$
+        } catch (IOException e) {
+            getLog().warn(Messages.getString("Warning.34", e.getMessage())); //$NON-NLS-1$
+            return false;
+        }
+
+        if (status == GeneratorDaemonClient.NOT_RUNNING) {
+            getLog().warn(Messages.getString("Warning.34", daemonFile.getAbsolutePath())); //$NON-NLS-1$
+            return false;
+        }
+
+        if (status != GeneratorDaemonClient.STATUS_OK) {
+            for (String line : lines) {
+                getLog().error(line);
+            }
+            throw new MojoExecutionException(Messages.getString("RuntimeError.30")); //$NON-NLS-1$
+        }
+
+        for (String line : lines) {
+            getLog().info(line);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the reason why the daemon cannot run the job, or null if it can. The daemon has neither the properties
+     * nor the classpath of this build, and it cannot resolve the MAVEN target project.
+     */
+    private String getDaemonRestriction() throws MojoExecutionException {
+        if (includeCompileDependencies || includeAllDependencies
+                || (mojoExecution != null && mojoExecution.getPlugin() != null
+                        && !mojoExecution.getPlugin().getDependencies().isEmpty())) {
+            return Messages.getString("Warning.38"); //$NON-NLS-1$
+        }
+
+        String configuration = readConfigurationFile();
+        if (configuration.contains("${") || configuration.contains("<properties")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return Messages.getString("Warning.36"); //$NON-NLS-1$
+        }
+
+        if (MAVEN_TARGET_PROJECT.matcher(configuration).find()) {
+            return Messages.getString("Warning.37"); //$NON-NLS-1$
+        }
+
+        return null;
+    }
+
+    private String readConfigurationFile() throws MojoExecutionException {
+        StringBuilder sb = new StringBuilder();
+        try {
+            Reader reader = new InputStreamReader(new FileInputStream(configurationFile), "UTF-8"); //$NON-NLS-1$
+            try {
+                char[] buffer = new char[4096];
+                int count;
+                while ((count = reader.read(buffer)) != -1) {
+                    sb.append(buffer, 0, count);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+
+        return sb.toString();
     }
 
     private void calculateClassPath() throws MojoExecutionException {